@@ -0,0 +1,83 @@
+package com.example.accountcreation.analytics;
+
+import com.example.accountcreation.model.AccountStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counting a decision into the current minute, as done after every rule evaluation, from one
+ * thread and from four threads at once, over a realistic spread of reasons, zip3s and ages.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DecisionRollupsBenchmark {
+
+    private static final int SAMPLES = 4096;
+    private static final String[] REASONS = {
+        "Standard approval criteria met", "Young adult application requires manual review",
+        "Premium zip code area", "High-risk zip code", "Senior citizen auto-approval",
+        "Invalid phone number pattern"
+    };
+    private static final AccountStatus[] STATUSES = {
+        AccountStatus.AUTO_APPROVED, AccountStatus.MANUAL_REVIEW, AccountStatus.AUTO_APPROVED,
+        AccountStatus.AUTO_REJECTED, AccountStatus.AUTO_APPROVED, AccountStatus.AUTO_REJECTED
+    };
+
+    @State(Scope.Benchmark)
+    public static class Rollups {
+        DecisionRollups rollups;
+        int[] reasons = new int[SAMPLES];
+        String[] zipCodes = new String[SAMPLES];
+        Integer[] ages = new Integer[SAMPLES];
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            rollups = new DecisionRollups(7_200_000L, 172_800_000L, 31_622_400_000L, 16384);
+            SplittableRandom random = new SplittableRandom(42);
+            for (int i = 0; i < SAMPLES; i++) {
+                reasons[i] = random.nextInt(REASONS.length);
+                zipCodes[i] = String.format("%05d", random.nextInt(100_000));
+                ages[i] = 18 + random.nextInt(70);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Benchmark
+    public void record(Rollups rollups, Cursor cursor) {
+        recordNext(rollups, cursor);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void recordContended(Rollups rollups, Cursor cursor) {
+        recordNext(rollups, cursor);
+    }
+
+    private static void recordNext(Rollups rollups, Cursor cursor) {
+        int i = cursor.next++ & (SAMPLES - 1);
+        int reason = rollups.reasons[i];
+        rollups.rollups.record(REASONS[reason], rollups.zipCodes[i], rollups.ages[i], STATUSES[reason],
+                               System.currentTimeMillis());
+    }
+}
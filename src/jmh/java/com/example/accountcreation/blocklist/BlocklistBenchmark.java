@@ -0,0 +1,120 @@
+package com.example.accountcreation.blocklist;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Blocklist lookups as done by the {@code inBlocklist} cells: phones against a heap or a mapped
+ * list of a million numbers, mostly misses as in production, and zip+4 codes against a range table.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlocklistBenchmark {
+
+    private static final int LISTED = 1_000_000;
+    private static final int PROBES = 4096;
+
+    @State(Scope.Benchmark)
+    public static class Lists {
+        @Param({"false", "true"})
+        boolean mapped;
+
+        Path directory;
+        Blocklist phones;
+        Blocklist zipCodes;
+        String[] listedPhones;
+        String[] otherPhones;
+        String[] zipPlus4s;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            SplittableRandom random = new SplittableRandom(42);
+            directory = Files.createTempDirectory("blocklist-benchmark");
+            long[] keys = new long[LISTED];
+            listedPhones = new String[PROBES];
+            otherPhones = new String[PROBES];
+            for (int i = 0; i < LISTED; i++) {
+                String phone = String.valueOf(2_000_000_000L + random.nextLong(7_000_000_000L));
+                keys[i] = PhoneBlocklist.key(phone);
+                if (i < PROBES) {
+                    listedPhones[i] = phone;
+                }
+            }
+            for (int i = 0; i < PROBES; i++) {
+                otherPhones[i] = String.valueOf(1_000_000_000L + random.nextLong(1_000_000_000L));
+            }
+            PhoneBlocklist heap = new PhoneBlocklist(SortedLongSet.of(keys, keys.length));
+            if (mapped) {
+                Path file = directory.resolve("phones.bin");
+                heap.keys().write(file);
+                phones = PhoneBlocklist.read(file);
+            } else {
+                phones = heap;
+            }
+
+            StringBuilder ranges = new StringBuilder();
+            zipPlus4s = new String[PROBES];
+            for (int i = 0; i < 5000; i++) {
+                int zip = random.nextInt(100_000);
+                int from = random.nextInt(9_000);
+                ranges.append(String.format("%05d-%04d..%05d-%04d%n", zip, from, zip, from + random.nextInt(1_000)));
+            }
+            for (int i = 0; i < PROBES; i++) {
+                zipPlus4s[i] = String.format("%05d-%04d", random.nextInt(100_000), random.nextInt(10_000));
+            }
+            Path zipFile = directory.resolve("zips.txt");
+            Files.writeString(zipFile, ranges);
+            zipCodes = ZipCodeBlocklist.read(zipFile);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            try (var files = Files.list(directory)) {
+                for (Path file : files.toList()) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(directory);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Benchmark
+    public boolean phoneMiss(Lists lists, Cursor cursor) {
+        return lists.phones.contains(lists.otherPhones[cursor.next++ & (PROBES - 1)]);
+    }
+
+    @Benchmark
+    public boolean phoneHit(Lists lists, Cursor cursor) {
+        return lists.phones.contains(lists.listedPhones[cursor.next++ & (PROBES - 1)]);
+    }
+
+    @Benchmark
+    public boolean zipPlus4(Lists lists, Cursor cursor) {
+        return lists.zipCodes.contains(lists.zipPlus4s[cursor.next++ & (PROBES - 1)]);
+    }
+}
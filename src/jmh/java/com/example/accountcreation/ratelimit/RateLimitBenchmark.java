@@ -0,0 +1,94 @@
+package com.example.accountcreation.ratelimit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of admitting a request: a bucket lookup and take across many clients, and the whole filter
+ * including the response headers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimitBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Table {
+        @Param({"1000", "100000"})
+        int clients;
+
+        TokenBucketTable table;
+        String[] ids;
+
+        @Setup
+        public void setUp() {
+            // High enough that every request is admitted, which is the path worth measuring
+            table = new TokenBucketTable(1_000_000_000, 1_000_000, 300_000, clients);
+            ids = new String[clients];
+            for (int i = 0; i < clients; i++) {
+                ids[i] = "client-" + i;
+                table.tryAcquire(ids[i], System.nanoTime());
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @State(Scope.Thread)
+    public static class Filter {
+        RateLimitFilter filter;
+        MockHttpServletRequest request;
+        MockHttpServletResponse response;
+
+        @Setup
+        public void setUp() {
+            filter = new RateLimitFilter();
+            ReflectionTestUtils.setField(filter, "readRate", 1_000_000_000d);
+            ReflectionTestUtils.setField(filter, "readBurst", 1_000_000);
+            filter.start();
+            request = new MockHttpServletRequest("GET", "/api/accounts/42");
+            request.addHeader("X-API-Key", "partner");
+            response = new MockHttpServletResponse();
+        }
+
+        @TearDown
+        public void tearDown() {
+            filter.shutdown();
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long tryAcquire(Table table, Cursor cursor) {
+        String client = table.ids[cursor.next++ % table.ids.length];
+        return table.table.tryAcquire(client, System.nanoTime());
+    }
+
+    @Benchmark
+    public int filter(Filter state) throws Exception {
+        state.filter.doFilter(state.request, state.response, new MockFilterChain());
+        return state.response.getStatus();
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.accountcreation.service;
+
+import com.example.accountcreation.AccountCreationSystemApplication;
+import com.example.accountcreation.dto.AccountRequestDto;
+import com.example.accountcreation.dto.AccountResponseDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full createAccountRequest -> executeAccountCreationProcess flow against in-memory H2.
+ * The process runs on the calling thread so each operation covers every insert, lookup and update.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccountCreationPipelineBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private SimplifiedAccountCreationService service;
+    private AccountRequestDto[] requests;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(AccountCreationSystemApplication.class)
+            .web(WebApplicationType.NONE)
+            // Command line arguments so they take precedence over application.yml
+            .run(
+                "--spring.main.banner-mode=off",
+                "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                "--gorules.reload-interval-ms=0",
+                "--accounts.process.executor.mode=direct",
+                "--accounts.process.queue.enabled=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.example.accountcreation=WARN");
+        service = context.getBean(SimplifiedAccountCreationService.class);
+        requests = BenchmarkRequests.mixedRequestDtos();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public AccountResponseDto createAndProcess() {
+        AccountRequestDto request = requests[next];
+        next = (next + 1) & (BenchmarkRequests.MIX_SIZE - 1);
+        return service.createAccountRequest(request);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.accountcreation.service;
+
+import com.example.accountcreation.dto.AccountResponseDto;
+import com.example.accountcreation.model.AccountRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping and JSON serialization of response lists, as done by the list endpoints.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountResponseBenchmark {
+
+    @State(Scope.Thread)
+    public static class Mapping {
+        SimplifiedAccountCreationService service;
+        AccountRequest request;
+
+        @Setup
+        public void setUp() {
+            service = new SimplifiedAccountCreationService();
+            request = BenchmarkRequests.persistedRequests(1).get(0);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Serialization {
+        @Param({"1", "100", "1000"})
+        int listSize;
+
+        ObjectMapper objectMapper;
+        List<AccountResponseDto> responses;
+
+        @Setup
+        public void setUp() {
+            // Same defaults Spring Boot applies to the MVC message converter
+            objectMapper = Jackson2ObjectMapperBuilder.json().build();
+            responses = BenchmarkRequests.responseDtos(new SimplifiedAccountCreationService(), listSize);
+        }
+    }
+
+    @Benchmark
+    public AccountResponseDto convertToResponseDto(Mapping state) {
+        return state.service.convertToResponseDto(state.request);
+    }
+
+    @Benchmark
+    public byte[] serializeResponseList(Serialization state) throws JsonProcessingException {
+        return state.objectMapper.writeValueAsBytes(state.responses);
+    }
+}
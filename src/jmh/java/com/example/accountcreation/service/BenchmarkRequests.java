@@ -0,0 +1,143 @@
+package com.example.accountcreation.service;
+
+import com.example.accountcreation.dto.AccountRequestDto;
+import com.example.accountcreation.dto.AccountResponseDto;
+import com.example.accountcreation.model.AccountRequest;
+import com.example.accountcreation.model.AccountStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic request fixtures shared by the benchmarks. The mixed population roughly
+ * follows production traffic: mostly clean applications with a tail that hits each rule.
+ */
+final class BenchmarkRequests {
+
+    static final int MIX_SIZE = 1024;
+
+    private static final String[] FIRST_NAMES = {"John", "Maria", "Wei", "Aisha", "Carlos", "Emma", "Noah", "Priya"};
+    private static final String[] LAST_NAMES = {"Smith", "Garcia", "Chen", "Khan", "Silva", "Johnson", "Brown", "Patel"};
+    private static final String[] HIGH_RISK_ZIPS = {"90210", "10001", "60601"};
+    private static final String[] PREMIUM_ZIPS = {"94102", "10021"};
+
+    private BenchmarkRequests() {}
+
+    /**
+     * One representative request per rule of the default decision table, keyed by rule id.
+     */
+    static AccountRequest forRule(String ruleId) {
+        switch (ruleId) {
+            case "minimum-age":
+                return new AccountRequest("John Smith", "12345", 16, "5551234567");
+            case "senior-citizen":
+                return new AccountRequest("John Smith", "12345", 70, "5551234567");
+            case "high-risk-zip":
+                return new AccountRequest("John Smith", "60601-1234", 40, "5551234567");
+            case "premium-zip":
+                return new AccountRequest("John Smith", "94102", 40, "5551234567");
+            case "repeated-digit-phone":
+                return new AccountRequest("John Smith", "12345", 40, "7777777777");
+            case "sequential-phone":
+                return new AccountRequest("John Smith", "12345", 40, "1234567890");
+            case "suspicious-name-term":
+                return new AccountRequest("Fake Applicant", "12345", 40, "5551234567");
+            case "suspicious-name-length":
+                return new AccountRequest("J", "12345", 40, "5551234567");
+            case "suspicious-name-no-letter":
+                return new AccountRequest("12 34", "12345", 40, "5551234567");
+            case "young-adult":
+                return new AccountRequest("John Smith", "12345", 22, "5551234567");
+            case "standard-approval":
+                return new AccountRequest("John Smith", "12345", 40, "5551234567");
+            default:
+                throw new IllegalArgumentException("Unknown rule: " + ruleId);
+        }
+    }
+
+    static AccountRequest[] mixedRequests() {
+        Random random = new Random(42);
+        AccountRequest[] requests = new AccountRequest[MIX_SIZE];
+        for (int i = 0; i < MIX_SIZE; i++) {
+            requests[i] = randomRequest(random);
+        }
+        return requests;
+    }
+
+    static AccountRequestDto[] mixedRequestDtos() {
+        AccountRequest[] requests = mixedRequests();
+        AccountRequestDto[] dtos = new AccountRequestDto[requests.length];
+        for (int i = 0; i < requests.length; i++) {
+            AccountRequest request = requests[i];
+            // Under-age applicants are rejected by bean validation before they reach the service
+            int age = Math.max(18, request.getAge());
+            dtos[i] = new AccountRequestDto(request.getName(), request.getZipCode(), age, request.getPhoneNumber());
+        }
+        return dtos;
+    }
+
+    static List<AccountRequest> persistedRequests(int count) {
+        Random random = new Random(7);
+        AccountStatus[] statuses = AccountStatus.values();
+        List<AccountRequest> requests = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            AccountRequest request = randomRequest(random);
+            request.setId((long) i + 1);
+            request.setStatus(statuses[random.nextInt(statuses.length)]);
+            request.setProcessInstanceId("simplified-process-" + (i + 1));
+            request.setCreatedAt(LocalDateTime.of(2024, 1, 1, 9, 0).plusSeconds(i));
+            if (request.getStatus() == AccountStatus.AUTO_REJECTED) {
+                request.setRejectionReason("High-risk zip code");
+            }
+            requests.add(request);
+        }
+        return requests;
+    }
+
+    static List<AccountResponseDto> responseDtos(SimplifiedAccountCreationService service, int count) {
+        List<AccountResponseDto> dtos = new ArrayList<>(count);
+        for (AccountRequest request : persistedRequests(count)) {
+            dtos.add(service.convertToResponseDto(request));
+        }
+        return dtos;
+    }
+
+    private static AccountRequest randomRequest(Random random) {
+        String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        int roll = random.nextInt(100);
+        if (roll < 3) {
+            name = "Test " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        } else if (roll < 4) {
+            name = "X";
+        }
+
+        String zipCode = String.format("%05d", 10000 + random.nextInt(89999));
+        roll = random.nextInt(100);
+        if (roll < 5) {
+            zipCode = HIGH_RISK_ZIPS[random.nextInt(HIGH_RISK_ZIPS.length)];
+        } else if (roll < 10) {
+            zipCode = PREMIUM_ZIPS[random.nextInt(PREMIUM_ZIPS.length)];
+        }
+        if (random.nextInt(100) < 20) {
+            zipCode = zipCode + "-" + String.format("%04d", random.nextInt(10000));
+        }
+
+        String phoneNumber = String.format("%03d%07d", 200 + random.nextInt(800), random.nextInt(10_000_000));
+        roll = random.nextInt(100);
+        if (roll < 2) {
+            phoneNumber = "1234567890";
+        } else if (roll < 4) {
+            char digit = (char) ('0' + random.nextInt(10));
+            phoneNumber = String.valueOf(digit).repeat(10);
+        }
+
+        int age = 18 + random.nextInt(60);
+        if (random.nextInt(100) < 3) {
+            age = 16 + random.nextInt(2);
+        }
+
+        return new AccountRequest(name, zipCode, age, phoneNumber);
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.accountcreation.service;
+
+import com.example.accountcreation.model.AccountRequest;
+import com.example.accountcreation.rules.RequestColumns;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rule evaluation cost, both over a realistic traffic mix and for each individual rule branch,
+ * and per row of a columnar batch (sequential below the fork/join threshold, parallel above it).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GoRulesServiceBenchmark {
+
+    @State(Scope.Thread)
+    public static class Mixed {
+        GoRulesService goRulesService;
+        AccountRequest[] requests;
+        int next;
+
+        @Setup
+        public void setUp() {
+            goRulesService = new GoRulesService();
+            requests = BenchmarkRequests.mixedRequests();
+        }
+
+        AccountRequest nextRequest() {
+            AccountRequest request = requests[next];
+            next = (next + 1) & (BenchmarkRequests.MIX_SIZE - 1);
+            return request;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Branch {
+        @Param({
+            "minimum-age", "senior-citizen", "high-risk-zip", "premium-zip",
+            "repeated-digit-phone", "sequential-phone", "suspicious-name-term",
+            "suspicious-name-length", "suspicious-name-no-letter", "young-adult", "standard-approval"
+        })
+        String rule;
+
+        GoRulesService goRulesService;
+        AccountRequest request;
+
+        @Setup
+        public void setUp() {
+            goRulesService = new GoRulesService();
+            request = BenchmarkRequests.forRule(rule);
+        }
+    }
+
+    static final int SMALL_BATCH = 4096;
+    static final int LARGE_BATCH = 1 << 20;
+
+    public abstract static class Columnar {
+        GoRulesService goRulesService;
+        RequestColumns columns;
+        byte[] decisions;
+        byte[] outcomes;
+
+        void fill(int rows) {
+            goRulesService = new GoRulesService();
+            AccountRequest[] requests = BenchmarkRequests.mixedRequests();
+            columns = new RequestColumns(rows);
+            for (int i = 0; i < rows; i++) {
+                columns.add(requests[i & (BenchmarkRequests.MIX_SIZE - 1)]);
+            }
+            decisions = new byte[rows];
+            outcomes = new byte[rows];
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class SmallBatch extends Columnar {
+        @Setup
+        public void setUp() {
+            fill(SMALL_BATCH);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class LargeBatch extends Columnar {
+        @Setup
+        public void setUp() {
+            fill(LARGE_BATCH);
+        }
+    }
+
+    @Benchmark
+    public GoRulesService.DecisionResponse evaluateMixed(Mixed state) {
+        return state.goRulesService.evaluateAccountRequest(state.nextRequest());
+    }
+
+    @Benchmark
+    public GoRulesService.DecisionResponse evaluateBranch(Branch state) {
+        return state.goRulesService.evaluateAccountRequest(state.request);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SMALL_BATCH)
+    public byte[] evaluateSmallBatch(SmallBatch state) {
+        state.goRulesService.evaluateBatch(state.columns, state.decisions, state.outcomes);
+        return state.decisions;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LARGE_BATCH)
+    public byte[] evaluateLargeBatch(LargeBatch state) {
+        state.goRulesService.evaluateBatch(state.columns, state.decisions, state.outcomes);
+        return state.decisions;
+    }
+}
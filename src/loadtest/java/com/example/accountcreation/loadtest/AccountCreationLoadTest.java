@@ -0,0 +1,56 @@
+package com.example.accountcreation.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.File;
+import java.net.URI;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * End-to-end throughput and time-to-decision test of one node, run by the {@code loadtest}
+ * profile against the application on a random port with in-memory H2. Fails the build when the
+ * p99, error rate or throughput misses its {@code loadtest.*} threshold.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "logging.level.com.example.accountcreation=INFO",
+    "accounts.journal.directory=target/journal-load-test",
+    "accounts.store.directory=target/account-store-load-test",
+    "accounts.archive.directory=target/archive-load-test",
+    "accounts.analytics.directory=target/analytics-load-test",
+    // All load comes from one client: keep the rate limit filter in the path but never binding
+    "accounts.rate-limit.create.rate-per-second=1000000",
+    "accounts.rate-limit.read.rate-per-second=1000000"
+})
+class AccountCreationLoadTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void sustainsArrivalRateWithinThresholds() throws Exception {
+        LoadGenerator.Settings settings = LoadGenerator.Settings.fromSystemProperties();
+        LoadGenerator.Report report = new LoadGenerator(URI.create("http://localhost:" + port), objectMapper, settings).run();
+
+        System.out.println(report.summary());
+        File reportFile = new File(System.getProperty("loadtest.report", "target/loadtest-report.json"));
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(reportFile, report);
+
+        assertTrue(report.getErrorRate() <= settings.getMaxErrorRate(),
+                   "Error rate " + report.getErrorRate() + " above " + settings.getMaxErrorRate() + ": " + report.getErrors());
+        assertTrue(report.getThroughput() >= settings.getRate() * settings.getMinThroughputRatio(),
+                   "Throughput " + report.getThroughput() + "/s below " + settings.getMinThroughputRatio()
+                   + " of the " + settings.getRate() + "/s arrival rate");
+        if (settings.getMaxP99Ms() > 0) {
+            assertTrue(report.getP99Ms() <= settings.getMaxP99Ms(),
+                       "p99 time to decision " + report.getP99Ms() + " ms above " + settings.getMaxP99Ms() + " ms");
+        }
+    }
+}
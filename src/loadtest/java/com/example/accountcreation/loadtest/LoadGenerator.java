@@ -0,0 +1,370 @@
+package com.example.accountcreation.loadtest;
+
+import com.example.accountcreation.metrics.LatencyHistogram;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator for {@code POST /api/accounts}.
+ *
+ * Requests are issued at a constant arrival rate whether or not earlier ones have finished, so a
+ * slow server builds up a backlog instead of slowing the generator down. Each request's latency
+ * runs from its scheduled send time (not the actual one, which avoids coordinated omission) until
+ * its status is seen to leave {@code PENDING}: straight from the create response on the fast
+ * path, otherwise by long polling {@code GET /api/accounts/{id}?waitFor=decided}.
+ * Requests scheduled during the warm-up are sent but not measured.
+ */
+final class LoadGenerator {
+
+    private final URI baseUri;
+    private final ObjectMapper objectMapper;
+    private final Settings settings;
+    private final String[] bodies;
+    private final HttpClient client;
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private final LongAdder sentCount = new LongAdder();
+    private final LongAdder completedCount = new LongAdder();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAccumulator lastDecisionNanos = new LongAccumulator(Math::max, Long.MIN_VALUE);
+
+    LoadGenerator(URI baseUri, ObjectMapper objectMapper, Settings settings) {
+        this.baseUri = baseUri;
+        this.objectMapper = objectMapper;
+        this.settings = settings;
+        this.bodies = LoadTestRequests.mixedBodies(objectMapper);
+        this.client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    }
+
+    Report run() throws InterruptedException {
+        long intervalNanos = Math.max(1, TimeUnit.SECONDS.toNanos(1) / settings.rate);
+        long startNanos = System.nanoTime();
+        long measureFromNanos = startNanos + TimeUnit.SECONDS.toNanos(settings.warmupSeconds);
+        long endNanos = measureFromNanos + TimeUnit.SECONDS.toNanos(settings.durationSeconds);
+
+        for (long i = 0; ; i++) {
+            long scheduledNanos = startNanos + i * intervalNanos;
+            if (scheduledNanos >= endNanos) {
+                break;
+            }
+            long waitNanos = scheduledNanos - System.nanoTime();
+            if (waitNanos > 0) {
+                LockSupport.parkNanos(waitNanos);
+            }
+            Sample sample = new Sample(scheduledNanos, scheduledNanos >= measureFromNanos);
+            if (sample.measured) {
+                sentCount.increment();
+            }
+            if (inFlight.incrementAndGet() > settings.maxInFlight) {
+                fail(sample, "dropped");
+                continue;
+            }
+            send(sample, bodies[(int) (i % bodies.length)]);
+        }
+
+        long drainDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(settings.completionTimeoutMs);
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10);
+        }
+        return report(inFlight.get(), measureFromNanos, endNanos);
+    }
+
+    private void send(Sample sample, String body) {
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("/api/accounts"))
+            .timeout(Duration.ofMillis(settings.completionTimeoutMs))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+            .whenComplete((response, failure) -> {
+                if (failure != null) {
+                    fail(sample, errorName(failure));
+                } else if (response.statusCode() != 201) {
+                    fail(sample, "http_" + response.statusCode());
+                } else {
+                    handleStatus(sample, response.body());
+                }
+            });
+    }
+
+    private void await(Sample sample, long id, long remainingMs) {
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("/api/accounts/" + id + "?waitFor=decided&timeout=" + remainingMs))
+            .timeout(Duration.ofMillis(remainingMs + 5000))
+            .GET()
+            .build();
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+            .whenComplete((response, failure) -> {
+                if (failure != null) {
+                    fail(sample, errorName(failure));
+                } else if (response.statusCode() != 200) {
+                    fail(sample, "http_" + response.statusCode());
+                } else {
+                    handleStatus(sample, response.body());
+                }
+            });
+    }
+
+    private void handleStatus(Sample sample, byte[] body) {
+        JsonNode account;
+        try {
+            account = objectMapper.readTree(body);
+        } catch (IOException e) {
+            fail(sample, "invalid_response");
+            return;
+        }
+        String status = account.path("status").asText();
+        long remainingMs = settings.completionTimeoutMs - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - sample.scheduledNanos);
+        if (!"PENDING".equals(status)) {
+            complete(sample, status);
+        } else if (remainingMs <= 0) {
+            fail(sample, "timeout");
+        } else {
+            await(sample, account.path("id").asLong(), remainingMs);
+        }
+    }
+
+    private static String errorName(Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+        return cause.getClass().getSimpleName();
+    }
+
+    private void complete(Sample sample, String status) {
+        if (sample.measured) {
+            latency.recordSince(sample.scheduledNanos);
+            completedCount.increment();
+            lastDecisionNanos.accumulate(System.nanoTime());
+            outcomes.computeIfAbsent(status, s -> new LongAdder()).increment();
+        }
+        inFlight.decrementAndGet();
+    }
+
+    private void fail(Sample sample, String error) {
+        if (sample.measured) {
+            errors.computeIfAbsent(error, e -> new LongAdder()).increment();
+        }
+        inFlight.decrementAndGet();
+    }
+
+    private Report report(int unfinished, long measureFromNanos, long endNanos) {
+        Map<String, Long> outcomeCounts = new TreeMap<>();
+        outcomes.forEach((status, count) -> outcomeCounts.put(status, count.sum()));
+        Map<String, Long> errorCounts = new TreeMap<>();
+        errors.forEach((error, count) -> errorCounts.put(error, count.sum()));
+        if (unfinished > 0) {
+            errorCounts.merge("unfinished", (long) unfinished, Long::sum);
+        }
+        // A backlog keeps deciding measured requests after the last one is sent
+        long elapsedNanos = Math.max(endNanos, lastDecisionNanos.get()) - measureFromNanos;
+        return new Report(settings, sentCount.sum(), completedCount.sum(), elapsedNanos / 1e9,
+                          outcomeCounts, errorCounts, latency.snapshot());
+    }
+
+    private static final class Sample {
+        private final long scheduledNanos;
+        private final boolean measured;
+
+        Sample(long scheduledNanos, boolean measured) {
+            this.scheduledNanos = scheduledNanos;
+            this.measured = measured;
+        }
+    }
+
+    /**
+     * Load shape and pass/fail thresholds, read from {@code loadtest.*} system properties.
+     */
+    static final class Settings {
+        private final int rate;
+        private final int warmupSeconds;
+        private final int durationSeconds;
+        private final long completionTimeoutMs;
+        private final int maxInFlight;
+        private final double maxP99Ms;
+        private final double maxErrorRate;
+        private final double minThroughputRatio;
+
+        Settings(int rate, int warmupSeconds, int durationSeconds, long completionTimeoutMs,
+                 int maxInFlight, double maxP99Ms, double maxErrorRate, double minThroughputRatio) {
+            if (rate <= 0 || durationSeconds <= 0) {
+                throw new IllegalArgumentException("loadtest.rate and loadtest.duration-seconds must be positive");
+            }
+            this.rate = rate;
+            this.warmupSeconds = warmupSeconds;
+            this.durationSeconds = durationSeconds;
+            this.completionTimeoutMs = completionTimeoutMs;
+            this.maxInFlight = maxInFlight;
+            this.maxP99Ms = maxP99Ms;
+            this.maxErrorRate = maxErrorRate;
+            this.minThroughputRatio = minThroughputRatio;
+        }
+
+        static Settings fromSystemProperties() {
+            return new Settings(
+                Integer.getInteger("loadtest.rate", 100),
+                Integer.getInteger("loadtest.warmup-seconds", 10),
+                Integer.getInteger("loadtest.duration-seconds", 30),
+                Long.getLong("loadtest.completion-timeout-ms", 30000),
+                Integer.getInteger("loadtest.max-in-flight", 5000),
+                Double.parseDouble(System.getProperty("loadtest.max-p99-ms", "500")),
+                Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.01")),
+                Double.parseDouble(System.getProperty("loadtest.min-throughput-ratio", "0.95")));
+        }
+
+        public int getRate() {
+            return rate;
+        }
+
+        public int getWarmupSeconds() {
+            return warmupSeconds;
+        }
+
+        public int getDurationSeconds() {
+            return durationSeconds;
+        }
+
+        public long getCompletionTimeoutMs() {
+            return completionTimeoutMs;
+        }
+
+        public int getMaxInFlight() {
+            return maxInFlight;
+        }
+
+        /**
+         * Highest acceptable p99 time to decision; 0 disables the check.
+         */
+        public double getMaxP99Ms() {
+            return maxP99Ms;
+        }
+
+        public double getMaxErrorRate() {
+            return maxErrorRate;
+        }
+
+        /**
+         * Lowest acceptable decided requests per second, as a fraction of {@link #getRate()}.
+         */
+        public double getMinThroughputRatio() {
+            return minThroughputRatio;
+        }
+    }
+
+    /**
+     * Results of the measured window.
+     */
+    static final class Report {
+        private final Settings settings;
+        private final long sent;
+        private final long completed;
+        private final double elapsedSeconds;
+        private final Map<String, Long> outcomes;
+        private final Map<String, Long> errors;
+        private final LatencyHistogram.Snapshot latency;
+
+        Report(Settings settings, long sent, long completed, double elapsedSeconds, Map<String, Long> outcomes,
+               Map<String, Long> errors, LatencyHistogram.Snapshot latency) {
+            this.settings = settings;
+            this.sent = sent;
+            this.completed = completed;
+            this.elapsedSeconds = elapsedSeconds;
+            this.outcomes = outcomes;
+            this.errors = errors;
+            this.latency = latency;
+        }
+
+        public Settings getSettings() {
+            return settings;
+        }
+
+        public long getSent() {
+            return sent;
+        }
+
+        public long getCompleted() {
+            return completed;
+        }
+
+        public long getErrorCount() {
+            return errors.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        public double getErrorRate() {
+            return sent == 0 ? 0 : (double) getErrorCount() / sent;
+        }
+
+        /**
+         * From the start of the measured window until its last request was decided.
+         */
+        public double getElapsedSeconds() {
+            return elapsedSeconds;
+        }
+
+        /**
+         * Measured requests decided per second of {@link #getElapsedSeconds()}.
+         */
+        public double getThroughput() {
+            return completed / elapsedSeconds;
+        }
+
+        public Map<String, Long> getOutcomes() {
+            return outcomes;
+        }
+
+        public Map<String, Long> getErrors() {
+            return errors;
+        }
+
+        /**
+         * Time to decision percentiles and mean in milliseconds.
+         */
+        public Map<String, Double> getLatencyMs() {
+            Map<String, Double> percentiles = new TreeMap<>();
+            percentiles.put("mean", latency.getMeanNanos() / 1e6);
+            percentiles.put("p50", latency.valueAtQuantile(0.50) / 1e6);
+            percentiles.put("p90", latency.valueAtQuantile(0.90) / 1e6);
+            percentiles.put("p99", getP99Ms());
+            percentiles.put("p999", latency.valueAtQuantile(0.999) / 1e6);
+            percentiles.put("max", latency.getMaxNanos() / 1e6);
+            return percentiles;
+        }
+
+        double getP99Ms() {
+            return latency.valueAtQuantile(0.99) / 1e6;
+        }
+
+        String summary() {
+            Map<String, Double> latencyMs = getLatencyMs();
+            return String.format(
+                "Load test: %d req/s for %ds (after %ds warm-up)%n"
+                + "  sent %d, decided %d, errors %d (%.2f%%) %s%n"
+                + "  throughput %.1f decisions/s over %.1fs%n"
+                + "  time to decision ms: mean %.1f, p50 %.1f, p90 %.1f, p99 %.1f, p99.9 %.1f, max %.1f%n"
+                + "  outcomes %s",
+                settings.rate, settings.durationSeconds, settings.warmupSeconds,
+                sent, completed, getErrorCount(), getErrorRate() * 100, errors,
+                getThroughput(), elapsedSeconds,
+                latencyMs.get("mean"), latencyMs.get("p50"), latencyMs.get("p90"), latencyMs.get("p99"),
+                latencyMs.get("p999"), latencyMs.get("max"),
+                outcomes);
+        }
+    }
+}
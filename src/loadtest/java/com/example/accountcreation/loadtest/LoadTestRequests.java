@@ -0,0 +1,73 @@
+package com.example.accountcreation.loadtest;
+
+import com.example.accountcreation.dto.AccountRequestDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.Random;
+
+/**
+ * Deterministic request bodies for the load test. The mix roughly follows production traffic:
+ * mostly clean applications, about a fifth young adults sent to manual review, and a tail that
+ * hits each rejection and review rule. Every body passes bean validation.
+ */
+final class LoadTestRequests {
+
+    static final int MIX_SIZE = 4096;
+
+    private static final String[] FIRST_NAMES = {"John", "Maria", "Wei", "Aisha", "Carlos", "Emma", "Noah", "Priya"};
+    private static final String[] LAST_NAMES = {"Smith", "Garcia", "Chen", "Khan", "Silva", "Johnson", "Brown", "Patel"};
+    private static final String[] HIGH_RISK_ZIPS = {"90210", "10001", "60601"};
+    private static final String[] PREMIUM_ZIPS = {"94102", "10021"};
+
+    private LoadTestRequests() {}
+
+    /**
+     * JSON bodies for {@code POST /api/accounts}, cycled through by the generator.
+     */
+    static String[] mixedBodies(ObjectMapper objectMapper) {
+        Random random = new Random(42);
+        String[] bodies = new String[MIX_SIZE];
+        try {
+            for (int i = 0; i < MIX_SIZE; i++) {
+                bodies[i] = objectMapper.writeValueAsString(randomRequest(random));
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize load test request", e);
+        }
+        return bodies;
+    }
+
+    private static AccountRequestDto randomRequest(Random random) {
+        String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        int roll = random.nextInt(100);
+        if (roll < 3) {
+            name = "Test " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        } else if (roll < 4) {
+            name = "X";
+        }
+
+        String zipCode = String.format("%05d", 10000 + random.nextInt(89999));
+        roll = random.nextInt(100);
+        if (roll < 5) {
+            zipCode = HIGH_RISK_ZIPS[random.nextInt(HIGH_RISK_ZIPS.length)];
+        } else if (roll < 10) {
+            zipCode = PREMIUM_ZIPS[random.nextInt(PREMIUM_ZIPS.length)];
+        }
+        if (random.nextInt(100) < 20) {
+            zipCode = zipCode + "-" + String.format("%04d", random.nextInt(10000));
+        }
+
+        String phoneNumber = String.format("%03d%07d", 200 + random.nextInt(800), random.nextInt(10_000_000));
+        roll = random.nextInt(100);
+        if (roll < 2) {
+            phoneNumber = "1234567890";
+        } else if (roll < 4) {
+            char digit = (char) ('0' + random.nextInt(10));
+            phoneNumber = String.valueOf(digit).repeat(10);
+        }
+
+        int age = 18 + random.nextInt(60);
+        return new AccountRequestDto(name, zipCode, age, phoneNumber);
+    }
+}
@@ -0,0 +1,316 @@
+package com.example.accountcreation.analytics;
+
+import com.example.accountcreation.model.AccountRequest;
+import com.example.accountcreation.model.AccountStatus;
+import com.example.accountcreation.rules.CompiledRuleSet;
+import com.example.accountcreation.service.GoRulesService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Feeds every rule decision and manual review outcome into {@link DecisionRollups} and keeps the
+ * rollups on disk.
+ *
+ * A decision counts under its rule's reason and the status it leads to. A manual outcome counts
+ * under the reason the current rules give for sending the request to review, so approvals and
+ * rejections can be compared per review reason. Outcomes recorded inside a transaction are
+ * counted once it commits.
+ *
+ * A scheduler thread compacts the rollups every {@code compaction-interval-ms} and writes them to
+ * {@code rollups.bin} in {@code directory} every {@code persist-interval-ms} when something was
+ * recorded, and once more on shutdown; the file is read back on startup. A crash loses at most
+ * one persist interval. The rollups cover this node only.
+ */
+@Component
+@Lazy(false)
+public class DecisionAnalytics {
+
+    private static final Logger logger = LoggerFactory.getLogger(DecisionAnalytics.class);
+
+    static final String FILE_NAME = "rollups.bin";
+
+    @Value("${accounts.analytics.enabled:true}")
+    private boolean enabled;
+
+    @Value("${accounts.analytics.directory:analytics}")
+    private String directoryName;
+
+    @Value("${accounts.analytics.minute-retention-ms:7200000}")
+    private long minuteRetentionMs;
+
+    @Value("${accounts.analytics.hour-retention-ms:172800000}")
+    private long hourRetentionMs;
+
+    @Value("${accounts.analytics.day-retention-ms:31622400000}")
+    private long dayRetentionMs;
+
+    @Value("${accounts.analytics.compaction-interval-ms:60000}")
+    private long compactionIntervalMs;
+
+    @Value("${accounts.analytics.persist-interval-ms:300000}")
+    private long persistIntervalMs;
+
+    @Value("${accounts.analytics.bucket-capacity:16384}")
+    private int bucketCapacity;
+
+    @Autowired
+    private GoRulesService goRulesService;
+
+    private DecisionRollups rollups;
+    private Path file;
+    private ScheduledExecutorService scheduler;
+    private volatile long persistedRecordCount;
+    private volatile LocalDateTime persistedAt;
+    private final LongAdder failedPersistCount = new LongAdder();
+
+    @PostConstruct
+    public void start() {
+        rollups = new DecisionRollups(minuteRetentionMs, hourRetentionMs, dayRetentionMs, bucketCapacity);
+        if (!enabled) {
+            logger.info("Decision analytics disabled");
+            return;
+        }
+        file = Paths.get(directoryName).resolve(FILE_NAME);
+        if (Files.exists(file)) {
+            try {
+                rollups.read(file);
+                rollups.compact(System.currentTimeMillis());
+                logger.info("Loaded decision analytics from {}", file);
+            } catch (IOException e) {
+                logger.error("Failed to load decision analytics from {}, starting empty", file, e);
+            }
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "decision-analytics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::compact, compactionIntervalMs, compactionIntervalMs, TimeUnit.MILLISECONDS);
+        if (persistIntervalMs > 0) {
+            scheduler.scheduleWithFixedDelay(this::persist, persistIntervalMs, persistIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            persist();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void recordDecision(AccountRequest request, GoRulesService.DecisionResponse decision) {
+        if (enabled) {
+            record(request, decision.getReason(), toStatus(decision.getDecision()));
+        }
+    }
+
+    /**
+     * Counts the manual review outcome {@code request} was just given.
+     */
+    public void recordManualOutcome(AccountRequest request) {
+        if (enabled) {
+            CompiledRuleSet rules = goRulesService.getRuleSet();
+            String reason = rules.getResponse(rules.evaluateIndex(request)).getReason();
+            record(request, reason, request.getStatus());
+        }
+    }
+
+    public DecisionRollups.Result query(LocalDateTime from, LocalDateTime to, DecisionRollups.Resolution step,
+                                        Set<DecisionRollups.Dimension> groupBy,
+                                        Map<DecisionRollups.Dimension, String> filters) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        return rollups.query(toMillis(from), toMillis(to), step, groupBy, filters);
+    }
+
+    /**
+     * Compacts now; normally done by the scheduler.
+     */
+    public void compact() {
+        rollups.compact(System.currentTimeMillis());
+    }
+
+    /**
+     * Writes the rollups to disk now if anything was recorded since the last write.
+     */
+    public synchronized void persist() {
+        long recorded = rollups.getRecordedCount();
+        if (!enabled || recorded == persistedRecordCount) {
+            return;
+        }
+        try {
+            Files.createDirectories(file.getParent());
+            rollups.write(file);
+            persistedRecordCount = recorded;
+            persistedAt = LocalDateTime.now();
+        } catch (IOException | RuntimeException e) {
+            failedPersistCount.increment();
+            logger.error("Failed to write decision analytics to {}", file, e);
+        }
+    }
+
+    public Stats getStats() {
+        return new Stats(enabled, file == null ? null : file.toString(), rollups.getRecordedCount(),
+                         rollups.getDroppedCount(), rollups.getReasonCount(), rollups.getLiveMinuteCount(),
+                         rollups.getBucketCount(DecisionRollups.Resolution.MINUTE),
+                         rollups.getBucketCount(DecisionRollups.Resolution.HOUR),
+                         rollups.getBucketCount(DecisionRollups.Resolution.DAY), persistedAt,
+                         failedPersistCount.sum());
+    }
+
+    /**
+     * Counts now, or once the current transaction commits.
+     */
+    private void record(AccountRequest request, String reason, AccountStatus status) {
+        Outcome outcome = new Outcome(reason, request.getZipCode(), request.getAge(), status);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            count(outcome);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<Outcome> pending = (List<Outcome>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<Outcome> outcomes = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, outcomes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(DecisionAnalytics.this);
+                    if (status == STATUS_COMMITTED) {
+                        outcomes.forEach(DecisionAnalytics.this::count);
+                    }
+                }
+            });
+            pending = outcomes;
+        }
+        pending.add(outcome);
+    }
+
+    private void count(Outcome outcome) {
+        rollups.record(outcome.reason, outcome.zipCode, outcome.age, outcome.status, System.currentTimeMillis());
+    }
+
+    private static AccountStatus toStatus(GoRulesService.DecisionResult decision) {
+        switch (decision) {
+            case AUTO_APPROVE:
+                return AccountStatus.AUTO_APPROVED;
+            case AUTO_REJECT:
+                return AccountStatus.AUTO_REJECTED;
+            default:
+                return AccountStatus.MANUAL_REVIEW;
+        }
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private record Outcome(String reason, String zipCode, Integer age, AccountStatus status) {}
+
+    public static class Stats {
+        private final boolean enabled;
+        private final String file;
+        private final long recorded;
+        private final long dropped;
+        private final int reasons;
+        private final int liveMinutes;
+        private final int minuteBuckets;
+        private final int hourBuckets;
+        private final int dayBuckets;
+        private final LocalDateTime persistedAt;
+        private final long failedPersists;
+
+        public Stats(boolean enabled, String file, long recorded, long dropped, int reasons, int liveMinutes,
+                     int minuteBuckets, int hourBuckets, int dayBuckets, LocalDateTime persistedAt,
+                     long failedPersists) {
+            this.enabled = enabled;
+            this.file = file;
+            this.recorded = recorded;
+            this.dropped = dropped;
+            this.reasons = reasons;
+            this.liveMinutes = liveMinutes;
+            this.minuteBuckets = minuteBuckets;
+            this.hourBuckets = hourBuckets;
+            this.dayBuckets = dayBuckets;
+            this.persistedAt = persistedAt;
+            this.failedPersists = failedPersists;
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public String getFile() {
+            return file;
+        }
+
+        public long getRecorded() {
+            return recorded;
+        }
+
+        /**
+         * Outcomes not counted because their minute ran out of distinct keys; raise
+         * {@code bucket-capacity} if this grows.
+         */
+        public long getDropped() {
+            return dropped;
+        }
+
+        public int getReasons() {
+            return reasons;
+        }
+
+        public int getLiveMinutes() {
+            return liveMinutes;
+        }
+
+        public int getMinuteBuckets() {
+            return minuteBuckets;
+        }
+
+        public int getHourBuckets() {
+            return hourBuckets;
+        }
+
+        public int getDayBuckets() {
+            return dayBuckets;
+        }
+
+        public LocalDateTime getPersistedAt() {
+            return persistedAt;
+        }
+
+        public long getFailedPersists() {
+            return failedPersists;
+        }
+    }
+}
@@ -0,0 +1,591 @@
+package com.example.accountcreation.analytics;
+
+import com.example.accountcreation.model.AccountStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Decision counts by (reason, zip3, age band, status) over time, maintained as decisions are made
+ * so a query never reads account requests.
+ *
+ * Each decision increments one counter of the current minute's {@link MinuteCounters}. The rollup
+ * key packs the four dimensions into 24 bits: the reason's id in a dictionary of at most
+ * {@value #MAX_REASONS} reasons (further reasons count as {@code other}), the first three digits
+ * of the zip code, an age band and the status. {@link #compact} freezes each minute into a
+ * {@link RollupBucket} once the next one has begun, folds minutes older than the minute retention
+ * into hours, hours older than the hour retention into days, and drops days older than the day
+ * retention. Hours and days are aligned to UTC. Older data is only available at the coarser
+ * resolution. A decision recorded by a thread stalled across a whole minute, between reading the
+ * clock and counting, can be missed when that minute is frozen.
+ *
+ * {@link #write} saves everything to one file, replaced atomically; {@link #read} adds a saved
+ * file to the current counts.
+ */
+public final class DecisionRollups {
+
+    static final int MAGIC = 0x4143524C;
+    static final int FORMAT_VERSION = 1;
+    static final int MAX_REASONS = 256;
+    static final String OTHER_REASON = "other";
+    static final String UNKNOWN = "unknown";
+    static final int UNKNOWN_ZIP3 = 1000;
+    static final String[] AGE_BANDS = {"<18", "18-24", "25-34", "35-44", "45-54", "55-64", "65+", UNKNOWN};
+
+    private static final int REASON_SHIFT = 16;
+    private static final int ZIP3_SHIFT = 6;
+    private static final int AGE_BAND_SHIFT = 3;
+    private static final AccountStatus[] STATUSES = AccountStatus.values();
+
+    public enum Resolution {
+        MINUTE(60_000L),
+        HOUR(3_600_000L),
+        DAY(86_400_000L);
+
+        private final long millis;
+
+        Resolution(long millis) {
+            this.millis = millis;
+        }
+
+        public long getMillis() {
+            return millis;
+        }
+
+        long floor(long timeMillis) {
+            return timeMillis - Math.floorMod(timeMillis, millis);
+        }
+    }
+
+    public enum Dimension {
+        REASON("reason", 0xFF << REASON_SHIFT),
+        ZIP3("zip3", 0x3FF << ZIP3_SHIFT),
+        AGE_BAND("ageBand", 0x7 << AGE_BAND_SHIFT),
+        STATUS("status", 0x7);
+
+        private final String parameterName;
+        private final int mask;
+
+        Dimension(String parameterName, int mask) {
+            this.parameterName = parameterName;
+            this.mask = mask;
+        }
+
+        public String getParameterName() {
+            return parameterName;
+        }
+
+        public static Dimension fromParameterName(String name) {
+            for (Dimension dimension : values()) {
+                if (dimension.parameterName.equals(name)) {
+                    return dimension;
+                }
+            }
+            throw new IllegalArgumentException("Unknown analytics dimension: " + name);
+        }
+    }
+
+    private final long minuteRetentionMs;
+    private final long hourRetentionMs;
+    private final long dayRetentionMs;
+    private final int bucketCapacity;
+    private final ConcurrentHashMap<String, Integer> reasonIds = new ConcurrentHashMap<>();
+    private final String[] reasons = new String[MAX_REASONS];
+    private volatile int reasonCount;
+    private final ConcurrentSkipListMap<Long, MinuteCounters> live = new ConcurrentSkipListMap<>();
+    private volatile MinuteCounters current;
+    private final Map<Resolution, NavigableMap<Long, RollupBucket>> buckets = new EnumMap<>(Resolution.class);
+    private final LongAdder recordedCount = new LongAdder();
+    private volatile long frozenDroppedCount;
+
+    public DecisionRollups(long minuteRetentionMs, long hourRetentionMs, long dayRetentionMs, int bucketCapacity) {
+        this.minuteRetentionMs = minuteRetentionMs;
+        this.hourRetentionMs = hourRetentionMs;
+        this.dayRetentionMs = dayRetentionMs;
+        this.bucketCapacity = bucketCapacity;
+        for (Resolution resolution : Resolution.values()) {
+            buckets.put(resolution, new TreeMap<>());
+        }
+        reasons[0] = OTHER_REASON;
+        reasonCount = 1;
+    }
+
+    /**
+     * Counts one decision. Does not allocate, except the first time a reason is seen or a minute
+     * begins.
+     */
+    public void record(String reason, String zipCode, Integer age, AccountStatus status, long timeMillis) {
+        int key = reasonId(reason) << REASON_SHIFT | zip3(zipCode) << ZIP3_SHIFT | ageBand(age) << AGE_BAND_SHIFT
+            | status.ordinal();
+        counters(Resolution.MINUTE.floor(timeMillis)).add(key);
+        recordedCount.increment();
+    }
+
+    /**
+     * Freezes finished minutes and moves buckets past their retention to the next resolution.
+     */
+    public synchronized void compact(long now) {
+        long previousMinute = Resolution.MINUTE.floor(now) - Resolution.MINUTE.millis;
+        for (Iterator<Map.Entry<Long, MinuteCounters>> it = live.headMap(previousMinute).entrySet().iterator();
+             it.hasNext(); ) {
+            Map.Entry<Long, MinuteCounters> entry = it.next();
+            it.remove();
+            frozenDroppedCount += entry.getValue().getDroppedCount();
+            add(Resolution.MINUTE, entry.getKey(), entry.getValue().snapshot());
+        }
+        rollUp(Resolution.MINUTE, Resolution.HOUR, now - minuteRetentionMs);
+        rollUp(Resolution.HOUR, Resolution.DAY, now - hourRetentionMs);
+        buckets.get(Resolution.DAY).headMap(now - dayRetentionMs - Resolution.DAY.millis, true).clear();
+    }
+
+    /**
+     * Sums the buckets overlapping {@code [from, to)}, grouped by the {@code groupBy} dimensions
+     * and, with a {@code step}, by the step each bucket starts in. A bucket is counted whole, so the
+     * range is widened to the buckets at its ends. {@code filters} keep only keys with the given
+     * value of each dimension.
+     */
+    public synchronized Result query(long from, long to, Resolution step, Set<Dimension> groupBy,
+                                     Map<Dimension, String> filters) {
+        int groupMask = 0;
+        for (Dimension dimension : groupBy) {
+            groupMask |= dimension.mask;
+        }
+        int filterMask = 0;
+        int filterValue = 0;
+        boolean matchesNothing = false;
+        for (Map.Entry<Dimension, String> filter : filters.entrySet()) {
+            int value = parse(filter.getKey(), filter.getValue());
+            if (value < 0) {
+                matchesNothing = true;
+            }
+            filterMask |= filter.getKey().mask;
+            filterValue |= value << shift(filter.getKey());
+        }
+
+        Map<Long, long[]> groups = new HashMap<>();
+        long[] total = new long[1];
+        if (!matchesNothing) {
+            for (Map.Entry<Long, MinuteCounters> entry : live.subMap(from - Resolution.MINUTE.millis, false, to, false)
+                    .entrySet()) {
+                accumulate(entry.getValue().snapshot(), step == null ? 0 : step.floor(entry.getKey()),
+                           groupMask, filterMask, filterValue, groups, total);
+            }
+            for (Map.Entry<Resolution, NavigableMap<Long, RollupBucket>> resolution : buckets.entrySet()) {
+                for (Map.Entry<Long, RollupBucket> entry : resolution.getValue()
+                        .subMap(from - resolution.getKey().millis, false, to, false).entrySet()) {
+                    accumulate(entry.getValue(), step == null ? 0 : step.floor(entry.getKey()),
+                               groupMask, filterMask, filterValue, groups, total);
+                }
+            }
+        }
+
+        List<Row> rows = new ArrayList<>(groups.size());
+        for (Map.Entry<Long, long[]> group : groups.entrySet()) {
+            long start = group.getKey() >>> 24;
+            int key = (int) (group.getKey() & 0xFFFFFF);
+            rows.add(new Row(step == null ? null : toDateTime(start * Resolution.MINUTE.millis),
+                             groupBy.contains(Dimension.REASON) ? reasonName(key >>> REASON_SHIFT & 0xFF) : null,
+                             groupBy.contains(Dimension.ZIP3) ? zip3Name(key >>> ZIP3_SHIFT & 0x3FF) : null,
+                             groupBy.contains(Dimension.AGE_BAND) ? AGE_BANDS[key >>> AGE_BAND_SHIFT & 0x7] : null,
+                             groupBy.contains(Dimension.STATUS) ? STATUSES[key & 0x7] : null,
+                             group.getValue()[0]));
+        }
+        rows.sort(Comparator.comparing(Row::getStart, Comparator.nullsFirst(Comparator.naturalOrder()))
+                      .thenComparing(Comparator.comparingLong(Row::getCount).reversed()));
+        List<String> groupNames = groupBy.stream().map(Dimension::getParameterName).toList();
+        return new Result(toDateTime(from), toDateTime(to), step, groupNames, total[0], rows);
+    }
+
+    /**
+     * Writes every bucket, unfinished minutes included, to {@code target} through a temporary file
+     * renamed into place.
+     */
+    public synchronized void write(Path target) throws IOException {
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        CRC32 checksum = new CRC32();
+        try (OutputStream file = Files.newOutputStream(temporary)) {
+            DataOutputStream out = new DataOutputStream(new CheckedOutputStream(new BufferedOutputStream(file), checksum));
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            int count = reasonCount;
+            out.writeInt(count);
+            for (int id = 0; id < count; id++) {
+                out.writeUTF(reasons[id]);
+            }
+            NavigableMap<Long, RollupBucket> minutes = new TreeMap<>(buckets.get(Resolution.MINUTE));
+            live.forEach((start, counters) -> minutes.merge(start, counters.snapshot(), RollupBucket::merge));
+            for (Resolution resolution : Resolution.values()) {
+                NavigableMap<Long, RollupBucket> saved = resolution == Resolution.MINUTE ? minutes : buckets.get(resolution);
+                out.writeInt(saved.size());
+                for (Map.Entry<Long, RollupBucket> entry : saved.entrySet()) {
+                    RollupBucket bucket = entry.getValue();
+                    out.writeLong(entry.getKey());
+                    out.writeInt(bucket.size());
+                    for (int i = 0; i < bucket.size(); i++) {
+                        out.writeInt(bucket.keyAt(i));
+                        out.writeLong(bucket.countAt(i));
+                    }
+                }
+            }
+            out.flush();
+            new DataOutputStream(file).writeInt((int) checksum.getValue());
+            file.flush();
+        }
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Adds the buckets saved in {@code source} to the current counts. Nothing is added unless the
+     * whole file is intact.
+     *
+     * @throws IOException if the file cannot be read or fails its checksum
+     */
+    public synchronized void read(Path source) throws IOException {
+        CRC32 checksum = new CRC32();
+        Map<Resolution, Map<Long, RollupBucket>> loaded = new EnumMap<>(Resolution.class);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(source)))) {
+            DataInputStream checked = new DataInputStream(new CheckedInputStream(in, checksum));
+            if (checked.readInt() != MAGIC || checked.readInt() != FORMAT_VERSION) {
+                throw new IOException(source + " is not a rollup file of format version " + FORMAT_VERSION);
+            }
+            int count = checked.readInt();
+            if (count < 1 || count > MAX_REASONS) {
+                throw new IOException(source + " lists " + count + " reasons");
+            }
+            String[] savedReasons = new String[count];
+            for (int id = 0; id < count; id++) {
+                savedReasons[id] = checked.readUTF();
+            }
+            for (Resolution resolution : Resolution.values()) {
+                Map<Long, RollupBucket> saved = new HashMap<>();
+                int bucketCount = checked.readInt();
+                for (int b = 0; b < bucketCount; b++) {
+                    long start = checked.readLong();
+                    int size = checked.readInt();
+                    int[] keys = new int[size];
+                    long[] counts = new long[size];
+                    for (int i = 0; i < size; i++) {
+                        keys[i] = checked.readInt();
+                        counts[i] = checked.readLong();
+                    }
+                    saved.put(start, RollupBucket.of(keys, counts, size));
+                }
+                loaded.put(resolution, saved);
+            }
+            if (in.readInt() != (int) checksum.getValue()) {
+                throw new IOException(source + " fails its checksum");
+            }
+            // Saved reason ids are remapped to this instance's dictionary
+            int[] ids = new int[count];
+            for (int id = 1; id < count; id++) {
+                ids[id] = reasonId(savedReasons[id]);
+            }
+            loaded.forEach((resolution, saved) -> saved.forEach((start, bucket) ->
+                add(resolution, start, remap(bucket, ids))));
+        }
+    }
+
+    public int getLiveMinuteCount() {
+        return live.size();
+    }
+
+    public synchronized int getBucketCount(Resolution resolution) {
+        return buckets.get(resolution).size();
+    }
+
+    public int getReasonCount() {
+        return reasonCount;
+    }
+
+    public long getRecordedCount() {
+        return recordedCount.sum();
+    }
+
+    /**
+     * Decisions not counted because a minute had more distinct keys than the bucket capacity.
+     */
+    public long getDroppedCount() {
+        long dropped = frozenDroppedCount;
+        for (MinuteCounters counters : live.values()) {
+            dropped += counters.getDroppedCount();
+        }
+        return dropped;
+    }
+
+    private MinuteCounters counters(long minute) {
+        MinuteCounters counters = current;
+        if (counters != null && counters.getStart() == minute) {
+            return counters;
+        }
+        counters = live.get(minute);
+        if (counters == null) {
+            MinuteCounters created = new MinuteCounters(minute, bucketCapacity);
+            counters = live.putIfAbsent(minute, created);
+            if (counters == null) {
+                counters = created;
+            }
+        }
+        MinuteCounters latest = current;
+        if (latest == null || latest.getStart() < minute) {
+            current = counters;
+        }
+        return counters;
+    }
+
+    private int reasonId(String reason) {
+        if (reason == null) {
+            return 0;
+        }
+        Integer id = reasonIds.get(reason);
+        if (id != null) {
+            return id;
+        }
+        synchronized (reasonIds) {
+            id = reasonIds.get(reason);
+            if (id == null) {
+                if (reasonCount == MAX_REASONS) {
+                    return 0;
+                }
+                id = reasonCount;
+                reasons[id] = reason;
+                reasonIds.put(reason, id);
+                reasonCount = id + 1;
+            }
+            return id;
+        }
+    }
+
+    private String reasonName(int id) {
+        return id < reasonCount ? reasons[id] : OTHER_REASON;
+    }
+
+    static int zip3(String zipCode) {
+        if (zipCode == null || zipCode.length() < 3) {
+            return UNKNOWN_ZIP3;
+        }
+        int zip3 = 0;
+        for (int i = 0; i < 3; i++) {
+            char c = zipCode.charAt(i);
+            if (c < '0' || c > '9') {
+                return UNKNOWN_ZIP3;
+            }
+            zip3 = zip3 * 10 + (c - '0');
+        }
+        return zip3;
+    }
+
+    static int ageBand(Integer age) {
+        if (age == null) {
+            return AGE_BANDS.length - 1;
+        }
+        if (age < 18) {
+            return 0;
+        }
+        if (age >= 65) {
+            return 6;
+        }
+        return age < 25 ? 1 : (age - 15) / 10 + 1;
+    }
+
+    private static String zip3Name(int zip3) {
+        return zip3 == UNKNOWN_ZIP3 ? UNKNOWN : String.format("%03d", zip3);
+    }
+
+    /**
+     * The key field value of {@code text} for {@code dimension}, -1 if no key can have it.
+     */
+    private int parse(Dimension dimension, String text) {
+        switch (dimension) {
+            case REASON:
+                Integer id = reasonIds.get(text);
+                return id != null ? id : OTHER_REASON.equals(text) ? 0 : -1;
+            case ZIP3:
+                if (UNKNOWN.equals(text)) {
+                    return UNKNOWN_ZIP3;
+                }
+                if (text.length() != 3 || zip3(text) == UNKNOWN_ZIP3) {
+                    throw new IllegalArgumentException("zip3 must be three digits or 'unknown'");
+                }
+                return zip3(text);
+            case AGE_BAND:
+                for (int band = 0; band < AGE_BANDS.length; band++) {
+                    if (AGE_BANDS[band].equals(text)) {
+                        return band;
+                    }
+                }
+                throw new IllegalArgumentException("ageBand must be one of " + String.join(", ", AGE_BANDS));
+            case STATUS:
+                return AccountStatus.valueOf(text).ordinal();
+            default:
+                throw new IllegalArgumentException("Unknown analytics dimension: " + dimension);
+        }
+    }
+
+    private static int shift(Dimension dimension) {
+        return Integer.numberOfTrailingZeros(dimension.mask);
+    }
+
+    private void rollUp(Resolution from, Resolution to, long cutoff) {
+        NavigableMap<Long, RollupBucket> source = buckets.get(from);
+        for (Iterator<Map.Entry<Long, RollupBucket>> it = source.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Long, RollupBucket> entry = it.next();
+            if (entry.getKey() + from.millis > cutoff) {
+                break;
+            }
+            add(to, to.floor(entry.getKey()), entry.getValue());
+            it.remove();
+        }
+    }
+
+    private void add(Resolution resolution, long start, RollupBucket bucket) {
+        if (bucket.size() > 0) {
+            buckets.get(resolution).merge(start, bucket, RollupBucket::merge);
+        }
+    }
+
+    private static RollupBucket remap(RollupBucket bucket, int[] ids) {
+        int[] keys = new int[bucket.size()];
+        long[] counts = new long[bucket.size()];
+        for (int i = 0; i < keys.length; i++) {
+            int key = bucket.keyAt(i);
+            int id = key >>> REASON_SHIFT & 0xFF;
+            keys[i] = (id < ids.length ? ids[id] : 0) << REASON_SHIFT | key & ~Dimension.REASON.mask;
+            counts[i] = bucket.countAt(i);
+        }
+        return RollupBucket.of(keys, counts, keys.length);
+    }
+
+    private static void accumulate(RollupBucket bucket, long stepStart, int groupMask, int filterMask, int filterValue,
+                                   Map<Long, long[]> groups, long[] total) {
+        long prefix = stepStart / Resolution.MINUTE.millis << 24;
+        for (int i = 0; i < bucket.size(); i++) {
+            int key = bucket.keyAt(i);
+            if ((key & filterMask) != filterValue) {
+                continue;
+            }
+            long count = bucket.countAt(i);
+            groups.computeIfAbsent(prefix | (key & groupMask), group -> new long[1])[0] += count;
+            total[0] += count;
+        }
+    }
+
+    private static LocalDateTime toDateTime(long timeMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(timeMillis), ZoneId.systemDefault());
+    }
+
+    public static class Result {
+        private final LocalDateTime from;
+        private final LocalDateTime to;
+        private final Resolution step;
+        private final List<String> groupBy;
+        private final long total;
+        private final List<Row> rows;
+
+        public Result(LocalDateTime from, LocalDateTime to, Resolution step, List<String> groupBy, long total,
+                      List<Row> rows) {
+            this.from = from;
+            this.to = to;
+            this.step = step;
+            this.groupBy = groupBy;
+            this.total = total;
+            this.rows = rows;
+        }
+
+        public LocalDateTime getFrom() {
+            return from;
+        }
+
+        public LocalDateTime getTo() {
+            return to;
+        }
+
+        public Resolution getStep() {
+            return step;
+        }
+
+        public List<String> getGroupBy() {
+            return groupBy;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public List<Row> getRows() {
+            return rows;
+        }
+    }
+
+    /**
+     * Count of one group; dimensions not grouped by, and the start without a step, are left out.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Row {
+        private final LocalDateTime start;
+        private final String reason;
+        private final String zip3;
+        private final String ageBand;
+        private final AccountStatus status;
+        private final long count;
+
+        public Row(LocalDateTime start, String reason, String zip3, String ageBand, AccountStatus status, long count) {
+            this.start = start;
+            this.reason = reason;
+            this.zip3 = zip3;
+            this.ageBand = ageBand;
+            this.status = status;
+            this.count = count;
+        }
+
+        public LocalDateTime getStart() {
+            return start;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        public String getZip3() {
+            return zip3;
+        }
+
+        public String getAgeBand() {
+            return ageBand;
+        }
+
+        public AccountStatus getStatus() {
+            return status;
+        }
+
+        public long getCount() {
+            return count;
+        }
+    }
+}
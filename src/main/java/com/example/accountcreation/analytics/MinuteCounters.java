@@ -0,0 +1,105 @@
+package com.example.accountcreation.analytics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts of one minute, by rollup key, while the minute is still being written.
+ *
+ * An open-addressing table: a key claims a slot with one compare-and-set the first time it is
+ * seen in the minute, after which counting it is a lock-free increment. Counts are striped over
+ * {@value #STRIPES} arrays by thread, so threads deciding the same kind of request at once do not
+ * all update the same cache line. Keys beyond three quarters of the capacity are not tracked, only
+ * counted as dropped. Nothing allocates once the table exists.
+ */
+final class MinuteCounters {
+
+    static final int STRIPES = 4;
+
+    private final long start;
+    private final AtomicIntegerArray keys;
+    private final AtomicLongArray[] counts = new AtomicLongArray[STRIPES];
+    private final int mask;
+    private final int shift;
+    private final int limit;
+    private final AtomicInteger used = new AtomicInteger();
+    private final LongAdder dropped = new LongAdder();
+
+    MinuteCounters(long start, int capacity) {
+        int slots = Integer.highestOneBit(Math.max(16, capacity - 1)) << 1;
+        this.start = start;
+        this.keys = new AtomicIntegerArray(slots);
+        for (int i = 0; i < STRIPES; i++) {
+            counts[i] = new AtomicLongArray(slots);
+        }
+        this.mask = slots - 1;
+        this.shift = Integer.numberOfLeadingZeros(slots) + 1;
+        this.limit = slots / 4 * 3;
+    }
+
+    long getStart() {
+        return start;
+    }
+
+    void add(int key) {
+        // Slots hold key + 1, so 0 marks an empty slot
+        int stored = key + 1;
+        int slot = (stored * 0x9E3779B9) >>> shift;
+        for (int probe = 0; probe <= mask; probe++) {
+            int current = keys.get(slot);
+            if (current == 0) {
+                if (used.get() >= limit) {
+                    break;
+                }
+                if (keys.compareAndSet(slot, 0, stored)) {
+                    used.incrementAndGet();
+                    current = stored;
+                } else {
+                    current = keys.get(slot);
+                }
+            }
+            if (current == stored) {
+                counts[(int) Thread.currentThread().threadId() & (STRIPES - 1)].incrementAndGet(slot);
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        dropped.increment();
+    }
+
+    long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * The counts so far, as an immutable bucket; increments racing this call may or may not be in it.
+     */
+    RollupBucket snapshot() {
+        int[] bucketKeys = new int[used.get() + STRIPES];
+        long[] bucketCounts = new long[bucketKeys.length];
+        int size = 0;
+        for (int slot = 0; slot <= mask; slot++) {
+            int stored = keys.get(slot);
+            if (stored == 0) {
+                continue;
+            }
+            long count = 0;
+            for (AtomicLongArray stripe : counts) {
+                count += stripe.get(slot);
+            }
+            if (count == 0) {
+                continue;
+            }
+            if (size == bucketKeys.length) {
+                bucketKeys = Arrays.copyOf(bucketKeys, size * 2);
+                bucketCounts = Arrays.copyOf(bucketCounts, size * 2);
+            }
+            bucketKeys[size] = stored - 1;
+            bucketCounts[size++] = count;
+        }
+        return RollupBucket.of(bucketKeys, bucketCounts, size);
+    }
+}
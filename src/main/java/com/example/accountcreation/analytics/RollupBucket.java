@@ -0,0 +1,80 @@
+package com.example.accountcreation.analytics;
+
+import java.util.Arrays;
+
+/**
+ * Immutable counts of one time bucket: rollup keys in ascending order with their counts, in two
+ * parallel arrays. Finished minutes and every hour and day bucket are kept in this form, about
+ * 12 bytes per distinct key; the bucket's start is the key it is stored under.
+ */
+final class RollupBucket {
+
+    private final int[] keys;
+    private final long[] counts;
+
+    RollupBucket(int[] keys, long[] counts) {
+        this.keys = keys;
+        this.counts = counts;
+    }
+
+    int size() {
+        return keys.length;
+    }
+
+    int keyAt(int index) {
+        return keys[index];
+    }
+
+    long countAt(int index) {
+        return counts[index];
+    }
+
+    /**
+     * Builds a bucket from keys in any order, summing the counts of repeated keys.
+     */
+    static RollupBucket of(int[] keys, long[] counts, int size) {
+        long[] packed = new long[size];
+        for (int i = 0; i < size; i++) {
+            packed[i] = (long) keys[i] << 32 | i;
+        }
+        Arrays.sort(packed);
+        int[] sortedKeys = new int[size];
+        long[] sortedCounts = new long[size];
+        int unique = 0;
+        for (long entry : packed) {
+            int key = (int) (entry >>> 32);
+            long count = counts[(int) entry];
+            if (unique > 0 && sortedKeys[unique - 1] == key) {
+                sortedCounts[unique - 1] += count;
+            } else {
+                sortedKeys[unique] = key;
+                sortedCounts[unique++] = count;
+            }
+        }
+        return new RollupBucket(Arrays.copyOf(sortedKeys, unique), Arrays.copyOf(sortedCounts, unique));
+    }
+
+    /**
+     * Sums this bucket and {@code other}.
+     */
+    RollupBucket merge(RollupBucket other) {
+        int[] mergedKeys = new int[keys.length + other.keys.length];
+        long[] mergedCounts = new long[mergedKeys.length];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+        while (i < keys.length || j < other.keys.length) {
+            if (j == other.keys.length || (i < keys.length && keys[i] < other.keys[j])) {
+                mergedKeys[size] = keys[i];
+                mergedCounts[size++] = counts[i++];
+            } else if (i == keys.length || other.keys[j] < keys[i]) {
+                mergedKeys[size] = other.keys[j];
+                mergedCounts[size++] = other.counts[j++];
+            } else {
+                mergedKeys[size] = keys[i];
+                mergedCounts[size++] = counts[i++] + other.counts[j++];
+            }
+        }
+        return new RollupBucket(Arrays.copyOf(mergedKeys, size), Arrays.copyOf(mergedCounts, size));
+    }
+}
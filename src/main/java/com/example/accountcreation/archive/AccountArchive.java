@@ -0,0 +1,595 @@
+package com.example.accountcreation.archive;
+
+import com.example.accountcreation.dto.AccountResponseDto;
+import com.example.accountcreation.model.AccountStatus;
+import com.example.accountcreation.repository.AccountRequestRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Cold storage for account requests that reached a terminal status long ago, outside the database.
+ *
+ * Requests are archived in batches. Each batch becomes one block, compressed with deflate and
+ * appended to a segment file {@code archive-<index>.seg}; a segment is closed at
+ * {@code segment-size-bytes} and every start of the application opens a new one. Segments begin
+ * with a magic number and format version, followed by blocks of
+ * {@code [int length][int crc32][int raw length][deflated rows]}.
+ *
+ * For every block, {@code archive.idx} gets a frame listing the block's position and the ids and
+ * statuses of its requests, written only after the block is forced to disk. At startup the frames
+ * are loaded into an {@link ArchiveIndex}; a torn last frame is cut off. A lookup finds the block
+ * in memory and reads and inflates only that block.
+ *
+ * The index header records the {@link AccountRequestRepository#getStoreId() id of the store} the
+ * requests were archived from. Ids are only unique within one store, so an archive found next to a
+ * different store (such as a recreated in-memory database) is moved into a {@code stale-<millis>}
+ * subdirectory at startup and an empty archive is started in its place.
+ *
+ * Archived requests are read-only: the archive keeps what {@code GET /api/accounts/{id}} returns.
+ * Scans over all of them, such as what-if replays, read the blocks one by one with
+ * {@link #readBlock(int)}.
+ * Nothing is written to disk, not even the directory, until the first batch is archived.
+ */
+@Component
+public class AccountArchive {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountArchive.class);
+
+    static final int SEGMENT_MAGIC = 0x41434152;
+    static final int INDEX_MAGIC = 0x41434149;
+    static final int FORMAT_VERSION = 1;
+    // 2 added the store id to the index header
+    static final int INDEX_FORMAT_VERSION = 2;
+    static final int FILE_HEADER_SIZE = 16;
+    static final int BLOCK_HEADER_SIZE = 12;
+    static final int FRAME_HEADER_SIZE = 8;
+    static final String SEGMENT_PREFIX = "archive-";
+    static final String SEGMENT_SUFFIX = ".seg";
+    static final String INDEX_FILE = "archive.idx";
+    static final String STALE_PREFIX = "stale-";
+
+    private static final AccountStatus[] STATUSES = AccountStatus.values();
+    private static final long NULL_TIME = Long.MIN_VALUE;
+    private static final int NULL_INT = Integer.MIN_VALUE;
+    private static final int NULL_STRING = 0xFFFF;
+
+    @Value("${accounts.archive.directory:archive}")
+    private String directoryName = "archive";
+
+    @Value("${accounts.archive.segment-size-bytes:67108864}")
+    private long segmentSizeBytes = 64 * 1024 * 1024;
+
+    @Autowired
+    private AccountRequestRepository accountRequestRepository;
+
+    private Path directory;
+    private String storeId;
+    private final ArchiveIndex index = new ArchiveIndex();
+    private final ConcurrentHashMap<Long, FileChannel> readers = new ConcurrentHashMap<>();
+
+    // Guarded by this
+    private FileChannel segment;
+    private long segmentIndex = -1;
+    private long segmentPosition;
+    private FileChannel indexChannel;
+    private long nextSegmentIndex;
+    private long rawBytes;
+    private long compressedBytes;
+
+    private final LongAdder lookupCount = new LongAdder();
+    private final LongAdder hitCount = new LongAdder();
+
+    public AccountArchive() {}
+
+    public AccountArchive(Path directory, long segmentSizeBytes, String storeId) {
+        this.directory = directory;
+        this.segmentSizeBytes = segmentSizeBytes;
+        this.storeId = storeId;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (directory == null) {
+            directory = Paths.get(directoryName);
+        }
+        if (storeId == null) {
+            storeId = accountRequestRepository.getStoreId();
+        }
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        loadIndex();
+        try (Stream<Path> entries = Files.list(directory)) {
+            nextSegmentIndex = entries
+                .map(path -> path.getFileName().toString())
+                .filter(AccountArchive::isSegment)
+                .mapToLong(name -> Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())))
+                .max().orElse(-1) + 1;
+        }
+        logger.info("Account archive in {} holds {} requests in {} blocks", directory, index.size(), index.getBlockCount());
+    }
+
+    /**
+     * Appends one block of requests and forces it, and then its index frame, to disk. When this
+     * returns, the requests can be deleted from the database.
+     */
+    public synchronized void append(List<AccountResponseDto> requests) throws IOException {
+        if (requests.isEmpty()) {
+            return;
+        }
+        ByteBuffer raw = encode(requests);
+        int rawLength = raw.remaining();
+        byte[] compressed = deflate(raw);
+        openIfNeeded();
+        long blockSize = BLOCK_HEADER_SIZE + compressed.length;
+        if (segmentPosition + blockSize > segmentSizeBytes && segmentPosition > FILE_HEADER_SIZE) {
+            segment.close();
+            openSegment();
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(compressed);
+        ByteBuffer block = ByteBuffer.allocate((int) blockSize);
+        block.putInt(compressed.length).putInt((int) crc.getValue()).putInt(rawLength).put(compressed).flip();
+        long offset = segmentPosition;
+        writeFully(segment, block);
+        segment.force(false);
+        segmentPosition += blockSize;
+
+        ByteBuffer frame = ByteBuffer.allocate(20 + requests.size() * 9);
+        frame.putLong(segmentIndex).putLong(offset).putInt(requests.size());
+        for (AccountResponseDto request : requests) {
+            frame.putLong(request.getId()).put((byte) request.getStatus().ordinal());
+        }
+        frame.flip();
+        crc.reset();
+        crc.update(frame.duplicate());
+        ByteBuffer framed = ByteBuffer.allocate(FRAME_HEADER_SIZE + frame.remaining());
+        framed.putInt(frame.remaining()).putInt((int) crc.getValue()).put(frame).flip();
+        writeFully(indexChannel, framed);
+        indexChannel.force(false);
+
+        int blockNumber = index.addBlock(segmentIndex, offset);
+        for (AccountResponseDto request : requests) {
+            index.put(request.getId(), blockNumber, request.getStatus());
+        }
+        rawBytes += rawLength;
+        compressedBytes += compressed.length;
+    }
+
+    /**
+     * The archived request, read from its block on disk.
+     */
+    public Optional<AccountResponseDto> find(long id) {
+        lookupCount.increment();
+        long[] location = index.locate(id);
+        if (location == null) {
+            return Optional.empty();
+        }
+        try {
+            for (AccountResponseDto request : readBlock(location[0], location[1])) {
+                if (request.getId() == id) {
+                    hitCount.increment();
+                    return Optional.of(request);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read archived account request " + id, e);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Blocks archived so far; block numbers run from 0 to this count minus one.
+     */
+    public int getBlockCount() {
+        return index.getBlockCount();
+    }
+
+    /**
+     * The requests whose latest copy is in the given block, read from disk. A request archived
+     * again later (after a crash between archiving and deleting) is left to its later block, so
+     * reading every block yields each request once.
+     */
+    public List<AccountResponseDto> readBlock(int block) throws IOException {
+        long[] location = index.getBlock(block);
+        List<AccountResponseDto> latest = new ArrayList<>();
+        for (AccountResponseDto request : readBlock(location[0], location[1])) {
+            long[] current = index.locate(request.getId());
+            if (current != null && current[0] == location[0] && current[1] == location[1]) {
+                latest.add(request);
+            }
+        }
+        return latest;
+    }
+
+    /**
+     * Archived requests per status, indexed by {@link AccountStatus#ordinal()}.
+     */
+    public long[] getStatusCounts() {
+        return index.getStatusCounts();
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        try {
+            if (segment != null) {
+                segment.close();
+            }
+            if (indexChannel != null) {
+                indexChannel.close();
+            }
+            for (FileChannel reader : readers.values()) {
+                reader.close();
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to close account archive in {}", directory, e);
+        }
+        segment = null;
+        indexChannel = null;
+        readers.clear();
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(directory == null ? null : directory.toString(), index.size(), index.getBlockCount(),
+                         segmentIndex < 0 ? null : segmentFileName(segmentIndex), rawBytes, compressedBytes,
+                         lookupCount.sum(), hitCount.sum());
+    }
+
+    private List<AccountResponseDto> readBlock(long segmentNumber, long offset) throws IOException {
+        FileChannel reader = readers.computeIfAbsent(segmentNumber, number -> {
+            try {
+                return FileChannel.open(directory.resolve(segmentFileName(number)), StandardOpenOption.READ);
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot open archive segment " + number, e);
+            }
+        });
+        ByteBuffer header = ByteBuffer.allocate(BLOCK_HEADER_SIZE);
+        readFully(reader, header, offset);
+        header.flip();
+        int length = header.getInt();
+        int expected = header.getInt();
+        int rawLength = header.getInt();
+        ByteBuffer compressed = ByteBuffer.allocate(length);
+        readFully(reader, compressed, offset + BLOCK_HEADER_SIZE);
+        compressed.flip();
+        CRC32 crc = new CRC32();
+        crc.update(compressed.duplicate());
+        if ((int) crc.getValue() != expected) {
+            throw new IOException("Archive block at " + offset + " of segment " + segmentNumber + " fails its checksum");
+        }
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            ByteBuffer raw = ByteBuffer.allocate(rawLength);
+            while (raw.hasRemaining() && !inflater.finished()) {
+                if (inflater.inflate(raw) == 0 && inflater.needsInput()) {
+                    break;
+                }
+            }
+            return decode(raw.flip());
+        } catch (DataFormatException e) {
+            throw new IOException("Archive block at " + offset + " of segment " + segmentNumber + " is corrupt", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private void openIfNeeded() throws IOException {
+        if (segment != null) {
+            return;
+        }
+        Files.createDirectories(directory);
+        Path indexPath = directory.resolve(INDEX_FILE);
+        boolean created = !Files.exists(indexPath);
+        indexChannel = FileChannel.open(indexPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (created || indexChannel.size() == 0) {
+            ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE + 2 + storeId.length() * 3);
+            header.putInt(INDEX_MAGIC).putInt(INDEX_FORMAT_VERSION).putLong(System.currentTimeMillis());
+            putString(header, storeId);
+            writeFully(indexChannel, header.flip());
+        }
+        indexChannel.position(indexChannel.size());
+        openSegment();
+    }
+
+    private void openSegment() throws IOException {
+        segmentIndex = nextSegmentIndex++;
+        segment = FileChannel.open(directory.resolve(segmentFileName(segmentIndex)),
+                                   StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+        header.putInt(SEGMENT_MAGIC).putInt(FORMAT_VERSION).putLong(System.currentTimeMillis()).flip();
+        writeFully(segment, header);
+        segmentPosition = FILE_HEADER_SIZE;
+        logger.info("Account archive writing to {}", segmentFileName(segmentIndex));
+    }
+
+    /**
+     * Loads the index file, cutting off a torn last frame so later frames are appended after the
+     * last good one. An index of another store is set aside with its segments instead.
+     */
+    private void loadIndex() throws IOException {
+        Path indexPath = directory.resolve(INDEX_FILE);
+        if (!Files.exists(indexPath)) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(indexPath, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer in = ByteBuffer.allocate((int) channel.size());
+            readFully(channel, in, 0);
+            in.flip();
+            if (in.remaining() < FILE_HEADER_SIZE || in.getInt() != INDEX_MAGIC) {
+                throw new IOException(indexPath + " is not an account archive index");
+            }
+            int version = in.getInt();
+            if (version < 1 || version > INDEX_FORMAT_VERSION) {
+                throw new IOException(indexPath + " has unsupported archive format version " + version);
+            }
+            in.getLong();
+            String owner = version >= 2 ? getString(in) : null;
+            if (!storeId.equals(owner)) {
+                channel.close();
+                setAside(indexPath, owner);
+                return;
+            }
+            CRC32 crc = new CRC32();
+            while (in.remaining() >= FRAME_HEADER_SIZE) {
+                int start = in.position();
+                int length = in.getInt();
+                int expected = in.getInt();
+                if (length < 20 || length > in.remaining()) {
+                    in.position(start);
+                    break;
+                }
+                ByteBuffer frame = in.slice(in.position(), length);
+                crc.reset();
+                crc.update(frame.duplicate());
+                if ((int) crc.getValue() != expected) {
+                    in.position(start);
+                    break;
+                }
+                in.position(in.position() + length);
+                int block = index.addBlock(frame.getLong(), frame.getLong());
+                int count = frame.getInt();
+                for (int i = 0; i < count; i++) {
+                    index.put(frame.getLong(), block, STATUSES[frame.get()]);
+                }
+            }
+            if (in.position() < channel.size()) {
+                logger.warn("Account archive index {} ends in a torn frame at offset {}; truncating", indexPath, in.position());
+                channel.truncate(in.position());
+            }
+        }
+    }
+
+    /**
+     * Moves the index and segments of another store's archive to a {@code stale-<millis>}
+     * subdirectory, where they are kept but no longer read.
+     */
+    private void setAside(Path indexPath, String owner) throws IOException {
+        Path stale = directory.resolve(STALE_PREFIX + System.currentTimeMillis());
+        Files.createDirectories(stale);
+        List<Path> files;
+        try (Stream<Path> entries = Files.list(directory)) {
+            files = entries.filter(path -> path.equals(indexPath) || isSegment(path.getFileName().toString())).toList();
+        }
+        for (Path file : files) {
+            Files.move(file, stale.resolve(file.getFileName()));
+        }
+        logger.warn("Account archive in {} belongs to store {}, not to this store {}; moved it to {}",
+                   directory, owner == null ? "(unrecorded)" : owner, storeId, stale);
+    }
+
+    private static boolean isSegment(String name) {
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    private static ByteBuffer encode(List<AccountResponseDto> requests) {
+        ByteBuffer out = ByteBuffer.allocate(Math.max(1024, requests.size() * 128));
+        while (true) {
+            out.clear();
+            try {
+                out.putInt(requests.size());
+                for (AccountResponseDto request : requests) {
+                    out.putLong(request.getId());
+                    out.put((byte) request.getStatus().ordinal());
+                    putTime(out, request.getCreatedAt());
+                    putTime(out, request.getUpdatedAt());
+                    out.putInt(request.getAge() == null ? NULL_INT : request.getAge());
+                    putString(out, request.getName());
+                    putString(out, request.getZipCode());
+                    putString(out, request.getPhoneNumber());
+                    putString(out, request.getProcessInstanceId());
+                    putString(out, request.getRejectionReason());
+                }
+                return out.flip();
+            } catch (BufferOverflowException e) {
+                out = ByteBuffer.allocate(out.capacity() * 2);
+            }
+        }
+    }
+
+    private static List<AccountResponseDto> decode(ByteBuffer in) {
+        int count = in.getInt();
+        AccountResponseDto[] requests = new AccountResponseDto[count];
+        for (int i = 0; i < count; i++) {
+            long id = in.getLong();
+            AccountStatus status = STATUSES[in.get()];
+            LocalDateTime createdAt = getTime(in);
+            LocalDateTime updatedAt = getTime(in);
+            int age = in.getInt();
+            requests[i] = new AccountResponseDto(id, getString(in), getString(in), age == NULL_INT ? null : age,
+                                                 getString(in), status, getString(in), createdAt, updatedAt,
+                                                 getString(in));
+        }
+        return List.of(requests);
+    }
+
+    private static byte[] deflate(ByteBuffer raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteBuffer out = ByteBuffer.allocate(Math.max(64, raw.remaining() / 2));
+            while (!deflater.finished()) {
+                if (!out.hasRemaining()) {
+                    out = ByteBuffer.allocate(out.capacity() * 2).put(out.flip());
+                }
+                deflater.deflate(out);
+            }
+            byte[] compressed = new byte[out.position()];
+            out.flip().get(compressed);
+            return compressed;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static void putTime(ByteBuffer out, LocalDateTime time) {
+        if (time == null) {
+            out.putLong(NULL_TIME).putInt(0);
+            return;
+        }
+        out.putLong(time.toEpochSecond(ZoneOffset.UTC)).putInt(time.getNano());
+    }
+
+    private static LocalDateTime getTime(ByteBuffer in) {
+        long seconds = in.getLong();
+        int nanos = in.getInt();
+        return seconds == NULL_TIME ? null : LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+
+    private static void putString(ByteBuffer out, String value) {
+        if (value == null) {
+            out.putShort((short) NULL_STRING);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length >= NULL_STRING) {
+            throw new IllegalArgumentException("String of " + bytes.length + " bytes is too long for the archive");
+        }
+        out.putShort((short) bytes.length);
+        out.put(bytes);
+    }
+
+    private static String getString(ByteBuffer in) {
+        int length = Short.toUnsignedInt(in.getShort());
+        if (length == NULL_STRING) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer target, long position) throws IOException {
+        while (target.hasRemaining()) {
+            int read = channel.read(target, position + target.position());
+            if (read < 0) {
+                throw new IOException("Unexpected end of archive file");
+            }
+        }
+    }
+
+    static String segmentFileName(long index) {
+        return String.format("%s%020d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX);
+    }
+
+    public static class Stats {
+        private final String directory;
+        private final long requestCount;
+        private final long blockCount;
+        private final String segment;
+        private final long rawBytes;
+        private final long compressedBytes;
+        private final long lookupCount;
+        private final long hitCount;
+
+        public Stats(String directory, long requestCount, long blockCount, String segment, long rawBytes,
+                     long compressedBytes, long lookupCount, long hitCount) {
+            this.directory = directory;
+            this.requestCount = requestCount;
+            this.blockCount = blockCount;
+            this.segment = segment;
+            this.rawBytes = rawBytes;
+            this.compressedBytes = compressedBytes;
+            this.lookupCount = lookupCount;
+            this.hitCount = hitCount;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public long getRequestCount() {
+            return requestCount;
+        }
+
+        public long getBlockCount() {
+            return blockCount;
+        }
+
+        public String getSegment() {
+            return segment;
+        }
+
+        public long getRawBytes() {
+            return rawBytes;
+        }
+
+        public long getCompressedBytes() {
+            return compressedBytes;
+        }
+
+        /**
+         * Raw over compressed size of the blocks written since startup.
+         */
+        public double getCompressionRatio() {
+            return compressedBytes == 0 ? 0 : (double) rawBytes / compressedBytes;
+        }
+
+        public long getLookupCount() {
+            return lookupCount;
+        }
+
+        public long getHitCount() {
+            return hitCount;
+        }
+    }
+}
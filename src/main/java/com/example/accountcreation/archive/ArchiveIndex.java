@@ -0,0 +1,122 @@
+package com.example.accountcreation.archive;
+
+import com.example.accountcreation.model.AccountStatus;
+
+import java.util.Arrays;
+
+/**
+ * In-memory id → block map of an {@link AccountArchive}, rebuilt from its index file at startup.
+ *
+ * Open addressing over primitive arrays (linear probing, at most half full), so an archived
+ * request costs 16 bytes instead of a boxed map entry. Each value packs the block number and the
+ * status, which also gives exact per-status counts. Ids are positive; 0 marks a free slot. A
+ * request archived twice (after a crash between archiving and deleting) points at its latest block.
+ */
+final class ArchiveIndex {
+
+    private static final int STATUS_BITS = 8;
+    private static final AccountStatus[] STATUSES = AccountStatus.values();
+
+    private long[] keys = new long[1024];
+    private long[] values = new long[1024];
+    private int size;
+
+    private long[] blockSegments = new long[256];
+    private long[] blockOffsets = new long[256];
+    private int blockCount;
+
+    private final long[] statusCounts = new long[STATUSES.length];
+
+    synchronized int addBlock(long segment, long offset) {
+        if (blockCount == blockSegments.length) {
+            blockSegments = Arrays.copyOf(blockSegments, blockCount * 2);
+            blockOffsets = Arrays.copyOf(blockOffsets, blockCount * 2);
+        }
+        blockSegments[blockCount] = segment;
+        blockOffsets[blockCount] = offset;
+        return blockCount++;
+    }
+
+    synchronized void put(long id, int block, AccountStatus status) {
+        if (id <= 0) {
+            throw new IllegalArgumentException("Cannot archive account request id " + id);
+        }
+        if ((size + 1) * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+        int slot = slot(keys, id);
+        if (keys[slot] == id) {
+            statusCounts[(int) (values[slot] & ((1 << STATUS_BITS) - 1))]--;
+        } else {
+            keys[slot] = id;
+            size++;
+        }
+        values[slot] = ((long) block << STATUS_BITS) | status.ordinal();
+        statusCounts[status.ordinal()]++;
+    }
+
+    /**
+     * Segment and offset of the block holding {@code id}, or null if it is not archived.
+     */
+    synchronized long[] locate(long id) {
+        if (id <= 0) {
+            return null;
+        }
+        int slot = slot(keys, id);
+        if (keys[slot] != id) {
+            return null;
+        }
+        int block = (int) (values[slot] >>> STATUS_BITS);
+        return new long[] {blockSegments[block], blockOffsets[block]};
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    synchronized int getBlockCount() {
+        return blockCount;
+    }
+
+    /**
+     * Segment and offset of a block.
+     */
+    synchronized long[] getBlock(int block) {
+        if (block < 0 || block >= blockCount) {
+            throw new IndexOutOfBoundsException("No archive block " + block);
+        }
+        return new long[] {blockSegments[block], blockOffsets[block]};
+    }
+
+    synchronized long[] getStatusCounts() {
+        return statusCounts.clone();
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        keys = new long[capacity];
+        values = new long[capacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = slot(keys, oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static int slot(long[] keys, long id) {
+        int mask = keys.length - 1;
+        int slot = (int) (mix(id) & mask);
+        while (keys[slot] != 0 && keys[slot] != id) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static long mix(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 32);
+    }
+}
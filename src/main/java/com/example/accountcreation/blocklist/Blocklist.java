@@ -0,0 +1,22 @@
+package com.example.accountcreation.blocklist;
+
+/**
+ * Immutable list of blocked values of one {@link Blocklists.Kind}, loaded from a file.
+ * {@link #contains} is called for every evaluated request and must not allocate.
+ */
+public interface Blocklist {
+
+    boolean contains(String value);
+
+    /**
+     * Number of entries: keys for phones and names, whole zip codes plus zip+4 ranges for zip codes.
+     */
+    int size();
+
+    /**
+     * Whether the entries are memory-mapped from the file rather than copied to the heap.
+     */
+    default boolean isMapped() {
+        return false;
+    }
+}
@@ -0,0 +1,241 @@
+package com.example.accountcreation.blocklist;
+
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * The blocklists decision table cells refer to, one {@link Slot} per {@link Kind}.
+ *
+ * A compiled rule holds the slot, not the list, so a reloaded list is swapped into the slot with
+ * one volatile write and the rules see it on their next lookup; the previous list becomes garbage
+ * as a handful of large arrays (or a file mapping), whatever its size. Slots start out empty and
+ * are filled by {@link com.example.accountcreation.service.BlocklistService}.
+ *
+ * Each application context has its own instance, handed to the decision table compiler; an
+ * instance created outside Spring holds empty lists until something installs into it.
+ *
+ * {@link #main} converts a text list of phones or names into the binary form read by
+ * {@link SortedLongSet#map}, which a node maps instead of parsing.
+ */
+@Component
+public class Blocklists {
+
+    static final String KEY_FILE_SUFFIX = ".bin";
+
+    public enum Kind {
+        PHONES("phones"),
+        ZIP_CODES("zip-codes"),
+        NAMES("names");
+
+        private final String listName;
+
+        Kind(String listName) {
+            this.listName = listName;
+        }
+
+        /**
+         * The name decision table cells use, as in {@code inBlocklist($, "phones")}.
+         */
+        public String getListName() {
+            return listName;
+        }
+
+        public static Kind fromListName(String listName) {
+            for (Kind kind : values()) {
+                if (kind.listName.equals(listName)) {
+                    return kind;
+                }
+            }
+            throw new IllegalArgumentException("Unknown blocklist: " + listName);
+        }
+    }
+
+    /**
+     * The instance slots read from a stream resolve to, bound only while {@link #readObject} runs.
+     */
+    private static final ThreadLocal<Blocklists> RESOLVING = new ThreadLocal<>();
+
+    private final Slot[] slots = new Slot[Kind.values().length];
+
+    public Blocklists() {
+        for (Kind kind : Kind.values()) {
+            slots[kind.ordinal()] = new Slot(kind);
+        }
+    }
+
+    public Slot slot(Kind kind) {
+        return slots[kind.ordinal()];
+    }
+
+    /**
+     * Replaces the list of {@code kind} for every rule set compiled against these blocklists.
+     * Returns the previous list.
+     */
+    public Blocklist install(Kind kind, Blocklist blocklist) {
+        Slot slot = slot(kind);
+        Blocklist previous = slot.current;
+        slot.current = blocklist;
+        return previous;
+    }
+
+    /**
+     * Reads an object from {@code in}, resolving the slots it refers to to the slots of this
+     * instance.
+     */
+    public Object readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        Blocklists outer = RESOLVING.get();
+        RESOLVING.set(this);
+        try {
+            return in.readObject();
+        } finally {
+            if (outer == null) {
+                RESOLVING.remove();
+            } else {
+                RESOLVING.set(outer);
+            }
+        }
+    }
+
+    public static Blocklist empty(Kind kind) {
+        return read(kind, null);
+    }
+
+    /**
+     * Reads the list of {@code kind} from {@code file}; a missing file is an empty list.
+     */
+    public static Blocklist read(Kind kind, Path file) {
+        try {
+            if (file == null || !Files.exists(file)) {
+                return kind == Kind.ZIP_CODES ? new ZipCodeBlocklist.Builder().build() : emptyKeys(kind);
+            }
+            switch (kind) {
+                case PHONES:
+                    return PhoneBlocklist.read(file);
+                case ZIP_CODES:
+                    return ZipCodeBlocklist.read(file);
+                case NAMES:
+                    return NameBlocklist.read(file);
+                default:
+                    throw new IllegalArgumentException("Unknown blocklist kind: " + kind);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read " + kind.listName + " blocklist from " + file, e);
+        }
+    }
+
+    /**
+     * Converts a text list to a key file: {@code Blocklists <phones|names> <source> <target.bin>}.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            throw new IllegalArgumentException("Usage: Blocklists <phones|names> <source> <target" + KEY_FILE_SUFFIX + ">");
+        }
+        Kind kind = Kind.fromListName(args[0]);
+        Blocklist blocklist = read(kind, Paths.get(args[1]));
+        if (blocklist instanceof PhoneBlocklist phones) {
+            phones.keys().write(Paths.get(args[2]));
+        } else if (blocklist instanceof NameBlocklist names) {
+            names.keys().write(Paths.get(args[2]));
+        } else {
+            throw new IllegalArgumentException("Only phones and names lists have a key file form");
+        }
+        System.out.println("Wrote " + blocklist.size() + " " + kind.listName + " to " + args[2]);
+    }
+
+    static boolean isKeyFile(Path file) {
+        return file.getFileName().toString().endsWith(KEY_FILE_SUFFIX);
+    }
+
+    /**
+     * Calls {@code consumer} with every line of {@code file}, trimmed, skipping blank lines and
+     * {@code #} comments. Errors name the line they are on.
+     */
+    static void readLines(Path file, Consumer<String> consumer) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            int number = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                number++;
+                String entry = line.trim();
+                if (entry.isEmpty() || entry.charAt(0) == '#') {
+                    continue;
+                }
+                try {
+                    consumer.accept(entry);
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException(file + " line " + number + ": " + e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the key of every line of {@code file} into a primitive array, without boxing.
+     */
+    static SortedLongSet readKeys(Path file, ToLongFunction<String> key) throws IOException {
+        long[][] keys = {new long[1024]};
+        int[] count = {0};
+        readLines(file, line -> {
+            if (count[0] == keys[0].length) {
+                keys[0] = Arrays.copyOf(keys[0], count[0] * 2);
+            }
+            keys[0][count[0]++] = key.applyAsLong(line);
+        });
+        return SortedLongSet.of(keys[0], count[0]);
+    }
+
+    private static Blocklist emptyKeys(Kind kind) {
+        SortedLongSet none = SortedLongSet.of(new long[0], 0);
+        return kind == Kind.PHONES ? new PhoneBlocklist(none) : new NameBlocklist(none);
+    }
+
+    /**
+     * Holder of the current list of one kind. Deserializes, through {@link Blocklists#readObject},
+     * to the slot of its kind in that instance, so a rule set read from a startup artifact uses the
+     * lists of the running node.
+     */
+    public static final class Slot implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final Kind kind;
+        private transient volatile Blocklist current;
+
+        private Slot(Kind kind) {
+            this.kind = kind;
+            this.current = empty(kind);
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        public Blocklist get() {
+            return current;
+        }
+
+        public boolean contains(String value) {
+            return current.contains(value);
+        }
+
+        private Object readResolve() throws ObjectStreamException {
+            Blocklists blocklists = RESOLVING.get();
+            if (blocklists == null) {
+                throw new InvalidObjectException("Blocklist slots can only be read through Blocklists.readObject");
+            }
+            return blocklists.slot(kind);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.accountcreation.blocklist;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Blocked names, as a {@link SortedLongSet} of 64-bit hashes.
+ *
+ * Names are compared ignoring case and with runs of whitespace collapsed, so {@code "JOHN  Doe "}
+ * matches {@code john doe}. Only the hash is kept: with a list of ten million names the chance that
+ * any given name collides with one of them is about one in two trillion.
+ */
+public final class NameBlocklist implements Blocklist {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final SortedLongSet keys;
+
+    NameBlocklist(SortedLongSet keys) {
+        this.keys = keys;
+    }
+
+    /**
+     * Reads a text file with one name per line, or maps a file written by {@link Blocklists#main}
+     * when the name ends with {@code .bin}.
+     */
+    public static NameBlocklist read(Path file) throws IOException {
+        if (Blocklists.isKeyFile(file)) {
+            return new NameBlocklist(SortedLongSet.map(file));
+        }
+        return new NameBlocklist(Blocklists.readKeys(file, NameBlocklist::key));
+    }
+
+    @Override
+    public boolean contains(String value) {
+        return value != null && keys.contains(key(value));
+    }
+
+    @Override
+    public int size() {
+        return keys.size();
+    }
+
+    @Override
+    public boolean isMapped() {
+        return keys.isMapped();
+    }
+
+    SortedLongSet keys() {
+        return keys;
+    }
+
+    /**
+     * FNV-1a over the lower-cased characters, with leading and trailing whitespace dropped and
+     * inner runs of it counted as one space.
+     */
+    static long key(CharSequence value) {
+        long hash = FNV_OFFSET;
+        boolean started = false;
+        boolean space = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = started;
+                continue;
+            }
+            if (space) {
+                hash = (hash ^ ' ') * FNV_PRIME;
+                space = false;
+            }
+            hash = (hash ^ Character.toLowerCase(c)) * FNV_PRIME;
+            started = true;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.accountcreation.blocklist;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Blocked phone numbers, as a {@link SortedLongSet} of numeric keys.
+ *
+ * A number's key is its digits read as one number, with the digit count in the low bits so
+ * leading zeros are kept; any other character is ignored, so {@code 555-123-4567} and
+ * {@code 5551234567} are the same number. Numbers have at most {@value #MAX_DIGITS} digits.
+ */
+public final class PhoneBlocklist implements Blocklist {
+
+    static final int MAX_DIGITS = 15;
+
+    private final SortedLongSet keys;
+
+    PhoneBlocklist(SortedLongSet keys) {
+        this.keys = keys;
+    }
+
+    /**
+     * Reads a text file with one number per line, or maps a file written by
+     * {@link Blocklists#main} when the name ends with {@code .bin}.
+     */
+    public static PhoneBlocklist read(Path file) throws IOException {
+        if (Blocklists.isKeyFile(file)) {
+            return new PhoneBlocklist(SortedLongSet.map(file));
+        }
+        return new PhoneBlocklist(Blocklists.readKeys(file, line -> {
+            long key = key(line);
+            if (key < 0) {
+                throw new IllegalArgumentException("not a phone number of 1 to " + MAX_DIGITS + " digits");
+            }
+            return key;
+        }));
+    }
+
+    @Override
+    public boolean contains(String value) {
+        if (value == null) {
+            return false;
+        }
+        long key = key(value);
+        return key >= 0 && keys.contains(key);
+    }
+
+    @Override
+    public int size() {
+        return keys.size();
+    }
+
+    @Override
+    public boolean isMapped() {
+        return keys.isMapped();
+    }
+
+    SortedLongSet keys() {
+        return keys;
+    }
+
+    /**
+     * Returns the key of {@code value}, or -1 if it has no digits or too many.
+     */
+    static long key(CharSequence value) {
+        long number = 0;
+        int digits = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (++digits > MAX_DIGITS) {
+                    return -1;
+                }
+                number = number * 10 + (c - '0');
+            }
+        }
+        return digits == 0 ? -1 : number << 4 | digits;
+    }
+}
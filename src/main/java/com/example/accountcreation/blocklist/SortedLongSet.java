@@ -0,0 +1,177 @@
+package com.example.accountcreation.blocklist;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Immutable set of {@code long} keys, stored sorted in a single {@link LongBuffer} and searched
+ * by bisection, behind a Bloom filter.
+ *
+ * The keys are either a heap array or a memory-mapped file in the format written by
+ * {@link #write}: {@code [int magic][int format version][long count]} followed by the keys as
+ * sorted big-endian longs. A mapped set costs no heap for its keys and the operating system pages
+ * them in on demand. Most lookups are for keys that are not in the set; the Bloom filter, about 10
+ * bits per key on the heap, answers 99% of those with 7 bit reads instead of a bisection through
+ * pages of the file. Lookups do not allocate.
+ */
+public final class SortedLongSet {
+
+    static final int MAGIC = 0x41424C53;
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_SIZE = 16;
+
+    private static final int BITS_PER_KEY = 10;
+    private static final int HASHES = 7;
+    private static final long MAX_FILTER_BITS = 1L << 30;
+
+    private final LongBuffer keys;
+    private final int size;
+    private final long[] filter;
+    private final int filterMask;
+    private final boolean mapped;
+
+    private SortedLongSet(LongBuffer keys, boolean mapped) {
+        this.keys = keys;
+        this.size = keys.limit();
+        this.mapped = mapped;
+        long wanted = Math.max(64L, (long) size * BITS_PER_KEY);
+        int bits = (int) Math.min(MAX_FILTER_BITS, Long.highestOneBit(wanted - 1) << 1);
+        this.filter = new long[bits >>> 6];
+        this.filterMask = bits - 1;
+        long previous = Long.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            long key = keys.get(i);
+            if (i > 0 && key <= previous) {
+                throw new IllegalArgumentException("Keys are not sorted and unique at position " + i);
+            }
+            previous = key;
+            long hash = mix(key);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32) | 1;
+            for (int k = 0; k < HASHES; k++) {
+                int bit = (h1 + k * h2) & filterMask;
+                filter[bit >>> 6] |= 1L << bit;
+            }
+        }
+    }
+
+    /**
+     * Builds a set from {@code keys}, which may be unsorted and hold duplicates. The array is
+     * sorted in place and kept.
+     */
+    public static SortedLongSet of(long[] keys, int count) {
+        Arrays.sort(keys, 0, count);
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (unique == 0 || keys[i] != keys[unique - 1]) {
+                keys[unique++] = keys[i];
+            }
+        }
+        return new SortedLongSet(LongBuffer.wrap(keys, 0, unique).slice(), false);
+    }
+
+    /**
+     * Maps a file written by {@link #write}. The file must be replaced by renaming a new one over
+     * it, never rewritten in place, while it is mapped.
+     */
+    public static SortedLongSet map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < HEADER_SIZE) {
+                throw new IOException(file + " is too short for a key file");
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            channel.read(header, 0);
+            header.flip();
+            if (header.getInt() != MAGIC || header.getInt() != FORMAT_VERSION) {
+                throw new IOException(file + " is not a key file of format version " + FORMAT_VERSION);
+            }
+            long count = header.getLong();
+            if (count < 0 || count > Integer.MAX_VALUE / Long.BYTES || HEADER_SIZE + count * Long.BYTES != length) {
+                throw new IOException(file + " holds " + count + " keys but is " + length + " bytes long");
+            }
+            LongBuffer keys = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, count * Long.BYTES).asLongBuffer();
+            return new SortedLongSet(keys, true);
+        }
+    }
+
+    /**
+     * Writes the keys of this set to {@code target} in the mapped format, through a temporary
+     * file renamed into place so a node mapping {@code target} never sees a partial file.
+     */
+    public void write(Path target) throws IOException {
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(size);
+            for (int i = 0; i < size; i++) {
+                out.writeLong(keys.get(i));
+            }
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public boolean contains(long key) {
+        long hash = mix(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int k = 0; k < HASHES; k++) {
+            int bit = (h1 + k * h2) & filterMask;
+            if ((filter[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long value = keys.get(mid);
+            if (value < key) {
+                low = mid + 1;
+            } else if (value > key) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isMapped() {
+        return mapped;
+    }
+
+    /**
+     * Heap used by this set: the Bloom filter, plus the keys unless they are mapped.
+     */
+    public long heapBytes() {
+        return (long) filter.length * Long.BYTES + (mapped ? 0 : (long) size * Long.BYTES);
+    }
+
+    /**
+     * Finalizer of MurmurHash3, so keys that differ in a few low bits spread over the filter.
+     */
+    static long mix(long key) {
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.accountcreation.blocklist;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Blocked zip codes: whole five-digit zips in a 100,000-bit bitset, and zip+4 ranges in a table of
+ * sorted, disjoint {@code [start, end]} pairs of nine-digit codes.
+ *
+ * Each line of the file is a zip ({@code 90210}), a zip+4 ({@code 12345-6789}) or a range of
+ * either ({@code 94100..94199}, {@code 12345-0000..12345-0999}). A zip matches when its five
+ * digits are blocked; a zip+4 also matches when it falls in a range. A five-digit zip is not
+ * matched by ranges that cover only part of it.
+ */
+public final class ZipCodeBlocklist implements Blocklist {
+
+    private static final int ZIP_COUNT = 100_000;
+    private static final int PLUS4_COUNT = 10_000;
+
+    private final long[] zips;
+    private final int[] rangeStarts;
+    private final int[] rangeEnds;
+    private final int size;
+
+    private ZipCodeBlocklist(long[] zips, int[] rangeStarts, int[] rangeEnds, int size) {
+        this.zips = zips;
+        this.rangeStarts = rangeStarts;
+        this.rangeEnds = rangeEnds;
+        this.size = size;
+    }
+
+    public static ZipCodeBlocklist read(Path file) throws IOException {
+        Builder builder = new Builder();
+        Blocklists.readLines(file, builder::add);
+        return builder.build();
+    }
+
+    @Override
+    public boolean contains(String value) {
+        if (value == null) {
+            return false;
+        }
+        int code = parse(value, 0, value.length());
+        if (code < 0) {
+            return false;
+        }
+        int zip = code < ZIP_COUNT ? code : (code - ZIP_COUNT) / PLUS4_COUNT;
+        if ((zips[zip >>> 6] & (1L << zip)) != 0) {
+            return true;
+        }
+        if (code < ZIP_COUNT) {
+            return false;
+        }
+        // Last range starting at or before the code
+        int low = 0;
+        int high = rangeStarts.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (rangeStarts[mid] <= code) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high >= 0 && rangeEnds[high] >= code;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Parses {@code 12345}, {@code 12345-6789} or {@code 123456789}: returns the zip for five
+     * digits, the nine-digit code offset by {@value #ZIP_COUNT} for nine, and -1 for anything else.
+     */
+    static int parse(CharSequence value, int from, int to) {
+        int length = to - from;
+        if (length != 5 && length != 9 && !(length == 10 && value.charAt(from + 5) == '-')) {
+            return -1;
+        }
+        int code = 0;
+        for (int i = from; i < to; i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                code = code * 10 + (c - '0');
+            } else if (i != from + 5) {
+                return -1;
+            }
+        }
+        return length == 5 ? code : ZIP_COUNT + code;
+    }
+
+    static final class Builder {
+        private final long[] zips = new long[(ZIP_COUNT + 63) >>> 6];
+        private int[] starts = new int[16];
+        private int[] ends = new int[16];
+        private int ranges;
+
+        void add(String line) {
+            int separator = line.indexOf("..");
+            int start = parse(line, 0, separator < 0 ? line.length() : separator);
+            int end = separator < 0 ? start : parse(line, separator + 2, line.length());
+            if (start < 0 || end < 0) {
+                throw new IllegalArgumentException("not a zip code, zip+4 or range of either");
+            }
+            if ((start < ZIP_COUNT) != (end < ZIP_COUNT) || end < start) {
+                throw new IllegalArgumentException("range ends must both be zips or zip+4s, in order");
+            }
+            if (start < ZIP_COUNT) {
+                for (int zip = start; zip <= end; zip++) {
+                    zips[zip >>> 6] |= 1L << zip;
+                }
+                return;
+            }
+            if (ranges == starts.length) {
+                starts = Arrays.copyOf(starts, ranges * 2);
+                ends = Arrays.copyOf(ends, ranges * 2);
+            }
+            starts[ranges] = start;
+            ends[ranges] = end;
+            ranges++;
+        }
+
+        ZipCodeBlocklist build() {
+            // Sort ranges by start, then merge overlapping and adjacent ones
+            long[] packed = new long[ranges];
+            for (int i = 0; i < ranges; i++) {
+                packed[i] = (long) starts[i] << 32 | ends[i];
+            }
+            Arrays.sort(packed);
+            int[] mergedStarts = new int[ranges];
+            int[] mergedEnds = new int[ranges];
+            int merged = 0;
+            for (long range : packed) {
+                int start = (int) (range >>> 32);
+                int end = (int) range;
+                if (merged > 0 && start <= mergedEnds[merged - 1] + 1) {
+                    mergedEnds[merged - 1] = Math.max(mergedEnds[merged - 1], end);
+                } else {
+                    mergedStarts[merged] = start;
+                    mergedEnds[merged] = end;
+                    merged++;
+                }
+            }
+            int zipCount = 0;
+            for (long word : zips) {
+                zipCount += Long.bitCount(word);
+            }
+            return new ZipCodeBlocklist(zips, Arrays.copyOf(mergedStarts, merged), Arrays.copyOf(mergedEnds, merged),
+                                        zipCount + merged);
+        }
+    }
+}
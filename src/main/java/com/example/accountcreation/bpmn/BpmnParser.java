@@ -0,0 +1,204 @@
+package com.example.accountcreation.bpmn;
+
+import com.example.accountcreation.bpmn.ProcessDefinition.Flow;
+import com.example.accountcreation.bpmn.ProcessDefinition.Node;
+import com.example.accountcreation.bpmn.ProcessDefinition.NodeType;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.xml.sax.SAXException;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parses the executable process of a BPMN 2.0 document into a {@link ProcessDefinition}.
+ *
+ * Supported elements: one start event, end events, service tasks, user tasks, exclusive gateways
+ * and sequence flows. Documentation, annotations and diagram interchange elements are skipped;
+ * any other element inside the process is rejected, so an unsupported model fails at startup
+ * rather than mid-instance. Flow conditions are limited to {@code ${variable == 'value'}}. At an
+ * exclusive gateway the first matching conditional flow is taken, otherwise its unconditional one.
+ */
+public final class BpmnParser {
+
+    private static final String BPMN_NS = "http://www.omg.org/spec/BPMN/20100524/MODEL";
+    private static final String CAMUNDA_NS = "http://camunda.org/schema/1.0/bpmn";
+
+    private static final Pattern CONDITION =
+        Pattern.compile("\\$\\{\\s*([A-Za-z_][A-Za-z0-9_]*)\\s*==\\s*'([^']*)'\\s*}");
+    private static final Set<String> IGNORED = Set.of("documentation", "extensionElements", "textAnnotation", "association");
+    private static final Pattern DELEGATE_EXPRESSION = Pattern.compile("\\$\\{\\s*([A-Za-z_][A-Za-z0-9_]*)\\s*}");
+
+    private BpmnParser() {}
+
+    public static ProcessDefinition parse(InputStream document) {
+        Element process = findExecutableProcess(read(document));
+
+        List<Element> nodeElements = new ArrayList<>();
+        List<Element> flowElements = new ArrayList<>();
+        Map<String, Integer> indexById = new HashMap<>();
+        for (org.w3c.dom.Node child = process.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (!(child instanceof Element) || !BPMN_NS.equals(child.getNamespaceURI())) {
+                continue;
+            }
+            Element element = (Element) child;
+            if (IGNORED.contains(element.getLocalName())) {
+                continue;
+            }
+            if ("sequenceFlow".equals(element.getLocalName())) {
+                flowElements.add(element);
+            } else {
+                nodeType(element);
+                if (indexById.put(requiredAttribute(element, "id"), nodeElements.size()) != null) {
+                    throw new IllegalArgumentException("Duplicate node id: " + element.getAttribute("id"));
+                }
+                nodeElements.add(element);
+            }
+        }
+
+        List<List<Flow>> outgoing = new ArrayList<>(nodeElements.size());
+        for (int i = 0; i < nodeElements.size(); i++) {
+            outgoing.add(new ArrayList<>());
+        }
+        for (Element flow : flowElements) {
+            String id = requiredAttribute(flow, "id");
+            int source = resolve(indexById, requiredAttribute(flow, "sourceRef"), id);
+            int target = resolve(indexById, requiredAttribute(flow, "targetRef"), id);
+            outgoing.get(source).add(compileFlow(flow, id, target));
+        }
+
+        Node[] nodes = new Node[nodeElements.size()];
+        int startIndex = -1;
+        for (int i = 0; i < nodes.length; i++) {
+            Element element = nodeElements.get(i);
+            NodeType type = nodeType(element);
+            if (type == NodeType.START_EVENT) {
+                if (startIndex >= 0) {
+                    throw new IllegalArgumentException("Process must have exactly one start event");
+                }
+                startIndex = i;
+            }
+            nodes[i] = new Node(i, element.getAttribute("id"), element.getAttribute("name"), type,
+                                type == NodeType.SERVICE_TASK ? handlerName(element) : null, outgoing.get(i));
+            validate(nodes[i]);
+        }
+        if (startIndex < 0) {
+            throw new IllegalArgumentException("Process must have exactly one start event");
+        }
+
+        return new ProcessDefinition(process.getAttribute("id"), process.getAttribute("name"), nodes, startIndex, indexById);
+    }
+
+    private static Document read(InputStream document) {
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setNamespaceAware(true);
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            return factory.newDocumentBuilder().parse(document);
+        } catch (ParserConfigurationException | SAXException | IOException e) {
+            throw new IllegalArgumentException("Process definition is not valid XML: " + e.getMessage(), e);
+        }
+    }
+
+    private static Element findExecutableProcess(Document document) {
+        org.w3c.dom.NodeList processes = document.getElementsByTagNameNS(BPMN_NS, "process");
+        for (int i = 0; i < processes.getLength(); i++) {
+            Element process = (Element) processes.item(i);
+            if (!"false".equals(process.getAttribute("isExecutable"))) {
+                return process;
+            }
+        }
+        throw new IllegalArgumentException("Document contains no executable process");
+    }
+
+    private static NodeType nodeType(Element element) {
+        switch (element.getLocalName()) {
+            case "startEvent":
+                return NodeType.START_EVENT;
+            case "endEvent":
+                return NodeType.END_EVENT;
+            case "serviceTask":
+                return NodeType.SERVICE_TASK;
+            case "userTask":
+                return NodeType.USER_TASK;
+            case "exclusiveGateway":
+                return NodeType.EXCLUSIVE_GATEWAY;
+            default:
+                throw new IllegalArgumentException("Unsupported BPMN element: " + element.getLocalName()
+                    + " (" + element.getAttribute("id") + ")");
+        }
+    }
+
+    private static String handlerName(Element task) {
+        String expression = task.getAttributeNS(CAMUNDA_NS, "delegateExpression");
+        if (expression.isEmpty()) {
+            return task.getAttribute("id");
+        }
+        Matcher matcher = DELEGATE_EXPRESSION.matcher(expression.trim());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Unsupported delegate expression on " + task.getAttribute("id") + ": " + expression);
+        }
+        return matcher.group(1);
+    }
+
+    private static Flow compileFlow(Element flow, String id, int target) {
+        org.w3c.dom.NodeList conditions = flow.getElementsByTagNameNS(BPMN_NS, "conditionExpression");
+        if (conditions.getLength() == 0) {
+            return new Flow(id, target, null, null);
+        }
+        String expression = conditions.item(0).getTextContent().trim();
+        Matcher matcher = CONDITION.matcher(expression);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Unsupported condition on flow " + id + ": " + expression);
+        }
+        return new Flow(id, target, matcher.group(1), matcher.group(2));
+    }
+
+    private static void validate(Node node) {
+        int flows = node.getOutgoing().size();
+        switch (node.getType()) {
+            case END_EVENT:
+                if (flows != 0) {
+                    throw new IllegalArgumentException("End event " + node.getId() + " must not have outgoing flows");
+                }
+                break;
+            case EXCLUSIVE_GATEWAY:
+                if (flows == 0) {
+                    throw new IllegalArgumentException("Gateway " + node.getId() + " has no outgoing flows");
+                }
+                break;
+            default:
+                if (flows != 1 || node.getOutgoing().get(0).isConditional()) {
+                    throw new IllegalArgumentException(node.getType() + " " + node.getId()
+                        + " must have exactly one unconditional outgoing flow");
+                }
+        }
+    }
+
+    private static int resolve(Map<String, Integer> indexById, String nodeId, String flowId) {
+        Integer index = indexById.get(nodeId);
+        if (index == null) {
+            throw new IllegalArgumentException("Flow " + flowId + " references unknown node " + nodeId);
+        }
+        return index;
+    }
+
+    private static String requiredAttribute(Element element, String name) {
+        String value = element.getAttribute(name);
+        if (value.isEmpty()) {
+            throw new IllegalArgumentException(element.getLocalName() + " is missing attribute " + name);
+        }
+        return value;
+    }
+}
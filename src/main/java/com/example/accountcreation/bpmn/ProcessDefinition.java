@@ -0,0 +1,161 @@
+package com.example.accountcreation.bpmn;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, precompiled process graph produced by {@link BpmnParser}.
+ *
+ * Nodes are addressed by index and every flow already points at its target's index, so running
+ * an instance never looks anything up by id. Serializable, so a parsed definition can be shipped
+ * as a startup artifact.
+ */
+public final class ProcessDefinition implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum NodeType {
+        START_EVENT,
+        END_EVENT,
+        SERVICE_TASK,
+        USER_TASK,
+        EXCLUSIVE_GATEWAY
+    }
+
+    private final String id;
+    private final String name;
+    private final Node[] nodes;
+    private final int startIndex;
+    private final Map<String, Integer> indexById;
+
+    ProcessDefinition(String id, String name, Node[] nodes, int startIndex, Map<String, Integer> indexById) {
+        this.id = id;
+        this.name = name;
+        this.nodes = nodes;
+        this.startIndex = startIndex;
+        this.indexById = Collections.unmodifiableMap(indexById);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int size() {
+        return nodes.length;
+    }
+
+    public Node getNode(int index) {
+        return nodes[index];
+    }
+
+    public int getStartIndex() {
+        return startIndex;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the process has no node with this id
+     */
+    public int indexOf(String nodeId) {
+        Integer index = indexById.get(nodeId);
+        if (index == null) {
+            throw new IllegalArgumentException("Unknown node in process " + id + ": " + nodeId);
+        }
+        return index;
+    }
+
+    public static final class Node implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final int index;
+        private final String id;
+        private final String name;
+        private final NodeType type;
+        private final String handlerName;
+        private final List<Flow> outgoing;
+
+        Node(int index, String id, String name, NodeType type, String handlerName, List<Flow> outgoing) {
+            this.index = index;
+            this.id = id;
+            this.name = name;
+            this.type = type;
+            this.handlerName = handlerName;
+            this.outgoing = List.copyOf(outgoing);
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public NodeType getType() {
+            return type;
+        }
+
+        /**
+         * Bean name bound to a service task: the {@code camunda:delegateExpression} when present,
+         * otherwise the task id. Null for other node types.
+         */
+        public String getHandlerName() {
+            return handlerName;
+        }
+
+        public List<Flow> getOutgoing() {
+            return outgoing;
+        }
+    }
+
+    /**
+     * Sequence flow with an optional {@code ${variable == 'value'}} condition.
+     */
+    public static final class Flow implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final String id;
+        private final int targetIndex;
+        private final String conditionVariable;
+        private final String conditionValue;
+
+        Flow(String id, int targetIndex, String conditionVariable, String conditionValue) {
+            this.id = id;
+            this.targetIndex = targetIndex;
+            this.conditionVariable = conditionVariable;
+            this.conditionValue = conditionValue;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public int getTargetIndex() {
+            return targetIndex;
+        }
+
+        public boolean isConditional() {
+            return conditionVariable != null;
+        }
+
+        boolean matches(Map<String, Object> variables) {
+            Object value = variables.get(conditionVariable);
+            if (value == null) {
+                return false;
+            }
+            if (value instanceof Enum<?>) {
+                return ((Enum<?>) value).name().equals(conditionValue);
+            }
+            return conditionValue.equals(value.toString());
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.accountcreation.bpmn;
+
+import com.example.accountcreation.bpmn.ProcessDefinition.Flow;
+import com.example.accountcreation.bpmn.ProcessDefinition.Node;
+import com.example.accountcreation.bpmn.ProcessDefinition.NodeType;
+import com.example.accountcreation.metrics.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Runs instances of one {@link ProcessDefinition}.
+ *
+ * Service task handlers are resolved once, when the engine is built, into an array indexed like
+ * the nodes; a step is an array read, the handler call and, at gateways, a scan of at most a
+ * few precompiled conditions. Instances run on the calling thread until they reach an end event
+ * or a user task. A waiting instance keeps no state in the engine: it is resumed by naming the
+ * user task and passing its variables again, so the wait state can live with the business data.
+ *
+ * Every node visit is timed into a per-node {@link LatencyHistogram}; {@link #getNodeStats()}
+ * reports count, mean, p99 and max per node.
+ */
+public final class ProcessEngine {
+
+    private final ProcessDefinition definition;
+    private final ServiceTaskHandler[] handlers;
+    private final LatencyHistogram[] latencies;
+    private final LongAdder[] failures;
+
+    /**
+     * @param handlerResolver returns the handler for a service task's handler name
+     * @throws IllegalArgumentException if a service task has no handler
+     */
+    public ProcessEngine(ProcessDefinition definition, Function<String, ServiceTaskHandler> handlerResolver) {
+        this.definition = definition;
+        int size = definition.size();
+        this.handlers = new ServiceTaskHandler[size];
+        this.latencies = new LatencyHistogram[size];
+        this.failures = new LongAdder[size];
+        for (int i = 0; i < size; i++) {
+            Node node = definition.getNode(i);
+            if (node.getType() == NodeType.SERVICE_TASK) {
+                handlers[i] = handlerResolver.apply(node.getHandlerName());
+                if (handlers[i] == null) {
+                    throw new IllegalArgumentException("No handler '" + node.getHandlerName()
+                        + "' for service task " + node.getId());
+                }
+            }
+            latencies[i] = new LatencyHistogram();
+            failures[i] = new LongAdder();
+        }
+    }
+
+    public ProcessDefinition getDefinition() {
+        return definition;
+    }
+
+    public ProcessExecution start(Map<String, Object> variables) {
+        ProcessExecution execution = new ProcessExecution(variables);
+        run(execution, definition.getStartIndex());
+        return execution;
+    }
+
+    /**
+     * Completes the user task an instance is waiting in and runs the instance on from there.
+     *
+     * @throws IllegalArgumentException if {@code userTaskId} is not a user task of this process
+     */
+    public ProcessExecution resume(String userTaskId, Map<String, Object> variables) {
+        int index = definition.indexOf(userTaskId);
+        Node node = definition.getNode(index);
+        if (node.getType() != NodeType.USER_TASK) {
+            throw new IllegalArgumentException(userTaskId + " is not a user task");
+        }
+        ProcessExecution execution = new ProcessExecution(variables);
+        run(execution, node.getOutgoing().get(0).getTargetIndex());
+        return execution;
+    }
+
+    public List<NodeStats> getNodeStats() {
+        List<NodeStats> stats = new ArrayList<>(definition.size());
+        for (int i = 0; i < definition.size(); i++) {
+            Node node = definition.getNode(i);
+            stats.add(new NodeStats(node.getId(), node.getName(), node.getType(),
+                                    latencies[i].snapshot(), failures[i].sum()));
+        }
+        return stats;
+    }
+
+    public LatencyHistogram.Snapshot getNodeLatency(int index) {
+        return latencies[index].snapshot();
+    }
+
+    public long getNodeFailures(int index) {
+        return failures[index].sum();
+    }
+
+    private void run(ProcessExecution execution, int index) {
+        while (true) {
+            Node node = definition.getNode(index);
+            execution.setCurrentNodeId(node.getId());
+            long started = System.nanoTime();
+            int next;
+            try {
+                next = step(node, execution);
+            } catch (RuntimeException e) {
+                failures[index].increment();
+                throw e;
+            } finally {
+                latencies[index].recordSince(started);
+            }
+            if (next < 0) {
+                return;
+            }
+            index = next;
+        }
+    }
+
+    /**
+     * Executes one node and returns the index of the next one, or -1 when the instance stops.
+     */
+    private int step(Node node, ProcessExecution execution) {
+        switch (node.getType()) {
+            case SERVICE_TASK:
+                handlers[node.getIndex()].execute(execution);
+                if (execution.getState() == ProcessExecution.State.TERMINATED) {
+                    return -1;
+                }
+                return node.getOutgoing().get(0).getTargetIndex();
+            case EXCLUSIVE_GATEWAY:
+                return choose(node, execution.getVariables());
+            case USER_TASK:
+                execution.setState(ProcessExecution.State.WAITING);
+                return -1;
+            case END_EVENT:
+                execution.setState(ProcessExecution.State.COMPLETED);
+                return -1;
+            default:
+                return node.getOutgoing().get(0).getTargetIndex();
+        }
+    }
+
+    private static int choose(Node gateway, Map<String, Object> variables) {
+        Flow fallback = null;
+        for (Flow flow : gateway.getOutgoing()) {
+            if (!flow.isConditional()) {
+                fallback = flow;
+            } else if (flow.matches(variables)) {
+                return flow.getTargetIndex();
+            }
+        }
+        if (fallback == null) {
+            throw new IllegalStateException("No outgoing flow of gateway " + gateway.getId() + " matches");
+        }
+        return fallback.getTargetIndex();
+    }
+
+    public static class NodeStats {
+        private final String id;
+        private final String name;
+        private final NodeType type;
+        private final LatencyHistogram.Snapshot latency;
+        private final long failedCount;
+
+        public NodeStats(String id, String name, NodeType type, LatencyHistogram.Snapshot latency, long failedCount) {
+            this.id = id;
+            this.name = name;
+            this.type = type;
+            this.latency = latency;
+            this.failedCount = failedCount;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public NodeType getType() {
+            return type;
+        }
+
+        public long getCount() {
+            return latency.getCount();
+        }
+
+        public long getFailedCount() {
+            return failedCount;
+        }
+
+        public double getMeanMicros() {
+            return latency.getMeanNanos() / 1000.0;
+        }
+
+        public double getP99Micros() {
+            return latency.valueAtQuantile(0.99) / 1000.0;
+        }
+
+        public double getMaxMicros() {
+            return latency.getMaxNanos() / 1000.0;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.accountcreation.bpmn;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * State of one process instance while the engine runs it: its variables and where it stopped.
+ * Not thread-safe; an instance is only ever advanced by one thread at a time.
+ */
+public final class ProcessExecution {
+
+    public enum State {
+        RUNNING,
+        WAITING,
+        COMPLETED,
+        TERMINATED
+    }
+
+    private final Map<String, Object> variables;
+    private State state = State.RUNNING;
+    private String currentNodeId;
+
+    ProcessExecution(Map<String, Object> variables) {
+        this.variables = new HashMap<>(variables);
+    }
+
+    public Map<String, Object> getVariables() {
+        return variables;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T getVariable(String name) {
+        return (T) variables.get(name);
+    }
+
+    public void setVariable(String name, Object value) {
+        variables.put(name, value);
+    }
+
+    /**
+     * Ends the instance once the current service task returns, without following its outgoing
+     * flow (for example when a redelivered instance finds its work already done).
+     */
+    public void terminate() {
+        state = State.TERMINATED;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    void setState(State state) {
+        this.state = state;
+    }
+
+    /**
+     * The user task the instance is waiting in, or the node it ended on.
+     */
+    public String getCurrentNodeId() {
+        return currentNodeId;
+    }
+
+    void setCurrentNodeId(String currentNodeId) {
+        this.currentNodeId = currentNodeId;
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.accountcreation.bpmn;
+
+/**
+ * Implementation of a service task, bound by bean name when the process engine starts.
+ */
+@FunctionalInterface
+public interface ServiceTaskHandler {
+
+    void execute(ProcessExecution execution);
+}
@@ -1,9 +0,0 @@
-package com.example.accountcreation.config;
-
-import org.springframework.context.annotation.Configuration;
-
-@Configuration
-public class CamundaConfig {
-    // Camunda BPM will be auto-configured by Spring Boot starter
-    // This class is just a placeholder for any custom Camunda configuration if needed
-}
\ No newline at end of file
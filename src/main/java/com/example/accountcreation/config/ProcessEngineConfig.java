@@ -0,0 +1,92 @@
+package com.example.accountcreation.config;
+
+import com.example.accountcreation.bpmn.BpmnParser;
+import com.example.accountcreation.bpmn.ProcessDefinition;
+import com.example.accountcreation.bpmn.ProcessEngine;
+import com.example.accountcreation.bpmn.ServiceTaskHandler;
+import com.example.accountcreation.service.AccountProcessTasks;
+import com.example.accountcreation.startup.StartupArtifacts;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Builds the in-house {@link ProcessEngine} for the account creation process. Service tasks are
+ * bound by delegate expression to the {@link ServiceTaskHandler} beans declared here. The parsed
+ * definition comes from the {@link StartupArtifacts} when they hold one for the same document.
+ */
+@Configuration
+public class ProcessEngineConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProcessEngineConfig.class);
+
+    @Bean
+    public ProcessEngine accountCreationProcessEngine(
+            @Value("${accounts.process.definition:classpath:bpmn/account-creation-process.bpmn}") Resource definition,
+            BeanFactory beanFactory,
+            StartupArtifacts startupArtifacts) throws IOException {
+        byte[] document;
+        try (InputStream in = definition.getInputStream()) {
+            document = in.readAllBytes();
+        }
+        ProcessDefinition process = startupArtifacts.isEnabled()
+            ? startupArtifacts.findProcess(document).orElse(null)
+            : null;
+        if (process != null) {
+            logger.info("Loaded process {} with {} nodes from startup artifact {}",
+                        process.getId(), process.size(), startupArtifacts.getLocation());
+        } else {
+            process = BpmnParser.parse(new ByteArrayInputStream(document));
+            logger.info("Loaded process {} with {} nodes from {}", process.getId(), process.size(), definition);
+        }
+        return new ProcessEngine(process, name -> beanFactory.getBean(name, ServiceTaskHandler.class));
+    }
+
+    @Bean
+    public ServiceTaskHandler validateRequestDelegate(AccountProcessTasks tasks) {
+        return tasks::validateRequest;
+    }
+
+    @Bean
+    public ServiceTaskHandler applyRulesDelegate(AccountProcessTasks tasks) {
+        return tasks::applyRules;
+    }
+
+    @Bean
+    public ServiceTaskHandler autoApproveDelegate(AccountProcessTasks tasks) {
+        return tasks::autoApprove;
+    }
+
+    @Bean
+    public ServiceTaskHandler autoRejectDelegate(AccountProcessTasks tasks) {
+        return tasks::autoReject;
+    }
+
+    @Bean
+    public ServiceTaskHandler setManualReviewDelegate(AccountProcessTasks tasks) {
+        return tasks::setManualReview;
+    }
+
+    @Bean
+    public ServiceTaskHandler manualApproveDelegate(AccountProcessTasks tasks) {
+        return tasks::manualApprove;
+    }
+
+    @Bean
+    public ServiceTaskHandler manualRejectDelegate(AccountProcessTasks tasks) {
+        return tasks::manualReject;
+    }
+
+    @Bean
+    public ServiceTaskHandler sendNotificationDelegate(AccountProcessTasks tasks) {
+        return tasks::sendNotification;
+    }
+}
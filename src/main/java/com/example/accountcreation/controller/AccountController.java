@@ -1,18 +1,44 @@
 package com.example.accountcreation.controller;
 
+import com.example.accountcreation.dto.AccountPageDto;
 import com.example.accountcreation.dto.AccountRequestDto;
 import com.example.accountcreation.dto.AccountResponseDto;
+import com.example.accountcreation.dto.AccountStatsDto;
+import com.example.accountcreation.dto.BulkManualDecisionDto;
+import com.example.accountcreation.dto.ManualReviewClaimDto;
 import com.example.accountcreation.model.AccountStatus;
+import com.example.accountcreation.service.AccountQueryService;
+import com.example.accountcreation.service.AccountResponseCache;
+import com.example.accountcreation.service.AccountStatusHub;
+import com.example.accountcreation.service.AccountStatusCounters;
+import com.example.accountcreation.service.BatchAccountCreationService;
+import com.example.accountcreation.service.IdempotencyConflictException;
+import com.example.accountcreation.service.IdempotencyService;
+import com.example.accountcreation.service.ManualReviewService;
+import com.example.accountcreation.service.ProcessRejectedException;
+import com.example.accountcreation.service.ReviewConflictException;
 import com.example.accountcreation.service.SimplifiedAccountCreationService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Predicate;
 
 @RestController
 @RequestMapping("/api/accounts")
@@ -21,37 +47,182 @@ public class AccountController {
     
     private static final Logger logger = LoggerFactory.getLogger(AccountController.class);
     
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    
     @Autowired
     private SimplifiedAccountCreationService accountCreationService;
     
+    @Autowired
+    private BatchAccountCreationService batchAccountCreationService;
+    
+    @Autowired
+    private AccountQueryService accountQueryService;
+    
+    @Autowired
+    private AccountStatusCounters statusCounters;
+    
+    @Autowired
+    private AccountResponseCache responseCache;
+    
+    @Autowired
+    private ManualReviewService manualReviewService;
+    
+    @Autowired
+    private IdempotencyService idempotencyService;
+    
+    @Autowired
+    private AccountStatusHub statusHub;
+    
+    @Value("${accounts.subscriptions.sse-timeout-ms:300000}")
+    private long sseTimeoutMs;
+    
+    @Value("${accounts.subscriptions.long-poll-timeout-ms:30000}")
+    private long longPollTimeoutMs;
+    
+    @Value("${accounts.subscriptions.max-long-poll-timeout-ms:120000}")
+    private long maxLongPollTimeoutMs;
+    
+    /**
+     * Creates an account request. With an {@code Idempotency-Key} header, retries carrying the
+     * same key get the original response (marked {@code Idempotent-Replayed: true}) instead of
+     * creating another request.
+     */
     @PostMapping
-    public ResponseEntity<AccountResponseDto> createAccount(@Valid @RequestBody AccountRequestDto requestDto) {
+    public ResponseEntity<AccountResponseDto> createAccount(@Valid @RequestBody AccountRequestDto requestDto,
+                                                            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
         try {
             logger.info("Received account creation request for: {}", requestDto.getName());
-            AccountResponseDto response = accountCreationService.createAccountRequest(requestDto);
-            return new ResponseEntity<>(response, HttpStatus.CREATED);
+            if (idempotencyKey == null) {
+                return new ResponseEntity<>(accountCreationService.createAccountRequest(requestDto), HttpStatus.CREATED);
+            }
+            IdempotencyService.Result result = idempotencyService.createAccountRequest(idempotencyKey, requestDto);
+            return ResponseEntity.status(HttpStatus.CREATED)
+                .header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(result.isReplayed()))
+                .body(result.getResponse());
+        } catch (ProcessRejectedException | IdempotencyConflictException | IllegalArgumentException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Error creating account request", e);
             throw new RuntimeException("Failed to create account request: " + e.getMessage());
         }
     }
     
-    @GetMapping("/{id}")
-    public ResponseEntity<AccountResponseDto> getAccount(@PathVariable Long id) {
+    /**
+     * Bulk upload: accepts NDJSON or a JSON array of account requests and streams back one
+     * NDJSON result line per record, in input order.
+     */
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public void createAccountsBatch(InputStream body, HttpServletResponse response) throws IOException {
+        logger.info("Received batch account creation request");
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        batchAccountCreationService.createAccountRequests(body, response.getOutputStream());
+    }
+    
+    /**
+     * Account counts per status, served from incrementally maintained counters.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<AccountStatsDto> getAccountStats() {
+        return ResponseEntity.ok(statusCounters.getStats());
+    }
+    
+    /**
+     * Served from the response cache. The body carries an ETag; a poll that sends it back in
+     * If-None-Match gets 304 with no body until the request changes.
+     */
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getAccount(@PathVariable Long id,
+                                             @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        AccountResponseCache.Entry entry;
         try {
-            AccountResponseDto response = accountCreationService.getAccountRequest(id);
-            return ResponseEntity.ok(response);
+            entry = responseCache.get(id);
         } catch (Exception e) {
             logger.error("Error retrieving account request: {}", id, e);
             return ResponseEntity.notFound().build();
         }
+        if (matchesEtag(ifNoneMatch, entry.getEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(entry.getEtag())
+                .cacheControl(CacheControl.noCache())
+                .build();
+        }
+        return accountResponse(entry);
+    }
+    
+    /**
+     * Long poll: answers as soon as the request is {@code decided} (out of {@code PENDING}) or
+     * {@code terminal} (approved or rejected for good), or with its current state after
+     * {@code timeout} milliseconds. Waiting holds no server thread.
+     */
+    @GetMapping(value = "/{id}", params = "waitFor", produces = MediaType.APPLICATION_JSON_VALUE)
+    public DeferredResult<ResponseEntity<byte[]>> awaitAccount(@PathVariable Long id,
+                                                               @RequestParam String waitFor,
+                                                               @RequestParam(required = false) Long timeout) {
+        Predicate<AccountStatus> reached = waitCondition(waitFor);
+        long timeoutMs = Math.min(timeout != null ? Math.max(1, timeout) : longPollTimeoutMs, maxLongPollTimeoutMs);
+        DeferredResult<ResponseEntity<byte[]>> result = new DeferredResult<>(timeoutMs);
+        AccountStatusHub.Subscription subscription = statusHub.subscribe(id, entry -> {
+            if (reached.test(entry.getStatus())) {
+                result.setResult(accountResponse(entry));
+            }
+        });
+        result.onCompletion(subscription::close);
+        result.onTimeout(() -> result.setResult(currentAccountResponse(id)));
+        
+        // Subscribed first, so an update committed after this read is still delivered
+        AccountResponseCache.Entry current;
+        try {
+            current = responseCache.get(id);
+        } catch (Exception e) {
+            subscription.close();
+            result.setResult(ResponseEntity.notFound().build());
+            return result;
+        }
+        if (reached.test(current.getStatus())) {
+            subscription.close();
+            result.setResult(accountResponse(current));
+        }
+        return result;
+    }
+    
+    /**
+     * Server-sent events: a {@code status} event with the current state, then one per update until
+     * the request reaches a terminal status (the stream then ends) or {@code sse-timeout-ms} passes.
+     * Streams hold no server thread while idle.
+     */
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamAccountEvents(@PathVariable Long id) {
+        StatusStream stream = new StatusStream(new SseEmitter(sseTimeoutMs));
+        AccountStatusHub.Subscription subscription = statusHub.subscribe(id, stream::send);
+        stream.emitter.onCompletion(subscription::close);
+        stream.emitter.onTimeout(stream.emitter::complete);
+        stream.emitter.onError(e -> subscription.close());
+        
+        AccountResponseCache.Entry current;
+        try {
+            current = responseCache.get(id);
+        } catch (Exception e) {
+            subscription.close();
+            return ResponseEntity.notFound().build();
+        }
+        stream.send(current);
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.noCache())
+            .body(stream.emitter);
     }
     
+    /**
+     * List endpoints return one keyset page at a time. When more rows follow, the token for the
+     * next page is returned in the {@value #NEXT_CURSOR_HEADER} header; pass it back as {@code cursor}.
+     */
     @GetMapping
-    public ResponseEntity<List<AccountResponseDto>> getAllAccounts() {
+    public ResponseEntity<List<AccountResponseDto>> getAllAccounts(@RequestParam(required = false) String cursor,
+                                                                   @RequestParam(required = false) Integer limit) {
         try {
-            List<AccountResponseDto> responses = accountCreationService.getAllAccountRequests();
-            return ResponseEntity.ok(responses);
+            return toPageResponse(accountQueryService.getAccountRequests(null, cursor, limit));
         } catch (Exception e) {
             logger.error("Error retrieving all account requests", e);
             throw new RuntimeException("Failed to retrieve account requests: " + e.getMessage());
@@ -59,10 +230,11 @@ public class AccountController {
     }
     
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<AccountResponseDto>> getAccountsByStatus(@PathVariable AccountStatus status) {
+    public ResponseEntity<List<AccountResponseDto>> getAccountsByStatus(@PathVariable AccountStatus status,
+                                                                        @RequestParam(required = false) String cursor,
+                                                                        @RequestParam(required = false) Integer limit) {
         try {
-            List<AccountResponseDto> responses = accountCreationService.getAccountRequestsByStatus(status);
-            return ResponseEntity.ok(responses);
+            return toPageResponse(accountQueryService.getAccountRequests(status, cursor, limit));
         } catch (Exception e) {
             logger.error("Error retrieving account requests by status: {}", status, e);
             throw new RuntimeException("Failed to retrieve account requests by status: " + e.getMessage());
@@ -70,16 +242,158 @@ public class AccountController {
     }
     
     @GetMapping("/pending-reviews")
-    public ResponseEntity<List<AccountResponseDto>> getPendingManualReviews() {
+    public ResponseEntity<List<AccountResponseDto>> getPendingManualReviews(@RequestParam(required = false) String cursor,
+                                                                            @RequestParam(required = false) Integer limit) {
         try {
-            List<AccountResponseDto> responses = accountCreationService.getPendingManualReviews();
-            return ResponseEntity.ok(responses);
+            return toPageResponse(accountQueryService.getAccountRequests(AccountStatus.MANUAL_REVIEW, cursor, limit));
         } catch (Exception e) {
             logger.error("Error retrieving pending manual reviews", e);
             throw new RuntimeException("Failed to retrieve pending manual reviews: " + e.getMessage());
         }
     }
     
+    /**
+     * Leases the next {@code limit} unclaimed manual reviews to {@code reviewer}. Each stays
+     * leased until a decision is submitted or the lease expires.
+     */
+    @PostMapping("/pending-reviews/claim")
+    public ResponseEntity<ManualReviewClaimDto> claimManualReviews(@RequestParam String reviewer,
+                                                                   @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(manualReviewService.claim(reviewer, limit));
+    }
+    
+    /**
+     * Applies a reviewer's decisions on leased reviews, all or none. Returns 409 if any request is
+     * not leased to the reviewer or changed since it was claimed.
+     */
+    @PostMapping("/pending-reviews/decisions")
+    public ResponseEntity<List<AccountResponseDto>> decideManualReviews(@Valid @RequestBody BulkManualDecisionDto decisions) {
+        return ResponseEntity.ok(manualReviewService.decide(decisions));
+    }
+    
+    /**
+     * Streams every account request (optionally of one status) as a single JSON array, written
+     * while the rows are read from the database.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public void streamAccounts(@RequestParam(required = false) AccountStatus status,
+                               HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        accountQueryService.streamAccountRequests(status, response.getOutputStream());
+    }
+    
+    private ResponseEntity<byte[]> currentAccountResponse(Long id) {
+        try {
+            // Read through to the database: the update waited for may have been made on another node
+            return accountResponse(responseCache.reload(id));
+        } catch (Exception e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    private static ResponseEntity<byte[]> accountResponse(AccountResponseCache.Entry entry) {
+        return ResponseEntity.ok()
+            .eTag(entry.getEtag())
+            .cacheControl(CacheControl.noCache())
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(entry.getBody());
+    }
+    
+    private static Predicate<AccountStatus> waitCondition(String waitFor) {
+        switch (waitFor) {
+            case "decided":
+                return status -> status != AccountStatus.PENDING;
+            case "terminal":
+                return AccountStatus::isTerminal;
+            default:
+                throw new IllegalArgumentException("waitFor must be 'decided' or 'terminal'");
+        }
+    }
+    
+    private static boolean matchesEtag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals(etag) || candidate.equals("*")) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static ResponseEntity<List<AccountResponseDto>> toPageResponse(AccountPageDto page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+    
+    /**
+     * One SSE connection. Deliveries from the hub and the initial state may race, so events are
+     * sent under the stream's lock and an entry older than the last one sent is skipped.
+     */
+    private static final class StatusStream {
+        private final SseEmitter emitter;
+        private String lastEtag;
+        private LocalDateTime lastUpdatedAt;
+        private boolean ended;
+        
+        StatusStream(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+        
+        synchronized void send(AccountResponseCache.Entry entry) {
+            if (ended || entry.getEtag().equals(lastEtag)
+                || (lastUpdatedAt != null && entry.getUpdatedAt() != null && entry.getUpdatedAt().isBefore(lastUpdatedAt))) {
+                return;
+            }
+            lastEtag = entry.getEtag();
+            lastUpdatedAt = entry.getUpdatedAt();
+            try {
+                emitter.send(SseEmitter.event()
+                    .id(entry.getEtag())
+                    .name("status")
+                    .data(entry.getBody(), MediaType.APPLICATION_JSON));
+                if (entry.getStatus().isTerminal()) {
+                    ended = true;
+                    emitter.complete();
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away or the emitter already completed
+                ended = true;
+                emitter.completeWithError(e);
+            }
+        }
+    }
+    
+    @ExceptionHandler(ProcessRejectedException.class)
+    public ResponseEntity<String> handleProcessRejected(ProcessRejectedException e) {
+        logger.warn("Rejecting account creation request: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+            .body(e.getMessage());
+    }
+    
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public ResponseEntity<String> handleIdempotencyConflict(IdempotencyConflictException e) {
+        logger.warn("Rejecting account creation request: {}", e.getMessage());
+        return ResponseEntity.status(e.isPayloadMismatch() ? HttpStatus.UNPROCESSABLE_ENTITY : HttpStatus.CONFLICT)
+            .body(e.getMessage());
+    }
+    
+    @ExceptionHandler({ReviewConflictException.class, OptimisticLockingFailureException.class})
+    public ResponseEntity<String> handleReviewConflict(RuntimeException e) {
+        logger.warn("Rejecting manual review decisions: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+    }
+    
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<String> handleRuntimeException(RuntimeException e) {
         logger.error("Runtime exception occurred", e);
@@ -0,0 +1,82 @@
+package com.example.accountcreation.controller;
+
+import com.example.accountcreation.analytics.DecisionAnalytics;
+import com.example.accountcreation.analytics.DecisionRollups;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Decision counts from the incrementally maintained rollups of {@link DecisionAnalytics}; a query
+ * never touches the account requests.
+ */
+@RestController
+@RequestMapping("/api/analytics")
+public class AnalyticsController {
+
+    @Autowired
+    private DecisionAnalytics decisionAnalytics;
+
+    /**
+     * Counts decisions and manual outcomes between {@code from} and {@code to} (default: the last
+     * 24 hours), grouped by the comma-separated {@code groupBy} dimensions ({@code reason},
+     * {@code zip3}, {@code ageBand}, {@code status}) and, with a {@code step} of {@code minute},
+     * {@code hour} or {@code day}, over time. The other parameters keep only one value of their
+     * dimension.
+     */
+    @GetMapping
+    public ResponseEntity<DecisionRollups.Result> query(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String step,
+            @RequestParam(required = false) String groupBy,
+            @RequestParam(required = false) String reason,
+            @RequestParam(required = false) String zip3,
+            @RequestParam(required = false) String ageBand,
+            @RequestParam(required = false) String status) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusDays(1);
+
+        Set<DecisionRollups.Dimension> dimensions = EnumSet.noneOf(DecisionRollups.Dimension.class);
+        if (groupBy != null) {
+            for (String name : groupBy.split(",")) {
+                if (!name.isBlank()) {
+                    dimensions.add(DecisionRollups.Dimension.fromParameterName(name.trim()));
+                }
+            }
+        }
+        Map<DecisionRollups.Dimension, String> filters = new EnumMap<>(DecisionRollups.Dimension.class);
+        putFilter(filters, DecisionRollups.Dimension.REASON, reason);
+        putFilter(filters, DecisionRollups.Dimension.ZIP3, zip3);
+        putFilter(filters, DecisionRollups.Dimension.AGE_BAND, ageBand);
+        putFilter(filters, DecisionRollups.Dimension.STATUS, status);
+
+        DecisionRollups.Resolution resolution =
+            step == null ? null : DecisionRollups.Resolution.valueOf(step.trim().toUpperCase(Locale.ROOT));
+        return ResponseEntity.ok(decisionAnalytics.query(start, end, resolution, dimensions, filters));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleInvalidQuery(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    private static void putFilter(Map<DecisionRollups.Dimension, String> filters, DecisionRollups.Dimension dimension,
+                                  String value) {
+        if (value != null) {
+            filters.put(dimension, value);
+        }
+    }
+}
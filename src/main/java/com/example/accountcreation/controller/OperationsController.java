@@ -0,0 +1,191 @@
+package com.example.accountcreation.controller;
+
+import com.example.accountcreation.analytics.DecisionAnalytics;
+import com.example.accountcreation.bpmn.ProcessEngine;
+import com.example.accountcreation.journal.DecisionJournal;
+import com.example.accountcreation.metrics.PrometheusTextWriter;
+import com.example.accountcreation.notification.NotificationDispatcher;
+import com.example.accountcreation.ratelimit.RateLimitFilter;
+import com.example.accountcreation.repository.memory.InMemoryAccountRequestRepository;
+import com.example.accountcreation.service.AccountArchiver;
+import com.example.accountcreation.service.AccountProcessExecutor;
+import com.example.accountcreation.service.AccountProcessMetrics;
+import com.example.accountcreation.service.AccountResponseCache;
+import com.example.accountcreation.service.AccountStatusHub;
+import com.example.accountcreation.service.BlocklistService;
+import com.example.accountcreation.service.IdempotencyService;
+import com.example.accountcreation.service.ProcessJobQueue;
+import com.example.accountcreation.startup.StartupWarmup;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Operational views of the running node, for dashboards and load tests.
+ */
+@RestController
+@RequestMapping("/api/ops")
+public class OperationsController {
+    
+    @Autowired
+    private AccountProcessExecutor processExecutor;
+    
+    @Autowired
+    private ProcessJobQueue processJobQueue;
+    
+    @Autowired
+    private AccountResponseCache responseCache;
+    
+    @Autowired
+    private ProcessEngine processEngine;
+    
+    @Autowired
+    private AccountProcessMetrics processMetrics;
+    
+    @Autowired
+    private NotificationDispatcher notificationDispatcher;
+    
+    @Autowired
+    private DecisionJournal decisionJournal;
+    
+    @Autowired
+    private IdempotencyService idempotencyService;
+    
+    @Autowired
+    private AccountStatusHub statusHub;
+    
+    @Autowired
+    private AccountArchiver archiver;
+    
+    @Autowired
+    private StartupWarmup startupWarmup;
+    
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+    
+    @Autowired
+    private BlocklistService blocklistService;
+    
+    @Autowired
+    private DecisionAnalytics decisionAnalytics;
+    
+    @Autowired(required = false)
+    private InMemoryAccountRequestRepository memoryStore;
+    
+    /**
+     * Readiness probe: 503 until startup, including any warm-up, has finished. The body has the
+     * timings of each startup phase.
+     */
+    @GetMapping("/readiness")
+    public ResponseEntity<StartupWarmup.Stats> getReadiness() {
+        StartupWarmup.Stats stats = startupWarmup.getStats();
+        return ResponseEntity.status(stats.isReady() ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE).body(stats);
+    }
+    
+    @GetMapping("/process-executor")
+    public ResponseEntity<AccountProcessExecutor.Stats> getProcessExecutorStats() {
+        return ResponseEntity.ok(processExecutor.getStats());
+    }
+    
+    @GetMapping("/process-queue")
+    public ResponseEntity<ProcessJobQueue.Stats> getProcessQueueStats() {
+        return ResponseEntity.ok(processJobQueue.getStats());
+    }
+    
+    @PostMapping("/process-queue/dead-letters/requeue")
+    public ResponseEntity<Map<String, Integer>> requeueDeadLetters() {
+        return ResponseEntity.ok(Map.of("requeued", processJobQueue.requeueDeadLetters()));
+    }
+    
+    @GetMapping("/account-cache")
+    public ResponseEntity<AccountResponseCache.Stats> getAccountCacheStats() {
+        return ResponseEntity.ok(responseCache.getStats());
+    }
+    
+    /**
+     * Process latencies, rule hits and executor saturation in the Prometheus text format.
+     */
+    @GetMapping(value = "/metrics", produces = PrometheusTextWriter.CONTENT_TYPE)
+    public ResponseEntity<String> getMetrics() {
+        return ResponseEntity.ok(processMetrics.scrape());
+    }
+    
+    @GetMapping("/notifications")
+    public ResponseEntity<NotificationDispatcher.Stats> getNotificationStats() {
+        return ResponseEntity.ok(notificationDispatcher.getStats());
+    }
+    
+    @GetMapping("/idempotency")
+    public ResponseEntity<IdempotencyService.Stats> getIdempotencyStats() {
+        return ResponseEntity.ok(idempotencyService.getStats());
+    }
+    
+    @GetMapping("/subscriptions")
+    public ResponseEntity<AccountStatusHub.Stats> getSubscriptionStats() {
+        return ResponseEntity.ok(statusHub.getStats());
+    }
+    
+    @GetMapping("/rate-limits")
+    public ResponseEntity<RateLimitFilter.Stats> getRateLimitStats() {
+        return ResponseEntity.ok(rateLimitFilter.getStats());
+    }
+    
+    @GetMapping("/journal")
+    public ResponseEntity<DecisionJournal.Stats> getJournalStats() {
+        return ResponseEntity.ok(decisionJournal.getStats());
+    }
+    
+    /**
+     * The in-memory account store; 404 unless running with the {@code memory-store} profile.
+     */
+    @GetMapping("/account-store")
+    public ResponseEntity<InMemoryAccountRequestRepository.Stats> getAccountStoreStats() {
+        if (memoryStore == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(memoryStore.getStats());
+    }
+    
+    @GetMapping("/archive")
+    public ResponseEntity<AccountArchiver.Stats> getArchiveStats() {
+        return ResponseEntity.ok(archiver.getStats());
+    }
+    
+    /**
+     * Runs an archiving pass now instead of waiting for the next scheduled one.
+     */
+    @PostMapping("/archive/run")
+    public ResponseEntity<Map<String, Integer>> runArchiver() {
+        return ResponseEntity.ok(Map.of("archived", archiver.archive()));
+    }
+    
+    @GetMapping("/blocklists")
+    public ResponseEntity<BlocklistService.Stats> getBlocklistStats() {
+        return ResponseEntity.ok(blocklistService.getStats());
+    }
+    
+    /**
+     * Reloads every blocklist from its file now instead of waiting for the next change check.
+     */
+    @PostMapping("/blocklists/reload")
+    public ResponseEntity<BlocklistService.Stats> reloadBlocklists() {
+        return ResponseEntity.ok(blocklistService.reload());
+    }
+    
+    @GetMapping("/analytics")
+    public ResponseEntity<DecisionAnalytics.Stats> getAnalyticsStats() {
+        return ResponseEntity.ok(decisionAnalytics.getStats());
+    }
+    
+    @GetMapping("/process-engine")
+    public ResponseEntity<List<ProcessEngine.NodeStats>> getProcessEngineStats() {
+        return ResponseEntity.ok(processEngine.getNodeStats());
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.accountcreation.controller;
+
+import com.example.accountcreation.service.RuleReplayJob;
+import com.example.accountcreation.service.RuleReplayService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+import java.util.List;
+
+/**
+ * What-if replays of a candidate decision table against the stored account requests.
+ */
+@RestController
+@RequestMapping("/api/rules/what-if")
+public class RuleReplayController {
+
+    private static final Logger logger = LoggerFactory.getLogger(RuleReplayController.class);
+
+    @Autowired
+    private RuleReplayService ruleReplayService;
+
+    /**
+     * Starts a replay of the posted JDM decision table; poll the returned location for progress
+     * and the decision diff.
+     */
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<RuleReplayJob.Report> startReplay(@RequestBody byte[] candidateTable) {
+        RuleReplayJob job = ruleReplayService.start(candidateTable);
+        return ResponseEntity.accepted()
+            .location(URI.create("/api/rules/what-if/" + job.getId()))
+            .body(job.report());
+    }
+
+    @GetMapping
+    public ResponseEntity<List<RuleReplayJob.Report>> getReplays() {
+        return ResponseEntity.ok(ruleReplayService.getJobs().stream().map(RuleReplayJob::report).toList());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<RuleReplayJob.Report> getReplay(@PathVariable String id) {
+        RuleReplayJob job = ruleReplayService.getJob(id);
+        return job == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(job.report());
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<RuleReplayJob.Report> cancelReplay(@PathVariable String id) {
+        RuleReplayJob job = ruleReplayService.cancel(id);
+        return job == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(job.report());
+    }
+
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<String> handleReplayRunning(IllegalStateException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleInvalidTable(IllegalArgumentException e) {
+        logger.warn("Rejecting candidate decision table: {}", e.getMessage());
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.accountcreation.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position in a list of account requests ordered by {@code (createdAt, id)}. Clients see
+ * it as an opaque token and pass it back to fetch the rows that follow.
+ */
+public class AccountCursor {
+    
+    private final LocalDateTime createdAt;
+    private final Long id;
+    
+    public AccountCursor(LocalDateTime createdAt, Long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+    
+    public static AccountCursor after(AccountResponseDto last) {
+        return new AccountCursor(last.getCreatedAt(), last.getId());
+    }
+    
+    public static AccountCursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            return new AccountCursor(
+                LocalDateTime.parse(value.substring(0, separator)),
+                Long.valueOf(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+    
+    public String encode() {
+        String value = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+}
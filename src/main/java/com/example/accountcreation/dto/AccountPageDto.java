@@ -0,0 +1,25 @@
+package com.example.accountcreation.dto;
+
+import java.util.List;
+
+/**
+ * One keyset page of account requests. {@code nextCursor} is null on the last page.
+ */
+public class AccountPageDto {
+    
+    private final List<AccountResponseDto> items;
+    private final String nextCursor;
+    
+    public AccountPageDto(List<AccountResponseDto> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+    
+    public List<AccountResponseDto> getItems() {
+        return items;
+    }
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
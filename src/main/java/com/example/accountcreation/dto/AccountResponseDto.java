@@ -19,6 +19,24 @@ public class AccountResponseDto {
     // Constructors
     public AccountResponseDto() {}
     
+    /**
+     * Used by JPQL constructor expressions, so list reads never hydrate entities.
+     */
+    public AccountResponseDto(Long id, String name, String zipCode, Integer age, String phoneNumber,
+                              AccountStatus status, String processInstanceId, LocalDateTime createdAt,
+                              LocalDateTime updatedAt, String rejectionReason) {
+        this.id = id;
+        this.name = name;
+        this.zipCode = zipCode;
+        this.age = age;
+        this.phoneNumber = phoneNumber;
+        this.status = status;
+        this.processInstanceId = processInstanceId;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.rejectionReason = rejectionReason;
+    }
+    
     // Getters and Setters
     public Long getId() {
         return id;
@@ -0,0 +1,30 @@
+package com.example.accountcreation.dto;
+
+import com.example.accountcreation.model.AccountStatus;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+public class AccountStatsDto {
+    
+    private final Map<AccountStatus, Long> counts;
+    private final long total;
+    private final LocalDateTime reconciledAt;
+    
+    public AccountStatsDto(Map<AccountStatus, Long> counts, long total, LocalDateTime reconciledAt) {
+        this.counts = counts;
+        this.total = total;
+        this.reconciledAt = reconciledAt;
+    }
+    
+    public Map<AccountStatus, Long> getCounts() {
+        return counts;
+    }
+    
+    public long getTotal() {
+        return total;
+    }
+    
+    public LocalDateTime getReconciledAt() {
+        return reconciledAt;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.accountcreation.dto;
+
+import com.example.accountcreation.model.AccountStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Outcome of one record of a bulk upload, written as one NDJSON line.
+ * Records that failed parsing or validation carry {@code errors} instead of an id and status.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchResultDto {
+
+    private int index;
+    private Long id;
+    private AccountStatus status;
+    private String reason;
+    private List<String> errors;
+
+    // Constructors
+    public BatchResultDto() {}
+
+    public static BatchResultDto accepted(int index, Long id, AccountStatus status, String reason) {
+        BatchResultDto result = new BatchResultDto();
+        result.index = index;
+        result.id = id;
+        result.status = status;
+        result.reason = reason;
+        return result;
+    }
+
+    public static BatchResultDto rejected(int index, List<String> errors) {
+        BatchResultDto result = new BatchResultDto();
+        result.index = index;
+        result.errors = errors;
+        return result;
+    }
+
+    // Getters and Setters
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public AccountStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(AccountStatus status) {
+        this.status = status;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.accountcreation.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+
+public class BulkManualDecisionDto {
+    
+    @NotBlank(message = "Reviewer is required")
+    private String reviewer;
+    
+    @NotEmpty(message = "At least one decision is required")
+    private List<@Valid ManualDecisionDto> decisions;
+    
+    // Constructors
+    public BulkManualDecisionDto() {}
+    
+    public BulkManualDecisionDto(String reviewer, List<ManualDecisionDto> decisions) {
+        this.reviewer = reviewer;
+        this.decisions = decisions;
+    }
+    
+    // Getters and Setters
+    public String getReviewer() {
+        return reviewer;
+    }
+    
+    public void setReviewer(String reviewer) {
+        this.reviewer = reviewer;
+    }
+    
+    public List<ManualDecisionDto> getDecisions() {
+        return decisions;
+    }
+    
+    public void setDecisions(List<ManualDecisionDto> decisions) {
+        this.decisions = decisions;
+    }
+}
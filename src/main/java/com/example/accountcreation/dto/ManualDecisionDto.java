@@ -0,0 +1,68 @@
+package com.example.accountcreation.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+public class ManualDecisionDto {
+    
+    /**
+     * Values of the process's {@code manualDecision} variable.
+     */
+    public enum Decision {
+        APPROVE,
+        REJECT
+    }
+    
+    @NotNull(message = "Account request id is required")
+    private Long id;
+    
+    // Optional: version from the claim, to refuse the decision if the request changed since
+    private Long version;
+    
+    @NotNull(message = "Decision is required")
+    private Decision decision;
+    
+    private String reason;
+    
+    // Constructors
+    public ManualDecisionDto() {}
+    
+    public ManualDecisionDto(Long id, Long version, Decision decision, String reason) {
+        this.id = id;
+        this.version = version;
+        this.decision = decision;
+        this.reason = reason;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
+    public Decision getDecision() {
+        return decision;
+    }
+    
+    public void setDecision(Decision decision) {
+        this.decision = decision;
+    }
+    
+    public String getReason() {
+        return reason;
+    }
+    
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.accountcreation.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class ManualReviewClaimDto {
+    
+    private final String reviewer;
+    private final LocalDateTime leaseExpiresAt;
+    private final List<ManualReviewDto> reviews;
+    
+    public ManualReviewClaimDto(String reviewer, LocalDateTime leaseExpiresAt, List<ManualReviewDto> reviews) {
+        this.reviewer = reviewer;
+        this.leaseExpiresAt = leaseExpiresAt;
+        this.reviews = reviews;
+    }
+    
+    public String getReviewer() {
+        return reviewer;
+    }
+    
+    public LocalDateTime getLeaseExpiresAt() {
+        return leaseExpiresAt;
+    }
+    
+    public List<ManualReviewDto> getReviews() {
+        return reviews;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.accountcreation.dto;
+
+import com.example.accountcreation.model.AccountRequest;
+import java.time.LocalDateTime;
+
+/**
+ * A manual review leased to a reviewer. {@code version} identifies the state the reviewer saw;
+ * sending it back with the decision makes the decision fail if the request changed since.
+ */
+public class ManualReviewDto {
+    
+    private final Long id;
+    private final String name;
+    private final String zipCode;
+    private final Integer age;
+    private final String phoneNumber;
+    private final String processInstanceId;
+    private final LocalDateTime createdAt;
+    private final Long version;
+    
+    public ManualReviewDto(AccountRequest request) {
+        this.id = request.getId();
+        this.name = request.getName();
+        this.zipCode = request.getZipCode();
+        this.age = request.getAge();
+        this.phoneNumber = request.getPhoneNumber();
+        this.processInstanceId = request.getProcessInstanceId();
+        this.createdAt = request.getCreatedAt();
+        this.version = request.getVersion();
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public String getZipCode() {
+        return zipCode;
+    }
+    
+    public Integer getAge() {
+        return age;
+    }
+    
+    public String getPhoneNumber() {
+        return phoneNumber;
+    }
+    
+    public String getProcessInstanceId() {
+        return processInstanceId;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+}
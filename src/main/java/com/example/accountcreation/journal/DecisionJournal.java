@@ -0,0 +1,419 @@
+package com.example.accountcreation.journal;
+
+import com.example.accountcreation.metrics.LatencyHistogram;
+import com.example.accountcreation.model.AccountRequest;
+import com.example.accountcreation.model.AccountStatus;
+import com.example.accountcreation.service.GoRulesService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only binary journal of rule decisions and status transitions, independent of the database.
+ *
+ * Records go to memory-mapped segment files of {@code segment-size-bytes}, named
+ * {@code journal-<index>.seg}; a record that does not fit starts the next segment. Every process
+ * start opens a new segment, so several nodes can share a directory. Each segment begins with a
+ * magic number and format version, followed by frames of {@code [int length][int crc32][payload]}
+ * (see {@link JournalRecord} for the payload); the length is written last, and a zero length ends
+ * the segment. {@link JournalReader} reads them back.
+ *
+ * Appending copies the encoded record into the mapping and returns without waiting for the disk.
+ * A flusher thread forces the current segment every {@code flush-interval-ms} when something was
+ * appended, so all records of an interval share one fsync; {@link #flush()} forces synchronously.
+ * A crash loses at most the last interval, and a torn last record fails its checksum.
+ *
+ * Records written inside a transaction are appended once it commits, in order, and dropped on
+ * rollback. Journal failures are logged and counted, never thrown to the caller.
+ */
+@Component
+public class DecisionJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(DecisionJournal.class);
+
+    static final int MAGIC = 0x41434A4E;
+    static final int FORMAT_VERSION = 1;
+    static final int SEGMENT_HEADER_SIZE = 16;
+    static final int FRAME_HEADER_SIZE = 8;
+    static final String SEGMENT_PREFIX = "journal-";
+    static final String SEGMENT_SUFFIX = ".seg";
+
+    @Value("${accounts.journal.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${accounts.journal.directory:journal}")
+    private String directoryName = "journal";
+
+    @Value("${accounts.journal.segment-size-bytes:67108864}")
+    private int segmentSizeBytes = 64 * 1024 * 1024;
+
+    @Value("${accounts.journal.flush-interval-ms:10}")
+    private long flushIntervalMs = 10;
+
+    private Path directory;
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private Path segmentPath;
+    private ByteBuffer scratch = ByteBuffer.allocate(1024);
+    private final CRC32 crc = new CRC32();
+    private final Object syncLock = new Object();
+    private Thread flusher;
+    private volatile boolean running;
+
+    // Guarded by this
+    private long recordCount;
+    private long bytesWritten;
+    private long rotationCount;
+
+    private volatile long syncedRecordCount;
+    private final LongAdder syncCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    private final LatencyHistogram syncLatency = new LatencyHistogram();
+
+    public DecisionJournal() {}
+
+    public DecisionJournal(Path directory, int segmentSizeBytes, long flushIntervalMs) {
+        this.directory = directory;
+        this.segmentSizeBytes = segmentSizeBytes;
+        this.flushIntervalMs = flushIntervalMs;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            logger.info("Decision journal disabled");
+            return;
+        }
+        if (segmentSizeBytes < SEGMENT_HEADER_SIZE + FRAME_HEADER_SIZE + 64) {
+            throw new IllegalArgumentException("accounts.journal.segment-size-bytes is too small: " + segmentSizeBytes);
+        }
+        if (directory == null) {
+            directory = Paths.get(directoryName);
+        }
+        Files.createDirectories(directory);
+        long lastIndex = -1;
+        for (Path existing : JournalReader.listSegments(directory)) {
+            lastIndex = Math.max(lastIndex, JournalReader.segmentIndex(existing));
+        }
+        synchronized (this) {
+            openSegment(lastIndex + 1);
+        }
+        running = true;
+        flusher = new Thread(this::flushLoop, "decision-journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+        logger.info("Decision journal writing to {} (segment size {} bytes, flush interval {} ms)",
+                   segmentPath, segmentSizeBytes, flushIntervalMs);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public void recordDecision(AccountRequest request, String ruleSetVersion, GoRulesService.DecisionResponse decision) {
+        if (enabled) {
+            record(JournalRecord.decision(request, ruleSetVersion, decision, System.currentTimeMillis()));
+        }
+    }
+
+    public void recordTransition(AccountRequest request, AccountStatus from) {
+        if (enabled) {
+            record(JournalRecord.transition(request.getId(), from, request.getStatus(), System.currentTimeMillis()));
+        }
+    }
+
+    /**
+     * Appends now, or once the current transaction commits.
+     */
+    private void record(JournalRecord record) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            append(record);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<JournalRecord> pending = (List<JournalRecord>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<JournalRecord> records = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, records);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(DecisionJournal.this);
+                    if (status == STATUS_COMMITTED) {
+                        records.forEach(DecisionJournal.this::append);
+                    }
+                }
+            });
+            pending = records;
+        }
+        pending.add(record);
+    }
+
+    /**
+     * Appends a record to the current segment without waiting for it to reach the disk.
+     */
+    public void append(JournalRecord record) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            write(record);
+        } catch (IOException | RuntimeException e) {
+            failedCount.increment();
+            logger.error("Failed to journal {} record for request {}", record.getType(), record.getRequestId(), e);
+        }
+    }
+
+    /**
+     * Forces everything appended so far to the disk.
+     */
+    public void flush() {
+        synchronized (syncLock) {
+            MappedByteBuffer buffer;
+            long target;
+            synchronized (this) {
+                buffer = segment;
+                target = recordCount;
+            }
+            if (buffer == null || target == syncedRecordCount) {
+                return;
+            }
+            long started = System.nanoTime();
+            buffer.force();
+            syncLatency.recordSince(started);
+            syncCount.increment();
+            syncedRecordCount = target;
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        synchronized (this) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close journal segment {}", segmentPath, e);
+            }
+            segment = null;
+        }
+        logger.info("Decision journal closed after {} records", recordCount);
+    }
+
+    public LatencyHistogram.Snapshot getSyncLatency() {
+        return syncLatency.snapshot();
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(enabled, directory == null ? null : directory.toString(),
+                         segmentPath == null ? null : segmentPath.getFileName().toString(),
+                         segmentSizeBytes, segment == null ? 0 : segment.position(),
+                         recordCount, recordCount - syncedRecordCount, bytesWritten, rotationCount,
+                         syncCount.sum(), syncLatency.snapshot(), failedCount.sum());
+    }
+
+    private synchronized void write(JournalRecord record) throws IOException {
+        if (segment == null) {
+            throw new IllegalStateException("Decision journal is closed");
+        }
+        ByteBuffer payload = encode(record);
+        int frameSize = FRAME_HEADER_SIZE + payload.remaining();
+        if (frameSize > segment.remaining()) {
+            if (frameSize > segmentSizeBytes - SEGMENT_HEADER_SIZE) {
+                throw new IllegalArgumentException("Record of " + frameSize + " bytes does not fit a journal segment");
+            }
+            rotate();
+        }
+        crc.reset();
+        crc.update(payload.duplicate());
+        int start = segment.position();
+        segment.position(start + 4);
+        segment.putInt((int) crc.getValue());
+        segment.put(payload);
+        // Length last: a reader never sees a frame whose payload is still being copied
+        segment.putInt(start, payload.limit());
+        recordCount++;
+        bytesWritten += frameSize;
+    }
+
+    private ByteBuffer encode(JournalRecord record) {
+        while (true) {
+            scratch.clear();
+            try {
+                record.encode(scratch);
+                return scratch.flip();
+            } catch (BufferOverflowException e) {
+                scratch = ByteBuffer.allocate(scratch.capacity() * 2);
+            }
+        }
+    }
+
+    /**
+     * Completes the current segment and opens the next one. Appends wait while the finished
+     * segment is forced, once per segment.
+     */
+    private void rotate() throws IOException {
+        long index = JournalReader.segmentIndex(segmentPath);
+        segment.force();
+        channel.close();
+        openSegment(index + 1);
+        rotationCount++;
+        logger.info("Decision journal rotated to {}", segmentPath);
+    }
+
+    private void openSegment(long index) throws IOException {
+        while (true) {
+            Path path = directory.resolve(segmentFileName(index));
+            try {
+                channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                                           StandardOpenOption.READ, StandardOpenOption.WRITE);
+                segmentPath = path;
+                break;
+            } catch (FileAlreadyExistsException e) {
+                // Another node sharing the directory took this index
+                index++;
+            }
+        }
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSizeBytes);
+        segment.putInt(MAGIC);
+        segment.putInt(FORMAT_VERSION);
+        segment.putLong(System.currentTimeMillis());
+    }
+
+    private void flushLoop() {
+        long intervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        while (running) {
+            LockSupport.parkNanos(intervalNanos);
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                failedCount.increment();
+                logger.error("Failed to force decision journal segment {}", segmentPath, e);
+            }
+        }
+    }
+
+    static String segmentFileName(long index) {
+        return String.format("%s%020d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX);
+    }
+
+    public static class Stats {
+        private final boolean enabled;
+        private final String directory;
+        private final String segment;
+        private final int segmentSizeBytes;
+        private final int segmentUsedBytes;
+        private final long recordCount;
+        private final long unsyncedRecordCount;
+        private final long bytesWritten;
+        private final long rotationCount;
+        private final long syncCount;
+        private final LatencyHistogram.Snapshot syncLatency;
+        private final long failedCount;
+
+        public Stats(boolean enabled, String directory, String segment, int segmentSizeBytes, int segmentUsedBytes,
+                     long recordCount, long unsyncedRecordCount, long bytesWritten, long rotationCount,
+                     long syncCount, LatencyHistogram.Snapshot syncLatency, long failedCount) {
+            this.enabled = enabled;
+            this.directory = directory;
+            this.segment = segment;
+            this.segmentSizeBytes = segmentSizeBytes;
+            this.segmentUsedBytes = segmentUsedBytes;
+            this.recordCount = recordCount;
+            this.unsyncedRecordCount = unsyncedRecordCount;
+            this.bytesWritten = bytesWritten;
+            this.rotationCount = rotationCount;
+            this.syncCount = syncCount;
+            this.syncLatency = syncLatency;
+            this.failedCount = failedCount;
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public String getSegment() {
+            return segment;
+        }
+
+        public int getSegmentSizeBytes() {
+            return segmentSizeBytes;
+        }
+
+        public int getSegmentUsedBytes() {
+            return segmentUsedBytes;
+        }
+
+        public long getRecordCount() {
+            return recordCount;
+        }
+
+        public long getUnsyncedRecordCount() {
+            return unsyncedRecordCount;
+        }
+
+        public long getBytesWritten() {
+            return bytesWritten;
+        }
+
+        public long getRotationCount() {
+            return rotationCount;
+        }
+
+        public long getSyncCount() {
+            return syncCount;
+        }
+
+        public double getSyncMeanMicros() {
+            return syncLatency.getMeanNanos() / 1000.0;
+        }
+
+        public double getSyncP99Micros() {
+            return syncLatency.valueAtQuantile(0.99) / 1000.0;
+        }
+
+        public long getFailedCount() {
+            return failedCount;
+        }
+    }
+}
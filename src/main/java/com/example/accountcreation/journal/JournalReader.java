@@ -0,0 +1,147 @@
+package com.example.accountcreation.journal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Reads the segments of a {@link DecisionJournal} directory in order, without a database.
+ *
+ * A segment is read up to its first zero length. A frame that runs past the end of the file, fails
+ * its checksum or does not decode ends its segment as well: it is the torn tail of a crash, and is
+ * counted in {@link #getTornSegmentCount()} rather than failing the read. The segment a running
+ * journal is appending to can be read too; records appended after it was opened are not seen.
+ */
+public class JournalReader {
+
+    private static final Logger logger = LoggerFactory.getLogger(JournalReader.class);
+
+    private final Path directory;
+    private int segmentCount;
+    private long recordCount;
+    private int tornSegmentCount;
+
+    public JournalReader(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Passes every record of every segment, oldest first, to {@code consumer}.
+     *
+     * @throws IOException if a segment cannot be read or is not a journal segment
+     */
+    public void forEach(Consumer<JournalRecord> consumer) throws IOException {
+        for (Path segment : listSegments(directory)) {
+            readSegment(segment, consumer);
+            segmentCount++;
+        }
+    }
+
+    public int getSegmentCount() {
+        return segmentCount;
+    }
+
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    public int getTornSegmentCount() {
+        return tornSegmentCount;
+    }
+
+    private void readSegment(Path path, Consumer<JournalRecord> consumer) throws IOException {
+        MappedByteBuffer segment;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (segment.remaining() < DecisionJournal.SEGMENT_HEADER_SIZE
+                || segment.getInt() != DecisionJournal.MAGIC) {
+            throw new IOException(path + " is not a decision journal segment");
+        }
+        int version = segment.getInt();
+        if (version != DecisionJournal.FORMAT_VERSION) {
+            throw new IOException(path + " has unsupported journal format version " + version);
+        }
+        segment.getLong();
+
+        CRC32 crc = new CRC32();
+        while (segment.remaining() >= DecisionJournal.FRAME_HEADER_SIZE) {
+            int start = segment.position();
+            int length = segment.getInt();
+            if (length == 0) {
+                return;
+            }
+            int checksum = segment.getInt();
+            if (length < 0 || length > segment.remaining()) {
+                torn(path, start, "length " + length + " runs past the end");
+                return;
+            }
+            ByteBuffer payload = segment.slice(segment.position(), length);
+            crc.reset();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                torn(path, start, "checksum mismatch");
+                return;
+            }
+            JournalRecord record;
+            try {
+                record = JournalRecord.decode(payload);
+            } catch (IllegalArgumentException e) {
+                torn(path, start, e.getMessage());
+                return;
+            }
+            segment.position(segment.position() + length);
+            recordCount++;
+            consumer.accept(record);
+        }
+    }
+
+    private void torn(Path path, int offset, String problem) {
+        tornSegmentCount++;
+        logger.warn("Journal segment {} ends in a torn record at offset {}: {}", path, offset, problem);
+    }
+
+    /**
+     * Returns the segment files of a journal directory, oldest first.
+     */
+    public static List<Path> listSegments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        List<Path> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(JournalReader::isSegment).forEach(segments::add);
+        }
+        segments.sort(Comparator.comparingLong(JournalReader::segmentIndex));
+        return segments;
+    }
+
+    static long segmentIndex(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(DecisionJournal.SEGMENT_PREFIX.length(),
+                                             name.length() - DecisionJournal.SEGMENT_SUFFIX.length()));
+    }
+
+    private static boolean isSegment(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(DecisionJournal.SEGMENT_PREFIX)
+            && name.endsWith(DecisionJournal.SEGMENT_SUFFIX)
+            && name.length() > DecisionJournal.SEGMENT_PREFIX.length() + DecisionJournal.SEGMENT_SUFFIX.length()
+            && name.chars().skip(DecisionJournal.SEGMENT_PREFIX.length())
+                   .limit(name.length() - DecisionJournal.SEGMENT_PREFIX.length() - DecisionJournal.SEGMENT_SUFFIX.length())
+                   .allMatch(Character::isDigit);
+    }
+}
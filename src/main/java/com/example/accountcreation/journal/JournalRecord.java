@@ -0,0 +1,246 @@
+package com.example.accountcreation.journal;
+
+import com.example.accountcreation.model.AccountRequest;
+import com.example.accountcreation.model.AccountStatus;
+import com.example.accountcreation.service.GoRulesService;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * One entry of the {@link DecisionJournal}: either the rule decision taken for a request, with a
+ * snapshot of the request fields the rules read, or a status transition of a request.
+ *
+ * Payload layout (big-endian): type byte, timestamp and request id as longs, then for a
+ * transition the previous and new status ordinals as bytes (-1 for none), and for a decision the
+ * decision ordinal, rule set version, rule id, reason, name, zip code, age, phone number and the
+ * request's creation time. Strings are an unsigned short byte count (0xFFFF for null) followed by
+ * UTF-8; times are epoch milliseconds, {@code LocalDateTime}s taken as UTC.
+ */
+public final class JournalRecord {
+
+    public enum Type {
+        DECISION,
+        TRANSITION
+    }
+
+    private static final int NULL_STRING = 0xFFFF;
+    private static final int NO_VALUE = -1;
+
+    private final Type type;
+    private final long timestampMillis;
+    private final long requestId;
+    private final AccountStatus previousStatus;
+    private final AccountStatus status;
+    private final GoRulesService.DecisionResult decision;
+    private final String ruleSetVersion;
+    private final String ruleId;
+    private final String reason;
+    private final String name;
+    private final String zipCode;
+    private final int age;
+    private final String phoneNumber;
+    private final long createdAtMillis;
+
+    private JournalRecord(Type type, long timestampMillis, long requestId,
+                          AccountStatus previousStatus, AccountStatus status,
+                          GoRulesService.DecisionResult decision, String ruleSetVersion, String ruleId, String reason,
+                          String name, String zipCode, int age, String phoneNumber, long createdAtMillis) {
+        this.type = type;
+        this.timestampMillis = timestampMillis;
+        this.requestId = requestId;
+        this.previousStatus = previousStatus;
+        this.status = status;
+        this.decision = decision;
+        this.ruleSetVersion = ruleSetVersion;
+        this.ruleId = ruleId;
+        this.reason = reason;
+        this.name = name;
+        this.zipCode = zipCode;
+        this.age = age;
+        this.phoneNumber = phoneNumber;
+        this.createdAtMillis = createdAtMillis;
+    }
+
+    public static JournalRecord decision(AccountRequest request, String ruleSetVersion,
+                                         GoRulesService.DecisionResponse response, long timestampMillis) {
+        LocalDateTime createdAt = request.getCreatedAt();
+        return new JournalRecord(Type.DECISION, timestampMillis, request.getId(), null, null,
+                                 response.getDecision(), ruleSetVersion, response.getRuleId(), response.getReason(),
+                                 request.getName(), request.getZipCode(),
+                                 request.getAge() == null ? NO_VALUE : request.getAge(), request.getPhoneNumber(),
+                                 createdAt == null ? NO_VALUE : createdAt.toInstant(ZoneOffset.UTC).toEpochMilli());
+    }
+
+    public static JournalRecord transition(long requestId, AccountStatus previousStatus, AccountStatus status,
+                                           long timestampMillis) {
+        return new JournalRecord(Type.TRANSITION, timestampMillis, requestId, previousStatus, status,
+                                 null, null, null, null, null, null, NO_VALUE, null, NO_VALUE);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    public long getRequestId() {
+        return requestId;
+    }
+
+    /**
+     * Status before a transition; null for a decision and for a newly inserted request.
+     */
+    public AccountStatus getPreviousStatus() {
+        return previousStatus;
+    }
+
+    /**
+     * Status after a transition; null for a decision.
+     */
+    public AccountStatus getStatus() {
+        return status;
+    }
+
+    public GoRulesService.DecisionResult getDecision() {
+        return decision;
+    }
+
+    public String getRuleSetVersion() {
+        return ruleSetVersion;
+    }
+
+    public String getRuleId() {
+        return ruleId;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getZipCode() {
+        return zipCode;
+    }
+
+    /**
+     * Age at decision time, -1 when not a decision.
+     */
+    public int getAge() {
+        return age;
+    }
+
+    public String getPhoneNumber() {
+        return phoneNumber;
+    }
+
+    /**
+     * Creation time of the request, -1 when not a decision.
+     */
+    public long getCreatedAtMillis() {
+        return createdAtMillis;
+    }
+
+    /**
+     * Writes the payload at the buffer's position.
+     *
+     * @throws java.nio.BufferOverflowException if the buffer is too small
+     * @throws IllegalArgumentException if a string is longer than 65534 UTF-8 bytes
+     */
+    void encode(ByteBuffer out) {
+        out.put((byte) type.ordinal());
+        out.putLong(timestampMillis);
+        out.putLong(requestId);
+        if (type == Type.TRANSITION) {
+            out.put(ordinal(previousStatus));
+            out.put(ordinal(status));
+            return;
+        }
+        out.put(ordinal(decision));
+        putString(out, ruleSetVersion);
+        putString(out, ruleId);
+        putString(out, reason);
+        putString(out, name);
+        putString(out, zipCode);
+        out.putInt(age);
+        putString(out, phoneNumber);
+        out.putLong(createdAtMillis);
+    }
+
+    /**
+     * Reads a payload written by {@link #encode}.
+     *
+     * @throws IllegalArgumentException if the payload is not a valid record
+     */
+    static JournalRecord decode(ByteBuffer in) {
+        try {
+            Type type = valueOf(Type.values(), in.get());
+            long timestampMillis = in.getLong();
+            long requestId = in.getLong();
+            if (type == Type.TRANSITION) {
+                AccountStatus previousStatus = valueOf(AccountStatus.values(), in.get());
+                AccountStatus status = valueOf(AccountStatus.values(), in.get());
+                return transition(requestId, previousStatus, status, timestampMillis);
+            }
+            GoRulesService.DecisionResult decision = valueOf(GoRulesService.DecisionResult.values(), in.get());
+            String ruleSetVersion = getString(in);
+            String ruleId = getString(in);
+            String reason = getString(in);
+            String name = getString(in);
+            String zipCode = getString(in);
+            int age = in.getInt();
+            String phoneNumber = getString(in);
+            long createdAtMillis = in.getLong();
+            return new JournalRecord(Type.DECISION, timestampMillis, requestId, null, null,
+                                     decision, ruleSetVersion, ruleId, reason,
+                                     name, zipCode, age, phoneNumber, createdAtMillis);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated journal record", e);
+        }
+    }
+
+    private static byte ordinal(Enum<?> value) {
+        return value == null ? (byte) NO_VALUE : (byte) value.ordinal();
+    }
+
+    private static <E extends Enum<E>> E valueOf(E[] values, byte ordinal) {
+        if (ordinal == NO_VALUE) {
+            return null;
+        }
+        if (ordinal < 0 || ordinal >= values.length) {
+            throw new IllegalArgumentException("Unknown ordinal " + ordinal + " in journal record");
+        }
+        return values[ordinal];
+    }
+
+    private static void putString(ByteBuffer out, String value) {
+        if (value == null) {
+            out.putShort((short) NULL_STRING);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length >= NULL_STRING) {
+            throw new IllegalArgumentException("String of " + bytes.length + " bytes is too long for the journal");
+        }
+        out.putShort((short) bytes.length);
+        out.put(bytes);
+    }
+
+    private static String getString(ByteBuffer in) {
+        int length = Short.toUnsignedInt(in.getShort());
+        if (length == NULL_STRING) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.accountcreation.journal;
+
+import com.example.accountcreation.model.AccountStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Command line replay of a decision journal directory, run without the application or its database.
+ *
+ * <pre>
+ * JournalReplay status [directory]   latest status of every journaled request, counted per status,
+ *                                    and decisions counted per rule set version and rule
+ * JournalReplay ndjson [directory]   every record as one JSON object per line, for analytics tools
+ * </pre>
+ *
+ * The directory defaults to {@code journal}.
+ */
+public final class JournalReplay {
+
+    private JournalReplay() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: JournalReplay <status|ndjson> [directory]");
+            System.exit(2);
+        }
+        Path directory = Paths.get(args.length > 1 ? args[1] : "journal");
+        JournalReader reader = new JournalReader(directory);
+        switch (args[0]) {
+            case "status":
+                printStatus(reader, System.out);
+                break;
+            case "ndjson":
+                writeNdjson(reader, System.out);
+                break;
+            default:
+                System.err.println("Unknown mode: " + args[0]);
+                System.exit(2);
+        }
+        System.err.printf("%d records in %d segments, %d torn%n",
+                          reader.getRecordCount(), reader.getSegmentCount(), reader.getTornSegmentCount());
+    }
+
+    /**
+     * Rebuilds the latest status of every request from its transitions.
+     */
+    public static Map<Long, AccountStatus> rebuildStatus(JournalReader reader) throws IOException {
+        Map<Long, AccountStatus> statuses = new HashMap<>();
+        reader.forEach(record -> applyTransition(statuses, record));
+        return statuses;
+    }
+
+    static void printStatus(JournalReader reader, PrintStream out) throws IOException {
+        Map<Long, AccountStatus> statuses = new HashMap<>();
+        Map<String, Long> decisions = new TreeMap<>();
+        reader.forEach(record -> {
+            if (record.getType() == JournalRecord.Type.TRANSITION) {
+                applyTransition(statuses, record);
+            } else {
+                decisions.merge(record.getRuleSetVersion() + " " + record.getRuleId() + " " + record.getDecision(),
+                                1L, Long::sum);
+            }
+        });
+        Map<AccountStatus, Long> counts = new EnumMap<>(AccountStatus.class);
+        statuses.values().forEach(status -> counts.merge(status, 1L, Long::sum));
+
+        out.println("requests " + statuses.size());
+        counts.forEach((status, count) -> out.println("status " + status + " " + count));
+        decisions.forEach((key, count) -> out.println("decisions " + key + " " + count));
+    }
+
+    private static void applyTransition(Map<Long, AccountStatus> statuses, JournalRecord record) {
+        if (record.getType() != JournalRecord.Type.TRANSITION) {
+            return;
+        }
+        if (record.getStatus() == null) {
+            statuses.remove(record.getRequestId());
+        } else {
+            statuses.put(record.getRequestId(), record.getStatus());
+        }
+    }
+
+    static void writeNdjson(JournalReader reader, OutputStream target) throws IOException {
+        ObjectWriter writer = new ObjectMapper().writerFor(JournalRecord.class);
+        OutputStream out = new BufferedOutputStream(target, 64 * 1024);
+        try {
+            reader.forEach(record -> {
+                try {
+                    out.write(writer.writeValueAsBytes(record));
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.flush();
+    }
+}
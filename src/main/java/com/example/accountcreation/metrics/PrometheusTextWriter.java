@@ -0,0 +1,93 @@
+package com.example.accountcreation.metrics;
+
+/**
+ * Builds a scrape in the Prometheus text exposition format (version 0.0.4). Callers declare a
+ * metric family, then write its samples; label values are escaped here.
+ */
+public final class PrometheusTextWriter {
+
+    public static final String CONTENT_TYPE = "text/plain;version=0.0.4;charset=utf-8";
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    private final StringBuilder out = new StringBuilder(8192);
+
+    public PrometheusTextWriter family(String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        return this;
+    }
+
+    /**
+     * @param labels alternating label names and values
+     */
+    public PrometheusTextWriter sample(String name, double value, String... labels) {
+        out.append(name);
+        if (labels.length > 0) {
+            out.append('{');
+            for (int i = 0; i < labels.length; i += 2) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                out.append(labels[i]).append("=\"");
+                escape(labels[i + 1]);
+                out.append('"');
+            }
+            out.append('}');
+        }
+        out.append(' ');
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            out.append((long) value);
+        } else {
+            out.append(value);
+        }
+        out.append('\n');
+        return this;
+    }
+
+    /**
+     * Writes a latency snapshot as the quantile, {@code _sum} and {@code _count} samples of a
+     * summary in seconds. The family must have been declared with type {@code summary}.
+     */
+    public PrometheusTextWriter summary(String name, LatencyHistogram.Snapshot snapshot, String... labels) {
+        String[] quantileLabels = new String[labels.length + 2];
+        System.arraycopy(labels, 0, quantileLabels, 0, labels.length);
+        quantileLabels[labels.length] = "quantile";
+        for (double quantile : QUANTILES) {
+            quantileLabels[labels.length + 1] = Double.toString(quantile);
+            sample(name, snapshot.valueAtQuantile(quantile) / NANOS_PER_SECOND, quantileLabels);
+        }
+        sample(name + "_sum", snapshot.getSumNanos() / NANOS_PER_SECOND, labels);
+        sample(name + "_count", snapshot.getCount(), labels);
+        return this;
+    }
+
+    public static double seconds(long nanos) {
+        return nanos / NANOS_PER_SECOND;
+    }
+
+    private void escape(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                default:
+                    out.append(c);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return out.toString();
+    }
+}
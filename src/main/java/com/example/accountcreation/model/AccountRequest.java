@@ -8,11 +8,21 @@ import jakarta.validation.constraints.Pattern;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "account_requests")
+@Table(name = "account_requests", indexes = {
+    // Status lists and the review queue, in keyset order
+    @Index(name = "idx_account_requests_status_created_at", columnList = "status, created_at, id"),
+    @Index(name = "idx_account_requests_created_at", columnList = "created_at, id"),
+    // Archiver scans for terminal rows not updated for a while
+    @Index(name = "idx_account_requests_status_updated_at", columnList = "status, updated_at"),
+    @Index(name = "ux_account_requests_process_instance_id", columnList = "process_instance_id", unique = true),
+    // One request per client Idempotency-Key, across nodes
+    @Index(name = "ux_account_requests_idempotency_key", columnList = "idempotency_key", unique = true)
+})
 public class AccountRequest {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_request_seq")
+    @SequenceGenerator(name = "account_request_seq", sequenceName = "account_request_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Name is required")
@@ -49,6 +59,23 @@ public class AccountRequest {
     
     private String rejectionReason;
     
+    // Bumped on every write; a decision made on a stale copy fails instead of overwriting
+    @Version
+    private Long version;
+    
+    // Manual review lease: the reviewer holding (or last holding) the review, until when, and the
+    // random token of the claim that leased it
+    private String reviewer;
+    
+    @Column(name = "review_lease_expires_at")
+    private LocalDateTime reviewLeaseExpiresAt;
+    
+    @Column(name = "review_lease_token")
+    private String reviewLeaseToken;
+    
+    @Column(name = "idempotency_key", updatable = false)
+    private String idempotencyKey;
+    
     // Constructors
     public AccountRequest() {}
     
@@ -141,6 +168,46 @@ public class AccountRequest {
         this.rejectionReason = rejectionReason;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
+    public String getReviewer() {
+        return reviewer;
+    }
+    
+    public void setReviewer(String reviewer) {
+        this.reviewer = reviewer;
+    }
+    
+    public LocalDateTime getReviewLeaseExpiresAt() {
+        return reviewLeaseExpiresAt;
+    }
+    
+    public void setReviewLeaseExpiresAt(LocalDateTime reviewLeaseExpiresAt) {
+        this.reviewLeaseExpiresAt = reviewLeaseExpiresAt;
+    }
+    
+    public String getReviewLeaseToken() {
+        return reviewLeaseToken;
+    }
+    
+    public void setReviewLeaseToken(String reviewLeaseToken) {
+        this.reviewLeaseToken = reviewLeaseToken;
+    }
+    
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+    
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+    
     @PreUpdate
     public void preUpdate() {
         this.updatedAt = LocalDateTime.now();
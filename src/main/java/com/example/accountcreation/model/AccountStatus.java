@@ -6,5 +6,13 @@ public enum AccountStatus {
     AUTO_REJECTED,
     MANUAL_REVIEW,
     MANUALLY_APPROVED,
-    MANUALLY_REJECTED
-}
\ No newline at end of file
+    MANUALLY_REJECTED;
+
+    /**
+     * True once the request is approved or rejected for good; a request in manual review still
+     * waits for a reviewer.
+     */
+    public boolean isTerminal() {
+        return this != PENDING && this != MANUAL_REVIEW;
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.accountcreation.model;
+
+public enum ProcessJobStatus {
+    READY,
+    LEASED,
+    DEAD
+}
@@ -0,0 +1,46 @@
+package com.example.accountcreation.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * The one row identifying the database the account requests live in. It is created with the
+ * first lookup and goes away with the schema, so a recreated database gets a new id; files kept
+ * outside the database, such as the account archive, record the id and are not read against
+ * another database.
+ */
+@Entity
+@Table(name = "store_instance")
+public class StoreInstance {
+
+    public static final int ID = 1;
+
+    @Id
+    private Integer id = ID;
+
+    @Column(name = "instance_id", nullable = false, length = 36)
+    private String instanceId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    // Constructors
+    public StoreInstance() {}
+
+    public StoreInstance(String instanceId) {
+        this.instanceId = instanceId;
+    }
+
+    // Getters and Setters
+    public Integer getId() {
+        return id;
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.accountcreation.notification;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Appends notifications as NDJSON to a daily file in a spool directory, for a separate sender
+ * (or an audit) to pick up. Each batch is one append followed by an fsync.
+ */
+@Component
+@ConditionalOnProperty(name = "accounts.notifications.sinks.spool.enabled", havingValue = "true")
+public class FileSpoolNotificationSink implements NotificationSink {
+
+    private static final DateTimeFormatter FILE_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${accounts.notifications.sinks.spool.directory:notification-spool}")
+    private String directory;
+
+    private Path spoolDirectory;
+    private ObjectWriter writer;
+
+    public FileSpoolNotificationSink() {}
+
+    public FileSpoolNotificationSink(Path spoolDirectory, ObjectMapper objectMapper) {
+        this.spoolDirectory = spoolDirectory;
+        this.objectMapper = objectMapper;
+        this.writer = objectMapper.writerFor(Notification.class);
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        spoolDirectory = Paths.get(directory);
+        Files.createDirectories(spoolDirectory);
+        writer = objectMapper.writerFor(Notification.class);
+    }
+
+    @Override
+    public String getName() {
+        return "spool";
+    }
+
+    /**
+     * Appends to one file, so batches are written one at a time.
+     */
+    @Override
+    public int getConcurrency() {
+        return 1;
+    }
+
+    @Override
+    public void send(List<Notification> batch) throws IOException {
+        ByteArrayOutputStream lines = new ByteArrayOutputStream(batch.size() * 256);
+        for (Notification notification : batch) {
+            lines.write(writer.writeValueAsBytes(notification));
+            lines.write('\n');
+        }
+        Path file = spoolDirectory.resolve("notifications-" + LocalDate.now().format(FILE_DATE) + ".ndjson");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                    StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.accountcreation.notification;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Writes each notification as one log line. Enabled by default.
+ */
+@Component
+@ConditionalOnProperty(name = "accounts.notifications.sinks.log.enabled", havingValue = "true", matchIfMissing = true)
+public class LogNotificationSink implements NotificationSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogNotificationSink.class);
+
+    @Value("${accounts.notifications.sinks.log.concurrency:1}")
+    private int concurrency = 1;
+
+    @Override
+    public String getName() {
+        return "log";
+    }
+
+    @Override
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    @Override
+    public void send(List<Notification> batch) {
+        for (Notification notification : batch) {
+            logger.info("Notification for request {} to {} (Phone: {}), status {}: {}",
+                       notification.getRequestId(), notification.getName(), notification.getPhoneNumber(),
+                       notification.getStatus(), notification.getMessage());
+        }
+    }
+}
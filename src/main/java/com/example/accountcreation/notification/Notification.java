@@ -0,0 +1,52 @@
+package com.example.accountcreation.notification;
+
+import com.example.accountcreation.model.AccountStatus;
+import java.time.LocalDateTime;
+
+/**
+ * Immutable snapshot of one account status notification, taken when the status change is made
+ * so sinks never read the live entity.
+ */
+public final class Notification {
+
+    private final Long requestId;
+    private final String name;
+    private final String phoneNumber;
+    private final AccountStatus status;
+    private final String message;
+    private final LocalDateTime createdAt;
+
+    public Notification(Long requestId, String name, String phoneNumber, AccountStatus status,
+                        String message, LocalDateTime createdAt) {
+        this.requestId = requestId;
+        this.name = name;
+        this.phoneNumber = phoneNumber;
+        this.status = status;
+        this.message = message;
+        this.createdAt = createdAt;
+    }
+
+    public Long getRequestId() {
+        return requestId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getPhoneNumber() {
+        return phoneNumber;
+    }
+
+    public AccountStatus getStatus() {
+        return status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,388 @@
+package com.example.accountcreation.notification;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Delivers notifications off the process threads, in micro-batches, to every {@link NotificationSink}.
+ *
+ * {@link #submit} never blocks: it records the notification and returns. Pending notifications
+ * are keyed by request, so a status change submitted while an earlier one for the same request is
+ * still waiting replaces it (only the latest status is sent) without taking another queue slot.
+ * A request is pending exactly while its id is queued (or being taken off the queue): both change
+ * together under the map's lock for the request. At most {@code queue-capacity} requests wait;
+ * beyond that notifications are dropped and counted.
+ *
+ * One dispatcher thread collects up to {@code batch-size} notifications, waiting at most
+ * {@code linger-ms} for a batch to fill, and hands the batch to each sink. Every sink has its own
+ * threads, at most its {@link NotificationSink#getConcurrency() concurrency} batches in flight, and
+ * retries failed batches with exponential backoff up to {@code max-attempts}. A slow sink holds
+ * back only its own deliveries and, once its threads are busy, the dispatcher.
+ */
+@Component
+public class NotificationDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationDispatcher.class);
+
+    private static final long POLL_INTERVAL_MS = 100;
+
+    @Autowired(required = false)
+    private List<NotificationSink> sinks = List.of();
+
+    @Value("${accounts.notifications.queue-capacity:10000}")
+    private int queueCapacity = 10000;
+
+    @Value("${accounts.notifications.batch-size:100}")
+    private int batchSize = 100;
+
+    @Value("${accounts.notifications.linger-ms:20}")
+    private long lingerMs = 20;
+
+    @Value("${accounts.notifications.max-attempts:5}")
+    private int maxAttempts = 5;
+
+    @Value("${accounts.notifications.backoff-initial-ms:200}")
+    private long backoffInitialMs = 200;
+
+    @Value("${accounts.notifications.backoff-max-ms:10000}")
+    private long backoffMaxMs = 10000;
+
+    @Value("${accounts.notifications.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMs = 10000;
+
+    private final ConcurrentHashMap<Long, Notification> pending = new ConcurrentHashMap<>();
+    private BlockingQueue<Long> order;
+    private List<SinkRunner> runners;
+    private Thread dispatcher;
+    private volatile boolean running;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    @PostConstruct
+    public void start() {
+        order = new ArrayBlockingQueue<>(queueCapacity);
+        runners = new ArrayList<>(sinks.size());
+        for (NotificationSink sink : sinks) {
+            runners.add(new SinkRunner(sink));
+        }
+        running = true;
+        dispatcher = new Thread(this::dispatchLoop, "notification-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+        logger.info("Notification dispatcher started: sinks={}, queueCapacity={}, batchSize={}",
+                   sinks.stream().map(NotificationSink::getName).toList(), queueCapacity, batchSize);
+    }
+
+    /**
+     * Queues a notification for delivery, replacing a still-pending one for the same request.
+     *
+     * @return false if it was dropped because the queue is full or the dispatcher stopped
+     */
+    public boolean submit(Notification notification) {
+        if (!running) {
+            dropped.increment();
+            return false;
+        }
+        submitted.increment();
+        Long requestId = notification.getRequestId();
+        boolean[] replaced = {false};
+        Notification stored = pending.compute(requestId, (id, current) -> {
+            if (current != null) {
+                // The dispatcher has not taken the earlier one yet and will pick this one up instead
+                replaced[0] = true;
+                return notification;
+            }
+            return order.offer(id) ? notification : null;
+        });
+        if (replaced[0]) {
+            coalesced.increment();
+            return true;
+        }
+        if (stored == null) {
+            dropped.increment();
+            logger.warn("Notification queue full, dropping notification for request {}", requestId);
+            return false;
+        }
+        return true;
+    }
+
+    public Stats getStats() {
+        List<SinkStats> sinkStats = new ArrayList<>(runners.size());
+        for (SinkRunner runner : runners) {
+            sinkStats.add(runner.stats());
+        }
+        return new Stats(order.size(), queueCapacity, submitted.sum(), coalesced.sum(), dropped.sum(), sinkStats);
+    }
+
+    /**
+     * Stops accepting notifications, delivers what is already queued and waits up to
+     * {@code shutdown-timeout-ms} for the sinks to finish.
+     */
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        long deadline = System.currentTimeMillis() + shutdownTimeoutMs;
+        try {
+            dispatcher.join(shutdownTimeoutMs);
+            for (SinkRunner runner : runners) {
+                runner.executor.shutdown();
+                long remaining = Math.max(0, deadline - System.currentTimeMillis());
+                if (!runner.executor.awaitTermination(remaining, TimeUnit.MILLISECONDS)) {
+                    runner.executor.shutdownNow();
+                    logger.warn("Notification sink {} did not finish within {} ms", runner.sink.getName(), shutdownTimeoutMs);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!order.isEmpty()) {
+            logger.warn("{} notifications not delivered at shutdown", order.size());
+        }
+    }
+
+    private void dispatchLoop() {
+        List<Long> ids = new ArrayList<>(batchSize);
+        while (running || !order.isEmpty()) {
+            try {
+                ids.clear();
+                Long first = order.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                ids.add(first);
+                collect(ids);
+                List<Notification> batch = new ArrayList<>(ids.size());
+                for (Long id : ids) {
+                    Notification notification = pending.remove(id);
+                    if (notification != null) {
+                        batch.add(notification);
+                    }
+                }
+                for (SinkRunner runner : runners) {
+                    runner.submit(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Notification dispatch failed", e);
+            }
+        }
+    }
+
+    /**
+     * Fills the batch from the queue, waiting up to {@code linger-ms} for more to arrive.
+     */
+    private void collect(List<Long> ids) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMs);
+        while (ids.size() < batchSize) {
+            order.drainTo(ids, batchSize - ids.size());
+            long remaining = deadline - System.nanoTime();
+            if (ids.size() >= batchSize || remaining <= 0) {
+                return;
+            }
+            Long next = order.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            ids.add(next);
+        }
+    }
+
+    long backoffDelayMs(int attempt) {
+        long delay = backoffInitialMs << Math.min(attempt - 1, 30);
+        return Math.min(delay < 0 ? backoffMaxMs : delay, backoffMaxMs);
+    }
+
+    private final class SinkRunner {
+
+        private final NotificationSink sink;
+        private final ExecutorService executor;
+        private final Semaphore permits;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final LongAdder batches = new LongAdder();
+        private final LongAdder sent = new LongAdder();
+        private final LongAdder retried = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+
+        SinkRunner(NotificationSink sink) {
+            this.sink = sink;
+            int concurrency = Math.max(1, sink.getConcurrency());
+            this.permits = new Semaphore(concurrency);
+            AtomicInteger threadNumber = new AtomicInteger();
+            this.executor = Executors.newFixedThreadPool(concurrency, runnable -> {
+                Thread thread = new Thread(runnable, "notify-" + sink.getName() + "-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        /**
+         * Blocks while all of the sink's threads are busy, so a slow sink cannot pile up batches.
+         */
+        void submit(List<Notification> batch) throws InterruptedException {
+            permits.acquire();
+            inFlight.incrementAndGet();
+            executor.execute(() -> {
+                try {
+                    deliver(batch);
+                } finally {
+                    inFlight.decrementAndGet();
+                    permits.release();
+                }
+            });
+        }
+
+        private void deliver(List<Notification> batch) {
+            batches.increment();
+            List<Notification> remaining = batch;
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    sink.send(remaining);
+                    sent.add(remaining.size());
+                    return;
+                } catch (IOException | RuntimeException e) {
+                    if (e instanceof PartialDeliveryException) {
+                        int delivered = ((PartialDeliveryException) e).getDelivered();
+                        sent.add(delivered);
+                        remaining = remaining.subList(delivered, remaining.size());
+                    }
+                    if (attempt >= maxAttempts) {
+                        failed.add(remaining.size());
+                        logger.error("Notification sink {} failed {} notifications after {} attempts: {}",
+                                    sink.getName(), remaining.size(), attempt, e.toString());
+                        return;
+                    }
+                    retried.increment();
+                    long delay = backoffDelayMs(attempt);
+                    logger.warn("Notification sink {} failed (attempt {}), retrying in {} ms: {}",
+                               sink.getName(), attempt, delay, e.toString());
+                    try {
+                        Thread.sleep(delay);
+                    } catch (InterruptedException interrupted) {
+                        Thread.currentThread().interrupt();
+                        failed.add(remaining.size());
+                        return;
+                    }
+                }
+            }
+        }
+
+        SinkStats stats() {
+            return new SinkStats(sink.getName(), Math.max(1, sink.getConcurrency()), inFlight.get(),
+                                 batches.sum(), sent.sum(), retried.sum(), failed.sum());
+        }
+    }
+
+    public static class Stats {
+        private final int queued;
+        private final int queueCapacity;
+        private final long submittedCount;
+        private final long coalescedCount;
+        private final long droppedCount;
+        private final List<SinkStats> sinks;
+
+        public Stats(int queued, int queueCapacity, long submittedCount, long coalescedCount,
+                     long droppedCount, List<SinkStats> sinks) {
+            this.queued = queued;
+            this.queueCapacity = queueCapacity;
+            this.submittedCount = submittedCount;
+            this.coalescedCount = coalescedCount;
+            this.droppedCount = droppedCount;
+            this.sinks = sinks;
+        }
+
+        public int getQueued() {
+            return queued;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public long getSubmittedCount() {
+            return submittedCount;
+        }
+
+        public long getCoalescedCount() {
+            return coalescedCount;
+        }
+
+        public long getDroppedCount() {
+            return droppedCount;
+        }
+
+        public List<SinkStats> getSinks() {
+            return sinks;
+        }
+    }
+
+    public static class SinkStats {
+        private final String name;
+        private final int concurrency;
+        private final int inFlight;
+        private final long batchCount;
+        private final long sentCount;
+        private final long retriedCount;
+        private final long failedCount;
+
+        public SinkStats(String name, int concurrency, int inFlight, long batchCount, long sentCount,
+                         long retriedCount, long failedCount) {
+            this.name = name;
+            this.concurrency = concurrency;
+            this.inFlight = inFlight;
+            this.batchCount = batchCount;
+            this.sentCount = sentCount;
+            this.retriedCount = retriedCount;
+            this.failedCount = failedCount;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getConcurrency() {
+            return concurrency;
+        }
+
+        public int getInFlight() {
+            return inFlight;
+        }
+
+        public long getBatchCount() {
+            return batchCount;
+        }
+
+        public long getSentCount() {
+            return sentCount;
+        }
+
+        public long getRetriedCount() {
+            return retriedCount;
+        }
+
+        public long getFailedCount() {
+            return failedCount;
+        }
+    }
+}
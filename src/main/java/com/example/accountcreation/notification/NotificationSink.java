@@ -0,0 +1,22 @@
+package com.example.accountcreation.notification;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * A delivery channel for notifications. Every sink bean receives every batch from the
+ * {@link NotificationDispatcher}, on at most {@link #getConcurrency()} threads at once.
+ */
+public interface NotificationSink {
+
+    String getName();
+
+    int getConcurrency();
+
+    /**
+     * Delivers a batch, in order. A failure is retried with backoff by the dispatcher; a sink that
+     * delivered part of the batch before failing throws {@link PartialDeliveryException} so only
+     * the rest is retried.
+     */
+    void send(List<Notification> batch) throws IOException;
+}
@@ -0,0 +1,21 @@
+package com.example.accountcreation.notification;
+
+import java.io.IOException;
+
+/**
+ * Thrown by a {@link NotificationSink} that delivered the first {@link #getDelivered()}
+ * notifications of a batch before failing.
+ */
+public class PartialDeliveryException extends IOException {
+
+    private final int delivered;
+
+    public PartialDeliveryException(int delivered, IOException cause) {
+        super("Delivered " + delivered + " notifications before failing: " + cause.getMessage(), cause);
+        this.delivered = delivered;
+    }
+
+    public int getDelivered() {
+        return delivered;
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.accountcreation.notification;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Sends notifications as plain-text mail to an email-to-SMS gateway: each goes to
+ * {@code <phoneNumber>@<recipient-domain>}. A batch is delivered over one SMTP connection.
+ *
+ * Speaks only the minimal, unauthenticated SMTP dialogue (EHLO, MAIL, RCPT, DATA, QUIT) of a
+ * local relay or gateway stub; it does not do TLS or AUTH.
+ */
+@Component
+@ConditionalOnProperty(name = "accounts.notifications.sinks.smtp.enabled", havingValue = "true")
+public class SmtpNotificationSink implements NotificationSink {
+
+    @Value("${accounts.notifications.sinks.smtp.host:localhost}")
+    private String host = "localhost";
+
+    @Value("${accounts.notifications.sinks.smtp.port:25}")
+    private int port = 25;
+
+    @Value("${accounts.notifications.sinks.smtp.from:accounts@localhost}")
+    private String from = "accounts@localhost";
+
+    @Value("${accounts.notifications.sinks.smtp.recipient-domain:sms.localhost}")
+    private String recipientDomain = "sms.localhost";
+
+    @Value("${accounts.notifications.sinks.smtp.timeout-ms:5000}")
+    private int timeoutMs = 5000;
+
+    @Value("${accounts.notifications.sinks.smtp.concurrency:4}")
+    private int concurrency = 4;
+
+    public SmtpNotificationSink() {}
+
+    public SmtpNotificationSink(String host, int port, String from, String recipientDomain) {
+        this.host = host;
+        this.port = port;
+        this.from = from;
+        this.recipientDomain = recipientDomain;
+    }
+
+    @Override
+    public String getName() {
+        return "smtp";
+    }
+
+    @Override
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    @Override
+    public void send(List<Notification> batch) throws IOException {
+        int delivered = 0;
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress(host, port), timeoutMs);
+            socket.setSoTimeout(timeoutMs);
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            OutputStream out = socket.getOutputStream();
+
+            expect(in, 220);
+            command(out, in, "EHLO " + from.substring(from.indexOf('@') + 1), 250);
+            for (Notification notification : batch) {
+                String recipient = notification.getPhoneNumber() + "@" + recipientDomain;
+                command(out, in, "MAIL FROM:<" + from + ">", 250);
+                command(out, in, "RCPT TO:<" + recipient + ">", 250);
+                command(out, in, "DATA", 354);
+                write(out, message(notification, recipient));
+                expect(in, 250);
+                delivered++;
+            }
+            command(out, in, "QUIT", 221);
+        } catch (IOException e) {
+            if (delivered > 0 && delivered < batch.size()) {
+                throw new PartialDeliveryException(delivered, e);
+            }
+            if (delivered == 0) {
+                throw e;
+            }
+            // Everything was accepted; only the QUIT exchange failed
+        }
+    }
+
+    private String message(Notification notification, String recipient) {
+        StringBuilder data = new StringBuilder(256);
+        data.append("From: ").append(from).append("\r\n");
+        data.append("To: ").append(recipient).append("\r\n");
+        data.append("Subject: Account application ").append(notification.getStatus()).append("\r\n");
+        data.append("\r\n");
+        for (String line : (notification.getName() + ": " + notification.getMessage()).split("\r?\n")) {
+            // Dot-stuffing, so a line holding a single dot cannot end the message early
+            if (line.startsWith(".")) {
+                data.append('.');
+            }
+            data.append(line).append("\r\n");
+        }
+        return data.append(".\r\n").toString();
+    }
+
+    private static void command(OutputStream out, BufferedReader in, String command, int expectedCode) throws IOException {
+        write(out, command + "\r\n");
+        expect(in, expectedCode);
+    }
+
+    private static void write(OutputStream out, String data) throws IOException {
+        out.write(data.getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    /**
+     * Reads one (possibly multi-line) reply and checks its code.
+     */
+    private static void expect(BufferedReader in, int expectedCode) throws IOException {
+        String line;
+        do {
+            line = in.readLine();
+            if (line == null) {
+                throw new IOException("SMTP server closed the connection, expected " + expectedCode);
+            }
+        } while (line.length() > 3 && line.charAt(3) == '-');
+        if (!line.startsWith(Integer.toString(expectedCode))) {
+            throw new IOException("SMTP server replied '" + line + "', expected " + expectedCode);
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.example.accountcreation.ratelimit;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-client admission control in front of {@code /api/accounts}.
+ *
+ * A client is the value of the {@code api-key-header} when present, otherwise the remote address
+ * (behind a proxy, set {@code server.forward-headers-strategy} so this is the caller's). The key
+ * is not authenticated here: an upstream gateway must vouch for it, or the header should be
+ * configured empty. Every client has one {@link TokenBucketTable} bucket per endpoint class, each
+ * class with its own rate and burst: {@code create} for {@code POST /api/accounts} and the manual
+ * review writes, {@code bulk} for {@code POST /api/accounts/batch} (one token per upload) and
+ * {@code read} for everything else. Long polls and event streams take one token when opened.
+ *
+ * Admitted requests carry {@code X-RateLimit-Limit} and {@code X-RateLimit-Remaining}; rejected
+ * ones get a 429 with {@code Retry-After} and {@code X-RateLimit-Reset} as well, and never reach
+ * the controller. Buckets that have refilled and stayed idle for {@code idle-eviction-ms} are
+ * evicted in the background.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 100)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    public static final String LIMIT_HEADER = "X-RateLimit-Limit";
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    public static final String RESET_HEADER = "X-RateLimit-Reset";
+
+    private static final String PATH = "/api/accounts";
+    private static final String BATCH_PATH = "/api/accounts/batch";
+
+    public enum EndpointClass {
+        CREATE,
+        READ,
+        BULK
+    }
+
+    @Value("${accounts.rate-limit.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${accounts.rate-limit.api-key-header:X-API-Key}")
+    private String apiKeyHeader = "X-API-Key";
+
+    @Value("${accounts.rate-limit.idle-eviction-ms:300000}")
+    private long idleEvictionMs = 300000;
+
+    @Value("${accounts.rate-limit.max-clients:100000}")
+    private int maxClients = 100000;
+
+    @Value("${accounts.rate-limit.create.rate-per-second:100}")
+    private double createRate = 100;
+
+    @Value("${accounts.rate-limit.create.burst:200}")
+    private int createBurst = 200;
+
+    @Value("${accounts.rate-limit.read.rate-per-second:500}")
+    private double readRate = 500;
+
+    @Value("${accounts.rate-limit.read.burst:1000}")
+    private int readBurst = 1000;
+
+    @Value("${accounts.rate-limit.bulk.rate-per-second:1}")
+    private double bulkRate = 1;
+
+    @Value("${accounts.rate-limit.bulk.burst:5}")
+    private int bulkBurst = 5;
+
+    private final TokenBucketTable[] tables = new TokenBucketTable[EndpointClass.values().length];
+    private final String[] limitValues = new String[tables.length];
+    private final LongAdder[] admitted = new LongAdder[tables.length];
+    private final LongAdder[] rejected = new LongAdder[tables.length];
+    private ScheduledExecutorService evictor;
+
+    @PostConstruct
+    public void start() {
+        tables[EndpointClass.CREATE.ordinal()] = new TokenBucketTable(createRate, createBurst, idleEvictionMs, maxClients);
+        tables[EndpointClass.READ.ordinal()] = new TokenBucketTable(readRate, readBurst, idleEvictionMs, maxClients);
+        tables[EndpointClass.BULK.ordinal()] = new TokenBucketTable(bulkRate, bulkBurst, idleEvictionMs, maxClients);
+        for (int i = 0; i < tables.length; i++) {
+            limitValues[i] = String.valueOf(tables[i].getBurst());
+            admitted[i] = new LongAdder();
+            rejected[i] = new LongAdder();
+        }
+        if (enabled && idleEvictionMs > 0) {
+            evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "rate-limit-evictor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long period = Math.max(1000, idleEvictionMs / 2);
+            evictor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (evictor != null) {
+            evictor.shutdownNow();
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!enabled) {
+            return true;
+        }
+        String path = request.getRequestURI();
+        return !path.startsWith(PATH) || (path.length() > PATH.length() && path.charAt(PATH.length()) != '/');
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        int endpoint = classify(request).ordinal();
+        TokenBucketTable table = tables[endpoint];
+        long result = table.tryAcquire(client(request), System.nanoTime());
+        response.setHeader(LIMIT_HEADER, limitValues[endpoint]);
+        if (result >= 0) {
+            admitted[endpoint].increment();
+            response.setHeader(REMAINING_HEADER, Long.toString(result));
+            chain.doFilter(request, response);
+            return;
+        }
+        rejected[endpoint].increment();
+        long retryAfter = toSeconds(-result);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(REMAINING_HEADER, "0");
+        response.setHeader(RESET_HEADER, Long.toString(toSeconds(table.nanosUntilFull(result))));
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write("Rate limit exceeded for " + EndpointClass.values()[endpoint].name().toLowerCase()
+            + " requests, retry after " + retryAfter + " s");
+    }
+
+    public Stats getStats() {
+        Map<EndpointClass, ClassStats> classes = new EnumMap<>(EndpointClass.class);
+        for (EndpointClass endpoint : EndpointClass.values()) {
+            TokenBucketTable table = tables[endpoint.ordinal()];
+            classes.put(endpoint, new ClassStats(admitted[endpoint.ordinal()].sum(), rejected[endpoint.ordinal()].sum(),
+                                                 table.size(), table.getOverflowCount(), table.getEvictedCount()));
+        }
+        return new Stats(enabled, classes);
+    }
+
+    static EndpointClass classify(HttpServletRequest request) {
+        String method = request.getMethod();
+        if ("GET".equals(method) || "HEAD".equals(method)) {
+            return EndpointClass.READ;
+        }
+        return BATCH_PATH.equals(request.getRequestURI()) ? EndpointClass.BULK : EndpointClass.CREATE;
+    }
+
+    private String client(HttpServletRequest request) {
+        if (!apiKeyHeader.isEmpty()) {
+            String apiKey = request.getHeader(apiKeyHeader);
+            if (apiKey != null && !apiKey.isEmpty()) {
+                return apiKey;
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private void evictIdle() {
+        try {
+            long now = System.nanoTime();
+            int evicted = 0;
+            for (TokenBucketTable table : tables) {
+                evicted += table.evictIdle(now);
+            }
+            if (evicted > 0) {
+                logger.debug("Evicted {} idle rate limit buckets", evicted);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Failed to evict idle rate limit buckets", e);
+        }
+    }
+
+    private static long toSeconds(long nanos) {
+        return Math.max(1, (nanos + 999_999_999) / 1_000_000_000);
+    }
+
+    public static class Stats {
+        private final boolean enabled;
+        private final Map<EndpointClass, ClassStats> classes;
+
+        public Stats(boolean enabled, Map<EndpointClass, ClassStats> classes) {
+            this.enabled = enabled;
+            this.classes = classes;
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public Map<EndpointClass, ClassStats> getClasses() {
+            return classes;
+        }
+    }
+
+    public static class ClassStats {
+        private final long admittedCount;
+        private final long rejectedCount;
+        private final int clientCount;
+        private final long overflowCount;
+        private final long evictedCount;
+
+        public ClassStats(long admittedCount, long rejectedCount, int clientCount, long overflowCount, long evictedCount) {
+            this.admittedCount = admittedCount;
+            this.rejectedCount = rejectedCount;
+            this.clientCount = clientCount;
+            this.overflowCount = overflowCount;
+            this.evictedCount = evictedCount;
+        }
+
+        public long getAdmittedCount() {
+            return admittedCount;
+        }
+
+        public long getRejectedCount() {
+            return rejectedCount;
+        }
+
+        /**
+         * Clients with a bucket of this class.
+         */
+        public int getClientCount() {
+            return clientCount;
+        }
+
+        /**
+         * Requests from clients first seen while the table was full, limited by the shared bucket.
+         */
+        public long getOverflowCount() {
+            return overflowCount;
+        }
+
+        public long getEvictedCount() {
+            return evictedCount;
+        }
+    }
+}
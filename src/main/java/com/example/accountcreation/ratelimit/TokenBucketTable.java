@@ -0,0 +1,120 @@
+package com.example.accountcreation.ratelimit;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token buckets of one rate, one per client.
+ *
+ * Each bucket is a single {@link AtomicLong} holding its theoretical arrival time (the generic
+ * cell rate algorithm): the instant, in {@link System#nanoTime()} terms, at which the bucket is
+ * full again. Taking a token is one read and one compare-and-set, with no lock, no floating point
+ * and no allocation. Buckets live in a {@link ConcurrentHashMap}, whose reads are lock-free and
+ * whose bins are locked individually only when a client is first seen.
+ *
+ * A bucket that has been full for the idle eviction time behaves exactly like a new one, so
+ * {@link #evictIdle} can drop it without changing any outcome; at worst a request racing the
+ * eviction takes its token from the dropped bucket, letting one extra request through. At most
+ * {@code maxClients} buckets are kept: clients first seen while the table is full share one
+ * overflow bucket until idle buckets are evicted, so a flood of made-up client ids can neither
+ * grow memory nor escape the limit.
+ */
+public final class TokenBucketTable {
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final int burst;
+    private final long idleEvictionNanos;
+    private final int maxClients;
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong overflow;
+    private final LongAdder overflowCount = new LongAdder();
+    private final LongAdder evictedCount = new LongAdder();
+
+    public TokenBucketTable(double ratePerSecond, int burst, long idleEvictionMs, int maxClients) {
+        if (ratePerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate must be positive and burst at least 1");
+        }
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / ratePerSecond));
+        this.toleranceNanos = intervalNanos * (burst - 1);
+        this.burst = burst;
+        this.idleEvictionNanos = idleEvictionMs * 1_000_000;
+        this.maxClients = maxClients;
+        // Full from the start, whatever the clock reads
+        this.overflow = new AtomicLong(Long.MIN_VALUE / 2);
+    }
+
+    /**
+     * Takes a token from {@code client}'s bucket. Returns the tokens left (0 or more) when one was
+     * available, otherwise minus the nanoseconds until one will be.
+     */
+    public long tryAcquire(String client, long now) {
+        AtomicLong bucket = buckets.get(client);
+        if (bucket == null) {
+            bucket = bucketFor(client, now);
+        }
+        while (true) {
+            long full = bucket.get();
+            long start = Math.max(full, now);
+            long wait = start - now - toleranceNanos;
+            if (wait > 0) {
+                return -wait;
+            }
+            if (bucket.compareAndSet(full, start + intervalNanos)) {
+                return (now + toleranceNanos - start) / intervalNanos;
+            }
+        }
+    }
+
+    /**
+     * Nanoseconds until a bucket left with {@code remaining} tokens (or, when negative, a result
+     * of {@link #tryAcquire}) is full again.
+     */
+    public long nanosUntilFull(long result) {
+        return result < 0 ? -result + toleranceNanos : (burst - result) * intervalNanos;
+    }
+
+    /**
+     * Removes the buckets that have been full for at least the idle eviction time.
+     */
+    public int evictIdle(long now) {
+        int evicted = 0;
+        for (Iterator<Map.Entry<String, AtomicLong>> it = buckets.entrySet().iterator(); it.hasNext(); ) {
+            if (now - it.next().getValue().get() >= idleEvictionNanos) {
+                it.remove();
+                evicted++;
+            }
+        }
+        evictedCount.add(evicted);
+        return evicted;
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    public long getOverflowCount() {
+        return overflowCount.sum();
+    }
+
+    public long getEvictedCount() {
+        return evictedCount.sum();
+    }
+
+    private AtomicLong bucketFor(String client, long now) {
+        if (buckets.mappingCount() >= maxClients) {
+            overflowCount.increment();
+            return overflow;
+        }
+        AtomicLong created = new AtomicLong(now);
+        AtomicLong existing = buckets.putIfAbsent(client, created);
+        return existing != null ? existing : created;
+    }
+}
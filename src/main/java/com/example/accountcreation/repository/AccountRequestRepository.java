@@ -1,19 +1,109 @@
 package com.example.accountcreation.repository;
 
+import com.example.accountcreation.dto.AccountResponseDto;
 import com.example.accountcreation.model.AccountRequest;
 import com.example.accountcreation.model.AccountStatus;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.stereotype.Repository;
+import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Storage contract for account requests, as used by the services. Implemented by
+ * {@link JpaAccountRequestRepository} (the default) and, under the {@code memory-store} profile,
+ * by {@link com.example.accountcreation.repository.memory.InMemoryAccountRequestRepository}.
+ *
+ * Signatures follow Spring Data's, so either implementation can be swapped in without touching
+ * callers: {@code save} assigns the id and version to the given entity and returns it, a write of
+ * a stale version throws {@link org.springframework.dao.OptimisticLockingFailureException}, and a
+ * duplicate process instance id or idempotency key throws
+ * {@link org.springframework.dao.DataIntegrityViolationException}. Lists and pages are in keyset
+ * order, {@code (createdAt, id)}.
+ */
+public interface AccountRequestRepository {
+
+    <S extends AccountRequest> S save(S request);
+
+    <S extends AccountRequest> List<S> saveAll(Iterable<S> requests);
+
+    Optional<AccountRequest> findById(Long id);
+
+    List<AccountRequest> findAllById(Iterable<Long> ids);
+
+    long count();
 
-@Repository
-public interface AccountRequestRepository extends JpaRepository<AccountRequest, Long> {
-    
     Optional<AccountRequest> findByProcessInstanceId(String processInstanceId);
-    
+
+    Optional<AccountRequest> findByIdempotencyKey(String idempotencyKey);
+
     List<AccountRequest> findByStatus(AccountStatus status);
-    
+
     List<AccountRequest> findByStatusIn(List<AccountStatus> statuses);
-}
\ No newline at end of file
+
+    /**
+     * One {@code {AccountStatus, Long}} row per status present.
+     */
+    List<Object[]> countByStatus();
+
+    /**
+     * Unleased (or lease-expired) manual reviews, oldest first.
+     */
+    List<Long> findClaimableReviewIds(LocalDateTime now, Pageable page);
+
+    /**
+     * Leases the given reviews to a reviewer under a fresh lease token, skipping those leased in the
+     * meantime, and bumps their version. Returns the number of reviews leased.
+     */
+    int claimReviews(Collection<Long> ids, String reviewer, String leaseToken, LocalDateTime leaseExpiresAt,
+                     LocalDateTime now);
+
+    /**
+     * The given reviews still leased under the token of one claim, in keyset order.
+     */
+    List<AccountRequest> findLeasedReviews(Collection<Long> ids, String leaseToken);
+
+    Optional<AccountResponseDto> findResponseById(Long id);
+
+    /**
+     * Responses of the given requests that exist, in no particular order.
+     */
+    List<AccountResponseDto> findResponsesByIds(Collection<Long> ids);
+
+    List<AccountResponseDto> findResponses(Pageable page);
+
+    List<AccountResponseDto> findResponsesAfter(LocalDateTime createdAt, Long id, Pageable page);
+
+    List<AccountResponseDto> findResponsesByStatus(AccountStatus status, Pageable page);
+
+    List<AccountResponseDto> findResponsesByStatusAfter(AccountStatus status, LocalDateTime createdAt, Long id,
+                                                        Pageable page);
+
+    /**
+     * All responses, to be consumed inside a read-only transaction and closed.
+     */
+    Stream<AccountResponseDto> streamResponses();
+
+    Stream<AccountResponseDto> streamResponsesByStatus(AccountStatus status);
+
+    /**
+     * Requests in one of {@code statuses} last updated before {@code updatedBefore}, in keyset order.
+     */
+    List<AccountResponseDto> findArchivable(Collection<AccountStatus> statuses, LocalDateTime updatedBefore,
+                                            Pageable page);
+
+    /**
+     * Deletes the given requests once they are archived, skipping any no longer in one of
+     * {@code statuses} or updated since {@code updatedBefore}. Raises no change events: the
+     * requests still exist, in the archive. Returns the number deleted.
+     */
+    int deleteArchived(Collection<Long> ids, Collection<AccountStatus> statuses, LocalDateTime updatedBefore);
+
+    /**
+     * Random id of the store, created with it and kept as long as its data is: a recreated
+     * database gets a new one, so files written for the old one can tell they are stale.
+     */
+    String getStoreId();
+}
@@ -0,0 +1,178 @@
+package com.example.accountcreation.repository;
+
+import com.example.accountcreation.dto.AccountResponseDto;
+import com.example.accountcreation.model.AccountRequest;
+import com.example.accountcreation.model.AccountStatus;
+import com.example.accountcreation.model.StoreInstance;
+import jakarta.persistence.QueryHint;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+/**
+ * Default {@link AccountRequestRepository}, on the JPA data source. Replaced by the in-memory
+ * store under the {@code memory-store} profile.
+ */
+@Repository
+@Profile("!memory-store")
+public interface JpaAccountRequestRepository extends JpaRepository<AccountRequest, Long>, AccountRequestRepository {
+
+    /**
+     * Select clause of the response projections: rows go straight into DTOs, without entities,
+     * persistence context entries or dirty checking.
+     */
+    String SELECT_RESPONSE = "select new com.example.accountcreation.dto.AccountResponseDto("
+        + "a.id, a.name, a.zipCode, a.age, a.phoneNumber, a.status, a.processInstanceId, "
+        + "a.createdAt, a.updatedAt, a.rejectionReason) from AccountRequest a ";
+
+    String AFTER_CURSOR = "(a.createdAt > :createdAt or (a.createdAt = :createdAt and a.id > :id)) ";
+
+    String KEYSET_ORDER = "order by a.createdAt, a.id";
+
+    @Override
+    Optional<AccountRequest> findByProcessInstanceId(String processInstanceId);
+
+    @Override
+    Optional<AccountRequest> findByIdempotencyKey(String idempotencyKey);
+
+    @Override
+    List<AccountRequest> findByStatus(AccountStatus status);
+
+    @Override
+    List<AccountRequest> findByStatusIn(List<AccountStatus> statuses);
+
+    @Override
+    @Query("select a.status, count(a) from AccountRequest a group by a.status")
+    List<Object[]> countByStatus();
+
+    /**
+     * Unleased (or lease-expired) manual reviews, oldest first, along the status index.
+     */
+    @Override
+    @Query("select a.id from AccountRequest a "
+         + "where a.status = com.example.accountcreation.model.AccountStatus.MANUAL_REVIEW "
+         + "and (a.reviewLeaseExpiresAt is null or a.reviewLeaseExpiresAt < :now) " + KEYSET_ORDER)
+    List<Long> findClaimableReviewIds(@Param("now") LocalDateTime now, Pageable page);
+
+    /**
+     * Leases the given reviews to a reviewer. The lease condition is re-checked by the update itself,
+     * so of two concurrent claims for the same row only one matches it; the version is bumped so a
+     * copy read before the claim can no longer be written.
+     */
+    @Override
+    @Modifying
+    @Query("update AccountRequest a set a.reviewer = :reviewer, a.reviewLeaseToken = :leaseToken, "
+         + "a.reviewLeaseExpiresAt = :leaseExpiresAt, a.version = a.version + 1 "
+         + "where a.id in :ids "
+         + "and a.status = com.example.accountcreation.model.AccountStatus.MANUAL_REVIEW "
+         + "and (a.reviewLeaseExpiresAt is null or a.reviewLeaseExpiresAt < :now)")
+    int claimReviews(@Param("ids") Collection<Long> ids,
+                     @Param("reviewer") String reviewer,
+                     @Param("leaseToken") String leaseToken,
+                     @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt,
+                     @Param("now") LocalDateTime now);
+
+    @Override
+    @Query("select a from AccountRequest a where a.id in :ids and a.reviewLeaseToken = :leaseToken " + KEYSET_ORDER)
+    List<AccountRequest> findLeasedReviews(@Param("ids") Collection<Long> ids,
+                                           @Param("leaseToken") String leaseToken);
+
+    @Override
+    @Query(SELECT_RESPONSE + "where a.id = :id")
+    Optional<AccountResponseDto> findResponseById(@Param("id") Long id);
+
+    @Override
+    @Query(SELECT_RESPONSE + "where a.id in :ids")
+    List<AccountResponseDto> findResponsesByIds(@Param("ids") Collection<Long> ids);
+
+    @Override
+    @Query(SELECT_RESPONSE + KEYSET_ORDER)
+    List<AccountResponseDto> findResponses(Pageable page);
+
+    @Override
+    @Query(SELECT_RESPONSE + "where " + AFTER_CURSOR + KEYSET_ORDER)
+    List<AccountResponseDto> findResponsesAfter(@Param("createdAt") LocalDateTime createdAt,
+                                                @Param("id") Long id,
+                                                Pageable page);
+
+    @Override
+    @Query(SELECT_RESPONSE + "where a.status = :status " + KEYSET_ORDER)
+    List<AccountResponseDto> findResponsesByStatus(@Param("status") AccountStatus status, Pageable page);
+
+    @Override
+    @Query(SELECT_RESPONSE + "where a.status = :status and " + AFTER_CURSOR + KEYSET_ORDER)
+    List<AccountResponseDto> findResponsesByStatusAfter(@Param("status") AccountStatus status,
+                                                        @Param("createdAt") LocalDateTime createdAt,
+                                                        @Param("id") Long id,
+                                                        Pageable page);
+
+    @Override
+    @Query(SELECT_RESPONSE + KEYSET_ORDER)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    Stream<AccountResponseDto> streamResponses();
+
+    @Override
+    @Query(SELECT_RESPONSE + "where a.status = :status " + KEYSET_ORDER)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    Stream<AccountResponseDto> streamResponsesByStatus(@Param("status") AccountStatus status);
+
+    @Override
+    @Query(SELECT_RESPONSE + "where a.status in :statuses and a.updatedAt < :updatedBefore " + KEYSET_ORDER)
+    List<AccountResponseDto> findArchivable(@Param("statuses") Collection<AccountStatus> statuses,
+                                            @Param("updatedBefore") LocalDateTime updatedBefore,
+                                            Pageable page);
+
+    @Override
+    @Transactional
+    @Modifying
+    @Query("delete from AccountRequest a where a.id in :ids and a.status in :statuses "
+         + "and a.updatedAt < :updatedBefore")
+    int deleteArchived(@Param("ids") Collection<Long> ids,
+                       @Param("statuses") Collection<AccountStatus> statuses,
+                       @Param("updatedBefore") LocalDateTime updatedBefore);
+
+    /**
+     * The {@link StoreInstance} row, created on first use. Of two nodes creating it at once, the
+     * second insert fails on the primary key and both read the first one's id.
+     */
+    @Override
+    default String getStoreId() {
+        Optional<String> existing = findStoreInstanceId();
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        try {
+            insertStoreInstance(StoreInstance.ID, UUID.randomUUID().toString(), LocalDateTime.now());
+        } catch (DataIntegrityViolationException e) {
+            // Created by another node in the meantime
+        }
+        return findStoreInstanceId().orElseThrow();
+    }
+
+    @Query("select s.instanceId from StoreInstance s where s.id = " + StoreInstance.ID)
+    Optional<String> findStoreInstanceId();
+
+    @Transactional
+    @Modifying
+    @Query(value = "insert into store_instance (id, instance_id, created_at) values (:id, :instanceId, :createdAt)",
+           nativeQuery = true)
+    int insertStoreInstance(@Param("id") int id,
+                            @Param("instanceId") String instanceId,
+                            @Param("createdAt") LocalDateTime createdAt);
+}
@@ -0,0 +1,90 @@
+package com.example.accountcreation.repository;
+
+import com.example.accountcreation.model.ProcessJob;
+import com.example.accountcreation.model.ProcessJobStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ProcessJobRepository extends JpaRepository<ProcessJob, Long> {
+
+    @Query("select j.id from ProcessJob j "
+         + "where (j.status = com.example.accountcreation.model.ProcessJobStatus.READY and j.availableAt <= :now) "
+         + "or (j.status = com.example.accountcreation.model.ProcessJobStatus.LEASED and j.leaseExpiresAt < :now "
+         + "and j.attempts < :maxAttempts) "
+         + "order by j.availableAt, j.id")
+    List<Long> findClaimableIds(@Param("now") LocalDateTime now, @Param("maxAttempts") int maxAttempts, Pageable page);
+
+    /**
+     * Leases the candidates that are still claimable. The claimability check is repeated in the
+     * update itself, so when several workers race for the same rows each row goes to exactly one
+     * of them and the others simply get fewer rows instead of blocking.
+     */
+    @Modifying
+    @Query("update ProcessJob j set j.status = com.example.accountcreation.model.ProcessJobStatus.LEASED, "
+         + "j.leaseOwner = :owner, j.leaseToken = :token, j.leaseExpiresAt = :leaseExpiresAt, "
+         + "j.attempts = j.attempts + 1 "
+         + "where j.id in :ids and ("
+         + "(j.status = com.example.accountcreation.model.ProcessJobStatus.READY and j.availableAt <= :now) "
+         + "or (j.status = com.example.accountcreation.model.ProcessJobStatus.LEASED and j.leaseExpiresAt < :now "
+         + "and j.attempts < :maxAttempts))")
+    int claim(@Param("ids") Collection<Long> ids,
+              @Param("owner") String owner,
+              @Param("token") String token,
+              @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt,
+              @Param("now") LocalDateTime now,
+              @Param("maxAttempts") int maxAttempts);
+
+    /**
+     * Dead-letters jobs whose lease expired on their last allowed attempt: their worker died or
+     * hung without ever failing them, so they are not reclaimed again.
+     */
+    @Modifying
+    @Query("update ProcessJob j set j.status = com.example.accountcreation.model.ProcessJobStatus.DEAD, "
+         + "j.lastError = :error, j.leaseOwner = null, j.leaseToken = null, j.leaseExpiresAt = null "
+         + "where j.status = com.example.accountcreation.model.ProcessJobStatus.LEASED and j.leaseExpiresAt < :now "
+         + "and j.attempts >= :maxAttempts")
+    int deadLetterExpired(@Param("now") LocalDateTime now,
+                          @Param("maxAttempts") int maxAttempts,
+                          @Param("error") String error);
+
+    List<ProcessJob> findByLeaseToken(String leaseToken);
+
+    @Modifying
+    @Query("delete from ProcessJob j where j.id = :id and j.leaseToken = :token")
+    int deleteLeased(@Param("id") Long id, @Param("token") String token);
+
+    @Modifying
+    @Query("update ProcessJob j set j.status = :status, j.availableAt = :availableAt, j.lastError = :error, "
+         + "j.leaseOwner = null, j.leaseToken = null, j.leaseExpiresAt = null "
+         + "where j.id = :id and j.leaseToken = :token")
+    int releaseLeased(@Param("id") Long id,
+                      @Param("token") String token,
+                      @Param("status") ProcessJobStatus status,
+                      @Param("availableAt") LocalDateTime availableAt,
+                      @Param("error") String error);
+
+    @Modifying
+    @Query("update ProcessJob j set j.leaseExpiresAt = :leaseExpiresAt "
+         + "where j.leaseOwner = :owner and j.status = com.example.accountcreation.model.ProcessJobStatus.LEASED")
+    int extendLeases(@Param("owner") String owner, @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt);
+
+    @Modifying
+    @Query("update ProcessJob j set j.status = com.example.accountcreation.model.ProcessJobStatus.READY, "
+         + "j.attempts = 0, j.availableAt = :now "
+         + "where j.status = com.example.accountcreation.model.ProcessJobStatus.DEAD")
+    int requeueDead(@Param("now") LocalDateTime now);
+
+    @Query("select j.status, count(j) from ProcessJob j group by j.status")
+    List<Object[]> countByStatus();
+
+    List<ProcessJob> findByStatus(ProcessJobStatus status);
+}
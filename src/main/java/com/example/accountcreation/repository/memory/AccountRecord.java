@@ -0,0 +1,248 @@
+package com.example.accountcreation.repository.memory;
+
+import com.example.accountcreation.dto.AccountResponseDto;
+import com.example.accountcreation.model.AccountRequest;
+import com.example.accountcreation.model.AccountStatus;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Objects;
+
+/**
+ * Immutable row of the in-memory store: one version of one account request. Timestamps are kept
+ * as epoch nanoseconds of their UTC-interpreted local date-time and the status as its ordinal, so
+ * a row is a handful of primitives and shared strings; entities and DTOs are built on read.
+ *
+ * The {@link Key} is carried over from version to version while {@code createdAt} is unchanged,
+ * so the keyset indexes never hold more than one key object per row.
+ */
+final class AccountRecord {
+
+    static final long NULL_TIME = Long.MIN_VALUE;
+    private static final int NULL_INT = Integer.MIN_VALUE;
+    private static final int NULL_STRING = 0xFFFF;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final AccountStatus[] STATUSES = AccountStatus.values();
+
+    final long id;
+    final long version;
+    final byte status;
+    final long createdAt;
+    final long updatedAt;
+    final long reviewLeaseExpiresAt;
+    final int age;
+    final String name;
+    final String zipCode;
+    final String phoneNumber;
+    final String processInstanceId;
+    final String rejectionReason;
+    final String reviewer;
+    final String reviewLeaseToken;
+    final String idempotencyKey;
+    final Key key;
+
+    private AccountRecord(long id, long version, byte status, long createdAt, long updatedAt, long reviewLeaseExpiresAt,
+                          int age, String name, String zipCode, String phoneNumber, String processInstanceId,
+                          String rejectionReason, String reviewer, String reviewLeaseToken, String idempotencyKey,
+                          Key key) {
+        this.id = id;
+        this.version = version;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.reviewLeaseExpiresAt = reviewLeaseExpiresAt;
+        this.age = age;
+        this.name = name;
+        this.zipCode = zipCode;
+        this.phoneNumber = phoneNumber;
+        this.processInstanceId = processInstanceId;
+        this.rejectionReason = rejectionReason;
+        this.reviewer = reviewer;
+        this.reviewLeaseToken = reviewLeaseToken;
+        this.idempotencyKey = idempotencyKey;
+        this.key = key != null && key.createdAt == createdAt && key.id == id ? key : new Key(createdAt, id);
+    }
+
+    /**
+     * Snapshot of an entity as the given version. The idempotency key is not updatable, so updates
+     * pass the stored one instead of the entity's.
+     */
+    static AccountRecord of(AccountRequest request, long id, long version, String idempotencyKey, AccountRecord previous) {
+        return new AccountRecord(id, version, (byte) request.getStatus().ordinal(),
+                                 toNanos(request.getCreatedAt()), toNanos(request.getUpdatedAt()),
+                                 toNanos(request.getReviewLeaseExpiresAt()),
+                                 request.getAge() == null ? NULL_INT : request.getAge(),
+                                 request.getName(), request.getZipCode(), request.getPhoneNumber(),
+                                 request.getProcessInstanceId(), request.getRejectionReason(), request.getReviewer(),
+                                 request.getReviewLeaseToken(), idempotencyKey, previous == null ? null : previous.key);
+    }
+
+    AccountRecord withLease(String reviewer, String reviewLeaseToken, long reviewLeaseExpiresAt) {
+        return new AccountRecord(id, version + 1, status, createdAt, updatedAt, reviewLeaseExpiresAt, age, name,
+                                 zipCode, phoneNumber, processInstanceId, rejectionReason, reviewer, reviewLeaseToken,
+                                 idempotencyKey, key);
+    }
+
+    AccountStatus getStatus() {
+        return STATUSES[status];
+    }
+
+    boolean isLeasedAt(long now) {
+        return reviewLeaseExpiresAt != NULL_TIME && reviewLeaseExpiresAt >= now;
+    }
+
+    /**
+     * Whether the other row holds the same values, versions aside: writing it would change nothing.
+     */
+    boolean sameContent(AccountRecord other) {
+        return status == other.status && createdAt == other.createdAt && updatedAt == other.updatedAt
+            && reviewLeaseExpiresAt == other.reviewLeaseExpiresAt && age == other.age
+            && Objects.equals(name, other.name) && Objects.equals(zipCode, other.zipCode)
+            && Objects.equals(phoneNumber, other.phoneNumber)
+            && Objects.equals(processInstanceId, other.processInstanceId)
+            && Objects.equals(rejectionReason, other.rejectionReason) && Objects.equals(reviewer, other.reviewer)
+            && Objects.equals(reviewLeaseToken, other.reviewLeaseToken) && Objects.equals(idempotencyKey, other.idempotencyKey);
+    }
+
+    AccountRequest toEntity() {
+        AccountRequest request = new AccountRequest(name, zipCode, age == NULL_INT ? null : age, phoneNumber);
+        request.setId(id);
+        request.setVersion(version);
+        request.setStatus(getStatus());
+        request.setCreatedAt(toTime(createdAt));
+        request.setUpdatedAt(toTime(updatedAt));
+        request.setProcessInstanceId(processInstanceId);
+        request.setRejectionReason(rejectionReason);
+        request.setReviewer(reviewer);
+        request.setReviewLeaseExpiresAt(toTime(reviewLeaseExpiresAt));
+        request.setReviewLeaseToken(reviewLeaseToken);
+        request.setIdempotencyKey(idempotencyKey);
+        return request;
+    }
+
+    AccountResponseDto toResponse() {
+        return new AccountResponseDto(id, name, zipCode, age == NULL_INT ? null : age, phoneNumber, getStatus(),
+                                      processInstanceId, toTime(createdAt), toTime(updatedAt), rejectionReason);
+    }
+
+    void encode(ByteBuffer out) {
+        out.putLong(id);
+        out.putLong(version);
+        out.put(status);
+        out.putLong(createdAt);
+        out.putLong(updatedAt);
+        out.putLong(reviewLeaseExpiresAt);
+        out.putInt(age);
+        putString(out, name);
+        putString(out, zipCode);
+        putString(out, phoneNumber);
+        putString(out, processInstanceId);
+        putString(out, rejectionReason);
+        putString(out, reviewer);
+        putString(out, idempotencyKey);
+        putString(out, reviewLeaseToken);
+    }
+
+    /**
+     * Reads a row written by {@link #encode} in the given store format version; rows of version 1
+     * carry no review lease token.
+     *
+     * @throws IllegalArgumentException if the bytes are not a valid row
+     */
+    static AccountRecord decode(ByteBuffer in, int formatVersion) {
+        try {
+            long id = in.getLong();
+            long version = in.getLong();
+            byte status = in.get();
+            if (status < 0 || status >= STATUSES.length) {
+                throw new IllegalArgumentException("Unknown status ordinal " + status);
+            }
+            long createdAt = in.getLong();
+            long updatedAt = in.getLong();
+            long reviewLeaseExpiresAt = in.getLong();
+            int age = in.getInt();
+            String name = getString(in);
+            String zipCode = getString(in);
+            String phoneNumber = getString(in);
+            String processInstanceId = getString(in);
+            String rejectionReason = getString(in);
+            String reviewer = getString(in);
+            String idempotencyKey = getString(in);
+            String reviewLeaseToken = formatVersion >= 2 ? getString(in) : null;
+            return new AccountRecord(id, version, status, createdAt, updatedAt, reviewLeaseExpiresAt, age, name,
+                                     zipCode, phoneNumber, processInstanceId, rejectionReason, reviewer,
+                                     reviewLeaseToken, idempotencyKey, null);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed account record: " + e.getMessage(), e);
+        }
+    }
+
+    static long toNanos(LocalDateTime time) {
+        if (time == null) {
+            return NULL_TIME;
+        }
+        return Math.addExact(Math.multiplyExact(time.toEpochSecond(ZoneOffset.UTC), NANOS_PER_SECOND), time.getNano());
+    }
+
+    static LocalDateTime toTime(long nanos) {
+        if (nanos == NULL_TIME) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, NANOS_PER_SECOND),
+                                           (int) Math.floorMod(nanos, NANOS_PER_SECOND), ZoneOffset.UTC);
+    }
+
+    private static void putString(ByteBuffer out, String value) {
+        if (value == null) {
+            out.putShort((short) NULL_STRING);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length >= NULL_STRING) {
+            throw new IllegalArgumentException("String of " + bytes.length + " bytes is too long for the account store");
+        }
+        out.putShort((short) bytes.length);
+        out.put(bytes);
+    }
+
+    private static String getString(ByteBuffer in) {
+        int length = Short.toUnsignedInt(in.getShort());
+        if (length == NULL_STRING) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Position of a row in keyset order, {@code (createdAt, id)}.
+     */
+    static final class Key implements Comparable<Key> {
+        final long createdAt;
+        final long id;
+
+        Key(long createdAt, long id) {
+            this.createdAt = createdAt;
+            this.id = id;
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            int byTime = Long.compare(createdAt, other.createdAt);
+            return byTime != 0 ? byTime : Long.compare(id, other.id);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key && ((Key) other).createdAt == createdAt && ((Key) other).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(createdAt) * 31 + Long.hashCode(id);
+        }
+    }
+}
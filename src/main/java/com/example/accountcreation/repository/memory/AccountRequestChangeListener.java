@@ -0,0 +1,16 @@
+package com.example.accountcreation.repository.memory;
+
+import com.example.accountcreation.model.AccountRequest;
+import com.example.accountcreation.model.AccountStatus;
+
+/**
+ * Callback for writes of the {@link InMemoryAccountRequestRepository}, the counterpart of the
+ * Hibernate post insert/update events the JPA repository raises. Called on the writing thread,
+ * inside its transaction, so it must not block.
+ */
+public interface AccountRequestChangeListener {
+
+    void onInsert(AccountRequest request);
+
+    void onUpdate(AccountRequest request, AccountStatus previousStatus);
+}
@@ -0,0 +1,457 @@
+package com.example.accountcreation.repository.memory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.LongConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Write-ahead log and snapshots of the in-memory account store, in one directory.
+ *
+ * The log is a sequence of generations, {@code wal-<generation>.log}. Each file begins with a
+ * magic number, format version and its generation, followed by frames of
+ * {@code [int length][int crc32][payload]}, where the payload is an op byte and either a whole
+ * {@link AccountRecord} (put) or an id (remove). Every write is logged as its after-image, so
+ * replaying a frame twice is harmless. Appends go to an in-memory buffer; {@link #flush()} writes
+ * and forces it, so a crash loses at most what was appended since the last flush.
+ *
+ * {@link #snapshot} starts a new generation, writes every row to
+ * {@code snapshot-<generation>.snap} through a temporary file and an atomic rename, and then
+ * deletes the older generations. Rows written while the snapshot is taken land in the new
+ * generation, which recovery replays on top of the snapshot.
+ *
+ * {@code store.id} holds the random id the store was given when the directory was first used.
+ */
+final class AccountStoreLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountStoreLog.class);
+
+    static final int MAGIC = 0x41435354;
+    // 2 added the review lease token to rows; files of version 1 are still read
+    static final int FORMAT_VERSION = 2;
+    static final int FILE_HEADER_SIZE = 16;
+    static final int FRAME_HEADER_SIZE = 8;
+    static final byte PUT = 1;
+    static final byte REMOVE = 2;
+    static final String WAL_PREFIX = "wal-";
+    static final String WAL_SUFFIX = ".log";
+    static final String SNAPSHOT_PREFIX = "snapshot-";
+    static final String SNAPSHOT_SUFFIX = ".snap";
+    static final String STORE_ID_FILE = "store.id";
+
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    private final Path directory;
+    private final CRC32 crc = new CRC32();
+    private final Object syncLock = new Object();
+    private final Object snapshotLock = new Object();
+
+    // Guarded by this
+    private FileChannel channel;
+    private long generation;
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private ByteBuffer scratch = ByteBuffer.allocate(512);
+    private long appendedCount;
+    private long bytesWritten;
+
+    private volatile long syncedCount;
+    private volatile long syncCount;
+    private volatile long snapshotCount;
+    private volatile long lastSnapshotRecordCount;
+    private volatile long lastSnapshotMillis;
+
+    AccountStoreLog(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * The id of the store in this directory, created for a directory that has none yet.
+     */
+    synchronized String storeId() throws IOException {
+        Path file = directory.resolve(STORE_ID_FILE);
+        if (Files.exists(file)) {
+            return Files.readString(file, StandardCharsets.UTF_8).trim();
+        }
+        String id = UUID.randomUUID().toString();
+        Files.createDirectories(directory);
+        Path temporary = directory.resolve(STORE_ID_FILE + ".tmp");
+        Files.writeString(temporary, id, StandardCharsets.UTF_8);
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return id;
+    }
+
+    /**
+     * Loads the latest snapshot and replays the log generations written since, then opens a new
+     * generation for appends. A torn frame ends its file, as the tail of a crash.
+     *
+     * @return the highest sequence value seen, from the snapshot header or the ids replayed
+     */
+    long recover(Consumer<AccountRecord> put, LongConsumer remove) throws IOException {
+        Files.createDirectories(directory);
+        List<Path> snapshots = list(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        List<Path> wals = list(WAL_PREFIX, WAL_SUFFIX);
+
+        long sequence = 0;
+        long fromGeneration = 0;
+        long records = 0;
+        if (!snapshots.isEmpty()) {
+            Path snapshot = snapshots.get(snapshots.size() - 1);
+            fromGeneration = generationOf(snapshot);
+            long[] counters = new long[2];
+            readFile(snapshot, true, record -> {
+                put.accept(record);
+                counters[0]++;
+                counters[1] = Math.max(counters[1], record.id);
+            }, id -> {}, header -> counters[1] = Math.max(counters[1], header));
+            records = counters[0];
+            sequence = counters[1];
+        }
+        long replayed = 0;
+        long lastGeneration = fromGeneration;
+        for (Path wal : wals) {
+            long walGeneration = generationOf(wal);
+            lastGeneration = Math.max(lastGeneration, walGeneration);
+            if (walGeneration < fromGeneration) {
+                continue;
+            }
+            long[] counters = new long[2];
+            counters[1] = sequence;
+            readFile(wal, false, record -> {
+                put.accept(record);
+                counters[0]++;
+                counters[1] = Math.max(counters[1], record.id);
+            }, id -> {
+                remove.accept(id);
+                counters[0]++;
+            }, header -> {});
+            replayed += counters[0];
+            sequence = counters[1];
+        }
+        synchronized (this) {
+            openWal(lastGeneration + 1);
+        }
+        logger.info("Account store recovered {} rows from snapshot generation {} and {} log records; appending to {}",
+                   records, fromGeneration, replayed, walPath(generation).getFileName());
+        return sequence;
+    }
+
+    synchronized void appendPut(AccountRecord record) throws IOException {
+        ByteBuffer payload = encode(record);
+        append(payload);
+    }
+
+    synchronized void appendRemove(long id) throws IOException {
+        scratch.clear();
+        scratch.put(REMOVE).putLong(id);
+        append(scratch.flip());
+    }
+
+    /**
+     * Writes the buffered frames and forces them to the disk.
+     */
+    void flush() throws IOException {
+        synchronized (syncLock) {
+            FileChannel target;
+            long count;
+            synchronized (this) {
+                if (channel == null || appendedCount == syncedCount) {
+                    return;
+                }
+                drain();
+                target = channel;
+                count = appendedCount;
+            }
+            try {
+                target.force(false);
+            } catch (ClosedChannelException e) {
+                // Rotated by a snapshot meanwhile, which forced it before closing
+            }
+            syncedCount = count;
+            syncCount++;
+        }
+    }
+
+    /**
+     * Writes a snapshot of {@code records} and drops the log generations it covers.
+     */
+    void snapshot(Iterator<AccountRecord> records, long sequence) throws IOException {
+        synchronized (snapshotLock) {
+            long started = System.currentTimeMillis();
+            long snapshotGeneration;
+            synchronized (this) {
+                drain();
+                channel.force(false);
+                channel.close();
+                openWal(generation + 1);
+                snapshotGeneration = generation;
+            }
+            Path target = directory.resolve(fileName(SNAPSHOT_PREFIX, snapshotGeneration, SNAPSHOT_SUFFIX));
+            Path temporary = directory.resolve(target.getFileName() + ".tmp");
+            long count = 0;
+            try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer block = ByteBuffer.allocate(BUFFER_SIZE);
+                ByteBuffer row = ByteBuffer.allocate(512);
+                CRC32 checksum = new CRC32();
+                block.putInt(MAGIC).putInt(FORMAT_VERSION).putLong(sequence);
+                while (records.hasNext()) {
+                    row = encodeInto(row, records.next());
+                    if (block.remaining() < FRAME_HEADER_SIZE + row.remaining()) {
+                        writeFully(out, block.flip());
+                        block.clear();
+                        if (block.remaining() < FRAME_HEADER_SIZE + row.remaining()) {
+                            block = ByteBuffer.allocate(FRAME_HEADER_SIZE + row.remaining());
+                        }
+                    }
+                    checksum.reset();
+                    checksum.update(row.duplicate());
+                    block.putInt(row.remaining()).putInt((int) checksum.getValue()).put(row);
+                    count++;
+                }
+                if (block.remaining() < 4) {
+                    writeFully(out, block.flip());
+                    block.clear();
+                }
+                block.putInt(0);
+                writeFully(out, block.flip());
+                out.force(true);
+            }
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            for (Path old : list(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+                if (generationOf(old) < snapshotGeneration) {
+                    Files.deleteIfExists(old);
+                }
+            }
+            for (Path old : list(WAL_PREFIX, WAL_SUFFIX)) {
+                if (generationOf(old) < snapshotGeneration) {
+                    Files.deleteIfExists(old);
+                }
+            }
+            snapshotCount++;
+            lastSnapshotRecordCount = count;
+            lastSnapshotMillis = System.currentTimeMillis() - started;
+            logger.info("Account store snapshot {} written with {} rows in {} ms", target.getFileName(), count,
+                       lastSnapshotMillis);
+        }
+    }
+
+    void close() throws IOException {
+        flush();
+        synchronized (this) {
+            if (channel != null) {
+                channel.close();
+                channel = null;
+            }
+        }
+    }
+
+    Path getDirectory() {
+        return directory;
+    }
+
+    synchronized long getGeneration() {
+        return generation;
+    }
+
+    synchronized long getAppendedCount() {
+        return appendedCount;
+    }
+
+    synchronized long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    long getUnsyncedCount() {
+        return getAppendedCount() - syncedCount;
+    }
+
+    long getSyncCount() {
+        return syncCount;
+    }
+
+    long getSnapshotCount() {
+        return snapshotCount;
+    }
+
+    long getLastSnapshotRecordCount() {
+        return lastSnapshotRecordCount;
+    }
+
+    long getLastSnapshotMillis() {
+        return lastSnapshotMillis;
+    }
+
+    private void append(ByteBuffer payload) throws IOException {
+        if (channel == null) {
+            throw new IllegalStateException("Account store log is closed");
+        }
+        int frameSize = FRAME_HEADER_SIZE + payload.remaining();
+        if (frameSize > buffer.remaining()) {
+            drain();
+            if (frameSize > buffer.capacity()) {
+                buffer = ByteBuffer.allocateDirect(frameSize);
+            }
+        }
+        crc.reset();
+        crc.update(payload.duplicate());
+        buffer.putInt(payload.remaining()).putInt((int) crc.getValue()).put(payload);
+        appendedCount++;
+        bytesWritten += frameSize;
+    }
+
+    private void drain() throws IOException {
+        if (buffer.position() == 0) {
+            return;
+        }
+        buffer.flip();
+        writeFully(channel, buffer);
+        buffer.clear();
+    }
+
+    private ByteBuffer encode(AccountRecord record) {
+        scratch = encodeInto(scratch, record);
+        return scratch;
+    }
+
+    private static ByteBuffer encodeInto(ByteBuffer target, AccountRecord record) {
+        while (true) {
+            target.clear();
+            try {
+                target.put(PUT);
+                record.encode(target);
+                return target.flip();
+            } catch (BufferOverflowException e) {
+                target = ByteBuffer.allocate(target.capacity() * 2);
+            }
+        }
+    }
+
+    private void openWal(long newGeneration) throws IOException {
+        Path path = walPath(newGeneration);
+        channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        generation = newGeneration;
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+        header.putInt(MAGIC).putInt(FORMAT_VERSION).putLong(newGeneration);
+        writeFully(channel, header.flip());
+    }
+
+    private Path walPath(long walGeneration) {
+        return directory.resolve(fileName(WAL_PREFIX, walGeneration, WAL_SUFFIX));
+    }
+
+    /**
+     * Reads one log or snapshot file. A snapshot must end with its zero-length marker; a log may
+     * end anywhere, and a frame cut short or failing its checksum ends it.
+     */
+    private static void readFile(Path path, boolean snapshot, Consumer<AccountRecord> put, LongConsumer remove,
+                                 LongConsumer header) throws IOException {
+        MappedByteBuffer in;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (in.remaining() < FILE_HEADER_SIZE || in.getInt() != MAGIC) {
+            throw new IOException(path + " is not an account store file");
+        }
+        int version = in.getInt();
+        if (version < 1 || version > FORMAT_VERSION) {
+            throw new IOException(path + " has unsupported account store format version " + version);
+        }
+        header.accept(in.getLong());
+
+        CRC32 checksum = new CRC32();
+        while (true) {
+            if (in.remaining() == 0 && !snapshot) {
+                return;
+            }
+            String torn = null;
+            if (in.remaining() < 4) {
+                torn = "truncated frame header";
+            } else {
+                int length = in.getInt();
+                if (length == 0 && snapshot) {
+                    return;
+                }
+                if (length <= 0 || in.remaining() < 4 + length) {
+                    torn = "truncated frame of " + length + " bytes";
+                } else {
+                    int expected = in.getInt();
+                    ByteBuffer payload = in.slice(in.position(), length);
+                    checksum.reset();
+                    checksum.update(payload.duplicate());
+                    if ((int) checksum.getValue() != expected) {
+                        torn = "checksum mismatch";
+                    } else {
+                        in.position(in.position() + length);
+                        try {
+                            byte op = payload.get();
+                            if (op == PUT) {
+                                put.accept(AccountRecord.decode(payload, version));
+                            } else if (op == REMOVE) {
+                                remove.accept(payload.getLong());
+                            } else {
+                                torn = "unknown op " + op;
+                            }
+                        } catch (IllegalArgumentException e) {
+                            torn = e.getMessage();
+                        }
+                    }
+                }
+            }
+            if (torn != null) {
+                if (snapshot) {
+                    throw new IOException("Account store snapshot " + path + " is corrupt: " + torn);
+                }
+                logger.warn("Account store log {} ends in a torn record: {}", path, torn);
+                return;
+            }
+        }
+    }
+
+    private List<Path> list(String prefix, String suffix) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> entries = Files.list(directory)) {
+            entries.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(prefix) && name.endsWith(suffix);
+            }).forEach(files::add);
+        }
+        files.sort(Comparator.comparingLong(AccountStoreLog::generationOf));
+        return files;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+
+    static long generationOf(Path path) {
+        String name = path.getFileName().toString();
+        int start = name.indexOf('-') + 1;
+        int end = name.indexOf('.', start);
+        return Long.parseLong(name.substring(start, end));
+    }
+
+    static String fileName(String prefix, long generation, String suffix) {
+        return String.format("%s%020d%s", prefix, generation, suffix);
+    }
+}
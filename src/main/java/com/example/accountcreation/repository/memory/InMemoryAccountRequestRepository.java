@@ -0,0 +1,904 @@
+package com.example.accountcreation.repository.memory;
+
+import com.example.accountcreation.dto.AccountResponseDto;
+import com.example.accountcreation.model.AccountRequest;
+import com.example.accountcreation.model.AccountStatus;
+import com.example.accountcreation.repository.AccountRequestRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * {@link AccountRequestRepository} held entirely in memory, active under the
+ * {@code memory-store} profile in place of {@link com.example.accountcreation.repository.JpaAccountRequestRepository}.
+ *
+ * Rows are immutable {@link AccountRecord}s in a table addressed directly by the long id: pages of
+ * 4096 slots, so a lookup is two array reads with no boxing or hashing. Secondary indexes are
+ * concurrent: keyset-ordered skip lists over all rows and per status (with exact per-status
+ * counts), and hash maps for the unique process instance id and idempotency key. Writers lock one
+ * of {@code 256} id stripes; readers take no locks and re-check every index hit against the row
+ * itself, so an index entry that is momentarily stale is skipped rather than returned.
+ *
+ * Writes follow the JPA repository's contract: versions are checked and bumped, unique keys are
+ * enforced, and an unchanged entity is not written. Writes are visible to other threads at once;
+ * inside a transaction each row's prior image is kept and restored if the transaction rolls
+ * back. Every write is appended to the {@link AccountStoreLog}, forced every
+ * {@code flush-interval-ms}, and a snapshot is taken every {@code snapshot-interval-ms} and on
+ * shutdown; startup recovers from the latest snapshot and the log written since.
+ */
+@Repository
+@Profile("memory-store")
+public class InMemoryAccountRequestRepository implements AccountRequestRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryAccountRequestRepository.class);
+
+    private static final int PAGE_BITS = 12;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int LOCK_STRIPES = 256;
+    private static final AccountStatus[] STATUSES = AccountStatus.values();
+
+    @Value("${accounts.store.directory:account-store}")
+    private String directoryName = "account-store";
+
+    @Value("${accounts.store.flush-interval-ms:10}")
+    private long flushIntervalMs = 10;
+
+    @Value("${accounts.store.snapshot-interval-ms:300000}")
+    private long snapshotIntervalMs = 300000;
+
+    private Path directory;
+    private AccountStoreLog log;
+    private volatile String storeId;
+    private Thread maintenance;
+    private volatile boolean running;
+
+    @SuppressWarnings("unchecked")
+    private volatile AtomicReferenceArray<AccountRecord>[] pages = new AtomicReferenceArray[0];
+    private final Object pageLock = new Object();
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong size = new AtomicLong();
+
+    private final ConcurrentSkipListSet<AccountRecord.Key> keyset = new ConcurrentSkipListSet<>();
+    private final List<ConcurrentSkipListSet<AccountRecord.Key>> statusKeysets = new ArrayList<>();
+    private final AtomicLong[] statusCounts = new AtomicLong[STATUSES.length];
+    private final ConcurrentHashMap<String, Long> processInstanceIds = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Long> idempotencyKeys = new ConcurrentHashMap<>();
+
+    private final List<AccountRequestChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    private final LongAdder writeCount = new LongAdder();
+    private final LongAdder conflictCount = new LongAdder();
+    private final LongAdder rolledBackCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+
+    public InMemoryAccountRequestRepository() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+        for (int i = 0; i < STATUSES.length; i++) {
+            statusKeysets.add(new ConcurrentSkipListSet<>());
+            statusCounts[i] = new AtomicLong();
+        }
+    }
+
+    public InMemoryAccountRequestRepository(Path directory, long flushIntervalMs, long snapshotIntervalMs) {
+        this();
+        this.directory = directory;
+        this.flushIntervalMs = flushIntervalMs;
+        this.snapshotIntervalMs = snapshotIntervalMs;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (directory == null) {
+            directory = Paths.get(directoryName);
+        }
+        log = new AccountStoreLog(directory);
+        long recovered = log.recover(this::restore, this::forget);
+        sequence.set(recovered);
+        storeId = log.storeId();
+        running = true;
+        maintenance = new Thread(this::maintenanceLoop, "account-store-flusher");
+        maintenance.setDaemon(true);
+        maintenance.start();
+        logger.info("In-memory account store holding {} requests (flush interval {} ms, snapshot interval {} ms)",
+                   size.get(), flushIntervalMs, snapshotIntervalMs);
+    }
+
+    /**
+     * Snapshots on the way out, so the next start replays no log.
+     */
+    @PreDestroy
+    public void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(maintenance);
+        try {
+            maintenance.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            snapshot();
+            log.close();
+        } catch (IOException e) {
+            logger.error("Failed to close account store log in {}", directory, e);
+        }
+    }
+
+    public void addListener(AccountRequestChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Writes a snapshot of all rows and drops the log it replaces.
+     */
+    public void snapshot() throws IOException {
+        log.snapshot(rows().iterator(), sequence.get());
+    }
+
+    /**
+     * Forces every logged write to the disk.
+     */
+    public void flush() throws IOException {
+        log.flush();
+    }
+
+    @Override
+    public <S extends AccountRequest> S save(S request) {
+        if (request.getStatus() == null || request.getCreatedAt() == null) {
+            throw new DataIntegrityViolationException("Account request status and createdAt are required");
+        }
+        return request.getVersion() == null ? insert(request) : update(request);
+    }
+
+    @Override
+    public <S extends AccountRequest> List<S> saveAll(Iterable<S> requests) {
+        List<S> saved = new ArrayList<>();
+        for (S request : requests) {
+            saved.add(save(request));
+        }
+        return saved;
+    }
+
+    @Override
+    public Optional<AccountRequest> findById(Long id) {
+        AccountRecord record = get(id);
+        return record == null ? Optional.empty() : Optional.of(record.toEntity());
+    }
+
+    @Override
+    public List<AccountRequest> findAllById(Iterable<Long> ids) {
+        List<AccountRequest> found = new ArrayList<>();
+        for (Long id : ids) {
+            AccountRecord record = get(id);
+            if (record != null) {
+                found.add(record.toEntity());
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public long count() {
+        return size.get();
+    }
+
+    @Override
+    public Optional<AccountRequest> findByProcessInstanceId(String processInstanceId) {
+        return findUnique(processInstanceIds, processInstanceId, record -> record.processInstanceId);
+    }
+
+    @Override
+    public Optional<AccountRequest> findByIdempotencyKey(String idempotencyKey) {
+        return findUnique(idempotencyKeys, idempotencyKey, record -> record.idempotencyKey);
+    }
+
+    @Override
+    public List<AccountRequest> findByStatus(AccountStatus status) {
+        return scan(statusKeysets.get(status.ordinal()), status, Pageable.unpaged(), AccountRecord::toEntity);
+    }
+
+    @Override
+    public List<AccountRequest> findByStatusIn(List<AccountStatus> statuses) {
+        List<AccountRequest> found = new ArrayList<>();
+        for (AccountStatus status : new LinkedHashSet<>(statuses)) {
+            found.addAll(findByStatus(status));
+        }
+        return found;
+    }
+
+    @Override
+    public List<Object[]> countByStatus() {
+        List<Object[]> rows = new ArrayList<>();
+        for (AccountStatus status : STATUSES) {
+            long count = statusCounts[status.ordinal()].get();
+            if (count > 0) {
+                rows.add(new Object[] {status, count});
+            }
+        }
+        return rows;
+    }
+
+    @Override
+    public List<Long> findClaimableReviewIds(LocalDateTime now, Pageable page) {
+        long nowNanos = AccountRecord.toNanos(now);
+        List<Long> ids = new ArrayList<>();
+        long skip = page.isPaged() ? page.getOffset() : 0;
+        int limit = page.isPaged() ? page.getPageSize() : Integer.MAX_VALUE;
+        for (AccountRecord.Key key : statusKeysets.get(AccountStatus.MANUAL_REVIEW.ordinal())) {
+            AccountRecord record = matching(key, AccountStatus.MANUAL_REVIEW);
+            if (record == null || record.isLeasedAt(nowNanos)) {
+                continue;
+            }
+            if (skip > 0) {
+                skip--;
+                continue;
+            }
+            ids.add(record.id);
+            if (ids.size() >= limit) {
+                break;
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Like the JPA bulk update, this bumps the version but raises no change events and leaves
+     * {@code updatedAt} alone.
+     */
+    @Override
+    public int claimReviews(Collection<Long> ids, String reviewer, String leaseToken, LocalDateTime leaseExpiresAt,
+                            LocalDateTime now) {
+        long nowNanos = AccountRecord.toNanos(now);
+        long leaseNanos = AccountRecord.toNanos(leaseExpiresAt);
+        int claimed = 0;
+        for (Long id : ids) {
+            if (id == null) {
+                continue;
+            }
+            synchronized (lockFor(id)) {
+                AccountRecord current = get(id);
+                if (current == null || current.getStatus() != AccountStatus.MANUAL_REVIEW || current.isLeasedAt(nowNanos)) {
+                    continue;
+                }
+                write(current, current.withLease(reviewer, leaseToken, leaseNanos));
+                claimed++;
+            }
+        }
+        return claimed;
+    }
+
+    @Override
+    public List<AccountRequest> findLeasedReviews(Collection<Long> ids, String leaseToken) {
+        List<AccountRecord> leased = new ArrayList<>();
+        for (Long id : ids) {
+            AccountRecord record = get(id);
+            if (record != null && Objects.equals(record.reviewLeaseToken, leaseToken)) {
+                leased.add(record);
+            }
+        }
+        leased.sort(Comparator.comparing((AccountRecord record) -> record.key));
+        List<AccountRequest> found = new ArrayList<>(leased.size());
+        for (AccountRecord record : leased) {
+            found.add(record.toEntity());
+        }
+        return found;
+    }
+
+    @Override
+    public Optional<AccountResponseDto> findResponseById(Long id) {
+        AccountRecord record = get(id);
+        return record == null ? Optional.empty() : Optional.of(record.toResponse());
+    }
+
+    @Override
+    public List<AccountResponseDto> findResponsesByIds(Collection<Long> ids) {
+        List<AccountResponseDto> found = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            AccountRecord record = get(id);
+            if (record != null) {
+                found.add(record.toResponse());
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public List<AccountResponseDto> findResponses(Pageable page) {
+        return scan(keyset, null, page, AccountRecord::toResponse);
+    }
+
+    @Override
+    public List<AccountResponseDto> findResponsesAfter(LocalDateTime createdAt, Long id, Pageable page) {
+        return scan(keyset.tailSet(cursor(createdAt, id), false), null, page, AccountRecord::toResponse);
+    }
+
+    @Override
+    public List<AccountResponseDto> findResponsesByStatus(AccountStatus status, Pageable page) {
+        return scan(statusKeysets.get(status.ordinal()), status, page, AccountRecord::toResponse);
+    }
+
+    @Override
+    public List<AccountResponseDto> findResponsesByStatusAfter(AccountStatus status, LocalDateTime createdAt, Long id,
+                                                               Pageable page) {
+        return scan(statusKeysets.get(status.ordinal()).tailSet(cursor(createdAt, id), false), status, page,
+                    AccountRecord::toResponse);
+    }
+
+    @Override
+    public Stream<AccountResponseDto> streamResponses() {
+        return keyset.stream().map(key -> matching(key, null)).filter(Objects::nonNull).map(AccountRecord::toResponse);
+    }
+
+    @Override
+    public Stream<AccountResponseDto> streamResponsesByStatus(AccountStatus status) {
+        return statusKeysets.get(status.ordinal()).stream()
+            .map(key -> matching(key, status))
+            .filter(Objects::nonNull)
+            .map(AccountRecord::toResponse);
+    }
+
+    /**
+     * The first rows of the page are among the first rows of each status, so each status index is
+     * read only that far and the candidates are merged.
+     */
+    @Override
+    public List<AccountResponseDto> findArchivable(Collection<AccountStatus> statuses, LocalDateTime updatedBefore,
+                                                   Pageable page) {
+        long before = AccountRecord.toNanos(updatedBefore);
+        long skip = page.isPaged() ? page.getOffset() : 0;
+        long wanted = page.isPaged() ? skip + page.getPageSize() : Long.MAX_VALUE;
+        List<AccountRecord> candidates = new ArrayList<>();
+        for (AccountStatus status : new LinkedHashSet<>(statuses)) {
+            long taken = 0;
+            for (AccountRecord.Key key : statusKeysets.get(status.ordinal())) {
+                if (taken >= wanted) {
+                    break;
+                }
+                AccountRecord record = matching(key, status);
+                if (record != null && record.updatedAt != AccountRecord.NULL_TIME && record.updatedAt < before) {
+                    candidates.add(record);
+                    taken++;
+                }
+            }
+        }
+        candidates.sort(Comparator.comparing((AccountRecord record) -> record.key));
+        return candidates.stream()
+            .skip(skip)
+            .limit(wanted - skip)
+            .map(AccountRecord::toResponse)
+            .toList();
+    }
+
+    @Override
+    public int deleteArchived(Collection<Long> ids, Collection<AccountStatus> statuses, LocalDateTime updatedBefore) {
+        long before = AccountRecord.toNanos(updatedBefore);
+        int deleted = 0;
+        for (Long id : ids) {
+            if (id == null) {
+                continue;
+            }
+            synchronized (lockFor(id)) {
+                AccountRecord current = get(id);
+                if (current == null || !statuses.contains(current.getStatus())
+                        || current.updatedAt == AccountRecord.NULL_TIME || current.updatedAt >= before) {
+                    continue;
+                }
+                index(current, null);
+                try {
+                    log.appendRemove(id);
+                } catch (IOException | RuntimeException e) {
+                    index(null, current);
+                    failedCount.increment();
+                    throw new DataAccessResourceFailureException("Cannot log removal of account request " + id, e);
+                }
+                writeCount.increment();
+                recordUndo(id, current, null);
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * The id kept in the store's directory, so it lasts exactly as long as the directory's data.
+     */
+    @Override
+    public String getStoreId() {
+        return storeId;
+    }
+
+    public Stats getStats() {
+        return new Stats(size.get(), sequence.get(), writeCount.sum(), conflictCount.sum(), rolledBackCount.sum(),
+                         failedCount.sum(), directory == null ? null : directory.toString(),
+                         log == null ? 0 : log.getGeneration(), log == null ? 0 : log.getAppendedCount(),
+                         log == null ? 0 : log.getBytesWritten(), log == null ? 0 : log.getUnsyncedCount(),
+                         log == null ? 0 : log.getSyncCount(), log == null ? 0 : log.getSnapshotCount(),
+                         log == null ? 0 : log.getLastSnapshotRecordCount(),
+                         log == null ? 0 : log.getLastSnapshotMillis());
+    }
+
+    private <S extends AccountRequest> S insert(S request) {
+        long id = sequence.incrementAndGet();
+        synchronized (lockFor(id)) {
+            AccountRecord next = AccountRecord.of(request, id, 0L, request.getIdempotencyKey(), null);
+            write(null, next);
+            request.setId(id);
+            request.setVersion(0L);
+            for (AccountRequestChangeListener listener : listeners) {
+                listener.onInsert(request);
+            }
+        }
+        return request;
+    }
+
+    private <S extends AccountRequest> S update(S request) {
+        Long id = request.getId();
+        if (id == null) {
+            throw new ObjectOptimisticLockingFailureException(AccountRequest.class, null);
+        }
+        synchronized (lockFor(id)) {
+            AccountRecord current = get(id);
+            if (current == null || current.version != request.getVersion()) {
+                conflictCount.increment();
+                throw new ObjectOptimisticLockingFailureException(AccountRequest.class, id);
+            }
+            if (AccountRecord.of(request, id, current.version, current.idempotencyKey, current).sameContent(current)) {
+                return request;
+            }
+            request.preUpdate();
+            AccountRecord next = AccountRecord.of(request, id, current.version + 1, current.idempotencyKey, current);
+            write(current, next);
+            request.setVersion(next.version);
+            AccountStatus previousStatus = current.getStatus();
+            for (AccountRequestChangeListener listener : listeners) {
+                listener.onUpdate(request, previousStatus);
+            }
+        }
+        return request;
+    }
+
+    /**
+     * Replaces {@code current} with {@code next}, both of the same id, whose stripe lock the caller
+     * holds: claims unique keys, updates the table and indexes, logs the after-image and keeps the
+     * prior image for a rollback.
+     */
+    private void write(AccountRecord current, AccountRecord next) {
+        claimUnique(current, next);
+        index(current, next);
+        try {
+            log.appendPut(next);
+        } catch (IOException | RuntimeException e) {
+            index(next, current);
+            failedCount.increment();
+            throw new DataAccessResourceFailureException("Cannot log account request " + next.id, e);
+        }
+        writeCount.increment();
+        recordUndo(next.id, current, next);
+    }
+
+    private void claimUnique(AccountRecord current, AccountRecord next) {
+        boolean claimedProcessInstanceId = claim(processInstanceIds, next.processInstanceId,
+                                                 current == null ? null : current.processInstanceId, next.id,
+                                                 "process instance id");
+        try {
+            claim(idempotencyKeys, next.idempotencyKey, current == null ? null : current.idempotencyKey, next.id,
+                  "idempotency key");
+        } catch (DataIntegrityViolationException e) {
+            if (claimedProcessInstanceId) {
+                processInstanceIds.remove(next.processInstanceId, next.id);
+            }
+            throw e;
+        }
+    }
+
+    private boolean claim(ConcurrentHashMap<String, Long> unique, String value, String currentValue, long id,
+                          String column) {
+        if (value == null || value.equals(currentValue)) {
+            return false;
+        }
+        Long owner = unique.putIfAbsent(value, id);
+        if (owner != null && owner != id) {
+            throw new DataIntegrityViolationException("Duplicate " + column + " " + value + " of account request "
+                                                      + owner);
+        }
+        return owner == null;
+    }
+
+    /**
+     * Moves the table slot and every index entry of one id from {@code current} to {@code next};
+     * either may be null for an insert or a removal.
+     */
+    private void index(AccountRecord current, AccountRecord next) {
+        long id = current != null ? current.id : next.id;
+        slot(id, next);
+        if (current == null && next != null) {
+            size.incrementAndGet();
+        } else if (current != null && next == null) {
+            size.decrementAndGet();
+        }
+        boolean moved = current != null && (next == null || next.createdAt != current.createdAt);
+        boolean statusChanged = current == null || next == null || moved || current.status != next.status;
+        if (current != null) {
+            if (moved) {
+                keyset.remove(current.key);
+            }
+            if (statusChanged) {
+                statusKeysets.get(current.status).remove(current.key);
+                statusCounts[current.status].decrementAndGet();
+            }
+            if (current.processInstanceId != null
+                    && (next == null || !current.processInstanceId.equals(next.processInstanceId))) {
+                processInstanceIds.remove(current.processInstanceId, id);
+            }
+            if (current.idempotencyKey != null
+                    && (next == null || !current.idempotencyKey.equals(next.idempotencyKey))) {
+                idempotencyKeys.remove(current.idempotencyKey, id);
+            }
+        }
+        if (next != null) {
+            keyset.add(next.key);
+            if (statusChanged) {
+                statusKeysets.get(next.status).add(next.key);
+                statusCounts[next.status].incrementAndGet();
+            }
+            if (next.processInstanceId != null) {
+                processInstanceIds.put(next.processInstanceId, id);
+            }
+            if (next.idempotencyKey != null) {
+                idempotencyKeys.put(next.idempotencyKey, id);
+            }
+        }
+    }
+
+    /**
+     * Keeps the first prior image of every row written in the current transaction, restored by
+     * {@link #rollBack} unless it commits.
+     */
+    private void recordUndo(long id, AccountRecord current, AccountRecord next) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Map<Long, Undo> pending = (Map<Long, Undo>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Map<Long, Undo> undo = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, undo);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(InMemoryAccountRequestRepository.this);
+                    if (status != STATUS_COMMITTED) {
+                        rollBack(undo);
+                    }
+                }
+            });
+            pending = undo;
+        }
+        Undo undo = pending.get(id);
+        if (undo == null) {
+            pending.put(id, new Undo(current, next));
+        } else {
+            undo.written = next;
+        }
+    }
+
+    /**
+     * Restores the prior images, except of rows written again by someone else since.
+     */
+    private void rollBack(Map<Long, Undo> undo) {
+        for (Map.Entry<Long, Undo> entry : undo.entrySet()) {
+            long id = entry.getKey();
+            synchronized (lockFor(id)) {
+                AccountRecord current = get(id);
+                if (current != entry.getValue().written) {
+                    logger.warn("Account request {} was written again before its transaction rolled back; keeping version {}",
+                                id, current == null ? null : current.version);
+                    continue;
+                }
+                AccountRecord before = entry.getValue().before;
+                index(current, before);
+                try {
+                    if (before == null) {
+                        log.appendRemove(id);
+                    } else {
+                        log.appendPut(before);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    failedCount.increment();
+                    logger.error("Failed to log rollback of account request {}", id, e);
+                }
+                rolledBackCount.increment();
+            }
+        }
+    }
+
+    /**
+     * Recovery: applies a logged after-image without logging it again.
+     */
+    private void restore(AccountRecord record) {
+        index(get(record.id), record);
+    }
+
+    private void forget(long id) {
+        AccountRecord current = get(id);
+        if (current != null) {
+            index(current, null);
+        }
+    }
+
+    private Optional<AccountRequest> findUnique(ConcurrentHashMap<String, Long> unique, String value,
+                                                Function<AccountRecord, String> column) {
+        if (value == null) {
+            return Optional.empty();
+        }
+        Long id = unique.get(value);
+        AccountRecord record = id == null ? null : get(id);
+        return record != null && value.equals(column.apply(record)) ? Optional.of(record.toEntity()) : Optional.empty();
+    }
+
+    private <T> List<T> scan(NavigableSet<AccountRecord.Key> index, AccountStatus status, Pageable page,
+                             Function<AccountRecord, T> mapper) {
+        long skip = page.isPaged() ? page.getOffset() : 0;
+        int limit = page.isPaged() ? page.getPageSize() : Integer.MAX_VALUE;
+        List<T> found = new ArrayList<>(Math.min(limit, 1024));
+        for (AccountRecord.Key key : index) {
+            AccountRecord record = matching(key, status);
+            if (record == null) {
+                continue;
+            }
+            if (skip > 0) {
+                skip--;
+                continue;
+            }
+            found.add(mapper.apply(record));
+            if (found.size() >= limit) {
+                break;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * The row an index key points at, if it is still there with that key and status.
+     */
+    private AccountRecord matching(AccountRecord.Key key, AccountStatus status) {
+        AccountRecord record = get(key.id);
+        if (record == null || record.createdAt != key.createdAt
+                || (status != null && record.status != status.ordinal())) {
+            return null;
+        }
+        return record;
+    }
+
+    private static AccountRecord.Key cursor(LocalDateTime createdAt, Long id) {
+        return new AccountRecord.Key(AccountRecord.toNanos(createdAt), id);
+    }
+
+    private Stream<AccountRecord> rows() {
+        AtomicReferenceArray<AccountRecord>[] current = pages;
+        return Arrays.stream(current)
+            .filter(Objects::nonNull)
+            .flatMap(page -> IntStream.range(0, page.length()).mapToObj(page::get))
+            .filter(Objects::nonNull);
+    }
+
+    private AccountRecord get(Long id) {
+        if (id == null || id <= 0) {
+            return null;
+        }
+        AtomicReferenceArray<AccountRecord>[] current = pages;
+        long pageIndex = id >>> PAGE_BITS;
+        if (pageIndex >= current.length || current[(int) pageIndex] == null) {
+            return null;
+        }
+        return current[(int) pageIndex].get((int) (id & (PAGE_SIZE - 1)));
+    }
+
+    private void slot(long id, AccountRecord record) {
+        if (id <= 0) {
+            throw new IllegalArgumentException("Invalid account request id " + id);
+        }
+        long pageIndex = id >>> PAGE_BITS;
+        AtomicReferenceArray<AccountRecord>[] current = pages;
+        if (pageIndex >= current.length || current[(int) pageIndex] == null) {
+            if (record == null) {
+                return;
+            }
+            current = addPage(pageIndex);
+        }
+        current[(int) pageIndex].set((int) (id & (PAGE_SIZE - 1)), record);
+    }
+
+    /**
+     * Publishes a new page array, so lock-free readers never see a page slot being filled in.
+     */
+    private AtomicReferenceArray<AccountRecord>[] addPage(long pageIndex) {
+        if (pageIndex >= Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Account request id out of range: page " + pageIndex);
+        }
+        synchronized (pageLock) {
+            AtomicReferenceArray<AccountRecord>[] current = pages;
+            if (pageIndex < current.length && current[(int) pageIndex] != null) {
+                return current;
+            }
+            int length = (int) Math.max(pageIndex + 1, Math.min(Integer.MAX_VALUE - 8L, current.length * 2L));
+            AtomicReferenceArray<AccountRecord>[] grown = Arrays.copyOf(current, Math.max(length, current.length));
+            grown[(int) pageIndex] = new AtomicReferenceArray<>(PAGE_SIZE);
+            pages = grown;
+            return grown;
+        }
+    }
+
+    private Object lockFor(long id) {
+        return locks[(int) (id & (LOCK_STRIPES - 1))];
+    }
+
+    private void maintenanceLoop() {
+        long intervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        long nextSnapshot = System.currentTimeMillis() + snapshotIntervalMs;
+        while (running) {
+            LockSupport.parkNanos(intervalNanos);
+            try {
+                log.flush();
+                if (snapshotIntervalMs > 0 && System.currentTimeMillis() >= nextSnapshot) {
+                    snapshot();
+                    nextSnapshot = System.currentTimeMillis() + snapshotIntervalMs;
+                }
+            } catch (IOException | RuntimeException e) {
+                failedCount.increment();
+                logger.error("Failed to flush account store log in {}", directory, e);
+            }
+        }
+    }
+
+    private static final class Undo {
+        private final AccountRecord before;
+        private AccountRecord written;
+
+        private Undo(AccountRecord before, AccountRecord written) {
+            this.before = before;
+            this.written = written;
+        }
+    }
+
+    public static class Stats {
+        private final long requestCount;
+        private final long sequence;
+        private final long writeCount;
+        private final long conflictCount;
+        private final long rolledBackCount;
+        private final long failedCount;
+        private final String directory;
+        private final long logGeneration;
+        private final long logRecordCount;
+        private final long logBytesWritten;
+        private final long unsyncedLogRecordCount;
+        private final long syncCount;
+        private final long snapshotCount;
+        private final long lastSnapshotRowCount;
+        private final long lastSnapshotMillis;
+
+        public Stats(long requestCount, long sequence, long writeCount, long conflictCount, long rolledBackCount,
+                     long failedCount, String directory, long logGeneration, long logRecordCount,
+                     long logBytesWritten, long unsyncedLogRecordCount, long syncCount, long snapshotCount,
+                     long lastSnapshotRowCount, long lastSnapshotMillis) {
+            this.requestCount = requestCount;
+            this.sequence = sequence;
+            this.writeCount = writeCount;
+            this.conflictCount = conflictCount;
+            this.rolledBackCount = rolledBackCount;
+            this.failedCount = failedCount;
+            this.directory = directory;
+            this.logGeneration = logGeneration;
+            this.logRecordCount = logRecordCount;
+            this.logBytesWritten = logBytesWritten;
+            this.unsyncedLogRecordCount = unsyncedLogRecordCount;
+            this.syncCount = syncCount;
+            this.snapshotCount = snapshotCount;
+            this.lastSnapshotRowCount = lastSnapshotRowCount;
+            this.lastSnapshotMillis = lastSnapshotMillis;
+        }
+
+        public long getRequestCount() {
+            return requestCount;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public long getWriteCount() {
+            return writeCount;
+        }
+
+        public long getConflictCount() {
+            return conflictCount;
+        }
+
+        public long getRolledBackCount() {
+            return rolledBackCount;
+        }
+
+        public long getFailedCount() {
+            return failedCount;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public long getLogGeneration() {
+            return logGeneration;
+        }
+
+        public long getLogRecordCount() {
+            return logRecordCount;
+        }
+
+        public long getLogBytesWritten() {
+            return logBytesWritten;
+        }
+
+        public long getUnsyncedLogRecordCount() {
+            return unsyncedLogRecordCount;
+        }
+
+        public long getSyncCount() {
+            return syncCount;
+        }
+
+        public long getSnapshotCount() {
+            return snapshotCount;
+        }
+
+        public long getLastSnapshotRowCount() {
+            return lastSnapshotRowCount;
+        }
+
+        public long getLastSnapshotMillis() {
+            return lastSnapshotMillis;
+        }
+    }
+}
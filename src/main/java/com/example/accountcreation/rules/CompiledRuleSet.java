@@ -0,0 +1,315 @@
+package com.example.accountcreation.rules;
+
+import com.example.accountcreation.model.AccountRequest;
+import com.example.accountcreation.rules.Conditions.IntCondition;
+import com.example.accountcreation.rules.Conditions.StringCondition;
+import com.example.accountcreation.service.GoRulesService;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Immutable, precompiled form of a first-hit decision table.
+ *
+ * The age column is folded into a lookup array of rule bitmasks, so a request only tests the
+ * string columns of rules whose age range already matched. Every rule's {@link GoRulesService.DecisionResponse}
+ * is built once at load time and shared, so evaluating a request does not allocate.
+ *
+ * {@link #evaluate} counts hits per outcome; the counts belong to this rule set and start from
+ * zero when a reloaded table replaces it.
+ *
+ * {@link #evaluateBatch} decides a whole {@link RequestColumns} batch into caller-owned arrays
+ * of decision ordinals and outcome indexes, without touching an entity or allocating per row.
+ * Batches above {@value #PARALLEL_THRESHOLD} rows are split across the fork/join pool the caller
+ * passes in, never the common pool, so bulk work stays within the threads its owner sized for it.
+ *
+ * A rule set is serializable, for {@link com.example.accountcreation.startup.StartupArtifacts};
+ * hit counters are not written and a deserialized rule set starts with its own.
+ */
+public final class CompiledRuleSet implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final int MAX_RULES = 64;
+    static final int AGE_TABLE_SIZE = 256;
+    static final int PARALLEL_THRESHOLD = 16384;
+    private static final int LEAF_SIZE = 4096;
+
+    private final String name;
+    private final String version;
+    private final String[] ruleIds;
+    private final GoRulesService.DecisionResponse[] responses;
+    private final IntCondition[] ageConditions;
+    private final RuleField[][] stringFields;
+    private final StringCondition[][] stringConditions;
+    private final long[] ageMasks;
+    private final int fallbackIndex;
+    private final transient LongAdder[] hits;
+
+    CompiledRuleSet(String name, String version, List<Rule> rules, GoRulesService.DecisionResponse fallback) {
+        if (rules.size() > MAX_RULES) {
+            throw new IllegalArgumentException(
+                "Decision table has " + rules.size() + " rules, at most " + MAX_RULES + " are supported");
+        }
+        int count = rules.size();
+        this.name = name;
+        this.version = version;
+        this.ruleIds = new String[count + 1];
+        this.responses = new GoRulesService.DecisionResponse[count + 1];
+        this.ageConditions = new IntCondition[count];
+        this.stringFields = new RuleField[count][];
+        this.stringConditions = new StringCondition[count][];
+        this.fallbackIndex = count;
+
+        for (int i = 0; i < count; i++) {
+            Rule rule = rules.get(i);
+            ruleIds[i] = rule.id;
+            responses[i] = rule.response;
+            ageConditions[i] = rule.ageCondition;
+            stringFields[i] = rule.stringFields;
+            stringConditions[i] = rule.stringConditions;
+        }
+        ruleIds[count] = "default";
+        responses[count] = fallback;
+        this.hits = new LongAdder[count + 1];
+        for (int i = 0; i <= count; i++) {
+            hits[i] = new LongAdder();
+        }
+
+        this.ageMasks = new long[AGE_TABLE_SIZE];
+        for (int age = 0; age < AGE_TABLE_SIZE; age++) {
+            ageMasks[age] = computeAgeMask(age);
+        }
+    }
+
+    private CompiledRuleSet(CompiledRuleSet source) {
+        this.name = source.name;
+        this.version = source.version;
+        this.ruleIds = source.ruleIds;
+        this.responses = source.responses;
+        this.ageConditions = source.ageConditions;
+        this.stringFields = source.stringFields;
+        this.stringConditions = source.stringConditions;
+        this.ageMasks = source.ageMasks;
+        this.fallbackIndex = source.fallbackIndex;
+        this.hits = new LongAdder[source.responses.length];
+        for (int i = 0; i < hits.length; i++) {
+            hits[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Returns the same compiled rules with hit counters of their own, so offline evaluation does
+     * not show up in the live rule hit metrics.
+     */
+    public CompiledRuleSet detached() {
+        return new CompiledRuleSet(this);
+    }
+
+    private Object readResolve() {
+        return new CompiledRuleSet(this);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Identifies the exact table content this rule set was compiled from.
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * Number of outcomes, including the trailing fallback used when no rule matches.
+     */
+    public int size() {
+        return responses.length;
+    }
+
+    public String getRuleId(int index) {
+        return ruleIds[index];
+    }
+
+    public GoRulesService.DecisionResponse getResponse(int index) {
+        return responses[index];
+    }
+
+    /**
+     * Number of {@link #evaluate} calls decided by the rule at {@code index} (or the fallback).
+     */
+    public long getHits(int index) {
+        return hits[index].sum();
+    }
+
+    public GoRulesService.DecisionResponse evaluate(AccountRequest request) {
+        int index = evaluateIndex(request);
+        hits[index].increment();
+        return responses[index];
+    }
+
+    /**
+     * Decides every row of {@code columns}. Row {@code i} gets its {@link GoRulesService.DecisionResult}
+     * ordinal in {@code decisions[i]} and its outcome index in {@code outcomes[i]}, which
+     * {@link #getResponse} and {@link #getRuleId} resolve to the reason and rule. {@code decisions}
+     * may be null when the outcomes are enough. The batch is decided on the calling thread.
+     *
+     * @throws IllegalArgumentException if an output array is shorter than the batch
+     */
+    public void evaluateBatch(RequestColumns columns, byte[] decisions, byte[] outcomes) {
+        evaluateBatch(columns, decisions, outcomes, null);
+    }
+
+    /**
+     * Like {@link #evaluateBatch(RequestColumns, byte[], byte[])}, but splits batches above
+     * {@value #PARALLEL_THRESHOLD} rows across {@code pool}; a null pool decides on the calling
+     * thread.
+     *
+     * @throws IllegalArgumentException if an output array is shorter than the batch
+     */
+    public void evaluateBatch(RequestColumns columns, byte[] decisions, byte[] outcomes, ForkJoinPool pool) {
+        int size = columns.size();
+        if ((decisions != null && decisions.length < size) || outcomes.length < size) {
+            throw new IllegalArgumentException("Output arrays hold fewer than " + size + " rows");
+        }
+        if (pool != null && size > PARALLEL_THRESHOLD) {
+            pool.invoke(new BatchTask(columns, decisions, outcomes, 0, size));
+        } else {
+            evaluateRange(columns, decisions, outcomes, 0, size);
+        }
+    }
+
+    /**
+     * Returns the index of the first matching rule, or the fallback index when none matches.
+     */
+    public int evaluateIndex(AccountRequest request) {
+        long candidates = ageCandidates(request.getAge());
+        while (candidates != 0) {
+            int index = Long.numberOfTrailingZeros(candidates);
+            if (matchesStringColumns(index, request)) {
+                return index;
+            }
+            candidates &= candidates - 1;
+        }
+        return fallbackIndex;
+    }
+
+    int evaluateIndex(RequestColumns columns, int row) {
+        long candidates = ageCandidates(columns.getAge(row));
+        while (candidates != 0) {
+            int index = Long.numberOfTrailingZeros(candidates);
+            if (matchesStringColumns(index, columns, row)) {
+                return index;
+            }
+            candidates &= candidates - 1;
+        }
+        return fallbackIndex;
+    }
+
+    /**
+     * Decides rows {@code [from, to)}; hits are tallied locally and added once per range.
+     */
+    private void evaluateRange(RequestColumns columns, byte[] decisions, byte[] outcomes, int from, int to) {
+        int[] counts = new int[responses.length];
+        for (int row = from; row < to; row++) {
+            int index = evaluateIndex(columns, row);
+            outcomes[row] = (byte) index;
+            if (decisions != null) {
+                decisions[row] = (byte) responses[index].getDecision().ordinal();
+            }
+            counts[index]++;
+        }
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                hits[i].add(counts[i]);
+            }
+        }
+    }
+
+    private long ageCandidates(int age) {
+        return age >= 0 && age < AGE_TABLE_SIZE ? ageMasks[age] : computeAgeMask(age);
+    }
+
+    private boolean matchesStringColumns(int index, AccountRequest request) {
+        RuleField[] fields = stringFields[index];
+        StringCondition[] conditions = stringConditions[index];
+        for (int i = 0; i < conditions.length; i++) {
+            if (!conditions[i].test(fields[i].readString(request))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean matchesStringColumns(int index, RequestColumns columns, int row) {
+        RuleField[] fields = stringFields[index];
+        StringCondition[] conditions = stringConditions[index];
+        for (int i = 0; i < conditions.length; i++) {
+            if (!conditions[i].test(columns.readString(fields[i], row))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long computeAgeMask(int age) {
+        long mask = 0L;
+        for (int i = 0; i < ageConditions.length; i++) {
+            if (ageConditions[i] == null || ageConditions[i].test(age)) {
+                mask |= 1L << i;
+            }
+        }
+        return mask;
+    }
+
+    private final class BatchTask extends RecursiveAction {
+        private final RequestColumns columns;
+        private final byte[] decisions;
+        private final byte[] outcomes;
+        private final int from;
+        private final int to;
+
+        BatchTask(RequestColumns columns, byte[] decisions, byte[] outcomes, int from, int to) {
+            this.columns = columns;
+            this.decisions = decisions;
+            this.outcomes = outcomes;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_SIZE) {
+                evaluateRange(columns, decisions, outcomes, from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new BatchTask(columns, decisions, outcomes, from, middle),
+                      new BatchTask(columns, decisions, outcomes, middle, to));
+        }
+    }
+
+    static final class Rule {
+        final String id;
+        final IntCondition ageCondition;
+        final RuleField[] stringFields;
+        final StringCondition[] stringConditions;
+        final GoRulesService.DecisionResponse response;
+
+        Rule(String id,
+             IntCondition ageCondition,
+             RuleField[] stringFields,
+             StringCondition[] stringConditions,
+             GoRulesService.DecisionResponse response) {
+            this.id = id;
+            this.ageCondition = ageCondition;
+            this.stringFields = stringFields;
+            this.stringConditions = stringConditions;
+            this.response = response;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.accountcreation.rules;
+
+import com.example.accountcreation.blocklist.Blocklists;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Compiled forms of decision table cells. Every condition is immutable and built once when
+ * the table is loaded; none of them allocate while testing a value except {@link #matches},
+ * which needs a {@link java.util.regex.Matcher} from its precompiled pattern. Conditions are
+ * serializable so a compiled table can be shipped as a startup artifact.
+ */
+public final class Conditions {
+
+    private Conditions() {}
+
+    @FunctionalInterface
+    public interface IntCondition extends Serializable {
+        boolean test(int value);
+    }
+
+    @FunctionalInterface
+    public interface StringCondition extends Serializable {
+        boolean test(String value);
+    }
+
+    public static IntCondition compare(String operator, int bound) {
+        switch (operator) {
+            case "<":
+                return value -> value < bound;
+            case "<=":
+                return value -> value <= bound;
+            case ">":
+                return value -> value > bound;
+            case ">=":
+                return value -> value >= bound;
+            case "==":
+            case "=":
+                return value -> value == bound;
+            case "!=":
+                return value -> value != bound;
+            default:
+                throw new IllegalArgumentException("Unsupported comparison operator: " + operator);
+        }
+    }
+
+    public static IntCondition interval(int low, boolean lowInclusive, int high, boolean highInclusive) {
+        int from = lowInclusive ? low : low + 1;
+        int to = highInclusive ? high : high - 1;
+        return value -> value >= from && value <= to;
+    }
+
+    public static StringCondition startsWithAny(List<String> prefixes) {
+        PrefixTrie trie = PrefixTrie.of(prefixes);
+        return trie::matchesPrefixOf;
+    }
+
+    public static StringCondition equalsAny(List<String> values) {
+        Set<String> set = Set.copyOf(values);
+        return value -> value != null && set.contains(value);
+    }
+
+    public static StringCondition containsIgnoreCaseAny(List<String> needles) {
+        String[] terms = needles.toArray(new String[0]);
+        return value -> {
+            if (value == null) {
+                return false;
+            }
+            for (String term : terms) {
+                if (containsIgnoreCase(value, term)) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    public static StringCondition matches(String regex) {
+        Pattern pattern = Pattern.compile(regex);
+        return value -> value != null && pattern.matcher(value).matches();
+    }
+
+    /**
+     * Matches values on the current list of {@code slot}, looked up on every test so a reloaded
+     * list takes effect without recompiling the table.
+     */
+    public static StringCondition inBlocklist(Blocklists.Slot slot) {
+        return value -> value != null && slot.contains(value);
+    }
+
+    public static StringCondition length(IntCondition lengthCondition) {
+        return value -> lengthCondition.test(value == null ? 0 : value.length());
+    }
+
+    public static StringCondition not(StringCondition condition) {
+        return value -> !condition.test(value);
+    }
+
+    public static IntCondition not(IntCondition condition) {
+        return value -> !condition.test(value);
+    }
+
+    private static boolean containsIgnoreCase(String value, String term) {
+        int last = value.length() - term.length();
+        for (int offset = 0; offset <= last; offset++) {
+            if (value.regionMatches(true, offset, term, 0, term.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
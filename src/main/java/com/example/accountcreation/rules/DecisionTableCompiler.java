@@ -0,0 +1,264 @@
+package com.example.accountcreation.rules;
+
+import com.example.accountcreation.blocklist.Blocklists;
+import com.example.accountcreation.rules.Conditions.IntCondition;
+import com.example.accountcreation.rules.Conditions.StringCondition;
+import com.example.accountcreation.service.GoRulesService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Compiles a GoRules JDM document into a {@link CompiledRuleSet}.
+ *
+ * The first {@code decisionTableNode} of the graph is used and must have the "first" hit policy.
+ * Inputs are bound to {@link RuleField}s by their {@code field}; outputs must include
+ * {@code decision} and {@code reason}. Cells accept a subset of the ZEN unary-test syntax:
+ * <ul>
+ *   <li>empty or {@code -}: any value</li>
+ *   <li>numeric columns: {@code < 18}, {@code >= 65}, {@code [18..25]}, {@code (25..65)}, {@code 30}</li>
+ *   <li>{@code "a", "b"}: equals one of the literals</li>
+ *   <li>{@code startsWith($, "a", "b")}: starts with one of the prefixes</li>
+ *   <li>{@code contains(lower($), "a", "b")}: contains one of the terms, ignoring case</li>
+ *   <li>{@code matches($, '[a-z]+')}: full regular expression match</li>
+ *   <li>{@code inBlocklist($, "phones")}: on the current {@code phones}, {@code zip-codes} or
+ *       {@code names} list of the {@link Blocklists} the table is compiled against</li>
+ *   <li>{@code len($) < 2}: any numeric test applied to the length</li>
+ *   <li>{@code not(...)}: negation of any of the above</li>
+ * </ul>
+ * String literals may use single or double quotes and are taken verbatim, without escapes.
+ */
+public final class DecisionTableCompiler {
+
+    public static final GoRulesService.DecisionResponse DEFAULT_RESPONSE =
+        new GoRulesService.DecisionResponse(GoRulesService.DecisionResult.MANUAL_REVIEW, "Default manual review", "default");
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private DecisionTableCompiler() {}
+
+    public static CompiledRuleSet compile(byte[] document, Blocklists blocklists) {
+        JsonNode root;
+        try {
+            root = objectMapper.readTree(document);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Decision table is not valid JSON: " + e.getMessage(), e);
+        }
+
+        JsonNode table = findDecisionTable(root);
+        JsonNode content = table.path("content");
+        String hitPolicy = content.path("hitPolicy").asText("first");
+        if (!"first".equals(hitPolicy)) {
+            throw new IllegalArgumentException("Unsupported hit policy: " + hitPolicy);
+        }
+
+        Map<String, RuleField> inputs = new LinkedHashMap<>();
+        for (JsonNode input : content.path("inputs")) {
+            inputs.put(input.path("id").asText(), RuleField.fromFieldName(input.path("field").asText()));
+        }
+
+        String decisionOutput = null;
+        String reasonOutput = null;
+        for (JsonNode output : content.path("outputs")) {
+            String field = output.path("field").asText();
+            if ("decision".equals(field)) {
+                decisionOutput = output.path("id").asText();
+            } else if ("reason".equals(field)) {
+                reasonOutput = output.path("id").asText();
+            }
+        }
+        if (decisionOutput == null || reasonOutput == null) {
+            throw new IllegalArgumentException("Decision table must define 'decision' and 'reason' outputs");
+        }
+
+        List<CompiledRuleSet.Rule> rules = new ArrayList<>();
+        for (JsonNode row : content.path("rules")) {
+            rules.add(compileRule(row, rules.size(), inputs, decisionOutput, reasonOutput, blocklists));
+        }
+
+        String name = root.path("name").asText(table.path("name").asText("decision-table"));
+        return new CompiledRuleSet(name, name + "@" + checksum(document), rules, DEFAULT_RESPONSE);
+    }
+
+    private static JsonNode findDecisionTable(JsonNode root) {
+        for (JsonNode node : root.path("nodes")) {
+            if ("decisionTableNode".equals(node.path("type").asText())) {
+                return node;
+            }
+        }
+        throw new IllegalArgumentException("Decision graph has no decisionTableNode");
+    }
+
+    private static CompiledRuleSet.Rule compileRule(JsonNode row,
+                                                    int position,
+                                                    Map<String, RuleField> inputs,
+                                                    String decisionOutput,
+                                                    String reasonOutput,
+                                                    Blocklists blocklists) {
+        String id = row.path("_id").asText("rule-" + (position + 1));
+        IntCondition ageCondition = null;
+        List<RuleField> fields = new ArrayList<>();
+        List<StringCondition> conditions = new ArrayList<>();
+
+        for (Map.Entry<String, RuleField> input : inputs.entrySet()) {
+            String cell = row.path(input.getKey()).asText("").trim();
+            if (isWildcard(cell)) {
+                continue;
+            }
+            RuleField field = input.getValue();
+            try {
+                if (field.isNumeric()) {
+                    IntCondition condition = parseNumericCell(cell);
+                    ageCondition = ageCondition == null ? condition : and(ageCondition, condition);
+                } else {
+                    fields.add(field);
+                    conditions.add(parseStringCell(cell, blocklists));
+                }
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException(
+                    "Rule " + id + ": cannot compile " + field.getFieldName() + " cell '" + cell + "': " + e.getMessage(), e);
+            }
+        }
+
+        String decision = unquote(row.path(decisionOutput).asText(""));
+        String reason = unquote(row.path(reasonOutput).asText(""));
+        GoRulesService.DecisionResponse response = new GoRulesService.DecisionResponse(
+            GoRulesService.DecisionResult.valueOf(decision), reason, id);
+
+        return new CompiledRuleSet.Rule(
+            id,
+            ageCondition,
+            fields.toArray(new RuleField[0]),
+            conditions.toArray(new StringCondition[0]),
+            response);
+    }
+
+    private static boolean isWildcard(String cell) {
+        return cell.isEmpty() || "-".equals(cell);
+    }
+
+    private static IntCondition and(IntCondition left, IntCondition right) {
+        return value -> left.test(value) && right.test(value);
+    }
+
+    static IntCondition parseNumericCell(String cell) {
+        String text = cell.trim();
+        if (isCall(text, "not")) {
+            return Conditions.not(parseNumericCell(callBody(text, "not")));
+        }
+        char first = text.charAt(0);
+        if ((first == '[' || first == '(' || first == ']') && text.contains("..")) {
+            char last = text.charAt(text.length() - 1);
+            String[] bounds = text.substring(1, text.length() - 1).split("\\.\\.");
+            if (bounds.length != 2) {
+                throw new IllegalArgumentException("Malformed interval");
+            }
+            return Conditions.interval(
+                Integer.parseInt(bounds[0].trim()), first == '[',
+                Integer.parseInt(bounds[1].trim()), last == ']');
+        }
+        for (String operator : new String[] {"<=", ">=", "==", "!=", "<", ">", "="}) {
+            if (text.startsWith(operator)) {
+                return Conditions.compare(operator, Integer.parseInt(text.substring(operator.length()).trim()));
+            }
+        }
+        return Conditions.compare("==", Integer.parseInt(text));
+    }
+
+    static StringCondition parseStringCell(String cell, Blocklists blocklists) {
+        String text = cell.trim();
+        if (isCall(text, "not")) {
+            return Conditions.not(parseStringCell(callBody(text, "not"), blocklists));
+        }
+        if (text.startsWith("len($)")) {
+            return Conditions.length(parseNumericCell(text.substring("len($)".length())));
+        }
+        if (isCall(text, "startsWith")) {
+            return Conditions.startsWithAny(literalArguments(callBody(text, "startsWith"), "$"));
+        }
+        if (isCall(text, "contains")) {
+            return Conditions.containsIgnoreCaseAny(literalArguments(callBody(text, "contains"), "lower($)"));
+        }
+        if (isCall(text, "inBlocklist")) {
+            List<String> lists = literalArguments(callBody(text, "inBlocklist"), "$");
+            if (lists.size() != 1) {
+                throw new IllegalArgumentException("inBlocklist takes exactly one list name");
+            }
+            return Conditions.inBlocklist(blocklists.slot(Blocklists.Kind.fromListName(lists.get(0))));
+        }
+        if (isCall(text, "matches")) {
+            List<String> patterns = literalArguments(callBody(text, "matches"), "$");
+            if (patterns.size() != 1) {
+                throw new IllegalArgumentException("matches takes exactly one pattern");
+            }
+            return Conditions.matches(patterns.get(0));
+        }
+        return Conditions.equalsAny(parseLiterals(text));
+    }
+
+    private static boolean isCall(String text, String function) {
+        return text.startsWith(function + "(") && text.endsWith(")");
+    }
+
+    private static String callBody(String text, String function) {
+        return text.substring(function.length() + 1, text.length() - 1).trim();
+    }
+
+    private static List<String> literalArguments(String body, String subject) {
+        if (!body.startsWith(subject)) {
+            throw new IllegalArgumentException("first argument must be " + subject);
+        }
+        String rest = body.substring(subject.length()).trim();
+        if (!rest.startsWith(",")) {
+            throw new IllegalArgumentException("expected at least one literal argument");
+        }
+        return parseLiterals(rest.substring(1));
+    }
+
+    private static List<String> parseLiterals(String text) {
+        List<String> literals = new ArrayList<>();
+        int i = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c) || c == ',') {
+                i++;
+                continue;
+            }
+            if (c != '"' && c != '\'') {
+                throw new IllegalArgumentException("expected a quoted literal at position " + i);
+            }
+            int end = text.indexOf(c, i + 1);
+            if (end < 0) {
+                throw new IllegalArgumentException("unterminated literal");
+            }
+            literals.add(text.substring(i + 1, end));
+            i = end + 1;
+        }
+        if (literals.isEmpty()) {
+            throw new IllegalArgumentException("expected at least one literal");
+        }
+        return literals;
+    }
+
+    private static String unquote(String value) {
+        String text = value.trim();
+        if (text.length() >= 2
+                && (text.charAt(0) == '"' || text.charAt(0) == '\'')
+                && text.charAt(text.length() - 1) == text.charAt(0)) {
+            return text.substring(1, text.length() - 1);
+        }
+        return text;
+    }
+
+    private static String checksum(byte[] document) {
+        CRC32 crc = new CRC32();
+        crc.update(document);
+        return String.format("%08x", crc.getValue());
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.accountcreation.rules;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Immutable prefix trie over ASCII characters, flattened into a single transition table.
+ * Answers "does the value start with any of the configured prefixes" with one array read
+ * per character and no allocation.
+ */
+public final class PrefixTrie implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int ALPHABET = 128;
+    private static final int NO_NODE = 0;
+
+    private final int[] transitions;
+    private final boolean[] terminal;
+
+    private PrefixTrie(int[] transitions, boolean[] terminal) {
+        this.transitions = transitions;
+        this.terminal = terminal;
+    }
+
+    public static PrefixTrie of(Collection<String> prefixes) {
+        int capacity = 1;
+        for (String prefix : prefixes) {
+            capacity += prefix.length();
+        }
+        int[] transitions = new int[capacity * ALPHABET];
+        boolean[] terminal = new boolean[capacity];
+        int nodeCount = 1; // node 0 is the root, so 0 doubles as "no transition"
+
+        for (String prefix : prefixes) {
+            int node = 0;
+            for (int i = 0; i < prefix.length(); i++) {
+                char c = prefix.charAt(i);
+                if (c >= ALPHABET) {
+                    throw new IllegalArgumentException("Only ASCII prefixes are supported: " + prefix);
+                }
+                int slot = node * ALPHABET + c;
+                if (transitions[slot] == NO_NODE) {
+                    transitions[slot] = nodeCount++;
+                }
+                node = transitions[slot];
+            }
+            terminal[node] = true;
+        }
+
+        return new PrefixTrie(
+            Arrays.copyOf(transitions, nodeCount * ALPHABET),
+            Arrays.copyOf(terminal, nodeCount));
+    }
+
+    /**
+     * Returns true when {@code value} starts with one of the prefixes this trie was built from.
+     */
+    public boolean matchesPrefixOf(CharSequence value) {
+        if (value == null) {
+            return false;
+        }
+        int node = 0;
+        if (terminal[node]) {
+            return true;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= ALPHABET) {
+                return false;
+            }
+            node = transitions[node * ALPHABET + c];
+            if (node == NO_NODE) {
+                return false;
+            }
+            if (terminal[node]) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.accountcreation.rules;
+
+import com.example.accountcreation.model.AccountRequest;
+
+import java.util.Arrays;
+
+/**
+ * Account requests laid out by column for {@link CompiledRuleSet#evaluateBatch}: ages in a
+ * primitive {@code int[]}, the string fields in one array each. A batch is filled with
+ * {@link #add}, evaluated, then {@link #clear() cleared} and refilled, so the arrays are
+ * allocated once per capacity rather than per request.
+ */
+public final class RequestColumns {
+
+    private int[] ages;
+    private String[] zipCodes;
+    private String[] phoneNumbers;
+    private String[] names;
+    private int size;
+
+    public RequestColumns(int capacity) {
+        this.ages = new int[capacity];
+        this.zipCodes = new String[capacity];
+        this.phoneNumbers = new String[capacity];
+        this.names = new String[capacity];
+    }
+
+    /**
+     * Appends a row, growing the columns when full.
+     *
+     * @return the row index
+     */
+    public int add(int age, String zipCode, String phoneNumber, String name) {
+        if (size == ages.length) {
+            int capacity = Math.max(16, size * 2);
+            ages = Arrays.copyOf(ages, capacity);
+            zipCodes = Arrays.copyOf(zipCodes, capacity);
+            phoneNumbers = Arrays.copyOf(phoneNumbers, capacity);
+            names = Arrays.copyOf(names, capacity);
+        }
+        ages[size] = age;
+        zipCodes[size] = zipCode;
+        phoneNumbers[size] = phoneNumber;
+        names[size] = name;
+        return size++;
+    }
+
+    public int add(AccountRequest request) {
+        return add(request.getAge(), request.getZipCode(), request.getPhoneNumber(), request.getName());
+    }
+
+    /**
+     * Empties the batch, keeping the arrays. String references are dropped so cleared rows do not
+     * keep their requests' strings reachable.
+     */
+    public void clear() {
+        Arrays.fill(zipCodes, 0, size, null);
+        Arrays.fill(phoneNumbers, 0, size, null);
+        Arrays.fill(names, 0, size, null);
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getAge(int row) {
+        return ages[row];
+    }
+
+    String readString(RuleField field, int row) {
+        switch (field) {
+            case ZIP_CODE:
+                return zipCodes[row];
+            case PHONE_NUMBER:
+                return phoneNumbers[row];
+            case NAME:
+                return names[row];
+            default:
+                throw new IllegalStateException("Field " + field.getFieldName() + " is not a string field");
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.accountcreation.rules;
+
+import com.example.accountcreation.model.AccountRequest;
+
+/**
+ * Request attributes a decision table column may reference, keyed by the JDM input field name.
+ */
+public enum RuleField {
+    AGE("age"),
+    ZIP_CODE("zipCode"),
+    PHONE_NUMBER("phoneNumber"),
+    NAME("name");
+
+    private final String fieldName;
+
+    RuleField(String fieldName) {
+        this.fieldName = fieldName;
+    }
+
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    public boolean isNumeric() {
+        return this == AGE;
+    }
+
+    String readString(AccountRequest request) {
+        switch (this) {
+            case ZIP_CODE:
+                return request.getZipCode();
+            case PHONE_NUMBER:
+                return request.getPhoneNumber();
+            case NAME:
+                return request.getName();
+            default:
+                throw new IllegalStateException("Field " + fieldName + " is not a string field");
+        }
+    }
+
+    public static RuleField fromFieldName(String fieldName) {
+        String normalized = fieldName.startsWith("$.") ? fieldName.substring(2) : fieldName;
+        for (RuleField field : values()) {
+            if (field.fieldName.equals(normalized)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported decision table input field: " + fieldName);
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.accountcreation.service;
+
+import com.example.accountcreation.archive.AccountArchive;
+import com.example.accountcreation.dto.AccountResponseDto;
+import com.example.accountcreation.model.AccountStatus;
+import com.example.accountcreation.repository.AccountRequestRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves account requests that reached a terminal status more than {@code min-age-ms} ago from the
+ * database into the {@link AccountArchive}, so the table only holds what is still being worked on.
+ *
+ * Every {@code interval-ms} it archives up to {@code max-batches-per-run} batches of
+ * {@code batch-size} requests, oldest first. A batch is forced to the archive before it is deleted
+ * from the database, and the delete skips requests updated since they were read, so a crash in
+ * between leaves a request in both places rather than in neither; the database copy wins on reads
+ * and the next run archives it again.
+ */
+@Component
+public class AccountArchiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountArchiver.class);
+
+    static final Set<AccountStatus> TERMINAL = EnumSet.of(
+        AccountStatus.AUTO_APPROVED, AccountStatus.AUTO_REJECTED,
+        AccountStatus.MANUALLY_APPROVED, AccountStatus.MANUALLY_REJECTED);
+
+    @Autowired
+    private AccountRequestRepository accountRequestRepository;
+
+    @Autowired
+    private AccountArchive archive;
+
+    @Value("${accounts.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${accounts.archive.interval-ms:60000}")
+    private long intervalMs;
+
+    @Value("${accounts.archive.min-age-ms:2592000000}")
+    private long minAgeMs;
+
+    @Value("${accounts.archive.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${accounts.archive.max-batches-per-run:100}")
+    private int maxBatchesPerRun;
+
+    private ScheduledExecutorService scheduler;
+    private final AtomicLong runCount = new AtomicLong();
+    private final AtomicLong archivedCount = new AtomicLong();
+    private final AtomicLong skippedCount = new AtomicLong();
+    private volatile LocalDateTime lastRunAt;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled || intervalMs <= 0) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "account-archiver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::archiveQuietly, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs one archiving pass now. Returns the number of requests moved to the archive.
+     */
+    public synchronized int archive() {
+        LocalDateTime cutoff = LocalDateTime.now().minusNanos(minAgeMs * 1_000_000);
+        int archived = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            List<AccountResponseDto> requests =
+                accountRequestRepository.findArchivable(TERMINAL, cutoff, PageRequest.of(0, batchSize));
+            if (requests.isEmpty()) {
+                break;
+            }
+            try {
+                archive.append(requests);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to archive account requests", e);
+            }
+            List<Long> ids = requests.stream().map(AccountResponseDto::getId).toList();
+            int deleted = accountRequestRepository.deleteArchived(ids, TERMINAL, cutoff);
+            archived += deleted;
+            skippedCount.addAndGet(requests.size() - deleted);
+            if (requests.size() < batchSize) {
+                break;
+            }
+        }
+        runCount.incrementAndGet();
+        archivedCount.addAndGet(archived);
+        lastRunAt = LocalDateTime.now();
+        if (archived > 0) {
+            logger.info("Archived {} account requests last updated before {}", archived, cutoff);
+        }
+        return archived;
+    }
+
+    public Stats getStats() {
+        return new Stats(enabled, minAgeMs, runCount.get(), archivedCount.get(), skippedCount.get(), lastRunAt,
+                         archive.getStats());
+    }
+
+    private void archiveQuietly() {
+        try {
+            archive();
+        } catch (RuntimeException e) {
+            logger.warn("Failed to archive account requests", e);
+        }
+    }
+
+    public static class Stats {
+        private final boolean enabled;
+        private final long minAgeMs;
+        private final long runCount;
+        private final long archivedCount;
+        private final long skippedCount;
+        private final LocalDateTime lastRunAt;
+        private final AccountArchive.Stats archive;
+
+        public Stats(boolean enabled, long minAgeMs, long runCount, long archivedCount, long skippedCount,
+                     LocalDateTime lastRunAt, AccountArchive.Stats archive) {
+            this.enabled = enabled;
+            this.minAgeMs = minAgeMs;
+            this.runCount = runCount;
+            this.archivedCount = archivedCount;
+            this.skippedCount = skippedCount;
+            this.lastRunAt = lastRunAt;
+            this.archive = archive;
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public long getMinAgeMs() {
+            return minAgeMs;
+        }
+
+        public long getRunCount() {
+            return runCount;
+        }
+
+        public long getArchivedCount() {
+            return archivedCount;
+        }
+
+        /**
+         * Requests archived but left in the database because they changed in the meantime.
+         */
+        public long getSkippedCount() {
+            return skippedCount;
+        }
+
+        public LocalDateTime getLastRunAt() {
+            return lastRunAt;
+        }
+
+        public AccountArchive.Stats getArchive() {
+            return archive;
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.example.accountcreation.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import com.example.accountcreation.metrics.LatencyHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Dedicated, bounded executor for account process instances.
+ *
+ * Admission is decided up front: callers {@link #reserve()} a slot before doing any work, so a
+ * saturated executor rejects the request before the account row is written instead of leaving it
+ * stuck in PENDING. A reserved slot is always honoured: if the executor starts shutting down in
+ * between, its task runs on the calling thread. At most {@code pool-size} processes run at once
+ * and at most {@code queue-capacity} more wait for a worker.
+ *
+ * Modes:
+ * <ul>
+ *   <li>{@code platform}: fixed pool of platform threads</li>
+ *   <li>{@code virtual}: one virtual thread per process, with concurrency capped at {@code pool-size}
+ *       so blocking JPA calls park cheaply instead of pinning pool threads</li>
+ *   <li>{@code direct}: runs the process on the calling thread (tests and benchmarks)</li>
+ * </ul>
+ *
+ * The time each process waits between submission and start is recorded in {@link #getQueueWait()}.
+ */
+@Component
+public class AccountProcessExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountProcessExecutor.class);
+
+    public enum Mode {
+        PLATFORM,
+        VIRTUAL,
+        DIRECT
+    }
+
+    @Value("${accounts.process.executor.mode:platform}")
+    private Mode mode = Mode.PLATFORM;
+
+    @Value("${accounts.process.executor.pool-size:8}")
+    private int poolSize = 8;
+
+    @Value("${accounts.process.executor.queue-capacity:500}")
+    private int queueCapacity = 500;
+
+    @Value("${accounts.process.executor.shutdown-timeout-ms:30000}")
+    private long shutdownTimeoutMs = 30000;
+
+    @Value("${accounts.process.executor.retry-after-seconds:1}")
+    private long retryAfterSeconds = 1;
+
+    private ExecutorService executor;
+    private Semaphore admissions;
+    private Semaphore concurrency;
+    private volatile boolean accepting = true;
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+
+    @PostConstruct
+    public void start() {
+        admissions = new Semaphore(poolSize + queueCapacity);
+        switch (mode) {
+            case PLATFORM:
+                AtomicInteger threadNumber = new AtomicInteger();
+                // The queue is unbounded on its own; admissions keeps it within queue-capacity
+                executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(),
+                    runnable -> new Thread(runnable, "account-process-" + threadNumber.incrementAndGet()));
+                break;
+            case VIRTUAL:
+                concurrency = new Semaphore(poolSize);
+                executor = Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("account-process-vt-", 0).factory());
+                break;
+            case DIRECT:
+                break;
+        }
+        logger.info("Account process executor started: mode={}, poolSize={}, queueCapacity={}",
+                   mode, poolSize, queueCapacity);
+    }
+
+    /**
+     * Reserves capacity for one process instance.
+     *
+     * @throws ProcessRejectedException if the executor is saturated or shutting down
+     */
+    public Slot reserve() {
+        Slot slot = tryReserve();
+        if (slot == null) {
+            rejected.increment();
+            throw new ProcessRejectedException(
+                accepting ? "Account process executor is saturated" : "Account process executor is shutting down",
+                retryAfterSeconds);
+        }
+        return slot;
+    }
+
+    /**
+     * Reserves capacity if there is any, without counting a rejection. Used by pull-based callers
+     * such as the job queue workers, which only take as much work as they have slots for.
+     *
+     * @return the slot, or {@code null} if the executor is saturated or shutting down
+     */
+    public Slot tryReserve() {
+        if (!accepting || !admissions.tryAcquire()) {
+            return null;
+        }
+        return new Slot();
+    }
+
+    public Stats getStats() {
+        int inFlight = poolSize + queueCapacity - admissions.availablePermits();
+        int running = active.get();
+        return new Stats(
+            mode,
+            poolSize,
+            queueCapacity,
+            running,
+            Math.max(0, inFlight - running),
+            completed.sum(),
+            failed.sum(),
+            rejected.sum());
+    }
+
+    public LatencyHistogram.Snapshot getQueueWait() {
+        return queueWait.snapshot();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        accepting = false;
+        if (executor == null) {
+            return;
+        }
+        Stats stats = getStats();
+        logger.info("Draining account process executor: {} running, {} queued",
+                   stats.getActiveCount(), stats.getQueueDepth());
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(shutdownTimeoutMs, TimeUnit.MILLISECONDS)) {
+                List<Runnable> dropped = executor.shutdownNow();
+                logger.warn("Account process executor did not drain within {} ms; {} queued processes dropped",
+                           shutdownTimeoutMs, dropped.size());
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run(Runnable task, long submittedNanos) {
+        boolean acquired = false;
+        try {
+            if (concurrency != null) {
+                concurrency.acquireUninterruptibly();
+                acquired = true;
+            }
+            queueWait.recordSince(submittedNanos);
+            active.incrementAndGet();
+            try {
+                task.run();
+                completed.increment();
+            } catch (RuntimeException e) {
+                // The process logs its own failures; here they are only counted
+                failed.increment();
+            } finally {
+                active.decrementAndGet();
+            }
+        } finally {
+            if (acquired) {
+                concurrency.release();
+            }
+            admissions.release();
+        }
+    }
+
+    /**
+     * Capacity reserved for one process instance. Must be either executed or released.
+     */
+    public final class Slot {
+
+        private final AtomicBoolean used = new AtomicBoolean();
+
+        private Slot() {}
+
+        /**
+         * Runs the task on the executor, or on the calling thread once the executor is shutting
+         * down: the caller may already have written what the task completes.
+         */
+        public void execute(Runnable task) {
+            if (!used.compareAndSet(false, true)) {
+                throw new IllegalStateException("Slot already used");
+            }
+            long submitted = System.nanoTime();
+            if (mode == Mode.DIRECT) {
+                run(task, submitted);
+                return;
+            }
+            try {
+                executor.execute(() -> run(task, submitted));
+            } catch (RejectedExecutionException e) {
+                logger.info("Account process executor is shutting down; running reserved process on {}",
+                           Thread.currentThread().getName());
+                run(task, submitted);
+            }
+        }
+
+        public void release() {
+            if (used.compareAndSet(false, true)) {
+                admissions.release();
+            }
+        }
+    }
+
+    public static class Stats {
+        private final Mode mode;
+        private final int poolSize;
+        private final int queueCapacity;
+        private final int activeCount;
+        private final int queueDepth;
+        private final long completedCount;
+        private final long failedCount;
+        private final long rejectedCount;
+
+        public Stats(Mode mode, int poolSize, int queueCapacity, int activeCount, int queueDepth,
+                     long completedCount, long failedCount, long rejectedCount) {
+            this.mode = mode;
+            this.poolSize = poolSize;
+            this.queueCapacity = queueCapacity;
+            this.activeCount = activeCount;
+            this.queueDepth = queueDepth;
+            this.completedCount = completedCount;
+            this.failedCount = failedCount;
+            this.rejectedCount = rejectedCount;
+        }
+
+        public Mode getMode() {
+            return mode;
+        }
+
+        public int getPoolSize() {
+            return poolSize;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public int getActiveCount() {
+            return activeCount;
+        }
+
+        public int getQueueDepth() {
+            return queueDepth;
+        }
+
+        public long getCompletedCount() {
+            return completedCount;
+        }
+
+        public long getFailedCount() {
+            return failedCount;
+        }
+
+        public long getRejectedCount() {
+            return rejectedCount;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.accountcreation.service;
+
+import com.example.accountcreation.bpmn.ProcessDefinition;
+import com.example.accountcreation.bpmn.ProcessEngine;
+import com.example.accountcreation.journal.DecisionJournal;
+import com.example.accountcreation.metrics.LatencyHistogram;
+import com.example.accountcreation.metrics.PrometheusTextWriter;
+import com.example.accountcreation.model.AccountRequest;
+import com.example.accountcreation.model.AccountStatus;
+import com.example.accountcreation.notification.NotificationDispatcher;
+import com.example.accountcreation.rules.CompiledRuleSet;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Collects the account process instrumentation into one Prometheus scrape.
+ *
+ * Latencies are recorded where they happen, into lock-free {@link LatencyHistogram}s: executor
+ * queue wait ({@link AccountProcessExecutor}), job queue wait ({@link ProcessJobWorker}), every
+ * process node ({@link ProcessEngine}) and, here, time to decision. Rule hits are counted by the
+ * active {@link CompiledRuleSet}. Nothing is aggregated until a scrape asks for it. Quantiles are
+ * cumulative since startup.
+ */
+@Component
+public class AccountProcessMetrics {
+    
+    @Autowired
+    private ProcessEngine processEngine;
+    
+    @Autowired
+    private AccountProcessExecutor processExecutor;
+    
+    @Autowired
+    private ProcessJobWorker processJobWorker;
+    
+    @Autowired
+    private ProcessJobQueue processJobQueue;
+    
+    @Autowired
+    private GoRulesService goRulesService;
+    
+    @Autowired
+    private NotificationDispatcher notificationDispatcher;
+    
+    @Autowired
+    private DecisionJournal decisionJournal;
+    
+    private final Map<AccountStatus, LatencyHistogram> timeToDecision = new EnumMap<>(AccountStatus.class);
+    
+    public AccountProcessMetrics() {
+        for (AccountStatus status : AccountStatus.values()) {
+            if (status != AccountStatus.PENDING) {
+                timeToDecision.put(status, new LatencyHistogram());
+            }
+        }
+    }
+    
+    /**
+     * Records the time from a request's creation to a decision, when its status moves from
+     * {@code from} to a new non-PENDING status.
+     */
+    public void recordTransition(AccountRequest request, AccountStatus from) {
+        AccountStatus to = request.getStatus();
+        if (to == from || to == null || to == AccountStatus.PENDING || request.getCreatedAt() == null) {
+            return;
+        }
+        timeToDecision.get(to).record(Duration.between(request.getCreatedAt(), LocalDateTime.now()).toNanos());
+    }
+    
+    public String scrape() {
+        PrometheusTextWriter out = new PrometheusTextWriter();
+        writeExecutor(out);
+        writeJobQueue(out);
+        writeNodes(out);
+        writeNotifications(out);
+        writeJournal(out);
+        
+        out.family("account_time_to_decision_seconds", "summary",
+                   "Time from account request creation to each decision, by resulting status.");
+        timeToDecision.forEach((status, histogram) ->
+            out.summary("account_time_to_decision_seconds", histogram.snapshot(), "status", status.name()));
+        
+        CompiledRuleSet rules = goRulesService.getRuleSet();
+        out.family("account_rule_hits_total", "counter",
+                   "Requests decided by each rule of the active decision table (reset on reload).");
+        for (int i = 0; i < rules.size(); i++) {
+            out.sample("account_rule_hits_total", rules.getHits(i),
+                       "rule", rules.getRuleId(i), "decision", rules.getResponse(i).getDecision().name());
+        }
+        return out.toString();
+    }
+    
+    private void writeExecutor(PrometheusTextWriter out) {
+        AccountProcessExecutor.Stats stats = processExecutor.getStats();
+        int capacity = stats.getPoolSize() + stats.getQueueCapacity();
+        out.family("account_process_executor_active", "gauge", "Process instances running.")
+           .sample("account_process_executor_active", stats.getActiveCount())
+           .family("account_process_executor_queued", "gauge", "Process instances admitted and waiting for a worker.")
+           .sample("account_process_executor_queued", stats.getQueueDepth())
+           .family("account_process_executor_capacity", "gauge", "Maximum admitted process instances (pool size plus queue capacity).")
+           .sample("account_process_executor_capacity", capacity)
+           .family("account_process_executor_saturation_ratio", "gauge", "Admitted process instances over capacity; at 1 new requests are rejected.")
+           .sample("account_process_executor_saturation_ratio",
+                   capacity == 0 ? 0 : (double) (stats.getActiveCount() + stats.getQueueDepth()) / capacity)
+           .family("account_process_executor_completed_total", "counter", "Process instances completed.")
+           .sample("account_process_executor_completed_total", stats.getCompletedCount())
+           .family("account_process_executor_failed_total", "counter", "Process instances that failed.")
+           .sample("account_process_executor_failed_total", stats.getFailedCount())
+           .family("account_process_executor_rejected_total", "counter", "Process instances rejected for lack of capacity.")
+           .sample("account_process_executor_rejected_total", stats.getRejectedCount())
+           .family("account_process_executor_queue_wait_seconds", "summary", "Time from submission to the executor until a process starts.")
+           .summary("account_process_executor_queue_wait_seconds", processExecutor.getQueueWait());
+    }
+    
+    private void writeJobQueue(PrometheusTextWriter out) {
+        out.family("account_process_job_wait_seconds", "summary",
+                   "Time from a process job becoming runnable until its process starts on this node.")
+           .summary("account_process_job_wait_seconds", processJobWorker.getJobWait());
+        if (!processJobQueue.isEnabled()) {
+            return;
+        }
+        ProcessJobQueue.Stats stats = processJobQueue.getStats();
+        out.family("account_process_jobs", "gauge", "Process jobs in the durable queue, by state.")
+           .sample("account_process_jobs", stats.getReadyCount(), "state", "ready")
+           .sample("account_process_jobs", stats.getLeasedCount(), "state", "leased")
+           .sample("account_process_jobs", stats.getDeadCount(), "state", "dead");
+    }
+    
+    private void writeNotifications(PrometheusTextWriter out) {
+        NotificationDispatcher.Stats stats = notificationDispatcher.getStats();
+        out.family("account_notifications_queued", "gauge", "Notifications waiting for the dispatcher.")
+           .sample("account_notifications_queued", stats.getQueued())
+           .family("account_notifications_coalesced_total", "counter", "Notifications replaced by a newer one for the same request before dispatch.")
+           .sample("account_notifications_coalesced_total", stats.getCoalescedCount())
+           .family("account_notifications_dropped_total", "counter", "Notifications dropped because the queue was full.")
+           .sample("account_notifications_dropped_total", stats.getDroppedCount());
+        out.family("account_notifications_sent_total", "counter", "Notifications delivered, by sink.");
+        for (NotificationDispatcher.SinkStats sink : stats.getSinks()) {
+            out.sample("account_notifications_sent_total", sink.getSentCount(), "sink", sink.getName());
+        }
+        out.family("account_notifications_failed_total", "counter", "Notifications given up on after all retries, by sink.");
+        for (NotificationDispatcher.SinkStats sink : stats.getSinks()) {
+            out.sample("account_notifications_failed_total", sink.getFailedCount(), "sink", sink.getName());
+        }
+    }
+    
+    private void writeJournal(PrometheusTextWriter out) {
+        if (!decisionJournal.isEnabled()) {
+            return;
+        }
+        DecisionJournal.Stats stats = decisionJournal.getStats();
+        out.family("account_journal_records_total", "counter", "Records appended to the decision journal.")
+           .sample("account_journal_records_total", stats.getRecordCount())
+           .family("account_journal_unsynced_records", "gauge", "Journal records appended but not yet forced to disk.")
+           .sample("account_journal_unsynced_records", stats.getUnsyncedRecordCount())
+           .family("account_journal_failed_total", "counter", "Journal records lost to write errors.")
+           .sample("account_journal_failed_total", stats.getFailedCount())
+           .family("account_journal_sync_seconds", "summary", "Duration of each group-commit fsync of the journal.")
+           .summary("account_journal_sync_seconds", decisionJournal.getSyncLatency());
+    }
+    
+    private void writeNodes(PrometheusTextWriter out) {
+        ProcessDefinition definition = processEngine.getDefinition();
+        out.family("account_process_node_duration_seconds", "summary", "Time spent in each node of the account process.");
+        for (int i = 0; i < definition.size(); i++) {
+            ProcessDefinition.Node node = definition.getNode(i);
+            out.summary("account_process_node_duration_seconds", processEngine.getNodeLatency(i),
+                        "node", node.getId(), "type", node.getType().name());
+        }
+        out.family("account_process_node_failures_total", "counter", "Visits of each process node that threw.");
+        for (int i = 0; i < definition.size(); i++) {
+            out.sample("account_process_node_failures_total", processEngine.getNodeFailures(i),
+                       "node", definition.getNode(i).getId());
+        }
+    }
+}
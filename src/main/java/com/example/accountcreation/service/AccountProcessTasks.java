@@ -0,0 +1,130 @@
+package com.example.accountcreation.service;
+
+import com.example.accountcreation.analytics.DecisionAnalytics;
+import com.example.accountcreation.bpmn.ProcessExecution;
+import com.example.accountcreation.journal.DecisionJournal;
+import com.example.accountcreation.model.AccountRequest;
+import com.example.accountcreation.model.AccountStatus;
+import com.example.accountcreation.repository.AccountRequestRepository;
+import com.example.accountcreation.rules.CompiledRuleSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Service task implementations of {@code account-creation-process.bpmn}. Each method is bound to
+ * its task's delegate expression in {@link com.example.accountcreation.config.ProcessEngineConfig}.
+ *
+ * Tasks pass the request between each other in the {@link #REQUEST} variable; every task that
+ * changes it saves it and stores the returned entity back.
+ */
+@Component
+public class AccountProcessTasks {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AccountProcessTasks.class);
+    
+    public static final String REQUEST_ID = "requestId";
+    public static final String REQUEST = "request";
+    public static final String DECISION = "decision";
+    public static final String REASON = "reason";
+    public static final String MANUAL_DECISION = "manualDecision";
+    
+    @Autowired
+    private AccountRequestRepository accountRequestRepository;
+    
+    @Autowired
+    private GoRulesService goRulesService;
+    
+    @Autowired
+    private NotificationService notificationService;
+    
+    @Autowired
+    private DecisionJournal decisionJournal;
+    
+    @Autowired
+    private DecisionAnalytics decisionAnalytics;
+    
+    public void validateRequest(ProcessExecution execution) {
+        Long requestId = execution.getVariable(REQUEST_ID);
+        logger.info("Validating request for ID: {}", requestId);
+        
+        AccountRequest request = accountRequestRepository.findById(requestId)
+                .orElseThrow(() -> new RuntimeException("Account request not found: " + requestId));
+        if (request.getStatus() != AccountStatus.PENDING) {
+            // A redelivered job whose previous run got as far as the decision, but possibly not as far
+            // as the notification: send it again, since delivery is at-least-once and coalesced per request
+            logger.info("Request {} already decided ({}), re-sending notification", requestId, request.getStatus());
+            notificationService.sendNotification(request);
+            execution.terminate();
+            return;
+        }
+        
+        // Set process instance ID, unless it was assigned on creation
+        if (request.getProcessInstanceId() == null) {
+            request.setProcessInstanceId(SimplifiedAccountCreationService.newProcessInstanceId());
+            request = accountRequestRepository.save(request);
+        }
+        execution.setVariable(REQUEST, request);
+        
+        logger.info("Request validation completed for: {} (ID: {})", request.getName(), requestId);
+    }
+    
+    public void applyRules(ProcessExecution execution) {
+        AccountRequest request = execution.getVariable(REQUEST);
+        logger.info("Applying business rules for request ID: {}", request.getId());
+        
+        CompiledRuleSet rules = goRulesService.getRuleSet();
+        GoRulesService.DecisionResponse decision = rules.evaluate(request);
+        decisionJournal.recordDecision(request, rules.getVersion(), decision);
+        decisionAnalytics.recordDecision(request, decision);
+        execution.setVariable(DECISION, decision.getDecision());
+        execution.setVariable(REASON, decision.getReason());
+        
+        logger.info("Decision made for request {}: {} - {}", 
+                   request.getId(), 
+                   decision.getDecision().name(), 
+                   decision.getReason());
+    }
+    
+    public void autoApprove(ProcessExecution execution) {
+        updateStatus(execution, AccountStatus.AUTO_APPROVED, null);
+    }
+    
+    public void autoReject(ProcessExecution execution) {
+        updateStatus(execution, AccountStatus.AUTO_REJECTED, execution.getVariable(REASON));
+    }
+    
+    public void setManualReview(ProcessExecution execution) {
+        updateStatus(execution, AccountStatus.MANUAL_REVIEW, null);
+        // The process now waits at the manual-review user task, so the applicant hears of the
+        // review here rather than from send-notification after the decision
+        notificationService.sendNotification(execution.getVariable(REQUEST));
+    }
+    
+    public void manualApprove(ProcessExecution execution) {
+        updateStatus(execution, AccountStatus.MANUALLY_APPROVED, null);
+        decisionAnalytics.recordManualOutcome(execution.getVariable(REQUEST));
+    }
+    
+    public void manualReject(ProcessExecution execution) {
+        updateStatus(execution, AccountStatus.MANUALLY_REJECTED, execution.getVariable(REASON));
+        decisionAnalytics.recordManualOutcome(execution.getVariable(REQUEST));
+    }
+    
+    public void sendNotification(ProcessExecution execution) {
+        notificationService.sendNotification(execution.getVariable(REQUEST));
+    }
+    
+    private void updateStatus(ProcessExecution execution, AccountStatus status, String rejectionReason) {
+        AccountRequest request = execution.getVariable(REQUEST);
+        request.setStatus(status);
+        if (rejectionReason != null) {
+            request.setRejectionReason(rejectionReason);
+        }
+        request = accountRequestRepository.save(request);
+        execution.setVariable(REQUEST, request);
+        
+        logger.info("Request {} updated to status: {}", request.getId(), request.getStatus());
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.accountcreation.service;
+
+import com.example.accountcreation.archive.AccountArchive;
+import com.example.accountcreation.dto.AccountCursor;
+import com.example.accountcreation.dto.AccountPageDto;
+import com.example.accountcreation.dto.AccountResponseDto;
+import com.example.accountcreation.model.AccountStatus;
+import com.example.accountcreation.repository.AccountRequestRepository;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Read side of the account requests.
+ *
+ * Every read runs in a read-only transaction and selects straight into {@link AccountResponseDto}
+ * projections, so no entity is hydrated, tracked or dirty checked. Lists are keyset paginated on
+ * {@code (createdAt, id)}: each page continues from the last row of the previous one, so the cost
+ * of a page does not grow with its depth and rows inserted meanwhile do not shift later pages.
+ */
+@Service
+public class AccountQueryService {
+
+    @Autowired
+    private AccountRequestRepository accountRequestRepository;
+
+    @Autowired
+    private AccountArchive archive;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${accounts.read.page-size:100}")
+    private int defaultPageSize;
+
+    @Value("${accounts.read.max-page-size:1000}")
+    private int maxPageSize;
+
+    /**
+     * Falls back to the {@link AccountArchive} for requests no longer in the database.
+     */
+    @Transactional(readOnly = true)
+    public AccountResponseDto getAccountRequest(Long id) {
+        return accountRequestRepository.findResponseById(id)
+            .or(() -> archive.find(id))
+            .orElseThrow(() -> new RuntimeException("Account request not found: " + id));
+    }
+
+    /**
+     * Returns the page after {@code cursor} (from the start when null), optionally restricted to
+     * one status.
+     */
+    @Transactional(readOnly = true)
+    public AccountPageDto getAccountRequests(AccountStatus status, String cursor, Integer limit) {
+        int pageSize = pageSize(limit);
+        // One extra row tells whether another page follows without a count query
+        Pageable page = PageRequest.of(0, pageSize + 1);
+        AccountCursor after = cursor == null || cursor.isEmpty() ? null : AccountCursor.decode(cursor);
+
+        List<AccountResponseDto> rows;
+        if (status == null) {
+            rows = after == null
+                ? accountRequestRepository.findResponses(page)
+                : accountRequestRepository.findResponsesAfter(after.getCreatedAt(), after.getId(), page);
+        } else {
+            rows = after == null
+                ? accountRequestRepository.findResponsesByStatus(status, page)
+                : accountRequestRepository.findResponsesByStatusAfter(status, after.getCreatedAt(), after.getId(), page);
+        }
+
+        if (rows.size() <= pageSize) {
+            return new AccountPageDto(rows, null);
+        }
+        List<AccountResponseDto> items = rows.subList(0, pageSize);
+        return new AccountPageDto(items, AccountCursor.after(items.get(pageSize - 1)).encode());
+    }
+
+    /**
+     * Writes every matching account request to {@code out} as one JSON array, row by row while the
+     * result set is read, so memory use does not depend on the number of rows.
+     */
+    @Transactional(readOnly = true)
+    public void streamAccountRequests(AccountStatus status, OutputStream out) throws IOException {
+        try (Stream<AccountResponseDto> rows = status == null
+                ? accountRequestRepository.streamResponses()
+                : accountRequestRepository.streamResponsesByStatus(status);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            generator.writeStartArray();
+            Iterator<AccountResponseDto> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                generator.writeObject(iterator.next());
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    private int pageSize(Integer limit) {
+        if (limit == null) {
+            return defaultPageSize;
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        return Math.min(limit, maxPageSize);
+    }
+}
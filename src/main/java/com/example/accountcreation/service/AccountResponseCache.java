@@ -0,0 +1,289 @@
+package com.example.accountcreation.service;
+
+import com.example.accountcreation.dto.AccountResponseDto;
+import com.example.accountcreation.model.AccountRequest;
+import com.example.accountcreation.model.AccountStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Bounded read-through cache of serialized account responses for {@code GET /api/accounts/{id}}.
+ *
+ * Entries hold the JSON body and its ETag, so a hit costs neither a query nor serialization, and
+ * an unchanged poll can be answered with 304. Entries are dropped when the cache grows past
+ * {@code max-size}, and after {@code ttl-ms} once the request is approved or rejected for good.
+ *
+ * Every update of an account request written through Hibernate on this node replaces its entry
+ * once the transaction commits (see {@link AccountStatusListener}). Updates made on other nodes
+ * are not seen, and with the process queue another node's worker usually decides the request, so
+ * entries of requests still PENDING or in MANUAL_REVIEW only live for {@code pending-ttl-ms}: a
+ * poll sees a decision made elsewhere within that time. Entries are only ever replaced by a
+ * version with a newer {@code updatedAt}, so a reader that loaded the row just before a commit
+ * cannot overwrite the fresher entry written by that commit.
+ */
+@Component
+public class AccountResponseCache {
+
+    @Autowired
+    private AccountQueryService accountQueryService;
+
+    @Autowired
+    private SimplifiedAccountCreationService accountCreationService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${accounts.cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${accounts.cache.ttl-ms:60000}")
+    private long ttlMs;
+
+    @Value("${accounts.cache.pending-ttl-ms:1000}")
+    private long pendingTtlMs;
+
+    private Cache<Long, Entry> cache;
+    private ObjectWriter writer;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfter(new Expiry<Long, Entry>() {
+                @Override
+                public long expireAfterCreate(Long id, Entry entry, long currentTime) {
+                    return lifetimeNanos(entry);
+                }
+
+                @Override
+                public long expireAfterUpdate(Long id, Entry entry, long currentTime, long currentDuration) {
+                    return lifetimeNanos(entry);
+                }
+
+                @Override
+                public long expireAfterRead(Long id, Entry entry, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .recordStats()
+            .build();
+        writer = objectMapper.writerFor(AccountResponseDto.class);
+    }
+
+    /**
+     * Returns the cached response, loading and caching it on a miss.
+     *
+     * @throws RuntimeException if the account request does not exist
+     */
+    public Entry get(Long id) {
+        Entry cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return cached;
+        }
+        Entry loaded = toEntry(accountQueryService.getAccountRequest(id));
+        return cache.asMap().merge(id, loaded, AccountResponseCache::newer);
+    }
+
+    /**
+     * Returns the cached response without loading it, or null. Not a read: it is not counted as a
+     * hit or miss, so background checks do not skew the hit rate.
+     */
+    public Entry peek(Long id) {
+        return cache.policy().getIfPresentQuietly(id);
+    }
+
+    /**
+     * Loads the response from the database, bypassing the cached entry, and caches it unless the
+     * cached one is newer.
+     *
+     * @throws RuntimeException if the account request does not exist
+     */
+    public Entry reload(Long id) {
+        Entry loaded = toEntry(accountQueryService.getAccountRequest(id));
+        return cache.asMap().merge(id, loaded, AccountResponseCache::newer);
+    }
+
+    /**
+     * Caches a response read past this node's writes, unless the cached one is newer.
+     */
+    public Entry refresh(AccountResponseDto response) {
+        return cache.asMap().merge(response.getId(), toEntry(response), AccountResponseCache::newer);
+    }
+
+    /**
+     * Refreshes the entry of an updated request once the current transaction commits, or right
+     * away when there is none. The response is captured now, while the entity holds the state
+     * being written.
+     */
+    public void recordUpdate(AccountRequest request) {
+        Entry entry = toEntry(accountCreationService.convertToResponseDto(request));
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            put(request.getId(), entry);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Map<Long, Entry> pending = (Map<Long, Entry>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Map<Long, Entry> updates = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, updates);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(AccountResponseCache.this);
+                    if (status == STATUS_COMMITTED) {
+                        updates.forEach(AccountResponseCache.this::put);
+                    } else {
+                        cache.invalidateAll(updates.keySet());
+                    }
+                }
+            });
+            pending = updates;
+        }
+        // A later write of the same request in this transaction supersedes the earlier one
+        pending.put(request.getId(), entry);
+    }
+
+    public void invalidate(Long id) {
+        cache.invalidate(id);
+    }
+
+    public Stats getStats() {
+        CacheStats stats = cache.stats();
+        return new Stats(cache.estimatedSize(), maxSize, ttlMs, pendingTtlMs,
+                         stats.hitCount(), stats.missCount(), stats.evictionCount(), stats.hitRate());
+    }
+
+    private long lifetimeNanos(Entry entry) {
+        long millis = entry.status != null && entry.status.isTerminal() ? ttlMs : pendingTtlMs;
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    private void put(Long id, Entry entry) {
+        cache.asMap().merge(id, entry, AccountResponseCache::newer);
+    }
+
+    private Entry toEntry(AccountResponseDto dto) {
+        byte[] body;
+        try {
+            body = writer.writeValueAsBytes(dto);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize account request " + dto.getId(), e);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        return new Entry(body, "\"" + dto.getId() + "-" + Long.toHexString(crc.getValue()) + "\"",
+                         dto.getStatus(), dto.getUpdatedAt());
+    }
+
+    private static Entry newer(Entry current, Entry candidate) {
+        if (current.updatedAt == null) {
+            return candidate;
+        }
+        if (candidate.updatedAt == null) {
+            return current;
+        }
+        return candidate.updatedAt.isBefore(current.updatedAt) ? current : candidate;
+    }
+
+    public static class Entry {
+        private final byte[] body;
+        private final String etag;
+        private final AccountStatus status;
+        private final LocalDateTime updatedAt;
+
+        Entry(byte[] body, String etag, AccountStatus status, LocalDateTime updatedAt) {
+            this.body = body;
+            this.etag = etag;
+            this.status = status;
+            this.updatedAt = updatedAt;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public AccountStatus getStatus() {
+            return status;
+        }
+
+        public LocalDateTime getUpdatedAt() {
+            return updatedAt;
+        }
+    }
+
+    public static class Stats {
+        private final long size;
+        private final long maxSize;
+        private final long ttlMs;
+        private final long pendingTtlMs;
+        private final long hitCount;
+        private final long missCount;
+        private final long evictionCount;
+        private final double hitRate;
+
+        public Stats(long size, long maxSize, long ttlMs, long pendingTtlMs, long hitCount, long missCount,
+                     long evictionCount, double hitRate) {
+            this.size = size;
+            this.maxSize = maxSize;
+            this.ttlMs = ttlMs;
+            this.pendingTtlMs = pendingTtlMs;
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.evictionCount = evictionCount;
+            this.hitRate = hitRate;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getMaxSize() {
+            return maxSize;
+        }
+
+        public long getTtlMs() {
+            return ttlMs;
+        }
+
+        public long getPendingTtlMs() {
+            return pendingTtlMs;
+        }
+
+        public long getHitCount() {
+            return hitCount;
+        }
+
+        public long getMissCount() {
+            return missCount;
+        }
+
+        public long getEvictionCount() {
+            return evictionCount;
+        }
+
+        public double getHitRate() {
+            return hitRate;
+        }
+    }
+}
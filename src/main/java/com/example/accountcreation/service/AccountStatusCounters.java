@@ -0,0 +1,180 @@
+package com.example.accountcreation.service;
+
+import com.example.accountcreation.archive.AccountArchive;
+import com.example.accountcreation.dto.AccountStatsDto;
+import com.example.accountcreation.model.AccountStatus;
+import com.example.accountcreation.repository.AccountRequestRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-status account counts, maintained incrementally so reading them never scans the table.
+ *
+ * Every status transition is recorded by {@link AccountStatusListener} and applied once its
+ * transaction commits; the transitions of one transaction are summed and applied together.
+ * Counts are {@code baseline + transitions seen by this node}. The baseline is set by a
+ * {@code COUNT ... GROUP BY status} (an index-only scan) at startup and every
+ * {@code reconcile-interval-ms}, which also folds in transitions made by other nodes sharing the
+ * database and corrects any drift. Requests moved to the {@link AccountArchive} are still counted.
+ */
+@Component
+public class AccountStatusCounters {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountStatusCounters.class);
+
+    private static final AccountStatus[] STATUSES = AccountStatus.values();
+
+    @Autowired
+    private AccountRequestRepository accountRequestRepository;
+
+    @Autowired
+    private AccountArchive archive;
+
+    @Value("${accounts.stats.reconcile-interval-ms:300000}")
+    private long reconcileIntervalMs;
+
+    private final LongAdder[] transitions = new LongAdder[STATUSES.length];
+    private volatile Baseline baseline = new Baseline(new long[STATUSES.length], null);
+    private ScheduledExecutorService reconcileScheduler;
+
+    public AccountStatusCounters() {
+        for (int i = 0; i < transitions.length; i++) {
+            transitions[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records a move from {@code from} to {@code to}; either side is null for inserts and deletes.
+     */
+    public void recordTransition(AccountStatus from, AccountStatus to) {
+        if (from == to) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(from, to);
+            return;
+        }
+        long[] pending = (long[]) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            long[] deltas = new long[STATUSES.length];
+            TransactionSynchronizationManager.bindResource(this, deltas);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(AccountStatusCounters.this);
+                    if (status == STATUS_COMMITTED) {
+                        for (int i = 0; i < deltas.length; i++) {
+                            if (deltas[i] != 0) {
+                                transitions[i].add(deltas[i]);
+                            }
+                        }
+                    }
+                }
+            });
+            pending = deltas;
+        }
+        if (from != null) {
+            pending[from.ordinal()]--;
+        }
+        if (to != null) {
+            pending[to.ordinal()]++;
+        }
+    }
+
+    public AccountStatsDto getStats() {
+        Baseline current = baseline;
+        Map<AccountStatus, Long> counts = new EnumMap<>(AccountStatus.class);
+        long total = 0;
+        for (AccountStatus status : STATUSES) {
+            long count = Math.max(0, current.counts[status.ordinal()] + transitions[status.ordinal()].sum());
+            counts.put(status, count);
+            total += count;
+        }
+        return new AccountStatsDto(counts, total, current.reconciledAt);
+    }
+
+    /**
+     * Replaces the baseline with fresh counts from the database.
+     */
+    public synchronized void reconcile() {
+        long[] seen = new long[STATUSES.length];
+        for (int i = 0; i < seen.length; i++) {
+            seen[i] = transitions[i].sum();
+        }
+        long[] counted = archive.getStatusCounts();
+        for (Object[] row : accountRequestRepository.countByStatus()) {
+            counted[((AccountStatus) row[0]).ordinal()] += (Long) row[1];
+        }
+        // Transitions recorded from now on are added on top of the counted rows
+        long[] counts = new long[STATUSES.length];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = counted[i] - seen[i];
+        }
+        baseline = new Baseline(counts, LocalDateTime.now());
+        logger.debug("Reconciled account status counters");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        reconcile();
+        if (reconcileIntervalMs > 0) {
+            reconcileScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "account-stats-reconcile");
+                thread.setDaemon(true);
+                return thread;
+            });
+            reconcileScheduler.scheduleWithFixedDelay(
+                this::reconcileQuietly, reconcileIntervalMs, reconcileIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (reconcileScheduler != null) {
+            reconcileScheduler.shutdownNow();
+        }
+    }
+
+    private void apply(AccountStatus from, AccountStatus to) {
+        if (from != null) {
+            transitions[from.ordinal()].decrement();
+        }
+        if (to != null) {
+            transitions[to.ordinal()].increment();
+        }
+    }
+
+    private void reconcileQuietly() {
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            logger.warn("Failed to reconcile account status counters", e);
+        }
+    }
+
+    private static class Baseline {
+        private final long[] counts;
+        private final LocalDateTime reconciledAt;
+
+        Baseline(long[] counts, LocalDateTime reconciledAt) {
+            this.counts = counts;
+            this.reconciledAt = reconciledAt;
+        }
+    }
+}
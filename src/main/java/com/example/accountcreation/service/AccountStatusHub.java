@@ -0,0 +1,301 @@
+package com.example.accountcreation.service;
+
+import com.example.accountcreation.dto.AccountResponseDto;
+import com.example.accountcreation.model.AccountRequest;
+import com.example.accountcreation.repository.AccountRequestRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * In-process publish/subscribe hub for account request updates, feeding the SSE and long-poll
+ * endpoints of {@code GET /api/accounts/{id}}.
+ *
+ * A subscriber is a callback registered per request id; it holds no thread. When an update of a
+ * request with subscribers commits, the hub hands them its fresh {@link AccountResponseCache}
+ * entry, so every subscriber shares one serialized body. Callbacks run on
+ * {@code dispatch-threads} daemon threads and must not block; updates of one request always go
+ * through the same thread, so its subscribers see them in commit order.
+ *
+ * Updates are published after the {@link AccountResponseCache} is refreshed. A subscriber that
+ * subscribes first and then reads the cache therefore either sees the update in the cache or
+ * receives it, never neither.
+ *
+ * Commits on other nodes do not pass through this hub, so every {@code poll-interval-ms} a
+ * poller thread reloads the requests that have subscribers, in chunks of {@value #POLL_BATCH_SIZE}
+ * ids, and publishes those whose status or {@code updatedAt} differs from what was last published
+ * (or, before the first publish, from the cached entry).
+ * Subscribers thus see a decision made elsewhere within one poll interval; 0 disables the poller.
+ */
+@Component
+public class AccountStatusHub {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountStatusHub.class);
+
+    static final int POLL_BATCH_SIZE = 500;
+
+    @Autowired
+    private AccountResponseCache responseCache;
+
+    @Autowired
+    private AccountRequestRepository accountRequestRepository;
+
+    @Value("${accounts.subscriptions.dispatch-threads:2}")
+    private int dispatchThreads;
+
+    @Value("${accounts.subscriptions.poll-interval-ms:1000}")
+    private long pollIntervalMs;
+
+    private final ConcurrentHashMap<Long, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, AccountResponseCache.Entry> lastPublished = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final LongAdder publishedCount = new LongAdder();
+    private final LongAdder deliveredCount = new LongAdder();
+    private final LongAdder polledChangeCount = new LongAdder();
+
+    private ExecutorService[] dispatchers;
+    private ScheduledExecutorService poller;
+
+    @PostConstruct
+    public void start() {
+        dispatchers = new ExecutorService[Math.max(1, dispatchThreads)];
+        for (int i = 0; i < dispatchers.length; i++) {
+            String name = "account-status-hub-" + (i + 1);
+            dispatchers[i] = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, name);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        if (pollIntervalMs > 0) {
+            poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "account-status-poller");
+                thread.setDaemon(true);
+                return thread;
+            });
+            poller.scheduleWithFixedDelay(this::pollSubscribed, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (poller != null) {
+            poller.shutdownNow();
+        }
+        for (ExecutorService dispatcher : dispatchers) {
+            dispatcher.shutdownNow();
+        }
+    }
+
+    /**
+     * Registers a callback for every committed update of one request, until the subscription is
+     * closed.
+     */
+    public Subscription subscribe(Long id, Consumer<AccountResponseCache.Entry> listener) {
+        Subscription subscription = new Subscription(id, listener);
+        subscriptions.compute(id, (key, current) -> {
+            Set<Subscription> subscribers = current != null ? current : ConcurrentHashMap.newKeySet();
+            subscribers.add(subscription);
+            return subscribers;
+        });
+        subscriberCount.incrementAndGet();
+        return subscription;
+    }
+
+    /**
+     * Publishes the update once the current transaction commits, or right away when there is none.
+     * Called after {@link AccountResponseCache#recordUpdate}, whose synchronization then runs first.
+     */
+    public void recordUpdate(AccountRequest request) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(request.getId());
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Set<Long> pending = (Set<Long>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Set<Long> updated = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(this, updated);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(AccountStatusHub.this);
+                    if (status == STATUS_COMMITTED) {
+                        updated.forEach(AccountStatusHub.this::publish);
+                    }
+                }
+            });
+            pending = updated;
+        }
+        pending.add(request.getId());
+    }
+
+    /**
+     * Publishes updates of subscribed requests made past this node; normally done by the poller.
+     */
+    public void pollSubscribed() {
+        lastPublished.keySet().retainAll(subscriptions.keySet());
+        List<Long> ids = new ArrayList<>(subscriptions.keySet());
+        try {
+            for (int from = 0; from < ids.size(); from += POLL_BATCH_SIZE) {
+                List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + POLL_BATCH_SIZE));
+                for (AccountResponseDto response : accountRequestRepository.findResponsesByIds(chunk)) {
+                    AccountResponseCache.Entry seen = lastPublished.get(response.getId());
+                    if (seen == null) {
+                        seen = responseCache.peek(response.getId());
+                    }
+                    if (seen != null && seen.getStatus() == response.getStatus()
+                            && Objects.equals(seen.getUpdatedAt(), response.getUpdatedAt())) {
+                        continue;
+                    }
+                    responseCache.refresh(response);
+                    polledChangeCount.increment();
+                    publish(response.getId());
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Failed to poll subscribed account requests", e);
+        }
+    }
+
+    public Stats getStats() {
+        return new Stats(subscriberCount.get(), subscriptions.size(), publishedCount.sum(), deliveredCount.sum(),
+                         polledChangeCount.sum());
+    }
+
+    private void publish(Long id) {
+        Set<Subscription> subscribers = subscriptions.get(id);
+        if (subscribers == null || subscribers.isEmpty()) {
+            return;
+        }
+        AccountResponseCache.Entry entry;
+        try {
+            entry = responseCache.get(id);
+        } catch (RuntimeException e) {
+            logger.warn("Cannot publish update of account request {}: {}", id, e.getMessage());
+            return;
+        }
+        lastPublished.put(id, entry);
+        publishedCount.increment();
+        try {
+            dispatchers[Math.floorMod(id, dispatchers.length)].execute(() -> {
+                for (Subscription subscription : subscribers) {
+                    subscription.deliver(entry);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            logger.debug("Account status hub is shut down; update of {} not published", id);
+        }
+    }
+
+    private void unsubscribe(Subscription subscription) {
+        subscriptions.computeIfPresent(subscription.id, (key, subscribers) -> {
+            subscribers.remove(subscription);
+            if (subscribers.isEmpty()) {
+                lastPublished.remove(key);
+                return null;
+            }
+            return subscribers;
+        });
+        subscriberCount.decrementAndGet();
+    }
+
+    public final class Subscription implements AutoCloseable {
+        private final Long id;
+        private final Consumer<AccountResponseCache.Entry> listener;
+        private volatile boolean closed;
+
+        private Subscription(Long id, Consumer<AccountResponseCache.Entry> listener) {
+            this.id = id;
+            this.listener = listener;
+        }
+
+        private void deliver(AccountResponseCache.Entry entry) {
+            if (closed) {
+                return;
+            }
+            try {
+                listener.accept(entry);
+                deliveredCount.increment();
+            } catch (RuntimeException e) {
+                logger.warn("Subscriber of account request {} failed", id, e);
+                close();
+            }
+        }
+
+        /**
+         * Stops deliveries; safe to call more than once.
+         */
+        @Override
+        public void close() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+            }
+            unsubscribe(this);
+        }
+    }
+
+    public static class Stats {
+        private final int subscriberCount;
+        private final int subscribedRequestCount;
+        private final long publishedCount;
+        private final long deliveredCount;
+        private final long polledChangeCount;
+
+        public Stats(int subscriberCount, int subscribedRequestCount, long publishedCount, long deliveredCount,
+                     long polledChangeCount) {
+            this.subscriberCount = subscriberCount;
+            this.subscribedRequestCount = subscribedRequestCount;
+            this.publishedCount = publishedCount;
+            this.deliveredCount = deliveredCount;
+            this.polledChangeCount = polledChangeCount;
+        }
+
+        public int getSubscriberCount() {
+            return subscriberCount;
+        }
+
+        public int getSubscribedRequestCount() {
+            return subscribedRequestCount;
+        }
+
+        public long getPublishedCount() {
+            return publishedCount;
+        }
+
+        public long getDeliveredCount() {
+            return deliveredCount;
+        }
+
+        /**
+         * Updates found by the poller, i.e. made on other nodes or past Hibernate.
+         */
+        public long getPolledChangeCount() {
+            return polledChangeCount;
+        }
+    }
+}
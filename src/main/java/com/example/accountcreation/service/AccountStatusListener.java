@@ -0,0 +1,134 @@
+package com.example.accountcreation.service;
+
+import com.example.accountcreation.journal.DecisionJournal;
+import com.example.accountcreation.model.AccountRequest;
+import com.example.accountcreation.model.AccountStatus;
+import com.example.accountcreation.repository.memory.AccountRequestChangeListener;
+import com.example.accountcreation.repository.memory.InMemoryAccountRequestRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.internal.SessionFactoryImpl;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports every account status transition written through Hibernate to
+ * {@link AccountStatusCounters}, {@link AccountProcessMetrics} and the {@link DecisionJournal},
+ * and every update to the {@link AccountResponseCache} and then the {@link AccountStatusHub}.
+ * Registered as a post insert/update/delete listener, so the previous status comes from
+ * Hibernate's own loaded state rather than an extra read; under the {@code memory-store} profile
+ * the in-memory repository reports its writes the same way.
+ *
+ * Never lazily initialized: nothing depends on this bean, and it must be registered before the
+ * first write.
+ */
+@Component
+@Lazy(false)
+public class AccountStatusListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener,
+                                              AccountRequestChangeListener {
+
+    private static final String STATUS = "status";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private AccountStatusCounters statusCounters;
+
+    @Autowired
+    private AccountResponseCache responseCache;
+
+    @Autowired
+    private AccountProcessMetrics processMetrics;
+    
+    @Autowired
+    private DecisionJournal decisionJournal;
+    
+    @Autowired
+    private AccountStatusHub statusHub;
+
+    @Autowired(required = false)
+    private InMemoryAccountRequestRepository memoryStore;
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImpl.class)
+            .getServiceRegistry()
+            .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+        if (memoryStore != null) {
+            memoryStore.addListener(this);
+        }
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof AccountRequest) {
+            onInsert((AccountRequest) event.getEntity());
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof AccountRequest) {
+            AccountRequest request = (AccountRequest) event.getEntity();
+            if (event.getOldState() != null) {
+                onUpdate(request, (AccountStatus) event.getOldState()[statusIndex(event.getPersister())]);
+            } else {
+                refresh(request);
+            }
+        }
+    }
+
+    @Override
+    public void onInsert(AccountRequest request) {
+        statusCounters.recordTransition(null, request.getStatus());
+        processMetrics.recordTransition(request, null);
+        decisionJournal.recordTransition(request, null);
+    }
+
+    @Override
+    public void onUpdate(AccountRequest request, AccountStatus from) {
+        statusCounters.recordTransition(from, request.getStatus());
+        processMetrics.recordTransition(request, from);
+        if (from != request.getStatus()) {
+            decisionJournal.recordTransition(request, from);
+        }
+        refresh(request);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof AccountRequest) {
+            statusCounters.recordTransition(
+                (AccountStatus) event.getDeletedState()[statusIndex(event.getPersister())], null);
+            responseCache.invalidate((Long) event.getId());
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void refresh(AccountRequest request) {
+        responseCache.recordUpdate(request);
+        statusHub.recordUpdate(request);
+    }
+
+    private static int statusIndex(EntityPersister persister) {
+        return persister.getEntityMetamodel().getPropertyIndex(STATUS);
+    }
+}
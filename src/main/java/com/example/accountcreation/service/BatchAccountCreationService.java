@@ -0,0 +1,216 @@
+package com.example.accountcreation.service;
+
+import com.example.accountcreation.analytics.DecisionAnalytics;
+import com.example.accountcreation.dto.AccountRequestDto;
+import com.example.accountcreation.dto.BatchResultDto;
+import com.example.accountcreation.journal.DecisionJournal;
+import com.example.accountcreation.model.AccountRequest;
+import com.example.accountcreation.repository.AccountRequestRepository;
+import com.example.accountcreation.rules.CompiledRuleSet;
+import com.example.accountcreation.rules.RequestColumns;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Creates account requests from a streamed NDJSON or JSON array upload.
+ *
+ * Records are read one at a time and handled in chunks of {@code accounts.batch.chunk-size}:
+ * each chunk is evaluated against a single rule set snapshot taken for the whole upload, inserted
+ * already decided in one transaction (batched by Hibernate thanks to the pooled id sequence), and
+ * its per-record results are written back as NDJSON before the next chunk is read.
+ */
+@Service
+public class BatchAccountCreationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchAccountCreationService.class);
+
+    private static final byte[] NEWLINE = {'\n'};
+
+    @Autowired
+    private AccountRequestRepository accountRequestRepository;
+
+    @Autowired
+    private GoRulesService goRulesService;
+
+    @Autowired
+    private SimplifiedAccountCreationService accountCreationService;
+
+    @Autowired
+    private NotificationService notificationService;
+    
+    @Autowired
+    private DecisionJournal decisionJournal;
+
+    @Autowired
+    private DecisionAnalytics decisionAnalytics;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${accounts.batch.chunk-size:500}")
+    private int chunkSize;
+
+    public void createAccountRequests(InputStream body, OutputStream out) throws IOException {
+        CompiledRuleSet rules = goRulesService.getRuleSet();
+        ObjectWriter writer = objectMapper.writerFor(BatchResultDto.class);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        List<BatchResultDto> results = new ArrayList<>(chunkSize);
+        List<AccountRequest> requests = new ArrayList<>(chunkSize);
+        RequestColumns columns = new RequestColumns(chunkSize);
+        byte[] outcomes = new byte[chunkSize];
+        int index = 0;
+        int accepted = 0;
+
+        try (MappingIterator<AccountRequestDto> records = objectMapper.readerFor(AccountRequestDto.class).readValues(body)) {
+            while (true) {
+                AccountRequestDto requestDto;
+                try {
+                    if (!records.hasNextValue()) {
+                        break;
+                    }
+                    requestDto = records.nextValue();
+                } catch (JsonParseException e) {
+                    // The stream itself is broken; nothing after this point can be trusted
+                    results.add(BatchResultDto.rejected(index++, List.of("Malformed JSON: " + e.getOriginalMessage())));
+                    requests.add(null);
+                    break;
+                } catch (JsonMappingException e) {
+                    results.add(BatchResultDto.rejected(index++, List.of("Invalid record: " + e.getOriginalMessage())));
+                    requests.add(null);
+                    continue;
+                }
+
+                List<String> errors = validate(requestDto);
+                if (errors.isEmpty()) {
+                    results.add(null);
+                    requests.add(new AccountRequest(
+                        requestDto.getName(),
+                        requestDto.getZipCode(),
+                        requestDto.getAge(),
+                        requestDto.getPhoneNumber()));
+                } else {
+                    results.add(BatchResultDto.rejected(index, errors));
+                    requests.add(null);
+                }
+                index++;
+
+                if (results.size() == chunkSize) {
+                    accepted += processChunk(requests, results, index - results.size(), rules, columns, outcomes, transactionTemplate);
+                    writeResults(results, writer, out);
+                    requests.clear();
+                    results.clear();
+                }
+            }
+        }
+
+        if (!results.isEmpty()) {
+            accepted += processChunk(requests, results, index - results.size(), rules, columns, outcomes, transactionTemplate);
+            writeResults(results, writer, out);
+        }
+
+        logger.info("Batch upload processed: {} records, {} accepted, {} rejected (rules {})",
+                   index, accepted, index - accepted, rules.getVersion());
+    }
+
+    private List<String> validate(AccountRequestDto requestDto) {
+        Set<ConstraintViolation<AccountRequestDto>> violations = validator.validate(requestDto);
+        if (violations.isEmpty()) {
+            return List.of();
+        }
+        List<String> errors = new ArrayList<>(violations.size());
+        for (ConstraintViolation<AccountRequestDto> violation : violations) {
+            errors.add(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+        errors.sort(null);
+        return errors;
+    }
+
+    /**
+     * Decides the valid records of a chunk together, persists them and fills in their results.
+     * The records are decided in one columnar pass over {@code columns}, which is reused across chunks.
+     * Each row is written once with its final status, and the chunk's inserts share one
+     * transaction so Hibernate sends them as JDBC batches of {@code hibernate.jdbc.batch_size}.
+     */
+    private int processChunk(List<AccountRequest> requests,
+                             List<BatchResultDto> results,
+                             int firstIndex,
+                             CompiledRuleSet rules,
+                             RequestColumns columns,
+                             byte[] outcomes,
+                             TransactionTemplate transactionTemplate) {
+        List<AccountRequest> valid = new ArrayList<>(requests.size());
+        for (AccountRequest request : requests) {
+            if (request != null) {
+                valid.add(request);
+            }
+        }
+        if (valid.isEmpty()) {
+            return 0;
+        }
+
+        columns.clear();
+        for (AccountRequest request : valid) {
+            columns.add(request);
+        }
+        rules.evaluateBatch(columns, null, outcomes);
+
+        GoRulesService.DecisionResponse[] decisions = new GoRulesService.DecisionResponse[requests.size()];
+        int row = 0;
+        for (int i = 0; i < requests.size(); i++) {
+            AccountRequest request = requests.get(i);
+            if (request != null) {
+                decisions[i] = rules.getResponse(outcomes[row++]);
+                request.setProcessInstanceId(SimplifiedAccountCreationService.newProcessInstanceId());
+                accountCreationService.applyDecision(request, decisions[i]);
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> accountRequestRepository.saveAll(valid));
+
+        for (int i = 0; i < requests.size(); i++) {
+            AccountRequest request = requests.get(i);
+            if (request != null) {
+                results.set(i, BatchResultDto.accepted(
+                    firstIndex + i, request.getId(), request.getStatus(), decisions[i].getReason()));
+                decisionJournal.recordDecision(request, rules.getVersion(), decisions[i]);
+                decisionAnalytics.recordDecision(request, decisions[i]);
+                notificationService.sendNotification(request);
+            }
+        }
+        logger.debug("Persisted chunk of {} account requests starting at record {}", valid.size(), firstIndex);
+        return valid.size();
+    }
+
+    private static void writeResults(List<BatchResultDto> results, ObjectWriter writer, OutputStream out) throws IOException {
+        for (BatchResultDto result : results) {
+            out.write(writer.writeValueAsBytes(result));
+            out.write(NEWLINE);
+        }
+        out.flush();
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.accountcreation.service;
+
+import com.example.accountcreation.blocklist.Blocklist;
+import com.example.accountcreation.blocklist.Blocklists;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads the phone, zip code and name blocklists from local files into the {@link Blocklists} of
+ * this application, where the {@code inBlocklist} cells of the decision table find them.
+ *
+ * Each list is read once at startup and again whenever its file changes, checked every
+ * {@code reload-interval-ms}. A new list is built next to the current one and swapped in
+ * atomically; a file that cannot be read or has a malformed line is logged and the current list
+ * stays active. A list without a file, or whose file does not exist, is empty. Replace files by
+ * renaming a new file over the old one, so a reload never reads a partial file.
+ */
+@Service
+@Lazy(false)
+public class BlocklistService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BlocklistService.class);
+
+    @Value("${accounts.blocklist.phones:}")
+    private String phonesFile;
+
+    @Value("${accounts.blocklist.zip-codes:}")
+    private String zipCodesFile;
+
+    @Value("${accounts.blocklist.names:}")
+    private String namesFile;
+
+    @Value("${accounts.blocklist.reload-interval-ms:30000}")
+    private long reloadIntervalMs;
+
+    @Autowired
+    private Blocklists blocklists;
+
+    private final Map<Blocklists.Kind, Source> sources = new EnumMap<>(Blocklists.Kind.class);
+    private ScheduledExecutorService reloadScheduler;
+
+    @PostConstruct
+    public void init() {
+        sources.put(Blocklists.Kind.PHONES, new Source(phonesFile));
+        sources.put(Blocklists.Kind.ZIP_CODES, new Source(zipCodesFile));
+        sources.put(Blocklists.Kind.NAMES, new Source(namesFile));
+        reload();
+        boolean anyFile = sources.values().stream().anyMatch(source -> source.path != null);
+        if (reloadIntervalMs > 0 && anyFile) {
+            reloadScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "blocklist-reload");
+                thread.setDaemon(true);
+                return thread;
+            });
+            reloadScheduler.scheduleWithFixedDelay(
+                this::reloadIfModified, reloadIntervalMs, reloadIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (reloadScheduler != null) {
+            reloadScheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Reloads every list from its file now, whether it changed or not.
+     */
+    public synchronized Stats reload() {
+        for (Map.Entry<Blocklists.Kind, Source> entry : sources.entrySet()) {
+            load(entry.getKey(), entry.getValue());
+        }
+        return getStats();
+    }
+
+    public Stats getStats() {
+        Map<Blocklists.Kind, ListStats> lists = new EnumMap<>(Blocklists.Kind.class);
+        for (Map.Entry<Blocklists.Kind, Source> entry : sources.entrySet()) {
+            Source source = entry.getValue();
+            Blocklist current = blocklists.slot(entry.getKey()).get();
+            lists.put(entry.getKey(), new ListStats(source.path == null ? null : source.path.toString(), current.size(),
+                                                    current.isMapped(), source.loadedAt, source.loadMillis,
+                                                    source.lastError));
+        }
+        return new Stats(reloadIntervalMs, lists);
+    }
+
+    private synchronized void reloadIfModified() {
+        for (Map.Entry<Blocklists.Kind, Source> entry : sources.entrySet()) {
+            Source source = entry.getValue();
+            if (source.path != null && lastModified(source.path) != source.lastModified) {
+                load(entry.getKey(), source);
+            }
+        }
+    }
+
+    private void load(Blocklists.Kind kind, Source source) {
+        long started = System.nanoTime();
+        long modified = source.path == null ? 0L : lastModified(source.path);
+        try {
+            Blocklist loaded = Blocklists.read(kind, source.path);
+            Blocklist previous = blocklists.install(kind, loaded);
+            source.lastModified = modified;
+            source.loadedAt = LocalDateTime.now();
+            source.loadMillis = (System.nanoTime() - started) / 1_000_000;
+            source.lastError = null;
+            if (source.path != null) {
+                logger.info("Loaded {} blocklist from {}: {} entries{} in {} ms (previous: {} entries)",
+                           kind.getListName(), source.path, loaded.size(), loaded.isMapped() ? ", mapped" : "",
+                           source.loadMillis, previous.size());
+            }
+        } catch (RuntimeException e) {
+            // Remember the file as seen, so a broken file is not re-read until it changes again
+            source.lastModified = modified;
+            source.lastError = e.getMessage();
+            logger.error("Failed to load {} blocklist from {}, keeping {} entries",
+                        kind.getListName(), source.path, blocklists.slot(kind).get().size(), e);
+        }
+    }
+
+    private static long lastModified(Path path) {
+        try {
+            return Files.exists(path) ? Files.getLastModifiedTime(path).toMillis() : 0L;
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    private static final class Source {
+        final Path path;
+        volatile long lastModified;
+        volatile LocalDateTime loadedAt;
+        volatile long loadMillis;
+        volatile String lastError;
+
+        Source(String location) {
+            this.path = location == null || location.isBlank() ? null : Paths.get(location);
+        }
+    }
+
+    public static class Stats {
+        private final long reloadIntervalMs;
+        private final Map<Blocklists.Kind, ListStats> lists;
+
+        public Stats(long reloadIntervalMs, Map<Blocklists.Kind, ListStats> lists) {
+            this.reloadIntervalMs = reloadIntervalMs;
+            this.lists = lists;
+        }
+
+        public long getReloadIntervalMs() {
+            return reloadIntervalMs;
+        }
+
+        public Map<Blocklists.Kind, ListStats> getLists() {
+            return lists;
+        }
+    }
+
+    public static class ListStats {
+        private final String file;
+        private final int entries;
+        private final boolean mapped;
+        private final LocalDateTime loadedAt;
+        private final long loadMillis;
+        private final String lastError;
+
+        public ListStats(String file, int entries, boolean mapped, LocalDateTime loadedAt, long loadMillis,
+                         String lastError) {
+            this.file = file;
+            this.entries = entries;
+            this.mapped = mapped;
+            this.loadedAt = loadedAt;
+            this.loadMillis = loadMillis;
+            this.lastError = lastError;
+        }
+
+        public String getFile() {
+            return file;
+        }
+
+        public int getEntries() {
+            return entries;
+        }
+
+        public boolean isMapped() {
+            return mapped;
+        }
+
+        public LocalDateTime getLoadedAt() {
+            return loadedAt;
+        }
+
+        public long getLoadMillis() {
+            return loadMillis;
+        }
+
+        /**
+         * Why the last load failed, {@code null} if it succeeded; a failed load keeps the list
+         * loaded before it.
+         */
+        public String getLastError() {
+            return lastError;
+        }
+    }
+}
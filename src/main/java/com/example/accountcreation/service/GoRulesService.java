@@ -1,24 +1,60 @@
 package com.example.accountcreation.service;
 
+import com.example.accountcreation.blocklist.Blocklists;
 import com.example.accountcreation.model.AccountRequest;
+import com.example.accountcreation.rules.CompiledRuleSet;
+import com.example.accountcreation.rules.DecisionTableCompiler;
+import com.example.accountcreation.rules.RequestColumns;
+import com.example.accountcreation.startup.StartupArtifacts;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
 @Service
 public class GoRulesService {
     
+    private static final Logger logger = LoggerFactory.getLogger(GoRulesService.class);
+    
+    public static final String DEFAULT_DECISION_TABLE = "classpath:rules/account-decision.json";
+    
     public enum DecisionResult {
         AUTO_APPROVE,
         AUTO_REJECT,
         MANUAL_REVIEW
     }
     
-    public static class DecisionResponse {
+    public static class DecisionResponse implements Serializable {
+        private static final long serialVersionUID = 1L;
+
         private final DecisionResult decision;
         private final String reason;
+        private final String ruleId;
         
         public DecisionResponse(DecisionResult decision, String reason) {
+            this(decision, reason, null);
+        }
+        
+        public DecisionResponse(DecisionResult decision, String reason, String ruleId) {
             this.decision = decision;
             this.reason = reason;
+            this.ruleId = ruleId;
         }
         
         public DecisionResult getDecision() {
@@ -28,6 +64,67 @@ public class GoRulesService {
         public String getReason() {
             return reason;
         }
+        
+        /**
+         * Id of the decision table row that produced this response, {@code default} for the
+         * fallback.
+         */
+        public String getRuleId() {
+            return ruleId;
+        }
+    }
+    
+    @Value("${gorules.decision-table:" + DEFAULT_DECISION_TABLE + "}")
+    private String decisionTableLocation = DEFAULT_DECISION_TABLE;
+    
+    @Value("${gorules.reload-interval-ms:5000}")
+    private long reloadIntervalMs = 5000;
+    
+    @Value("${gorules.batch-parallelism:0}")
+    private int batchParallelism;
+    
+    private final ResourceLoader resourceLoader = new DefaultResourceLoader();
+    private final Blocklists blocklists;
+    private final AtomicReference<CompiledRuleSet> ruleSet = new AtomicReference<>();
+    private volatile long lastModified;
+    private ScheduledExecutorService reloadScheduler;
+    private ForkJoinPool batchPool;
+    
+    public GoRulesService() {
+        this(DEFAULT_DECISION_TABLE);
+    }
+    
+    public GoRulesService(String decisionTableLocation) {
+        this(decisionTableLocation, new Blocklists());
+    }
+    
+    public GoRulesService(String decisionTableLocation, Blocklists blocklists) {
+        this.decisionTableLocation = decisionTableLocation;
+        this.blocklists = blocklists;
+        reload();
+    }
+    
+    /**
+     * Takes the rule set precompiled into the startup artifact when it was compiled from the
+     * configured table, and compiles the table otherwise.
+     */
+    @Autowired
+    public GoRulesService(@Value("${gorules.decision-table:" + DEFAULT_DECISION_TABLE + "}") String decisionTableLocation,
+                          StartupArtifacts startupArtifacts, Blocklists blocklists) {
+        this.decisionTableLocation = decisionTableLocation;
+        this.blocklists = blocklists;
+        Resource resource = resourceLoader.getResource(decisionTableLocation);
+        long modified = lastModified(resource);
+        CompiledRuleSet precompiled = startupArtifacts.isEnabled()
+            ? startupArtifacts.findRuleSet(read(resource)).orElse(null)
+            : null;
+        if (precompiled == null) {
+            reload();
+            return;
+        }
+        ruleSet.set(precompiled);
+        lastModified = modified;
+        logger.info("Loaded decision table {} from startup artifact {}", precompiled.getVersion(), startupArtifacts.getLocation());
     }
     
     /**
@@ -35,84 +132,126 @@ public class GoRulesService {
      * This simulates integration with GoRules decision engine
      */
     public DecisionResponse evaluateAccountRequest(AccountRequest request) {
-        // Rule 1: Age-based auto rejection
-        if (request.getAge() < 18) {
-            return new DecisionResponse(DecisionResult.AUTO_REJECT, "Age below minimum requirement");
-        }
-        
-        // Rule 2: Age-based auto approval for seniors
-        if (request.getAge() >= 65) {
-            return new DecisionResponse(DecisionResult.AUTO_APPROVE, "Senior citizen auto-approval");
-        }
-        
-        // Rule 3: Zip code based rules (high-risk zip codes)
-        if (isHighRiskZipCode(request.getZipCode())) {
-            return new DecisionResponse(DecisionResult.AUTO_REJECT, "High-risk zip code");
-        }
-        
-        // Rule 4: Premium zip codes get auto approval
-        if (isPremiumZipCode(request.getZipCode())) {
-            return new DecisionResponse(DecisionResult.AUTO_APPROVE, "Premium zip code area");
-        }
-        
-        // Rule 5: Phone number validation patterns
-        if (hasInvalidPhonePattern(request.getPhoneNumber())) {
-            return new DecisionResponse(DecisionResult.AUTO_REJECT, "Invalid phone number pattern");
-        }
-        
-        // Rule 6: Name-based suspicious patterns
-        if (hasSuspiciousNamePattern(request.getName())) {
-            return new DecisionResponse(DecisionResult.MANUAL_REVIEW, "Suspicious name pattern requires review");
+        return ruleSet.get().evaluate(request);
+    }
+    
+    /**
+     * Columnar bulk evaluation for backfills and imports; see {@link CompiledRuleSet#evaluateBatch}.
+     * Large batches are split across this service's own fork/join pool of
+     * {@code gorules.batch-parallelism} threads (half the cores by default), created on first use.
+     *
+     * @return the rule set that decided the batch, to resolve {@code outcomes} to reasons
+     */
+    public CompiledRuleSet evaluateBatch(RequestColumns columns, byte[] decisions, byte[] outcomes) {
+        CompiledRuleSet rules = ruleSet.get();
+        rules.evaluateBatch(columns, decisions, outcomes, batchPool());
+        return rules;
+    }
+    
+    /**
+     * Returns the rule set currently used for evaluation. Callers that evaluate many requests
+     * should hold on to one instance so a concurrent reload cannot change rules mid-batch.
+     */
+    public CompiledRuleSet getRuleSet() {
+        return ruleSet.get();
+    }
+    
+    /**
+     * Recompiles the decision table from its configured location and swaps it in atomically.
+     * The current rule set stays in place if the new table cannot be loaded or compiled.
+     */
+    public CompiledRuleSet reload() {
+        Resource resource = resourceLoader.getResource(decisionTableLocation);
+        // Taken before reading: a file changed while it is read looks modified on the next check
+        long modified = lastModified(resource);
+        CompiledRuleSet compiled = load(resource);
+        CompiledRuleSet previous = ruleSet.getAndSet(compiled);
+        lastModified = modified;
+        logger.info("Loaded decision table {} from {} (previous: {})",
+                   compiled.getVersion(),
+                   decisionTableLocation,
+                   previous == null ? "none" : previous.getVersion());
+        return compiled;
+    }
+    
+    @PostConstruct
+    public void init() {
+        Resource resource = resourceLoader.getResource(decisionTableLocation);
+        if (reloadIntervalMs > 0 && resource.isFile()) {
+            lastModified = lastModified(resource);
+            reloadScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "gorules-reload");
+                thread.setDaemon(true);
+                return thread;
+            });
+            reloadScheduler.scheduleWithFixedDelay(
+                this::reloadIfModified, reloadIntervalMs, reloadIntervalMs, TimeUnit.MILLISECONDS);
+            logger.info("Watching decision table {} for changes every {} ms", decisionTableLocation, reloadIntervalMs);
         }
-        
-        // Rule 7: Young adults (18-25) require manual review
-        if (request.getAge() >= 18 && request.getAge() <= 25) {
-            return new DecisionResponse(DecisionResult.MANUAL_REVIEW, "Young adult application requires manual review");
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        if (reloadScheduler != null) {
+            reloadScheduler.shutdownNow();
         }
-        
-        // Rule 8: Middle-aged applicants in normal zip codes get auto approval
-        if (request.getAge() > 25 && request.getAge() < 65) {
-            return new DecisionResponse(DecisionResult.AUTO_APPROVE, "Standard approval criteria met");
+        synchronized (this) {
+            if (batchPool != null) {
+                batchPool.shutdownNow();
+            }
         }
-        
-        // Default: Manual review for edge cases
-        return new DecisionResponse(DecisionResult.MANUAL_REVIEW, "Default manual review");
     }
     
-    private boolean isHighRiskZipCode(String zipCode) {
-        // Simulate high-risk zip codes (would be configurable in real system)
-        String[] highRiskZipCodes = {"90210", "10001", "60601"};
-        for (String riskCode : highRiskZipCodes) {
-            if (zipCode.startsWith(riskCode)) {
-                return true;
-            }
+    private synchronized ForkJoinPool batchPool() {
+        if (batchPool == null) {
+            int parallelism = batchParallelism > 0
+                ? batchParallelism
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+            ForkJoinPool.ForkJoinWorkerThreadFactory factory = pool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("gorules-batch-" + thread.getPoolIndex());
+                return thread;
+            };
+            // Capped at the parallelism: a join that would need a compensating thread waits instead
+            batchPool = new ForkJoinPool(parallelism, factory, null, false, 0, parallelism, 1, pool -> true,
+                                         60, TimeUnit.SECONDS);
         }
-        return false;
+        return batchPool;
     }
     
-    private boolean isPremiumZipCode(String zipCode) {
-        // Simulate premium zip codes (would be configurable in real system)
-        String[] premiumZipCodes = {"94102", "90210", "10021"};
-        for (String premiumCode : premiumZipCodes) {
-            if (zipCode.startsWith(premiumCode)) {
-                return true;
-            }
+    private void reloadIfModified() {
+        Resource resource = resourceLoader.getResource(decisionTableLocation);
+        long modified = lastModified(resource);
+        if (modified == lastModified) {
+            return;
+        }
+        try {
+            reload();
+        } catch (Exception e) {
+            // Remember the file as seen, so a broken table is reported once, not on every check
+            lastModified = modified;
+            logger.error("Failed to reload decision table from {}, keeping {}",
+                        decisionTableLocation, ruleSet.get().getVersion(), e);
         }
-        return false;
     }
     
-    private boolean hasInvalidPhonePattern(String phoneNumber) {
-        // Check for obvious fake numbers
-        return phoneNumber.matches("(\\d)\\1{9}") || // All same digits
-               phoneNumber.equals("1234567890") ||     // Sequential
-               phoneNumber.equals("0000000000");       // All zeros
+    private CompiledRuleSet load(Resource resource) {
+        return DecisionTableCompiler.compile(read(resource), blocklists);
     }
     
-    private boolean hasSuspiciousNamePattern(String name) {
-        // Simple suspicious name detection
-        return name.toLowerCase().contains("test") ||
-               name.toLowerCase().contains("fake") ||
-               name.length() < 2 ||
-               !name.matches(".*[a-zA-Z].*"); // Must contain at least one letter
+    private static byte[] read(Resource resource) {
+        try (InputStream in = resource.getInputStream()) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read decision table: " + resource.getDescription(), e);
+        }
+    }
+    
+    private static long lastModified(Resource resource) {
+        try {
+            return resource.isFile() ? resource.lastModified() : 0L;
+        } catch (IOException e) {
+            return 0L;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.example.accountcreation.service;
+
+/**
+ * Thrown when an {@code Idempotency-Key} cannot be honored: the key was already used for a
+ * different request, or the original request with this key is still being processed.
+ */
+public class IdempotencyConflictException extends RuntimeException {
+
+    private final boolean payloadMismatch;
+
+    public IdempotencyConflictException(String message, boolean payloadMismatch) {
+        super(message);
+        this.payloadMismatch = payloadMismatch;
+    }
+
+    /**
+     * True when the key belongs to a request with different content, false when its original is
+     * still in flight.
+     */
+    public boolean isPayloadMismatch() {
+        return payloadMismatch;
+    }
+}
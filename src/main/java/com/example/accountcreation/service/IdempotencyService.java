@@ -0,0 +1,261 @@
+package com.example.accountcreation.service;
+
+import com.example.accountcreation.dto.AccountRequestDto;
+import com.example.accountcreation.dto.AccountResponseDto;
+import com.example.accountcreation.model.AccountRequest;
+import com.example.accountcreation.repository.AccountRequestRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Deduplicates {@code POST /api/accounts} retries that carry the same {@code Idempotency-Key}.
+ *
+ * Keys live in a bounded Caffeine map (a lock-free concurrent hash map underneath) for
+ * {@code ttl-ms}. The first request with a key claims it with {@code putIfAbsent} and creates the
+ * account request; duplicates arriving meanwhile wait up to {@code in-flight-timeout-ms} for its
+ * result, later ones get the cached response at once. Either way no second row, process or
+ * notification is created. If the original fails, its key is released and the next duplicate
+ * runs as a new original.
+ *
+ * The key is also stored in a unique column of the request, which covers duplicates that reach
+ * another node or arrive after the local entry expired: the claiming request first looks the key
+ * up, and an insert that loses a race fails on the unique constraint and answers with the
+ * winner's row instead. Answers from the database reflect the request's current status.
+ *
+ * A key reused with a different name, zip code, age or phone number is rejected.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    @Autowired
+    private SimplifiedAccountCreationService accountCreationService;
+
+    @Autowired
+    private AccountRequestRepository accountRequestRepository;
+
+    @Value("${accounts.idempotency.ttl-ms:86400000}")
+    private long ttlMs;
+
+    @Value("${accounts.idempotency.max-size:100000}")
+    private long maxSize;
+
+    @Value("${accounts.idempotency.in-flight-timeout-ms:10000}")
+    private long inFlightTimeoutMs;
+
+    private Cache<String, Entry> entries;
+
+    private final LongAdder createdCount = new LongAdder();
+    private final LongAdder replayedCount = new LongAdder();
+    private final LongAdder waitedCount = new LongAdder();
+    private final LongAdder conflictCount = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        entries = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(Duration.ofMillis(ttlMs))
+            .build();
+    }
+
+    /**
+     * Creates the account request, or returns the response of the request already created with
+     * this key.
+     *
+     * @throws IllegalArgumentException if the key is blank or longer than {@value #MAX_KEY_LENGTH}
+     * @throws IdempotencyConflictException if the key belongs to a different request, or its
+     *         original is still running after {@code in-flight-timeout-ms}
+     */
+    public Result createAccountRequest(String idempotencyKey, AccountRequestDto requestDto) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String fingerprint = fingerprint(requestDto.getName(), requestDto.getZipCode(),
+                                         requestDto.getAge(), requestDto.getPhoneNumber());
+        while (true) {
+            Entry claimed = new Entry(fingerprint);
+            Entry existing = entries.asMap().putIfAbsent(idempotencyKey, claimed);
+            if (existing == null) {
+                return createOrReplay(idempotencyKey, requestDto, claimed);
+            }
+            checkFingerprint(idempotencyKey, existing.fingerprint, fingerprint);
+            if (!existing.response.isDone()) {
+                waitedCount.increment();
+            }
+            AccountResponseDto response = await(idempotencyKey, existing);
+            if (response != null) {
+                replayedCount.increment();
+                return new Result(response, true);
+            }
+            // The original failed and released the key; this request becomes the original
+        }
+    }
+
+    public Stats getStats() {
+        return new Stats(entries.estimatedSize(), maxSize, ttlMs, createdCount.sum(), replayedCount.sum(),
+                         waitedCount.sum(), conflictCount.sum());
+    }
+
+    private Result createOrReplay(String idempotencyKey, AccountRequestDto requestDto, Entry claimed) {
+        try {
+            Result result;
+            Optional<AccountRequest> stored = accountRequestRepository.findByIdempotencyKey(idempotencyKey);
+            if (stored.isPresent()) {
+                result = replay(idempotencyKey, stored.get(), claimed.fingerprint);
+            } else {
+                try {
+                    result = new Result(accountCreationService.createAccountRequest(requestDto, idempotencyKey), false);
+                    createdCount.increment();
+                } catch (DataIntegrityViolationException e) {
+                    // Another node inserted the key first
+                    AccountRequest winner = accountRequestRepository.findByIdempotencyKey(idempotencyKey)
+                        .orElseThrow(() -> e);
+                    logger.info("Idempotency-Key {} was created concurrently as request {}", idempotencyKey, winner.getId());
+                    result = replay(idempotencyKey, winner, claimed.fingerprint);
+                }
+            }
+            claimed.response.complete(result.getResponse());
+            return result;
+        } catch (RuntimeException e) {
+            entries.asMap().remove(idempotencyKey, claimed);
+            claimed.response.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private Result replay(String idempotencyKey, AccountRequest stored, String fingerprint) {
+        checkFingerprint(idempotencyKey,
+                         fingerprint(stored.getName(), stored.getZipCode(), stored.getAge(), stored.getPhoneNumber()),
+                         fingerprint);
+        replayedCount.increment();
+        return new Result(accountCreationService.convertToResponseDto(stored), true);
+    }
+
+    /**
+     * Waits for the original's response; null if the original failed.
+     */
+    private AccountResponseDto await(String idempotencyKey, Entry entry) {
+        try {
+            return entry.response.get(inFlightTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            return null;
+        } catch (TimeoutException e) {
+            conflictCount.increment();
+            throw new IdempotencyConflictException(
+                "Request with Idempotency-Key " + idempotencyKey + " is still being processed", false);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted waiting for request with Idempotency-Key " + idempotencyKey, e);
+        }
+    }
+
+    private void checkFingerprint(String idempotencyKey, String original, String candidate) {
+        if (!original.equals(candidate)) {
+            conflictCount.increment();
+            throw new IdempotencyConflictException(
+                "Idempotency-Key " + idempotencyKey + " was already used for a different request", true);
+        }
+    }
+
+    private static String fingerprint(String name, String zipCode, Integer age, String phoneNumber) {
+        return name + '\u0000' + zipCode + '\u0000' + Objects.toString(age) + '\u0000' + phoneNumber;
+    }
+
+    private static final class Entry {
+        private final String fingerprint;
+        private final CompletableFuture<AccountResponseDto> response = new CompletableFuture<>();
+
+        Entry(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+
+    public static class Result {
+        private final AccountResponseDto response;
+        private final boolean replayed;
+
+        public Result(AccountResponseDto response, boolean replayed) {
+            this.response = response;
+            this.replayed = replayed;
+        }
+
+        public AccountResponseDto getResponse() {
+            return response;
+        }
+
+        /**
+         * True when the request was not created by this call.
+         */
+        public boolean isReplayed() {
+            return replayed;
+        }
+    }
+
+    public static class Stats {
+        private final long size;
+        private final long maxSize;
+        private final long ttlMs;
+        private final long createdCount;
+        private final long replayedCount;
+        private final long waitedCount;
+        private final long conflictCount;
+
+        public Stats(long size, long maxSize, long ttlMs, long createdCount, long replayedCount,
+                     long waitedCount, long conflictCount) {
+            this.size = size;
+            this.maxSize = maxSize;
+            this.ttlMs = ttlMs;
+            this.createdCount = createdCount;
+            this.replayedCount = replayedCount;
+            this.waitedCount = waitedCount;
+            this.conflictCount = conflictCount;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getMaxSize() {
+            return maxSize;
+        }
+
+        public long getTtlMs() {
+            return ttlMs;
+        }
+
+        public long getCreatedCount() {
+            return createdCount;
+        }
+
+        public long getReplayedCount() {
+            return replayedCount;
+        }
+
+        public long getWaitedCount() {
+            return waitedCount;
+        }
+
+        public long getConflictCount() {
+            return conflictCount;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.accountcreation.service;
+
+import com.example.accountcreation.dto.AccountResponseDto;
+import com.example.accountcreation.dto.BulkManualDecisionDto;
+import com.example.accountcreation.dto.ManualDecisionDto;
+import com.example.accountcreation.dto.ManualReviewClaimDto;
+import com.example.accountcreation.dto.ManualReviewDto;
+import com.example.accountcreation.model.AccountRequest;
+import com.example.accountcreation.repository.AccountRequestRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Work queue of the manual review user task.
+ *
+ * Reviewers claim the next reviews in batches. A claim leases the oldest unleased MANUAL_REVIEW
+ * requests to the reviewer for {@code lease-duration-ms} with one conditional update, so two
+ * reviewers never get the same request and nobody reads the whole review set. The update stamps
+ * the rows with a random lease token, by which the claim then reads back exactly the rows it won,
+ * whatever the precision of the timestamp columns or how many claims one reviewer makes at once.
+ * A lease that runs out without a decision makes the request claimable again.
+ *
+ * Decisions are submitted in bulk and applied in one transaction: every request must be leased
+ * to the submitting reviewer, and when a decision carries the version from the claim, the request
+ * must not have changed since. Any conflict rejects the whole batch. Concurrent writes are caught
+ * by the optimistic version check on {@link AccountRequest}.
+ */
+@Service
+public class ManualReviewService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ManualReviewService.class);
+    
+    @Autowired
+    private AccountRequestRepository accountRequestRepository;
+    
+    @Autowired
+    private SimplifiedAccountCreationService accountCreationService;
+    
+    @Value("${accounts.review.lease-duration-ms:300000}")
+    private long leaseDurationMs;
+    
+    @Value("${accounts.review.claim-size:10}")
+    private int defaultClaimSize;
+    
+    @Value("${accounts.review.max-claim-size:100}")
+    private int maxClaimSize;
+    
+    @Transactional
+    public ManualReviewClaimDto claim(String reviewer, Integer limit) {
+        if (reviewer == null || reviewer.isBlank()) {
+            throw new IllegalArgumentException("reviewer is required");
+        }
+        int size = claimSize(limit);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime leaseExpiresAt = now.plus(leaseDurationMs, ChronoUnit.MILLIS);
+        String token = UUID.randomUUID().toString();
+        
+        List<Long> candidates = accountRequestRepository.findClaimableReviewIds(now, PageRequest.of(0, size));
+        List<ManualReviewDto> reviews = new ArrayList<>(candidates.size());
+        if (!candidates.isEmpty()
+                && accountRequestRepository.claimReviews(candidates, reviewer, token, leaseExpiresAt, now) > 0) {
+            // Candidates claimed concurrently by another reviewer are simply not returned
+            for (AccountRequest request : accountRequestRepository.findLeasedReviews(candidates, token)) {
+                reviews.add(new ManualReviewDto(request));
+            }
+        }
+        logger.info("Leased {} manual reviews to {} until {}", reviews.size(), reviewer, leaseExpiresAt);
+        return new ManualReviewClaimDto(reviewer, leaseExpiresAt, reviews);
+    }
+    
+    /**
+     * Applies all decisions of one reviewer in one transaction and runs each request's process on
+     * from the manual review.
+     *
+     * @throws ReviewConflictException if a request is not leased to the reviewer or changed since it was claimed
+     */
+    @Transactional
+    public List<AccountResponseDto> decide(BulkManualDecisionDto bulk) {
+        LocalDateTime now = LocalDateTime.now();
+        List<ManualDecisionDto> decisions = bulk.getDecisions();
+        Map<Long, AccountRequest> requests = new HashMap<>();
+        for (AccountRequest request : accountRequestRepository.findAllById(
+                decisions.stream().map(ManualDecisionDto::getId).toList())) {
+            requests.put(request.getId(), request);
+        }
+        
+        List<AccountRequest> leased = new ArrayList<>(decisions.size());
+        for (ManualDecisionDto decision : decisions) {
+            AccountRequest request = requests.remove(decision.getId());
+            if (request == null) {
+                throw new RuntimeException("Account request not found or listed twice: " + decision.getId());
+            }
+            if (!bulk.getReviewer().equals(request.getReviewer()) || request.getReviewLeaseExpiresAt() == null
+                    || request.getReviewLeaseExpiresAt().isBefore(now)) {
+                throw new ReviewConflictException("Account request " + request.getId()
+                    + " is not leased to " + bulk.getReviewer());
+            }
+            if (decision.getVersion() != null && !decision.getVersion().equals(request.getVersion())) {
+                throw new ReviewConflictException("Account request " + request.getId() + " changed since it was claimed");
+            }
+            leased.add(request);
+        }
+        
+        List<AccountResponseDto> results = new ArrayList<>(decisions.size());
+        for (int i = 0; i < decisions.size(); i++) {
+            AccountRequest request = leased.get(i);
+            request.setReviewLeaseExpiresAt(null);
+            request.setReviewLeaseToken(null);
+            ManualDecisionDto decision = decisions.get(i);
+            AccountRequest decided = accountCreationService.completeManualReview(
+                request, decision.getDecision(), decision.getReason());
+            results.add(accountCreationService.convertToResponseDto(decided));
+        }
+        logger.info("Applied {} manual review decisions of {}", results.size(), bulk.getReviewer());
+        return results;
+    }
+    
+    private int claimSize(Integer limit) {
+        if (limit == null) {
+            return defaultClaimSize;
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        return Math.min(limit, maxClaimSize);
+    }
+}
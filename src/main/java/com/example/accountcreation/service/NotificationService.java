@@ -0,0 +1,66 @@
+package com.example.accountcreation.service;
+
+import com.example.accountcreation.model.AccountRequest;
+import com.example.accountcreation.notification.Notification;
+import com.example.accountcreation.notification.NotificationDispatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+
+@Service
+public class NotificationService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(NotificationService.class);
+    
+    @Autowired
+    private NotificationDispatcher notificationDispatcher;
+    
+    /**
+     * Queues the notification for the request's current status. Delivery is asynchronous; inside
+     * a transaction the notification is only queued once it commits, so a rolled-back status
+     * change is never announced.
+     */
+    public void sendNotification(AccountRequest request) {
+        Notification notification = new Notification(request.getId(), request.getName(), request.getPhoneNumber(),
+                                                     request.getStatus(), generateNotificationMessage(request),
+                                                     LocalDateTime.now());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            submit(notification);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                submit(notification);
+            }
+        });
+    }
+    
+    private void submit(Notification notification) {
+        if (notificationDispatcher.submit(notification)) {
+            logger.debug("Notification queued for request ID: {}", notification.getRequestId());
+        }
+    }
+    
+    String generateNotificationMessage(AccountRequest request) {
+        switch (request.getStatus()) {
+            case AUTO_APPROVED:
+                return "Your account has been automatically approved!";
+            case AUTO_REJECTED:
+                return "Your account application has been rejected. Reason: " + request.getRejectionReason();
+            case MANUAL_REVIEW:
+                return "Your account application is under manual review. You will be notified once a decision is made.";
+            case MANUALLY_APPROVED:
+                return "Your account has been approved after review!";
+            case MANUALLY_REJECTED:
+                return "Your account application has been rejected after review. Reason: " + request.getRejectionReason();
+            default:
+                return "Your account application status has been updated.";
+        }
+    }
+}
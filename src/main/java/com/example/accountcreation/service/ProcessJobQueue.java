@@ -0,0 +1,268 @@
+package com.example.accountcreation.service;
+
+import com.example.accountcreation.model.ProcessJob;
+import com.example.accountcreation.model.ProcessJobStatus;
+import com.example.accountcreation.repository.ProcessJobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Database-backed queue of account process jobs.
+ *
+ * Jobs are inserted in the same transaction as their account request, so a request is never
+ * committed without the work that decides it. Workers on any node claim jobs in batches by
+ * leasing them: a conditional update moves claimable rows to LEASED under a fresh lease token,
+ * and only the rows that update touched belong to the claimer. This gives the same
+ * non-blocking, no-double-claim behaviour as {@code SELECT ... FOR UPDATE SKIP LOCKED} on every
+ * database, including H2. The lease token also fences completion: a worker whose lease expired
+ * and was reclaimed elsewhere can no longer complete or fail the job.
+ *
+ * A job that fails is retried with exponential backoff and dead-lettered after
+ * {@code max-attempts}. A node that dies stops heartbeating, its leases expire and other workers
+ * pick the jobs up again; those reclaims count as attempts too, so a job that crashes its worker
+ * every time ends up dead-lettered instead of looping forever: once its lease expires on the last
+ * attempt, the next claim moves it to DEAD instead of leasing it again.
+ */
+@Service
+public class ProcessJobQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProcessJobQueue.class);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    @Autowired
+    private ProcessJobRepository processJobRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${accounts.process.queue.enabled:true}")
+    private boolean enabled;
+
+    @Value("${accounts.process.queue.lease-duration-ms:30000}")
+    private long leaseDurationMs;
+
+    @Value("${accounts.process.queue.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${accounts.process.queue.backoff-initial-ms:1000}")
+    private long backoffInitialMs;
+
+    @Value("${accounts.process.queue.backoff-max-ms:60000}")
+    private long backoffMaxMs;
+
+    private final String nodeId = ManagementFactory.getRuntimeMXBean().getName()
+        + "/" + UUID.randomUUID().toString().substring(0, 8);
+
+    private final LongAdder claimed = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder deadLettered = new LongAdder();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Adds a job for the request to the caller's transaction. Workers are woken once it commits.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public ProcessJob enqueue(Long requestId) {
+        ProcessJob job = processJobRepository.save(new ProcessJob(requestId));
+        eventPublisher.publishEvent(new JobsEnqueued(1));
+        return job;
+    }
+
+    /**
+     * Leases up to {@code limit} jobs that are due, or whose lease has expired, to this node.
+     * Expired jobs already at {@code max-attempts} are dead-lettered instead.
+     */
+    @Transactional
+    public List<ProcessJob> claim(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        int expired = processJobRepository.deadLetterExpired(
+            now, maxAttempts, "Lease expired on attempt " + maxAttempts + " without the job completing or failing");
+        if (expired > 0) {
+            deadLettered.add(expired);
+            logger.error("Dead-lettered {} process jobs whose lease expired after {} attempts", expired, maxAttempts);
+        }
+        List<Long> candidates = processJobRepository.findClaimableIds(now, maxAttempts, PageRequest.of(0, limit));
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+        String token = UUID.randomUUID().toString();
+        int leased = processJobRepository.claim(
+            candidates, nodeId, token, now.plus(leaseDurationMs, ChronoUnit.MILLIS), now, maxAttempts);
+        if (leased == 0) {
+            return List.of();
+        }
+        claimed.add(leased);
+        return processJobRepository.findByLeaseToken(token);
+    }
+
+    @Transactional
+    public void complete(ProcessJob job) {
+        if (processJobRepository.deleteLeased(job.getId(), job.getLeaseToken()) == 0) {
+            logger.warn("Lease on process job {} was lost before it completed", job.getId());
+            return;
+        }
+        completed.increment();
+    }
+
+    @Transactional
+    public void fail(ProcessJob job, Throwable error) {
+        String message = describe(error);
+        if (job.getAttempts() >= maxAttempts) {
+            if (processJobRepository.releaseLeased(job.getId(), job.getLeaseToken(),
+                    ProcessJobStatus.DEAD, LocalDateTime.now(), message) > 0) {
+                deadLettered.increment();
+                logger.error("Process job {} for request {} dead-lettered after {} attempts: {}",
+                            job.getId(), job.getRequestId(), job.getAttempts(), message);
+            }
+            return;
+        }
+        long delayMs = backoffDelayMs(job.getAttempts());
+        if (processJobRepository.releaseLeased(job.getId(), job.getLeaseToken(),
+                ProcessJobStatus.READY, LocalDateTime.now().plus(delayMs, ChronoUnit.MILLIS), message) > 0) {
+            retried.increment();
+            logger.warn("Process job {} for request {} failed (attempt {}), retrying in {} ms: {}",
+                       job.getId(), job.getRequestId(), job.getAttempts(), delayMs, message);
+        }
+    }
+
+    /**
+     * Extends every lease this node holds. Called periodically while jobs are running.
+     */
+    @Transactional
+    public int heartbeat() {
+        return processJobRepository.extendLeases(nodeId, LocalDateTime.now().plus(leaseDurationMs, ChronoUnit.MILLIS));
+    }
+
+    @Transactional
+    public int requeueDeadLetters() {
+        int requeued = processJobRepository.requeueDead(LocalDateTime.now());
+        if (requeued > 0) {
+            logger.info("Requeued {} dead-lettered process jobs", requeued);
+            eventPublisher.publishEvent(new JobsEnqueued(requeued));
+        }
+        return requeued;
+    }
+
+    @Transactional(readOnly = true)
+    public Stats getStats() {
+        Map<ProcessJobStatus, Long> counts = new EnumMap<>(ProcessJobStatus.class);
+        for (Object[] row : processJobRepository.countByStatus()) {
+            counts.put((ProcessJobStatus) row[0], (Long) row[1]);
+        }
+        return new Stats(
+            nodeId,
+            counts.getOrDefault(ProcessJobStatus.READY, 0L),
+            counts.getOrDefault(ProcessJobStatus.LEASED, 0L),
+            counts.getOrDefault(ProcessJobStatus.DEAD, 0L),
+            claimed.sum(),
+            completed.sum(),
+            retried.sum(),
+            deadLettered.sum());
+    }
+
+    long backoffDelayMs(int attempts) {
+        int shift = Math.min(Math.max(attempts - 1, 0), 30);
+        return Math.min(backoffMaxMs, backoffInitialMs << shift);
+    }
+
+    private static String describe(Throwable error) {
+        String message = error.getClass().getSimpleName() + ": " + error.getMessage();
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+
+    /**
+     * Published when jobs become claimable; delivered to listeners after the enqueuing
+     * transaction commits.
+     */
+    public static class JobsEnqueued {
+        private final int count;
+
+        public JobsEnqueued(int count) {
+            this.count = count;
+        }
+
+        public int getCount() {
+            return count;
+        }
+    }
+
+    public static class Stats {
+        private final String nodeId;
+        private final long readyCount;
+        private final long leasedCount;
+        private final long deadCount;
+        private final long claimedCount;
+        private final long completedCount;
+        private final long retriedCount;
+        private final long deadLetteredCount;
+
+        public Stats(String nodeId, long readyCount, long leasedCount, long deadCount,
+                     long claimedCount, long completedCount, long retriedCount, long deadLetteredCount) {
+            this.nodeId = nodeId;
+            this.readyCount = readyCount;
+            this.leasedCount = leasedCount;
+            this.deadCount = deadCount;
+            this.claimedCount = claimedCount;
+            this.completedCount = completedCount;
+            this.retriedCount = retriedCount;
+            this.deadLetteredCount = deadLetteredCount;
+        }
+
+        public String getNodeId() {
+            return nodeId;
+        }
+
+        public long getReadyCount() {
+            return readyCount;
+        }
+
+        public long getLeasedCount() {
+            return leasedCount;
+        }
+
+        public long getDeadCount() {
+            return deadCount;
+        }
+
+        public long getClaimedCount() {
+            return claimedCount;
+        }
+
+        public long getCompletedCount() {
+            return completedCount;
+        }
+
+        public long getRetriedCount() {
+            return retriedCount;
+        }
+
+        public long getDeadLetteredCount() {
+            return deadLetteredCount;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.accountcreation.service;
+
+import com.example.accountcreation.metrics.LatencyHistogram;
+import com.example.accountcreation.model.ProcessJob;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pulls jobs from the {@link ProcessJobQueue} and runs them on the {@link AccountProcessExecutor}.
+ *
+ * Each worker loop first reserves as many executor slots as are free (up to {@code batch-size}),
+ * then claims at most that many jobs in one round trip, so a node never leases work it has no
+ * capacity to run and everything else stays claimable by other nodes. Loops sleep for
+ * {@code poll-interval-ms} when idle and are woken early when this node enqueues a job. A heartbeat
+ * extends this node's leases every {@code heartbeat-interval-ms} for as long as it is running.
+ */
+@Component
+public class ProcessJobWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProcessJobWorker.class);
+
+    @Autowired
+    private ProcessJobQueue processJobQueue;
+
+    @Autowired
+    private AccountProcessExecutor processExecutor;
+
+    @Autowired
+    private SimplifiedAccountCreationService accountCreationService;
+
+    @Value("${accounts.process.queue.workers:2}")
+    private int workers;
+
+    @Value("${accounts.process.queue.batch-size:20}")
+    private int batchSize;
+
+    @Value("${accounts.process.queue.poll-interval-ms:500}")
+    private long pollIntervalMs;
+
+    @Value("${accounts.process.queue.heartbeat-interval-ms:10000}")
+    private long heartbeatIntervalMs;
+
+    private final Semaphore wakeUps = new Semaphore(0);
+    private final List<Thread> threads = new ArrayList<>();
+    private ScheduledExecutorService heartbeats;
+    private volatile boolean running;
+    private final LatencyHistogram jobWait = new LatencyHistogram();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!processJobQueue.isEnabled() || running) {
+            return;
+        }
+        running = true;
+        for (int i = 1; i <= workers; i++) {
+            Thread thread = new Thread(this::pollLoop, "process-job-worker-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+        heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "process-job-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeats.scheduleWithFixedDelay(this::heartbeat, heartbeatIntervalMs, heartbeatIntervalMs, TimeUnit.MILLISECONDS);
+        logger.info("Process job workers started: node={}, workers={}, batchSize={}",
+                   processJobQueue.getNodeId(), workers, batchSize);
+    }
+
+    @TransactionalEventListener
+    public void onJobsEnqueued(ProcessJobQueue.JobsEnqueued event) {
+        wakeUps.release(Math.min(event.getCount(), workers));
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        // Once heartbeats stop, leases of jobs that never finish here expire and other nodes reclaim them
+        heartbeats.shutdownNow();
+        wakeUps.release(threads.size());
+        for (Thread thread : threads) {
+            try {
+                thread.join(pollIntervalMs + 1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        threads.clear();
+    }
+
+    private void pollLoop() {
+        while (running) {
+            try {
+                int claimed = pollOnce();
+                if (claimed == 0) {
+                    wakeUps.tryAcquire(pollIntervalMs, TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Process job worker failed to poll the queue", e);
+                sleepQuietly();
+            }
+        }
+    }
+
+    /**
+     * Claims and dispatches one batch.
+     *
+     * @return the number of jobs claimed
+     */
+    int pollOnce() {
+        List<AccountProcessExecutor.Slot> slots = new ArrayList<>(batchSize);
+        AccountProcessExecutor.Slot slot;
+        while (slots.size() < batchSize && (slot = processExecutor.tryReserve()) != null) {
+            slots.add(slot);
+        }
+        if (slots.isEmpty()) {
+            return 0;
+        }
+
+        List<ProcessJob> jobs;
+        try {
+            jobs = processJobQueue.claim(slots.size());
+        } catch (RuntimeException e) {
+            slots.forEach(AccountProcessExecutor.Slot::release);
+            throw e;
+        }
+        for (int i = jobs.size(); i < slots.size(); i++) {
+            slots.get(i).release();
+        }
+        for (int i = 0; i < jobs.size(); i++) {
+            ProcessJob job = jobs.get(i);
+            slots.get(i).execute(() -> runJob(job));
+        }
+        if (!jobs.isEmpty()) {
+            logger.debug("Claimed {} process jobs", jobs.size());
+        }
+        return jobs.size();
+    }
+
+    /**
+     * Time from a job becoming runnable (enqueued, or its retry backoff elapsed) to its process starting.
+     */
+    public LatencyHistogram.Snapshot getJobWait() {
+        return jobWait.snapshot();
+    }
+
+    private void runJob(ProcessJob job) {
+        jobWait.record(Duration.between(job.getAvailableAt(), LocalDateTime.now()).toNanos());
+        try {
+            accountCreationService.executeAccountCreationProcess(job.getRequestId());
+        } catch (RuntimeException e) {
+            processJobQueue.fail(job, e);
+            throw e;
+        }
+        processJobQueue.complete(job);
+    }
+
+    private void heartbeat() {
+        try {
+            int extended = processJobQueue.heartbeat();
+            if (extended > 0) {
+                logger.debug("Extended {} process job leases", extended);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Process job heartbeat failed", e);
+        }
+    }
+
+    private void sleepQuietly() {
+        try {
+            Thread.sleep(pollIntervalMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.accountcreation.service;
+
+/**
+ * Thrown when the account process executor has no capacity left for another process instance.
+ * Carries the delay clients should wait before retrying.
+ */
+public class ProcessRejectedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ProcessRejectedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
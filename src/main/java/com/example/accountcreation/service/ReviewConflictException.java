@@ -0,0 +1,12 @@
+package com.example.accountcreation.service;
+
+/**
+ * Thrown when a manual review decision cannot be applied because the reviewer does not hold an
+ * active lease on the request, or the request changed since the reviewer claimed it.
+ */
+public class ReviewConflictException extends RuntimeException {
+
+    public ReviewConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,323 @@
+package com.example.accountcreation.service;
+
+import com.example.accountcreation.dto.AccountResponseDto;
+import com.example.accountcreation.rules.CompiledRuleSet;
+import com.example.accountcreation.rules.RequestColumns;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One what-if replay: historical requests, archived ones included, decided by both the active
+ * (baseline) and a candidate rule set, counted per pair of outcomes. Pages are evaluated concurrently by
+ * {@link RuleReplayService}'s workers; each fills its own reused column buffers and merges its
+ * page's counts into the shared matrix once.
+ */
+public class RuleReplayJob {
+
+    public enum State {
+        RUNNING,
+        COMPLETED,
+        FAILED,
+        CANCELLED
+    }
+
+    private final String id;
+    private final CompiledRuleSet baseline;
+    private final CompiledRuleSet candidate;
+    private final long totalRows;
+    private final long archivedRows;
+    private final int archivedBlocks;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private final ThreadLocal<Buffers> buffers;
+
+    // Outcome pair counts, [baseline outcome][candidate outcome]; guarded by itself
+    private final long[][] outcomes;
+    private final AtomicLong processedRows = new AtomicLong();
+    private volatile State state = State.RUNNING;
+    private volatile LocalDateTime finishedAt;
+    private volatile String error;
+
+    RuleReplayJob(String id, CompiledRuleSet baseline, CompiledRuleSet candidate, long totalRows, long archivedRows,
+                  int archivedBlocks, int pageSize) {
+        this.id = id;
+        this.baseline = baseline;
+        this.candidate = candidate;
+        this.totalRows = totalRows;
+        this.archivedRows = archivedRows;
+        this.archivedBlocks = archivedBlocks;
+        this.outcomes = new long[baseline.size()][candidate.size()];
+        this.buffers = ThreadLocal.withInitial(() -> new Buffers(pageSize));
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Archive blocks to replay after the database, those that existed when the replay started.
+     */
+    int getArchivedBlocks() {
+        return archivedBlocks;
+    }
+
+    void evaluate(List<AccountResponseDto> page) {
+        Buffers buffer = buffers.get();
+        RequestColumns columns = buffer.columns;
+        columns.clear();
+        for (AccountResponseDto row : page) {
+            columns.add(row.getAge(), row.getZipCode(), row.getPhoneNumber(), row.getName());
+        }
+        baseline.evaluateBatch(columns, null, buffer.baselineOutcomes);
+        candidate.evaluateBatch(columns, null, buffer.candidateOutcomes);
+
+        long[][] counts = new long[outcomes.length][outcomes[0].length];
+        for (int row = 0; row < columns.size(); row++) {
+            counts[buffer.baselineOutcomes[row]][buffer.candidateOutcomes[row]]++;
+        }
+        synchronized (outcomes) {
+            for (int i = 0; i < counts.length; i++) {
+                for (int j = 0; j < counts[i].length; j++) {
+                    outcomes[i][j] += counts[i][j];
+                }
+            }
+        }
+        processedRows.addAndGet(columns.size());
+    }
+
+    void complete() {
+        finish(State.COMPLETED, null);
+    }
+
+    void fail(Throwable cause) {
+        finish(State.FAILED, cause.getClass().getSimpleName() + ": " + cause.getMessage());
+    }
+
+    void cancel() {
+        finish(State.CANCELLED, null);
+    }
+
+    boolean isRunning() {
+        return state == State.RUNNING;
+    }
+
+    private synchronized void finish(State outcome, String message) {
+        if (state == State.RUNNING) {
+            state = outcome;
+            error = message;
+            finishedAt = LocalDateTime.now();
+        }
+    }
+
+    public Report report() {
+        long[][] snapshot = new long[outcomes.length][];
+        synchronized (outcomes) {
+            for (int i = 0; i < outcomes.length; i++) {
+                snapshot[i] = outcomes[i].clone();
+            }
+        }
+        Map<GoRulesService.DecisionResult, Map<GoRulesService.DecisionResult, Long>> decisions =
+            new EnumMap<>(GoRulesService.DecisionResult.class);
+        List<OutcomeChange> changes = new ArrayList<>();
+        long changedRows = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            GoRulesService.DecisionResponse before = baseline.getResponse(i);
+            for (int j = 0; j < snapshot[i].length; j++) {
+                long count = snapshot[i][j];
+                if (count == 0) {
+                    continue;
+                }
+                GoRulesService.DecisionResponse after = candidate.getResponse(j);
+                decisions.computeIfAbsent(before.getDecision(), d -> new EnumMap<>(GoRulesService.DecisionResult.class))
+                         .merge(after.getDecision(), count, Long::sum);
+                if (before.getDecision() != after.getDecision() || !before.getReason().equals(after.getReason())) {
+                    changedRows += count;
+                    changes.add(new OutcomeChange(baseline.getRuleId(i), before, candidate.getRuleId(j), after, count));
+                }
+            }
+        }
+        changes.sort((a, b) -> Long.compare(b.count, a.count));
+        return new Report(id, state, baseline.getVersion(), candidate.getVersion(), totalRows, archivedRows,
+                          processedRows.get(), changedRows, startedAt, finishedAt, error, decisions, changes);
+    }
+
+    private static final class Buffers {
+        private final RequestColumns columns;
+        private final byte[] baselineOutcomes;
+        private final byte[] candidateOutcomes;
+
+        Buffers(int pageSize) {
+            this.columns = new RequestColumns(pageSize);
+            this.baselineOutcomes = new byte[pageSize];
+            this.candidateOutcomes = new byte[pageSize];
+        }
+    }
+
+    /**
+     * Requests whose decision or reason differs between the two rule sets, for one pair of rules.
+     */
+    public static class OutcomeChange {
+        private final String baselineRule;
+        private final GoRulesService.DecisionResult baselineDecision;
+        private final String baselineReason;
+        private final String candidateRule;
+        private final GoRulesService.DecisionResult candidateDecision;
+        private final String candidateReason;
+        private final long count;
+
+        OutcomeChange(String baselineRule, GoRulesService.DecisionResponse baseline,
+                      String candidateRule, GoRulesService.DecisionResponse candidate, long count) {
+            this.baselineRule = baselineRule;
+            this.baselineDecision = baseline.getDecision();
+            this.baselineReason = baseline.getReason();
+            this.candidateRule = candidateRule;
+            this.candidateDecision = candidate.getDecision();
+            this.candidateReason = candidate.getReason();
+            this.count = count;
+        }
+
+        public String getBaselineRule() {
+            return baselineRule;
+        }
+
+        public GoRulesService.DecisionResult getBaselineDecision() {
+            return baselineDecision;
+        }
+
+        public String getBaselineReason() {
+            return baselineReason;
+        }
+
+        public String getCandidateRule() {
+            return candidateRule;
+        }
+
+        public GoRulesService.DecisionResult getCandidateDecision() {
+            return candidateDecision;
+        }
+
+        public String getCandidateReason() {
+            return candidateReason;
+        }
+
+        public long getCount() {
+            return count;
+        }
+    }
+
+    public static class Report {
+        private final String id;
+        private final State state;
+        private final String baselineVersion;
+        private final String candidateVersion;
+        private final long totalRows;
+        private final long archivedRows;
+        private final long processedRows;
+        private final long changedRows;
+        private final LocalDateTime startedAt;
+        private final LocalDateTime finishedAt;
+        private final String error;
+        private final Map<GoRulesService.DecisionResult, Map<GoRulesService.DecisionResult, Long>> decisions;
+        private final List<OutcomeChange> changes;
+
+        public Report(String id, State state, String baselineVersion, String candidateVersion,
+                      long totalRows, long archivedRows, long processedRows, long changedRows,
+                      LocalDateTime startedAt, LocalDateTime finishedAt, String error,
+                      Map<GoRulesService.DecisionResult, Map<GoRulesService.DecisionResult, Long>> decisions,
+                      List<OutcomeChange> changes) {
+            this.id = id;
+            this.state = state;
+            this.baselineVersion = baselineVersion;
+            this.candidateVersion = candidateVersion;
+            this.totalRows = totalRows;
+            this.archivedRows = archivedRows;
+            this.processedRows = processedRows;
+            this.changedRows = changedRows;
+            this.startedAt = startedAt;
+            this.finishedAt = finishedAt;
+            this.error = error;
+            this.decisions = decisions;
+            this.changes = changes;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public State getState() {
+            return state;
+        }
+
+        public String getBaselineVersion() {
+            return baselineVersion;
+        }
+
+        public String getCandidateVersion() {
+            return candidateVersion;
+        }
+
+        /**
+         * Row count when the replay started, archived requests included; rows inserted since are
+         * replayed too.
+         */
+        public long getTotalRows() {
+            return totalRows;
+        }
+
+        /**
+         * Requests in the archive when the replay started, replayed after the database rows.
+         */
+        public long getArchivedRows() {
+            return archivedRows;
+        }
+
+        public long getProcessedRows() {
+            return processedRows;
+        }
+
+        public double getProgress() {
+            if (state == State.COMPLETED) {
+                return 1.0;
+            }
+            return totalRows == 0 ? 0.0 : Math.min(1.0, (double) processedRows / totalRows);
+        }
+
+        public long getChangedRows() {
+            return changedRows;
+        }
+
+        public LocalDateTime getStartedAt() {
+            return startedAt;
+        }
+
+        public LocalDateTime getFinishedAt() {
+            return finishedAt;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        /**
+         * Baseline decision to candidate decision to number of requests.
+         */
+        public Map<GoRulesService.DecisionResult, Map<GoRulesService.DecisionResult, Long>> getDecisions() {
+            return decisions;
+        }
+
+        /**
+         * Outcome pairs whose decision or reason changed, most frequent first.
+         */
+        public List<OutcomeChange> getChanges() {
+            return changes;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.accountcreation.service;
+
+import com.example.accountcreation.archive.AccountArchive;
+import com.example.accountcreation.blocklist.Blocklists;
+import com.example.accountcreation.dto.AccountResponseDto;
+import com.example.accountcreation.repository.AccountRequestRepository;
+import com.example.accountcreation.rules.CompiledRuleSet;
+import com.example.accountcreation.rules.DecisionTableCompiler;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs what-if replays of a candidate decision table against every stored account request,
+ * including those moved to the {@link AccountArchive}.
+ *
+ * A replay walks the table in keyset pages of {@code page-size} rows, each read in its own short
+ * query, so nothing holds a long transaction or the whole table. It then reads the archive blocks
+ * that existed when it started, one at a time, split into pages of the same size. Requests
+ * archived while the replay runs may be missed or counted twice. The reading thread hands pages
+ * to {@code parallelism} low-priority workers (half the cores by default) and keeps at most two
+ * pages per worker in flight, which bounds memory and leaves the remaining cores to live traffic.
+ * The baseline is a {@link CompiledRuleSet#detached() detached} copy of the active rules, so
+ * replays do not count as live rule hits.
+ *
+ * One replay runs at a time. The last {@code retained-jobs} replays stay available for reporting.
+ */
+@Service
+public class RuleReplayService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RuleReplayService.class);
+
+    @Autowired
+    private AccountRequestRepository accountRequestRepository;
+
+    @Autowired
+    private GoRulesService goRulesService;
+
+    @Autowired
+    private AccountArchive archive;
+
+    @Autowired
+    private Blocklists blocklists;
+
+    @Value("${accounts.replay.page-size:5000}")
+    private int pageSize;
+
+    @Value("${accounts.replay.parallelism:0}")
+    private int parallelism;
+
+    @Value("${accounts.replay.retained-jobs:10}")
+    private int retainedJobs;
+
+    private final AtomicReference<RuleReplayJob> running = new AtomicReference<>();
+    private final Map<String, RuleReplayJob> jobs = new LinkedHashMap<>();
+
+    /**
+     * Compiles the candidate table and starts replaying it in the background.
+     *
+     * @throws IllegalArgumentException if the candidate table does not compile
+     * @throws IllegalStateException if another replay is still running
+     */
+    public RuleReplayJob start(byte[] candidateTable) {
+        CompiledRuleSet candidate = DecisionTableCompiler.compile(candidateTable, blocklists);
+        CompiledRuleSet baseline = goRulesService.getRuleSet().detached();
+        int archivedBlocks = archive.getBlockCount();
+        long archivedRows = archive.getStats().getRequestCount();
+        long totalRows = accountRequestRepository.count() + archivedRows;
+        RuleReplayJob job = new RuleReplayJob(UUID.randomUUID().toString(), baseline, candidate, totalRows,
+                                              archivedRows, archivedBlocks, pageSize);
+        RuleReplayJob current = running.get();
+        if ((current != null && current.isRunning()) || !running.compareAndSet(current, job)) {
+            throw new IllegalStateException("Another rule replay is still running");
+        }
+        retain(job);
+
+        Thread reader = new Thread(() -> run(job), "rule-replay-" + job.getId().substring(0, 8));
+        reader.setDaemon(true);
+        reader.setPriority(Thread.MIN_PRIORITY);
+        reader.start();
+        logger.info("Started rule replay {}: {} against {} over {} requests, {} of them archived",
+                   job.getId(), candidate.getVersion(), baseline.getVersion(), totalRows, archivedRows);
+        return job;
+    }
+
+    public RuleReplayJob getJob(String id) {
+        synchronized (jobs) {
+            return jobs.get(id);
+        }
+    }
+
+    public List<RuleReplayJob> getJobs() {
+        synchronized (jobs) {
+            return new ArrayList<>(jobs.values());
+        }
+    }
+
+    /**
+     * Stops a running replay after the pages in progress.
+     *
+     * @return the job, or null if there is none with this id
+     */
+    public RuleReplayJob cancel(String id) {
+        RuleReplayJob job = getJob(id);
+        if (job != null) {
+            job.cancel();
+        }
+        return job;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        RuleReplayJob job = running.get();
+        if (job != null) {
+            job.cancel();
+        }
+    }
+
+    private void run(RuleReplayJob job) {
+        int workerCount = parallelism > 0 ? parallelism : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "rule-replay-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        // Pages being evaluated or waiting for a worker
+        Semaphore inFlight = new Semaphore(workerCount * 2);
+        try {
+            PageRequest page = PageRequest.of(0, pageSize);
+            List<AccountResponseDto> rows = accountRequestRepository.findResponses(page);
+            while (!rows.isEmpty() && job.isRunning()) {
+                submit(job, workers, inFlight, rows);
+                if (rows.size() < pageSize) {
+                    break;
+                }
+                AccountResponseDto last = rows.get(rows.size() - 1);
+                rows = accountRequestRepository.findResponsesAfter(last.getCreatedAt(), last.getId(), page);
+            }
+            for (int block = 0; block < job.getArchivedBlocks() && job.isRunning(); block++) {
+                List<AccountResponseDto> archived = archive.readBlock(block);
+                for (int from = 0; from < archived.size() && job.isRunning(); from += pageSize) {
+                    submit(job, workers, inFlight, archived.subList(from, Math.min(archived.size(), from + pageSize)));
+                }
+            }
+            workers.shutdown();
+            workers.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            job.complete();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.cancel();
+        } catch (IOException | RuntimeException e) {
+            logger.error("Rule replay {} failed", job.getId(), e);
+            job.fail(e);
+        } finally {
+            workers.shutdownNow();
+        }
+        RuleReplayJob.Report report = job.report();
+        logger.info("Rule replay {} {}: {} requests, {} changed",
+                   job.getId(), report.getState(), report.getProcessedRows(), report.getChangedRows());
+    }
+
+    /**
+     * Hands one page to a worker once fewer than two pages per worker are in flight.
+     */
+    private void submit(RuleReplayJob job, ExecutorService workers, Semaphore inFlight,
+                        List<AccountResponseDto> rows) throws InterruptedException {
+        inFlight.acquire();
+        workers.execute(() -> {
+            try {
+                job.evaluate(rows);
+            } catch (RuntimeException e) {
+                logger.error("Rule replay {} failed", job.getId(), e);
+                job.fail(e);
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    private void retain(RuleReplayJob job) {
+        synchronized (jobs) {
+            jobs.put(job.getId(), job);
+            Iterator<Map.Entry<String, RuleReplayJob>> oldest = jobs.entrySet().iterator();
+            while (jobs.size() > retainedJobs && oldest.hasNext()) {
+                if (oldest.next().getValue().isRunning()) {
+                    continue;
+                }
+                oldest.remove();
+            }
+        }
+    }
+}
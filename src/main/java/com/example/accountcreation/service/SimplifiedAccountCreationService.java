@@ -1,31 +1,75 @@
 package com.example.accountcreation.service;
 
+import com.example.accountcreation.analytics.DecisionAnalytics;
+import com.example.accountcreation.bpmn.ProcessEngine;
+import com.example.accountcreation.bpmn.ProcessExecution;
 import com.example.accountcreation.dto.AccountRequestDto;
 import com.example.accountcreation.dto.AccountResponseDto;
+import com.example.accountcreation.dto.ManualDecisionDto;
+import com.example.accountcreation.journal.DecisionJournal;
 import com.example.accountcreation.model.AccountRequest;
 import com.example.accountcreation.model.AccountStatus;
 import com.example.accountcreation.repository.AccountRequestRepository;
+import com.example.accountcreation.rules.CompiledRuleSet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.List;
-import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collectors;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
 
 @Service
 public class SimplifiedAccountCreationService {
     
     private static final Logger logger = LoggerFactory.getLogger(SimplifiedAccountCreationService.class);
     
+    static final String MANUAL_REVIEW_TASK = "manual-review";
+    
     @Autowired
     private AccountRequestRepository accountRequestRepository;
     
     @Autowired
     private GoRulesService goRulesService;
     
+    @Autowired
+    private AccountProcessExecutor processExecutor;
+    
+    @Autowired
+    private ProcessJobQueue processJobQueue;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private ProcessEngine processEngine;
+    
+    @Autowired
+    private NotificationService notificationService;
+    
+    @Autowired
+    private DecisionJournal decisionJournal;
+    
+    @Autowired
+    private DecisionAnalytics decisionAnalytics;
+    
+    @Value("${accounts.process.fast-path:false}")
+    private boolean fastPath;
+    
     public AccountResponseDto createAccountRequest(AccountRequestDto requestDto) {
+        return createAccountRequest(requestDto, null);
+    }
+    
+    /**
+     * Creates a request stored under a client idempotency key. A second insert with the same key
+     * fails on the unique column with a {@link org.springframework.dao.DataIntegrityViolationException}
+     * before any process or notification starts; see {@link IdempotencyService}.
+     */
+    public AccountResponseDto createAccountRequest(AccountRequestDto requestDto, String idempotencyKey) {
         logger.info("Creating account request for: {}", requestDto.getName());
         
         // Create and save the account request
@@ -35,70 +79,125 @@ public class SimplifiedAccountCreationService {
             requestDto.getAge(),
             requestDto.getPhoneNumber()
         );
+        request.setIdempotencyKey(idempotencyKey);
+        
+        if (!fastPath && processJobQueue.isEnabled()) {
+            return createQueuedAccountRequest(request);
+        }
+        
+        // Reserve process capacity first so a saturated executor rejects before anything is written
+        AccountProcessExecutor.Slot slot = processExecutor.reserve();
+        if (fastPath) {
+            return createDecidedAccountRequest(request, slot);
+        }
         
-        request = accountRequestRepository.save(request);
+        try {
+            request = accountRequestRepository.save(request);
+        } catch (RuntimeException e) {
+            slot.release();
+            throw e;
+        }
         logger.info("Account request saved with ID: {}", request.getId());
         
         // Simulate BPMN process execution asynchronously
         Long requestId = request.getId();
-        CompletableFuture.runAsync(() -> executeAccountCreationProcess(requestId));
+        slot.execute(() -> executeAccountCreationProcess(requestId));
         
         return convertToResponseDto(request);
     }
     
-    private void executeAccountCreationProcess(Long requestId) {
+    /**
+     * Fast path: rule evaluation is pure CPU, so the request is decided before the first insert
+     * and its row is written exactly once, already in its terminal status. Only the notification
+     * runs on the process executor.
+     */
+    private AccountResponseDto createDecidedAccountRequest(AccountRequest request, AccountProcessExecutor.Slot slot) {
+        CompiledRuleSet rules = goRulesService.getRuleSet();
+        GoRulesService.DecisionResponse decision;
         try {
-            logger.info("Starting BPMN-like process for request ID: {}", requestId);
-            
-            // Step 1: Validate Request
-            AccountRequest request = validateRequest(requestId);
-            
-            // Step 2: Apply GoRules
-            GoRulesService.DecisionResponse decision = applyBusinessRules(request);
-            
-            // Step 3: Process based on decision
-            processDecision(request, decision);
-            
-            // Step 4: Send notification
-            sendNotification(request);
-            
-            logger.info("BPMN-like process completed for request ID: {}", requestId);
+            decision = rules.evaluate(request);
+            request.setProcessInstanceId(newProcessInstanceId());
+            applyDecision(request, decision);
+            request = accountRequestRepository.save(request);
+        } catch (RuntimeException e) {
+            slot.release();
+            throw e;
+        }
+        decisionJournal.recordDecision(request, rules.getVersion(), decision);
+        decisionAnalytics.recordDecision(request, decision);
+        logger.info("Account request saved with ID: {}, decided {} - {}",
+                   request.getId(), decision.getDecision(), decision.getReason());
+        
+        AccountRequest decided = request;
+        slot.execute(() -> notificationService.sendNotification(decided));
+        
+        return convertToResponseDto(request);
+    }
+    
+    /**
+     * Durable path: the request and its process job commit together, so a crash after the insert
+     * leaves a job that any node will pick up instead of a request stuck in PENDING.
+     */
+    private AccountResponseDto createQueuedAccountRequest(AccountRequest request) {
+        request.setProcessInstanceId(newProcessInstanceId());
+        AccountRequest saved = new TransactionTemplate(transactionManager).execute(status -> {
+            AccountRequest persisted = accountRequestRepository.save(request);
+            processJobQueue.enqueue(persisted.getId());
+            return persisted;
+        });
+        logger.info("Account request saved with ID: {}, process job queued", saved.getId());
+        
+        return convertToResponseDto(saved);
+    }
+    
+    void executeAccountCreationProcess(Long requestId) {
+        try {
+            logger.info("Starting process {} for request ID: {}", processEngine.getDefinition().getId(), requestId);
+            ProcessExecution execution = processEngine.start(Map.of(AccountProcessTasks.REQUEST_ID, requestId));
+            logger.info("Process for request ID: {} stopped at {} ({})",
+                       requestId, execution.getCurrentNodeId(), execution.getState());
             
-        } catch (Exception e) {
+        } catch (RuntimeException e) {
             logger.error("Error processing account request {}", requestId, e);
+            throw e;
         }
     }
     
-    private AccountRequest validateRequest(Long requestId) {
-        logger.info("Validating request for ID: {}", requestId);
-        
+    /**
+     * Completes the manual review user task of a request waiting in MANUAL_REVIEW and runs its
+     * process on to the end.
+     *
+     * @throws IllegalArgumentException if the request is not waiting for manual review
+     */
+    public AccountResponseDto completeManualReview(Long requestId, ManualDecisionDto.Decision decision, String reason) {
         AccountRequest request = accountRequestRepository.findById(requestId)
                 .orElseThrow(() -> new RuntimeException("Account request not found: " + requestId));
-        
-        // Set process instance ID to simulate BPMN process
-        request.setProcessInstanceId("simplified-process-" + requestId);
-        accountRequestRepository.save(request);
-        
-        logger.info("Request validation completed for: {} (ID: {})", request.getName(), requestId);
-        return request;
+        return convertToResponseDto(completeManualReview(request, decision, reason));
     }
     
-    private GoRulesService.DecisionResponse applyBusinessRules(AccountRequest request) {
-        logger.info("Applying business rules for request ID: {}", request.getId());
-        
-        GoRulesService.DecisionResponse decision = goRulesService.evaluateAccountRequest(request);
-        
-        logger.info("Decision made for request {}: {} - {}", 
-                   request.getId(), 
-                   decision.getDecision().name(), 
-                   decision.getReason());
-        
-        return decision;
+    AccountRequest completeManualReview(AccountRequest request, ManualDecisionDto.Decision decision, String reason) {
+        if (request.getStatus() != AccountStatus.MANUAL_REVIEW) {
+            throw new IllegalArgumentException("Account request " + request.getId() + " is not in manual review");
+        }
+        Map<String, Object> variables = new HashMap<>();
+        variables.put(AccountProcessTasks.REQUEST_ID, request.getId());
+        variables.put(AccountProcessTasks.REQUEST, request);
+        variables.put(AccountProcessTasks.MANUAL_DECISION, decision);
+        variables.put(AccountProcessTasks.REASON, reason);
+        ProcessExecution execution = processEngine.resume(MANUAL_REVIEW_TASK, variables);
+        
+        return execution.getVariable(AccountProcessTasks.REQUEST);
     }
     
-    private void processDecision(AccountRequest request, GoRulesService.DecisionResponse decision) {
-        logger.info("Processing decision {} for request ID: {}", decision.getDecision(), request.getId());
-        
+    /**
+     * Process instance ids are assigned by the process, not derived from the row id, so they can
+     * be set before the request is first written.
+     */
+    static String newProcessInstanceId() {
+        return "simplified-process-" + UUID.randomUUID();
+    }
+    
+    void applyDecision(AccountRequest request, GoRulesService.DecisionResponse decision) {
         switch (decision.getDecision()) {
             case AUTO_APPROVE:
                 request.setStatus(AccountStatus.AUTO_APPROVED);
@@ -111,65 +210,9 @@ public class SimplifiedAccountCreationService {
                 request.setStatus(AccountStatus.MANUAL_REVIEW);
                 break;
         }
-        
-        accountRequestRepository.save(request);
-        
-        logger.info("Request {} updated to status: {}", request.getId(), request.getStatus());
-    }
-    
-    private void sendNotification(AccountRequest request) {
-        logger.info("Sending notification for request ID: {}", request.getId());
-        
-        // Simulate notification
-        String message = generateNotificationMessage(request);
-        
-        logger.info("=== NOTIFICATION ===");
-        logger.info("To: {} (Phone: {})", request.getName(), request.getPhoneNumber());
-        logger.info("Status: {}", request.getStatus());
-        logger.info("Message: {}", message);
-        logger.info("===================");
-        
-        logger.info("Notification sent successfully for request ID: {}", request.getId());
-    }
-    
-    private String generateNotificationMessage(AccountRequest request) {
-        switch (request.getStatus()) {
-            case AUTO_APPROVED:
-                return "Your account has been automatically approved!";
-            case AUTO_REJECTED:
-                return "Your account application has been rejected. Reason: " + request.getRejectionReason();
-            case MANUAL_REVIEW:
-                return "Your account application is under manual review. You will be notified once a decision is made.";
-            default:
-                return "Your account application status has been updated.";
-        }
-    }
-    
-    public AccountResponseDto getAccountRequest(Long id) {
-        AccountRequest request = accountRequestRepository.findById(id)
-            .orElseThrow(() -> new RuntimeException("Account request not found: " + id));
-        return convertToResponseDto(request);
-    }
-    
-    public List<AccountResponseDto> getAllAccountRequests() {
-        return accountRequestRepository.findAll().stream()
-            .map(this::convertToResponseDto)
-            .collect(Collectors.toList());
-    }
-    
-    public List<AccountResponseDto> getAccountRequestsByStatus(AccountStatus status) {
-        return accountRequestRepository.findByStatus(status).stream()
-            .map(this::convertToResponseDto)
-            .collect(Collectors.toList());
-    }
-    
-    public List<AccountResponseDto> getPendingManualReviews() {
-        return accountRequestRepository.findByStatus(AccountStatus.MANUAL_REVIEW).stream()
-            .map(this::convertToResponseDto)
-            .collect(Collectors.toList());
     }
     
-    private AccountResponseDto convertToResponseDto(AccountRequest request) {
+    AccountResponseDto convertToResponseDto(AccountRequest request) {
         AccountResponseDto dto = new AccountResponseDto();
         dto.setId(request.getId());
         dto.setName(request.getName());
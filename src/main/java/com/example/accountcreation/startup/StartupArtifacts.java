@@ -0,0 +1,214 @@
+package com.example.accountcreation.startup;
+
+import com.example.accountcreation.blocklist.Blocklists;
+import com.example.accountcreation.bpmn.BpmnParser;
+import com.example.accountcreation.bpmn.ProcessDefinition;
+import com.example.accountcreation.rules.CompiledRuleSet;
+import com.example.accountcreation.rules.DecisionTableCompiler;
+import com.example.accountcreation.service.GoRulesService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+/**
+ * Decision table and process definition compiled at build time, so a starting node can skip
+ * parsing JSON and XML and compiling conditions.
+ *
+ * {@code mvn -P fast-startup package} runs {@link #main} to compile the default table and process
+ * into {@code startup/artifacts.bin} on the classpath. A node started with
+ * {@code accounts.startup.artifact} pointing at it reads the file once; each entry is used only if
+ * the checksum of its source document, recorded at build time, matches the document the node is
+ * configured with, so a changed table or process is compiled as usual instead of being served
+ * stale. The file is plain Java serialization, read through a filter that admits only the
+ * compiled rule and process classes.
+ */
+@Component
+public class StartupArtifacts {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupArtifacts.class);
+
+    public static final String DEFAULT_LOCATION = "classpath:startup/artifacts.bin";
+    static final String DEFAULT_PROCESS = "classpath:bpmn/account-creation-process.bpmn";
+
+    private static final ObjectInputFilter FILTER = ObjectInputFilter.Config.createFilter(
+        "maxdepth=64;maxrefs=1000000;maxbytes=67108864;"
+            + "com.example.accountcreation.**;java.lang.*;java.lang.invoke.SerializedLambda;"
+            + "java.util.*;java.util.regex.Pattern;!*");
+
+    @Value("${accounts.startup.artifact:}")
+    private String location = "";
+
+    @Autowired
+    private Blocklists blocklists;
+
+    private volatile Contents contents;
+    private volatile boolean loaded;
+    private volatile long loadMillis;
+
+    public StartupArtifacts() {}
+
+    public StartupArtifacts(String location, Blocklists blocklists) {
+        this.location = location;
+        this.blocklists = blocklists;
+    }
+
+    /**
+     * The precompiled rule set, if the artifact holds one compiled from exactly {@code document}.
+     */
+    public Optional<CompiledRuleSet> findRuleSet(byte[] document) {
+        Contents artifact = contents();
+        if (artifact == null || artifact.ruleSet == null) {
+            return Optional.empty();
+        }
+        if (artifact.decisionTableChecksum != checksum(document)) {
+            logger.info("Startup artifact holds decision table {}, which is not the configured one; compiling",
+                       artifact.ruleSet.getVersion());
+            return Optional.empty();
+        }
+        return Optional.of(artifact.ruleSet);
+    }
+
+    /**
+     * The preparsed process definition, if the artifact holds one parsed from exactly {@code document}.
+     */
+    public Optional<ProcessDefinition> findProcess(byte[] document) {
+        Contents artifact = contents();
+        if (artifact == null || artifact.process == null) {
+            return Optional.empty();
+        }
+        if (artifact.processChecksum != checksum(document)) {
+            logger.info("Startup artifact holds process {}, which is not the configured one; parsing",
+                       artifact.process.getId());
+            return Optional.empty();
+        }
+        return Optional.of(artifact.process);
+    }
+
+    public boolean isEnabled() {
+        return location != null && !location.isEmpty();
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    /**
+     * Time taken to read the artifact, 0 until it is read or when there is none.
+     */
+    public long getLoadMillis() {
+        return loadMillis;
+    }
+
+    /**
+     * Compiles {@code decisionTable} and {@code process} and writes both, with the checksums of their
+     * documents, to {@code target}.
+     */
+    public static void write(byte[] decisionTable, byte[] process, Path target) throws IOException {
+        // Only the kind of each blocklist is written; a reading node resolves it to its own lists
+        CompiledRuleSet ruleSet = DecisionTableCompiler.compile(decisionTable, new Blocklists());
+        ProcessDefinition definition = BpmnParser.parse(new ByteArrayInputStream(process));
+        Contents artifact = new Contents(checksum(decisionTable), ruleSet, checksum(process), definition);
+        if (target.getParent() != null) {
+            Files.createDirectories(target.getParent());
+        }
+        try (OutputStream file = new BufferedOutputStream(Files.newOutputStream(target));
+             ObjectOutputStream out = new ObjectOutputStream(file)) {
+            out.writeObject(artifact);
+        }
+    }
+
+    /**
+     * Builds the artifact: {@code StartupArtifacts <target> [<decision table> [<process>]]}, with
+     * Spring resource locations for the sources, by default those of a standard node.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            throw new IllegalArgumentException("Usage: StartupArtifacts <target> [<decision table> [<process>]]");
+        }
+        Path target = Paths.get(args[0]);
+        byte[] decisionTable = read(args.length > 1 ? args[1] : GoRulesService.DEFAULT_DECISION_TABLE);
+        byte[] process = read(args.length > 2 ? args[2] : DEFAULT_PROCESS);
+        write(decisionTable, process, target);
+        logger.info("Wrote startup artifact {} ({} bytes)", target, Files.size(target));
+    }
+
+    private Contents contents() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    contents = load();
+                    loaded = true;
+                }
+            }
+        }
+        return contents;
+    }
+
+    private Contents load() {
+        if (!isEnabled()) {
+            return null;
+        }
+        long started = System.nanoTime();
+        Resource resource = new DefaultResourceLoader().getResource(location);
+        try (InputStream file = new BufferedInputStream(resource.getInputStream());
+             ObjectInputStream in = new ObjectInputStream(file)) {
+            in.setObjectInputFilter(FILTER);
+            Contents artifact = (Contents) blocklists.readObject(in);
+            loadMillis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+            logger.info("Read startup artifact {} in {} ms", location, loadMillis);
+            return artifact;
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            // Not fatal: the sources are compiled as if there were no artifact
+            logger.warn("Cannot read startup artifact {}, compiling from sources: {}", location, e.toString());
+            return null;
+        }
+    }
+
+    private static byte[] read(String location) throws IOException {
+        try (InputStream in = new DefaultResourceLoader().getResource(location).getInputStream()) {
+            return in.readAllBytes();
+        }
+    }
+
+    static long checksum(byte[] document) {
+        CRC32 crc = new CRC32();
+        crc.update(document);
+        return crc.getValue();
+    }
+
+    private static final class Contents implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final long decisionTableChecksum;
+        private final CompiledRuleSet ruleSet;
+        private final long processChecksum;
+        private final ProcessDefinition process;
+
+        Contents(long decisionTableChecksum, CompiledRuleSet ruleSet, long processChecksum, ProcessDefinition process) {
+            this.decisionTableChecksum = decisionTableChecksum;
+            this.ruleSet = ruleSet;
+            this.processChecksum = processChecksum;
+            this.process = process;
+        }
+    }
+}
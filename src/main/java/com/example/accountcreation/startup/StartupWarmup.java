@@ -0,0 +1,249 @@
+package com.example.accountcreation.startup;
+
+import com.example.accountcreation.dto.AccountRequestDto;
+import com.example.accountcreation.dto.AccountResponseDto;
+import com.example.accountcreation.model.AccountRequest;
+import com.example.accountcreation.model.AccountStatus;
+import com.example.accountcreation.rules.CompiledRuleSet;
+import com.example.accountcreation.service.GoRulesService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.stereotype.Controller;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.IntSupplier;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Gets a starting node to steady-state speed before it reports ready.
+ *
+ * Spring Boot only switches readiness to {@code ACCEPTING_TRAFFIC} once every
+ * {@link ApplicationReadyEvent} listener has returned, so the work done here delays readiness
+ * rather than the first requests. It creates the controllers and everything they use (the rest of
+ * the context may be lazy, see the {@code fast-startup} profile), then runs {@code iterations}
+ * synthetic requests through each hot path a {@code POST /api/accounts} takes outside the
+ * database: JSON binding and validation of the body, rule evaluation and JSON writing of the
+ * response, so the JIT has compiled them by the time traffic arrives. Rules are evaluated on a
+ * detached rule set and do not count as hits. Every phase is timed and logged.
+ *
+ * With {@code training-run} set, the node exits once warmed up; run it under
+ * {@code -XX:ArchiveClassesAtExit} to record an AppCDS archive of every class loaded until then.
+ */
+@Component
+public class StartupWarmup {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupWarmup.class);
+
+    private static final String[] NAMES = {"Jane Doe", "John Smith", "Test Account", "Maria Garcia", "Li Wei"};
+    private static final String[] ZIP_CODES = {"12345", "90210", "94102", "10001", "55555", "60601-1234"};
+    private static final int[] AGES = {17, 20, 24, 30, 45, 70};
+    private static final String[] PHONE_NUMBERS = {"5551234567", "1234567890", "1111111111", "2125550000"};
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private ApplicationAvailability applicationAvailability;
+
+    @Autowired
+    private GoRulesService goRulesService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private StartupArtifacts startupArtifacts;
+
+    @Value("${accounts.startup.warmup.iterations:0}")
+    private int iterations;
+
+    @Value("${accounts.startup.warmup.max-duration-ms:30000}")
+    private long maxDurationMs;
+
+    @Value("${accounts.startup.training-run:false}")
+    private boolean trainingRun;
+
+    private final Map<String, Long> phaseMillis = Collections.synchronizedMap(new LinkedHashMap<>());
+    private volatile int completedIterations;
+    private volatile long sink;
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void onStarted(ApplicationStartedEvent event) {
+        record("context", event.getTimeTaken());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady(ApplicationReadyEvent event) {
+        long started = System.nanoTime();
+        if (startupArtifacts.getLoadMillis() > 0) {
+            phaseMillis.put("artifact", startupArtifacts.getLoadMillis());
+        }
+        time("controllers", () -> applicationContext.getBeansWithAnnotation(Controller.class).size());
+        if (iterations > 0) {
+            long deadline = started + maxDurationMs * 1_000_000;
+            byte[][] bodies = requestBodies();
+            time("json-read", () -> run(deadline, i -> read(bodies[i % bodies.length]).getAge()));
+            AccountRequestDto[] requests = new AccountRequestDto[bodies.length];
+            for (int i = 0; i < bodies.length; i++) {
+                requests[i] = read(bodies[i]);
+            }
+            time("validation", () -> run(deadline, i -> validator.validate(requests[i % requests.length]).size()));
+            CompiledRuleSet rules = goRulesService.getRuleSet().detached();
+            time("rules", () -> run(deadline, i -> rules.evaluateIndex(toEntity(requests[i % requests.length]))));
+            time("json-write", () -> run(deadline, i -> write(response(requests[i % requests.length], i)).length));
+        }
+        record("warmup", Duration.ofNanos(System.nanoTime() - started));
+        logger.info("Startup phases (ms): {}{}", phaseMillis,
+                   iterations > 0 ? ", " + completedIterations + " warm-up iterations per path" : "");
+        if (trainingRun) {
+            logger.info("Training run finished, exiting");
+            // Not on this thread: the context must finish publishing this event before it closes
+            Thread exit = new Thread(() -> System.exit(SpringApplication.exit(applicationContext)), "training-run-exit");
+            exit.start();
+        }
+    }
+
+    public Stats getStats() {
+        Map<String, Long> phases;
+        synchronized (phaseMillis) {
+            phases = new LinkedHashMap<>(phaseMillis);
+        }
+        return new Stats(applicationAvailability.getReadinessState(), startupArtifacts.isEnabled(), iterations,
+                         completedIterations, phases);
+    }
+
+    /**
+     * Runs {@code path} for up to {@code iterations} rounds, stopping early at {@code deadline}.
+     */
+    private int run(long deadline, IntUnaryOperator path) {
+        int result = 0;
+        int i = 0;
+        while (i < iterations) {
+            result += path.applyAsInt(i++);
+            if ((i & 1023) == 0 && System.nanoTime() - deadline > 0) {
+                logger.warn("Warm-up stopped after {} of {} iterations: max-duration-ms reached", i, iterations);
+                break;
+            }
+        }
+        sink += result;
+        completedIterations = completedIterations == 0 ? i : Math.min(completedIterations, i);
+        return i;
+    }
+
+    private void time(String phase, IntSupplier work) {
+        long started = System.nanoTime();
+        sink += work.getAsInt();
+        record(phase, Duration.ofNanos(System.nanoTime() - started));
+    }
+
+    private void record(String phase, Duration duration) {
+        phaseMillis.put(phase, duration.toMillis());
+    }
+
+    private byte[][] requestBodies() {
+        int count = NAMES.length * ZIP_CODES.length;
+        byte[][] bodies = new byte[count][];
+        for (int i = 0; i < count; i++) {
+            AccountRequestDto request = new AccountRequestDto(
+                NAMES[i % NAMES.length], ZIP_CODES[i % ZIP_CODES.length], AGES[i % AGES.length],
+                PHONE_NUMBERS[i % PHONE_NUMBERS.length]);
+            bodies[i] = write(request);
+        }
+        return bodies;
+    }
+
+    private static AccountRequest toEntity(AccountRequestDto request) {
+        return new AccountRequest(request.getName(), request.getZipCode(), request.getAge(), request.getPhoneNumber());
+    }
+
+    private static AccountResponseDto response(AccountRequestDto request, long id) {
+        LocalDateTime now = LocalDateTime.now();
+        return new AccountResponseDto(id + 1, request.getName(), request.getZipCode(), request.getAge(),
+                                      request.getPhoneNumber(), AccountStatus.AUTO_APPROVED,
+                                      "simplified-process-warmup", now, now, null);
+    }
+
+    private AccountRequestDto read(byte[] body) {
+        try {
+            return objectMapper.readValue(body, AccountRequestDto.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private byte[] write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value).getBytes(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static class Stats {
+        private final ReadinessState readiness;
+        private final boolean artifactEnabled;
+        private final int warmupIterations;
+        private final int completedWarmupIterations;
+        private final Map<String, Long> phaseMillis;
+
+        public Stats(ReadinessState readiness, boolean artifactEnabled, int warmupIterations,
+                     int completedWarmupIterations, Map<String, Long> phaseMillis) {
+            this.readiness = readiness;
+            this.artifactEnabled = artifactEnabled;
+            this.warmupIterations = warmupIterations;
+            this.completedWarmupIterations = completedWarmupIterations;
+            this.phaseMillis = phaseMillis;
+        }
+
+        public ReadinessState getReadiness() {
+            return readiness;
+        }
+
+        public boolean isReady() {
+            return readiness == ReadinessState.ACCEPTING_TRAFFIC;
+        }
+
+        public boolean isArtifactEnabled() {
+            return artifactEnabled;
+        }
+
+        public int getWarmupIterations() {
+            return warmupIterations;
+        }
+
+        public int getCompletedWarmupIterations() {
+            return completedWarmupIterations;
+        }
+
+        /**
+         * Duration of each startup phase: {@code context} (Spring context refresh), {@code artifact}
+         * (reading the startup artifact), {@code controllers}, one per warm-up path, and
+         * {@code warmup} in total.
+         */
+        public Map<String, Long> getPhaseMillis() {
+            return phaseMillis;
+        }
+    }
+}
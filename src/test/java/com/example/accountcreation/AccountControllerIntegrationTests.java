@@ -0,0 +1,802 @@
+package com.example.accountcreation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.AsyncListener;
+import com.example.accountcreation.archive.AccountArchive;
+import com.example.accountcreation.dto.AccountRequestDto;
+import com.example.accountcreation.journal.DecisionJournal;
+import com.example.accountcreation.journal.JournalReader;
+import com.example.accountcreation.journal.JournalRecord;
+import com.example.accountcreation.repository.AccountRequestRepository;
+import com.example.accountcreation.model.AccountRequest;
+import com.example.accountcreation.model.AccountStatus;
+import com.example.accountcreation.service.AccountArchiver;
+import com.example.accountcreation.service.AccountResponseCache;
+import com.example.accountcreation.service.AccountStatusCounters;
+import com.example.accountcreation.service.GoRulesService;
+import com.example.accountcreation.service.IdempotencyService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+    "accounts.batch.chunk-size=2",
+    "accounts.process.fast-path=true",
+    "accounts.cache.pending-ttl-ms=500",
+    "accounts.subscriptions.poll-interval-ms=100",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "accounts.journal.directory=target/journal-controller-tests/${random.uuid}",
+    "accounts.archive.directory=target/archive-controller-tests/${random.uuid}",
+    "accounts.analytics.directory=target/analytics-controller-tests/${random.uuid}",
+    "accounts.blocklist.phones=" + AccountControllerIntegrationTests.PHONE_BLOCKLIST
+})
+@AutoConfigureMockMvc
+class AccountControllerIntegrationTests {
+
+    static final String PHONE_BLOCKLIST = "target/blocklist-controller-tests/phones.txt";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private AccountRequestRepository accountRequestRepository;
+    
+    @Autowired
+    private AccountStatusCounters statusCounters;
+    
+    @Autowired
+    private AccountResponseCache responseCache;
+    
+    @Autowired
+    private DecisionJournal decisionJournal;
+    
+    @Autowired
+    private IdempotencyService idempotencyService;
+    
+    @Autowired
+    private AccountArchiver accountArchiver;
+    
+    @Autowired
+    private AccountArchive accountArchive;
+
+    @Test
+    void testFastPathCreateReturnsDecisionWithSingleWrite() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        String response = mockMvc.perform(post("/api/accounts")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Jane Doe\",\"zipCode\":\"90210\",\"age\":30,\"phoneNumber\":\"5551234567\"}"))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+
+        JsonNode created = objectMapper.readTree(response);
+        assertEquals("AUTO_REJECTED", created.get("status").asText());
+        assertEquals("High-risk zip code", created.get("rejectionReason").asText());
+        assertTrue(created.get("processInstanceId").asText().startsWith("simplified-process-"));
+
+        assertEquals(1, statistics.getEntityInsertCount());
+        assertEquals(0, statistics.getEntityUpdateCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void testFastPathDecisionIsJournaledWithItsTransition() throws Exception {
+        String response = mockMvc.perform(post("/api/accounts")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Jane Doe\",\"zipCode\":\"90210\",\"age\":31,\"phoneNumber\":\"5551234567\"}"))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(response).get("id").asLong();
+        decisionJournal.flush();
+
+        List<JournalRecord> records = new ArrayList<>();
+        new JournalReader(decisionJournal.getDirectory()).forEach(record -> {
+            if (record.getRequestId() == id) {
+                records.add(record);
+            }
+        });
+        assertEquals(2, records.size());
+        JournalRecord transition = records.get(0);
+        assertEquals(JournalRecord.Type.TRANSITION, transition.getType());
+        assertNull(transition.getPreviousStatus());
+        assertEquals(AccountStatus.AUTO_REJECTED, transition.getStatus());
+        JournalRecord decision = records.get(1);
+        assertEquals(JournalRecord.Type.DECISION, decision.getType());
+        assertEquals(GoRulesService.DecisionResult.AUTO_REJECT, decision.getDecision());
+        assertEquals("High-risk zip code", decision.getReason());
+        assertEquals("90210", decision.getZipCode());
+        assertEquals(31, decision.getAge());
+        assertTrue(decision.getRuleSetVersion().contains("@"));
+
+        JsonNode stats = objectMapper.readTree(mockMvc.perform(get("/api/ops/journal"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString());
+        assertTrue(stats.get("enabled").asBoolean());
+        assertEquals(0, stats.get("failedCount").asLong());
+    }
+
+    @Test
+    void testIdempotencyKeyReplaysTheOriginalResponse() throws Exception {
+        String body = "{\"name\":\"John Smith\",\"zipCode\":\"12345\",\"age\":30,\"phoneNumber\":\"5551234567\"}";
+        String first = mockMvc.perform(post("/api/accounts")
+                .header("Idempotency-Key", "retry-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+            .andExpect(status().isCreated())
+            .andExpect(header().string("Idempotent-Replayed", "false"))
+            .andReturn().getResponse().getContentAsString();
+        String retry = mockMvc.perform(post("/api/accounts")
+                .header("Idempotency-Key", "retry-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+            .andExpect(status().isCreated())
+            .andExpect(header().string("Idempotent-Replayed", "true"))
+            .andReturn().getResponse().getContentAsString();
+        assertEquals(first, retry);
+
+        mockMvc.perform(post("/api/accounts")
+                .header("Idempotency-Key", "retry-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body.replace("12345", "54321")))
+            .andExpect(status().isUnprocessableEntity());
+
+        // A key another node already stored is answered from the database
+        AccountRequest stored = new AccountRequest("John Smith", "12345", 30, "5551234567");
+        stored.setIdempotencyKey("retry-2");
+        stored = accountRequestRepository.save(stored);
+        String fromDatabase = mockMvc.perform(post("/api/accounts")
+                .header("Idempotency-Key", "retry-2")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+            .andExpect(status().isCreated())
+            .andExpect(header().string("Idempotent-Replayed", "true"))
+            .andReturn().getResponse().getContentAsString();
+        assertEquals(stored.getId(), objectMapper.readTree(fromDatabase).get("id").asLong());
+    }
+
+    @Test
+    void testConcurrentRetriesWithOneIdempotencyKeyCreateOneRequest() throws Exception {
+        AccountRequestDto request = new AccountRequestDto("Jane Doe", "12345", 45, "5551234567");
+        int callers = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<IdempotencyService.Result>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return idempotencyService.createAccountRequest("concurrent-1", request);
+                }));
+            }
+            start.countDown();
+            Set<Long> ids = new HashSet<>();
+            int originals = 0;
+            for (Future<IdempotencyService.Result> result : results) {
+                ids.add(result.get().getResponse().getId());
+                originals += result.get().isReplayed() ? 0 : 1;
+            }
+            assertEquals(1, ids.size());
+            assertEquals(1, originals);
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(accountRequestRepository.findByIdempotencyKey("concurrent-1").isPresent());
+    }
+
+    @Test
+    void testBatchCreateStreamsOneResultPerRecord() throws Exception {
+        String body = String.join("\n",
+            "{\"name\":\"John Smith\",\"zipCode\":\"12345\",\"age\":30,\"phoneNumber\":\"5551234567\"}",
+            "{\"name\":\"Young Person\",\"zipCode\":\"12345\",\"age\":16,\"phoneNumber\":\"5551234567\"}",
+            "{\"name\":\"Jane Doe\",\"zipCode\":\"12345\",\"age\":\"thirty\",\"phoneNumber\":\"5551234567\"}",
+            "{\"name\":\"Jane Doe\",\"zipCode\":\"90210\",\"age\":30,\"phoneNumber\":\"5551234567\"}",
+            "{\"name\":\"John Smith\",\"zipCode\":\"12345\",\"age\":22,\"phoneNumber\":\"5551234567\"}");
+
+        String response = mockMvc.perform(post("/api/accounts/batch")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(body))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+
+        String[] lines = response.trim().split("\n");
+        assertEquals(5, lines.length);
+
+        JsonNode approved = objectMapper.readTree(lines[0]);
+        assertEquals(0, approved.get("index").asInt());
+        assertEquals("AUTO_APPROVED", approved.get("status").asText());
+        assertTrue(approved.get("id").asLong() > 0);
+
+        JsonNode underage = objectMapper.readTree(lines[1]);
+        assertEquals(1, underage.get("index").asInt());
+        assertFalse(underage.has("id"));
+        assertTrue(underage.get("errors").get(0).asText().startsWith("age:"));
+
+        JsonNode unparseable = objectMapper.readTree(lines[2]);
+        assertEquals(2, unparseable.get("index").asInt());
+        assertTrue(unparseable.has("errors"));
+
+        JsonNode rejected = objectMapper.readTree(lines[3]);
+        assertEquals("AUTO_REJECTED", rejected.get("status").asText());
+        assertEquals("High-risk zip code", rejected.get("reason").asText());
+
+        JsonNode review = objectMapper.readTree(lines[4]);
+        assertEquals(4, review.get("index").asInt());
+        assertEquals("MANUAL_REVIEW", review.get("status").asText());
+    }
+
+    @Test
+    void testBatchCreateAcceptsJsonArray() throws Exception {
+        String body = "[{\"name\":\"John Smith\",\"zipCode\":\"94102\",\"age\":40,\"phoneNumber\":\"5551234567\"},"
+            + "{\"name\":\"John Smith\",\"zipCode\":\"12345\",\"age\":40,\"phoneNumber\":\"1234567890\"}]";
+
+        String response = mockMvc.perform(post("/api/accounts/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+
+        String[] lines = response.trim().split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("AUTO_APPROVED", objectMapper.readTree(lines[0]).get("status").asText());
+        assertEquals("AUTO_REJECTED", objectMapper.readTree(lines[1]).get("status").asText());
+    }
+    
+    @Test
+    void testKeysetPagesCoverTheStreamedListInOrder() throws Exception {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 5; i++) {
+            body.append("{\"name\":\"John Smith\",\"zipCode\":\"12345\",\"age\":40,\"phoneNumber\":\"5551234567\"}\n");
+        }
+        mockMvc.perform(post("/api/accounts/batch")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(body.toString()))
+            .andExpect(status().isOk());
+        
+        List<Long> paged = new ArrayList<>();
+        String cursor = null;
+        do {
+            MvcResult page = mockMvc.perform(get("/api/accounts/status/AUTO_APPROVED")
+                    .param("limit", "2")
+                    .param("cursor", cursor == null ? "" : cursor))
+                .andExpect(status().isOk())
+                .andReturn();
+            JsonNode items = objectMapper.readTree(page.getResponse().getContentAsString());
+            assertTrue(items.size() <= 2);
+            items.forEach(item -> paged.add(item.get("id").asLong()));
+            cursor = page.getResponse().getHeader("X-Next-Cursor");
+        } while (cursor != null);
+        
+        List<Long> streamed = new ArrayList<>();
+        JsonNode all = objectMapper.readTree(mockMvc.perform(get("/api/accounts/stream").param("status", "AUTO_APPROVED"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString());
+        all.forEach(item -> streamed.add(item.get("id").asLong()));
+        
+        assertTrue(streamed.size() >= 5);
+        assertEquals(streamed, paged);
+    }
+    
+    @Test
+    void testInvalidCursorIsRejected() throws Exception {
+        mockMvc.perform(get("/api/accounts").param("cursor", "not-a-cursor"))
+            .andExpect(status().isBadRequest());
+    }
+    
+    @Test
+    void testStatsFollowStatusTransitionsWithoutRecounting() throws Exception {
+        statusCounters.reconcile();
+        JsonNode before = objectMapper.readTree(mockMvc.perform(get("/api/accounts/stats"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString());
+        
+        mockMvc.perform(post("/api/accounts")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Senior Citizen\",\"zipCode\":\"12345\",\"age\":70,\"phoneNumber\":\"5551234567\"}"))
+            .andExpect(status().isCreated());
+        mockMvc.perform(post("/api/accounts/batch")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content("{\"name\":\"John Smith\",\"zipCode\":\"12345\",\"age\":22,\"phoneNumber\":\"5551234567\"}\n"
+                    + "{\"name\":\"John Smith\",\"zipCode\":\"12345\",\"age\":23,\"phoneNumber\":\"5551234567\"}"))
+            .andExpect(status().isOk());
+        
+        JsonNode after = objectMapper.readTree(mockMvc.perform(get("/api/accounts/stats"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString());
+        assertEquals(before.get("counts").get("AUTO_APPROVED").asLong() + 1, after.get("counts").get("AUTO_APPROVED").asLong());
+        assertEquals(before.get("counts").get("MANUAL_REVIEW").asLong() + 2, after.get("counts").get("MANUAL_REVIEW").asLong());
+        // Stats keep counting requests moved to the archive by other tests
+        assertEquals(accountRequestRepository.count() + accountArchive.getStats().getRequestCount(),
+                     after.get("total").asLong());
+    }
+    
+    @Test
+    void testCachedAccountAnswersUnchangedPollsWith304UntilItsStatusChanges() throws Exception {
+        String created = mockMvc.perform(post("/api/accounts")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"John Smith\",\"zipCode\":\"12345\",\"age\":22,\"phoneNumber\":\"5551234567\"}"))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(created).get("id").asLong();
+        
+        String etag = mockMvc.perform(get("/api/accounts/{id}", id))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader("ETag");
+        assertNotNull(etag);
+        
+        long hits = responseCache.getStats().getHitCount();
+        mockMvc.perform(get("/api/accounts/{id}", id).header("If-None-Match", etag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string("ETag", etag));
+        assertEquals(hits + 1, responseCache.getStats().getHitCount());
+        
+        AccountRequest request = accountRequestRepository.findById(id).orElseThrow();
+        request.setStatus(AccountStatus.MANUALLY_APPROVED);
+        accountRequestRepository.save(request);
+        
+        MvcResult changed = mockMvc.perform(get("/api/accounts/{id}", id).header("If-None-Match", etag))
+            .andExpect(status().isOk())
+            .andReturn();
+        assertNotEquals(etag, changed.getResponse().getHeader("ETag"));
+        assertEquals("MANUALLY_APPROVED", objectMapper.readTree(changed.getResponse().getContentAsString()).get("status").asText());
+        assertEquals(hits + 2, responseCache.getStats().getHitCount());
+    }
+
+    @Test
+    void testUndecidedResponseIsCachedBrieflySoOtherNodesDecisionsShowUp() throws Exception {
+        String created = mockMvc.perform(post("/api/accounts")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"John Smith\",\"zipCode\":\"12345\",\"age\":22,\"phoneNumber\":\"5551234567\"}"))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(created).get("id").asLong();
+        mockMvc.perform(get("/api/accounts/{id}", id))
+            .andExpect(jsonPath("$.status").value("MANUAL_REVIEW"));
+
+        // Written past Hibernate, as by another node, so this node's cache is not refreshed
+        jdbcTemplate.update("update account_requests set status = 'MANUALLY_APPROVED' where id = ?", id);
+        Thread.sleep(600);
+        mockMvc.perform(get("/api/accounts/{id}", id))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.status").value("MANUALLY_APPROVED"));
+    }
+
+    @Test
+    void testManualReviewsAreLeasedOnceAndDecidedInBulk() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            String created = mockMvc.perform(post("/api/accounts")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"name\":\"John Smith\",\"zipCode\":\"12345\",\"age\":22,\"phoneNumber\":\"5551234567\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+            ids.add(objectMapper.readTree(created).get("id").asLong());
+        }
+        
+        JsonNode alice = objectMapper.readTree(mockMvc.perform(post("/api/accounts/pending-reviews/claim")
+                .param("reviewer", "alice").param("limit", "100"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString());
+        List<Long> aliceIds = new ArrayList<>();
+        alice.get("reviews").forEach(review -> aliceIds.add(review.get("id").asLong()));
+        assertTrue(aliceIds.containsAll(ids));
+        
+        JsonNode bob = objectMapper.readTree(mockMvc.perform(post("/api/accounts/pending-reviews/claim")
+                .param("reviewer", "bob"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString());
+        assertEquals(0, bob.get("reviews").size());
+        
+        long version = accountRequestRepository.findById(ids.get(0)).orElseThrow().getVersion();
+        String approveFirst = "{\"id\":" + ids.get(0) + ",\"version\":" + version + ",\"decision\":\"APPROVE\"}";
+        mockMvc.perform(post("/api/accounts/pending-reviews/decisions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"reviewer\":\"bob\",\"decisions\":[" + approveFirst + "]}"))
+            .andExpect(status().isConflict());
+        
+        // A stale version rejects the whole batch, including the valid decision in it
+        String staleSecond = "{\"id\":" + ids.get(1) + ",\"version\":" + (version - 1) + ",\"decision\":\"APPROVE\"}";
+        mockMvc.perform(post("/api/accounts/pending-reviews/decisions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"reviewer\":\"alice\",\"decisions\":[" + approveFirst + "," + staleSecond + "]}"))
+            .andExpect(status().isConflict());
+        assertEquals(AccountStatus.MANUAL_REVIEW, accountRequestRepository.findById(ids.get(0)).orElseThrow().getStatus());
+        
+        String rejectSecond = "{\"id\":" + ids.get(1) + ",\"decision\":\"REJECT\",\"reason\":\"Documents missing\"}";
+        JsonNode decided = objectMapper.readTree(mockMvc.perform(post("/api/accounts/pending-reviews/decisions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"reviewer\":\"alice\",\"decisions\":[" + approveFirst + "," + rejectSecond + "]}"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString());
+        assertEquals("MANUALLY_APPROVED", decided.get(0).get("status").asText());
+        assertEquals("MANUALLY_REJECTED", decided.get(1).get("status").asText());
+        assertEquals("Documents missing", decided.get(1).get("rejectionReason").asText());
+        
+        AccountRequest approved = accountRequestRepository.findById(ids.get(0)).orElseThrow();
+        assertEquals(AccountStatus.MANUALLY_APPROVED, approved.getStatus());
+        assertEquals("alice", approved.getReviewer());
+        assertNull(approved.getReviewLeaseExpiresAt());
+        assertNull(approved.getReviewLeaseToken());
+        
+        // Decided requests are no longer leased, so deciding them again conflicts
+        mockMvc.perform(post("/api/accounts/pending-reviews/decisions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"reviewer\":\"alice\",\"decisions\":[" + rejectSecond + "]}"))
+            .andExpect(status().isConflict());
+    }
+
+    @Test
+    void testLongPollAndEventStreamDeliverManualDecision() throws Exception {
+        String created = mockMvc.perform(post("/api/accounts")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"John Smith\",\"zipCode\":\"12345\",\"age\":23,\"phoneNumber\":\"5551234567\"}"))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(created).get("id").asLong();
+        
+        // Already decided, so this long poll answers at once
+        MvcResult decided = mockMvc.perform(get("/api/accounts/" + id).param("waitFor", "decided"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(decided))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.status").value("MANUAL_REVIEW"));
+        
+        MvcResult terminal = mockMvc.perform(get("/api/accounts/" + id).param("waitFor", "terminal").param("timeout", "10000"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        MvcResult events = mockMvc.perform(get("/api/accounts/" + id + "/events"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        assertFalse(terminal.getResponse().isCommitted());
+        
+        mockMvc.perform(post("/api/accounts/pending-reviews/claim")
+                .param("reviewer", "carol").param("limit", "100"))
+            .andExpect(status().isOk());
+        mockMvc.perform(post("/api/accounts/pending-reviews/decisions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"reviewer\":\"carol\",\"decisions\":[{\"id\":" + id + ",\"decision\":\"APPROVE\"}]}"))
+            .andExpect(status().isOk());
+        
+        mockMvc.perform(asyncDispatch(terminal))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.status").value("MANUALLY_APPROVED"));
+        
+        // The stream ends after the terminal status
+        events.getAsyncResult(10000);
+        String stream = events.getResponse().getContentAsString();
+        int review = stream.indexOf("\"status\":\"MANUAL_REVIEW\"");
+        int approved = stream.indexOf("\"status\":\"MANUALLY_APPROVED\"");
+        assertTrue(review >= 0 && approved > review, stream);
+        assertTrue(stream.startsWith("id:"), stream);
+        assertTrue(stream.contains("event:status"), stream);
+        
+        mockMvc.perform(get("/api/accounts/" + id).param("waitFor", "soon"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/accounts/999999/events"))
+            .andExpect(status().isNotFound());
+    }
+    
+    @Test
+    void testLongPollSeesDecisionMadeOnAnotherNode() throws Exception {
+        String created = mockMvc.perform(post("/api/accounts")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"John Smith\",\"zipCode\":\"12345\",\"age\":22,\"phoneNumber\":\"5551234567\"}"))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(created).get("id").asLong();
+        MvcResult terminal = mockMvc.perform(get("/api/accounts/" + id).param("waitFor", "terminal").param("timeout", "20000"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        
+        // Written past Hibernate, as by another node, so only the poller can notice it
+        long started = System.currentTimeMillis();
+        jdbcTemplate.update("update account_requests set status = 'MANUALLY_APPROVED' where id = ?", id);
+        terminal.getAsyncResult(10000);
+        assertTrue(System.currentTimeMillis() - started < 10000);
+        mockMvc.perform(asyncDispatch(terminal))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.status").value("MANUALLY_APPROVED"));
+        
+        // A long poll that times out answers with the state in the database, not the cached one
+        String second = mockMvc.perform(post("/api/accounts")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"John Smith\",\"zipCode\":\"12345\",\"age\":22,\"phoneNumber\":\"5551234567\"}"))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        long secondId = objectMapper.readTree(second).get("id").asLong();
+        MvcResult timedOut = mockMvc.perform(get("/api/accounts/" + secondId).param("waitFor", "terminal"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        jdbcTemplate.update("update account_requests set status = 'PENDING' where id = ?", secondId);
+        MockAsyncContext asyncContext = (MockAsyncContext) timedOut.getRequest().getAsyncContext();
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onTimeout(null);
+        }
+        mockMvc.perform(asyncDispatch(timedOut))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.status").value("PENDING"));
+    }
+    
+    @Test
+    void testMetricsEndpointExposesRuleHitsAndTimeToDecision() throws Exception {
+        mockMvc.perform(post("/api/accounts")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Jane Doe\",\"zipCode\":\"90210\",\"age\":30,\"phoneNumber\":\"5551234567\"}"))
+            .andExpect(status().isCreated());
+        
+        String scrape = mockMvc.perform(get("/api/ops/metrics"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Content-Type", startsWith("text/plain;version=0.0.4")))
+            .andReturn().getResponse().getContentAsString();
+        
+        assertTrue(scrape.contains("# TYPE account_rule_hits_total counter"));
+        assertTrue(scrape.contains("account_process_executor_saturation_ratio "));
+        assertTrue(scrape.contains("account_process_node_duration_seconds_count{node=\"apply-rules\",type=\"SERVICE_TASK\"}"));
+        assertTrue(sampleValue(scrape, "account_time_to_decision_seconds_count{status=\"AUTO_REJECTED\"}") >= 1);
+        assertTrue(sampleValue(scrape, "account_rule_hits_total{rule=\"high-risk-zip\",decision=\"AUTO_REJECT\"}") >= 1);
+    }
+    
+    @Test
+    void testWhatIfReplayReportsDecisionChangesOfCandidateTable() throws Exception {
+        for (int age : new int[] {20, 22, 40}) {
+            mockMvc.perform(post("/api/accounts")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"name\":\"Jane Doe\",\"zipCode\":\"55555\",\"age\":" + age + ",\"phoneNumber\":\"5551234567\"}"))
+                .andExpect(status().isCreated());
+        }
+        // Archived requests are replayed too
+        AccountRequest archived = new AccountRequest("Old Young Adult", "55555", 21, "5551234567");
+        archived.setStatus(AccountStatus.MANUALLY_APPROVED);
+        archived.setUpdatedAt(LocalDateTime.now().minusYears(2));
+        accountRequestRepository.save(archived);
+        assertTrue(accountArchiver.archive() >= 1);
+        assertTrue(accountRequestRepository.findById(archived.getId()).isEmpty());
+        String candidate = new ClassPathResource("rules/account-decision.json").getContentAsString(StandardCharsets.UTF_8)
+            .replace("\"decision\": \"\\\"MANUAL_REVIEW\\\"\", \"reason\": \"\\\"Young adult",
+                     "\"decision\": \"\\\"AUTO_APPROVE\\\"\", \"reason\": \"\\\"Young adult");
+        
+        mockMvc.perform(post("/api/rules/what-if")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"nodes\":[]}"))
+            .andExpect(status().isBadRequest());
+        
+        MvcResult started = mockMvc.perform(post("/api/rules/what-if")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(candidate))
+            .andExpect(status().isAccepted())
+            .andExpect(header().string("Location", startsWith("/api/rules/what-if/")))
+            .andReturn();
+        String location = started.getResponse().getHeader("Location");
+        
+        JsonNode report = objectMapper.readTree(started.getResponse().getContentAsString());
+        for (int attempt = 0; attempt < 100 && "RUNNING".equals(report.get("state").asText()); attempt++) {
+            Thread.sleep(50);
+            report = objectMapper.readTree(mockMvc.perform(get(location))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        }
+        
+        assertEquals("COMPLETED", report.get("state").asText());
+        assertEquals(1.0, report.get("progress").asDouble());
+        assertTrue(report.get("archivedRows").asLong() >= 1);
+        assertEquals(report.get("totalRows").asLong(), report.get("processedRows").asLong());
+        assertTrue(report.get("decisions").get("MANUAL_REVIEW").get("AUTO_APPROVE").asLong() >= 3);
+        assertNotEquals(report.get("baselineVersion").asText(), report.get("candidateVersion").asText());
+        JsonNode topChange = report.get("changes").get(0);
+        assertEquals("young-adult", topChange.get("baselineRule").asText());
+        assertEquals("MANUAL_REVIEW", topChange.get("baselineDecision").asText());
+        assertEquals("AUTO_APPROVE", topChange.get("candidateDecision").asText());
+        assertEquals(report.get("changedRows").asLong(), topChange.get("count").asLong());
+        
+        mockMvc.perform(get("/api/rules/what-if/unknown"))
+            .andExpect(status().isNotFound());
+    }
+    
+    @Test
+    void testOldTerminalRequestsAreArchivedAndStillReadable() throws Exception {
+        LocalDateTime longAgo = LocalDateTime.now().minusYears(2);
+        AccountRequest approved = new AccountRequest("Old Approved", "12345", 40, "5551234567");
+        approved.setStatus(AccountStatus.MANUALLY_APPROVED);
+        approved.setUpdatedAt(longAgo);
+        AccountRequest pending = new AccountRequest("Old Pending", "12345", 22, "5551234567");
+        pending.setStatus(AccountStatus.MANUAL_REVIEW);
+        pending.setUpdatedAt(longAgo);
+        AccountRequest recent = new AccountRequest("Recent Rejected", "90210", 30, "5551234567");
+        recent.setStatus(AccountStatus.AUTO_REJECTED);
+        accountRequestRepository.saveAll(List.of(approved, pending, recent));
+        long totalBefore = statusCounters.getStats().getTotal();
+        
+        assertTrue(accountArchiver.archive() >= 1);
+        
+        assertTrue(accountRequestRepository.findById(approved.getId()).isEmpty());
+        assertTrue(accountRequestRepository.findById(pending.getId()).isPresent());
+        assertTrue(accountRequestRepository.findById(recent.getId()).isPresent());
+        responseCache.invalidate(approved.getId());
+        mockMvc.perform(get("/api/accounts/" + approved.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.name").value("Old Approved"))
+            .andExpect(jsonPath("$.status").value("MANUALLY_APPROVED"));
+        
+        statusCounters.reconcile();
+        assertEquals(totalBefore, statusCounters.getStats().getTotal());
+        mockMvc.perform(get("/api/ops/archive"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.archive.hitCount").value(1));
+    }
+    
+    @Test
+    void testBulkUploadsAreRateLimitedPerClient() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(post("/api/accounts/batch")
+                    .header("X-API-Key", "partner-flood")
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .content(""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-RateLimit-Limit", "5"))
+                .andExpect(header().string("X-RateLimit-Remaining", String.valueOf(4 - i)));
+        }
+        mockMvc.perform(post("/api/accounts/batch")
+                .header("X-API-Key", "partner-flood")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(""))
+            .andExpect(status().isTooManyRequests())
+            .andExpect(header().string("X-RateLimit-Remaining", "0"))
+            .andExpect(header().string("Retry-After", "1"))
+            .andExpect(header().exists("X-RateLimit-Reset"));
+        
+        // Other clients and other endpoint classes have buckets of their own
+        mockMvc.perform(post("/api/accounts/batch")
+                .header("X-API-Key", "partner-quiet")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(""))
+            .andExpect(status().isOk());
+        mockMvc.perform(get("/api/accounts/stats").header("X-API-Key", "partner-flood"))
+            .andExpect(status().isOk());
+        mockMvc.perform(get("/api/ops/rate-limits"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.classes.BULK.rejectedCount").value(1));
+    }
+    
+    @Test
+    void testReloadedPhoneBlocklistRejectsListedNumbers() throws Exception {
+        Path phones = Paths.get(PHONE_BLOCKLIST);
+        Files.createDirectories(phones.getParent());
+        String request = "{\"name\":\"Jane Doe\",\"zipCode\":\"12345\",\"age\":30,\"phoneNumber\":\"5550009999\"}";
+        try {
+            Files.write(phones, List.of("# fraud ring", "555-000-9999"));
+            mockMvc.perform(post("/api/ops/blocklists/reload"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.lists.PHONES.entries").value(1))
+                .andExpect(jsonPath("$.lists.PHONES.lastError").doesNotExist());
+            mockMvc.perform(post("/api/accounts")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(request))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.status").value("AUTO_REJECTED"))
+                .andExpect(jsonPath("$.rejectionReason").value("Blocklisted phone number"));
+
+            // A malformed file keeps the list loaded before it
+            Files.write(phones, List.of("555-000-9999", "not a number"));
+            mockMvc.perform(post("/api/ops/blocklists/reload"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.lists.PHONES.entries").value(1))
+                .andExpect(jsonPath("$.lists.PHONES.lastError", startsWith(PHONE_BLOCKLIST)));
+        } finally {
+            Files.deleteIfExists(phones);
+            mockMvc.perform(post("/api/ops/blocklists/reload"))
+                .andExpect(jsonPath("$.lists.PHONES.entries").value(0));
+        }
+        mockMvc.perform(post("/api/accounts")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(request))
+            .andExpect(jsonPath("$.status").value("AUTO_APPROVED"));
+    }
+    
+    @Test
+    void testAnalyticsCountDecisionsAndManualOutcomesByReason() throws Exception {
+        // Zip code 333xx is used by no other test, so the zip3 filter isolates these requests
+        long reviewId = 0;
+        for (int age : new int[] {70, 40, 40, 21}) {
+            String created = mockMvc.perform(post("/api/accounts")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"name\":\"Ann Lee\",\"zipCode\":\"33301\",\"age\":" + age
+                             + ",\"phoneNumber\":\"5551234567\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+            reviewId = objectMapper.readTree(created).get("id").asLong();
+        }
+        mockMvc.perform(post("/api/accounts/pending-reviews/claim")
+                .param("reviewer", "carol").param("limit", "100"))
+            .andExpect(status().isOk());
+        mockMvc.perform(post("/api/accounts/pending-reviews/decisions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"reviewer\":\"carol\",\"decisions\":[{\"id\":" + reviewId
+                         + ",\"decision\":\"REJECT\",\"reason\":\"Documents missing\"}]}"))
+            .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/analytics").param("zip3", "333").param("groupBy", "reason,status"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.total").value(5))
+            .andExpect(jsonPath("$.rows.length()").value(4))
+            .andExpect(jsonPath("$.rows[0].reason").value("Standard approval criteria met"))
+            .andExpect(jsonPath("$.rows[0].status").value("AUTO_APPROVED"))
+            .andExpect(jsonPath("$.rows[0].count").value(2))
+            .andExpect(jsonPath("$.rows[0].zip3").doesNotExist())
+            .andExpect(jsonPath("$.rows[?(@.status == 'MANUALLY_REJECTED')].reason")
+                .value("Young adult application requires manual review"));
+        mockMvc.perform(get("/api/analytics").param("zip3", "333").param("ageBand", "65+").param("step", "hour"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.total").value(1))
+            .andExpect(jsonPath("$.rows[0].start").isString());
+        mockMvc.perform(get("/api/analytics").param("groupBy", "country"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/ops/analytics"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.enabled").value(true))
+            .andExpect(jsonPath("$.dropped").value(0));
+    }
+    
+    @Test
+    void testReadinessReportsStartupPhases() throws Exception {
+        mockMvc.perform(get("/api/ops/readiness"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.ready").value(true))
+            .andExpect(jsonPath("$.readiness").value("ACCEPTING_TRAFFIC"))
+            .andExpect(jsonPath("$.phaseMillis.context").isNumber())
+            .andExpect(jsonPath("$.phaseMillis.warmup").isNumber());
+    }
+    
+    private static double sampleValue(String scrape, String series) {
+        for (String line : scrape.split("\n")) {
+            if (line.startsWith(series + " ")) {
+                return Double.parseDouble(line.substring(series.length() + 1));
+            }
+        }
+        throw new AssertionError("No sample " + series + " in:\n" + scrape);
+    }
+}
@@ -1,9 +1,77 @@
 package com.example.accountcreation;
 
+import com.example.accountcreation.analytics.DecisionRollups;
+import com.example.accountcreation.archive.AccountArchive;
+import com.example.accountcreation.blocklist.Blocklist;
+import com.example.accountcreation.blocklist.Blocklists;
+import com.example.accountcreation.bpmn.BpmnParser;
+import com.example.accountcreation.bpmn.ProcessDefinition;
+import com.example.accountcreation.bpmn.ProcessEngine;
+import com.example.accountcreation.bpmn.ProcessExecution;
 import com.example.accountcreation.dto.AccountRequestDto;
+import com.example.accountcreation.dto.AccountResponseDto;
+import com.example.accountcreation.journal.DecisionJournal;
+import com.example.accountcreation.journal.JournalReader;
+import com.example.accountcreation.journal.JournalRecord;
+import com.example.accountcreation.journal.JournalReplay;
+import com.example.accountcreation.metrics.LatencyHistogram;
+import com.example.accountcreation.metrics.PrometheusTextWriter;
 import com.example.accountcreation.model.AccountRequest;
+import com.example.accountcreation.model.AccountStatus;
+import com.example.accountcreation.notification.FileSpoolNotificationSink;
+import com.example.accountcreation.notification.Notification;
+import com.example.accountcreation.notification.NotificationDispatcher;
+import com.example.accountcreation.notification.NotificationSink;
+import com.example.accountcreation.notification.SmtpNotificationSink;
+import com.example.accountcreation.ratelimit.TokenBucketTable;
+import com.example.accountcreation.repository.memory.InMemoryAccountRequestRepository;
+import com.example.accountcreation.rules.CompiledRuleSet;
+import com.example.accountcreation.rules.RequestColumns;
+import com.example.accountcreation.service.AccountProcessExecutor;
 import com.example.accountcreation.service.GoRulesService;
+import com.example.accountcreation.service.ProcessRejectedException;
+import com.example.accountcreation.startup.StartupArtifacts;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -72,4 +140,907 @@ class AccountCreationSystemApplicationTests {
         assertEquals(GoRulesService.DecisionResult.AUTO_REJECT, response.getDecision());
         assertTrue(response.getReason().contains("Invalid phone number pattern"));
     }
+
+    @Test
+    void testGoRulesServicePremiumZipAndStandardApproval() {
+        GoRulesService goRulesService = new GoRulesService();
+        
+        AccountRequest premiumRequest = new AccountRequest("Good Person", "94102-1234", 22, "5551234567");
+        GoRulesService.DecisionResponse premiumResponse = goRulesService.evaluateAccountRequest(premiumRequest);
+        assertEquals(GoRulesService.DecisionResult.AUTO_APPROVE, premiumResponse.getDecision());
+        assertEquals("Premium zip code area", premiumResponse.getReason());
+        
+        AccountRequest standardRequest = new AccountRequest("Good Person", "12345", 40, "5551234567");
+        GoRulesService.DecisionResponse standardResponse = goRulesService.evaluateAccountRequest(standardRequest);
+        assertEquals(GoRulesService.DecisionResult.AUTO_APPROVE, standardResponse.getDecision());
+        assertEquals("Standard approval criteria met", standardResponse.getReason());
+        
+        // Decisions are shared, precompiled instances
+        assertSame(standardResponse, goRulesService.evaluateAccountRequest(standardRequest));
+    }
+
+    @Test
+    void testColumnarBatchMatchesPerRequestEvaluation() {
+        GoRulesService goRulesService = new GoRulesService();
+        AccountRequest[] samples = {
+            new AccountRequest("John Smith", "12345", 16, "5551234567"),
+            new AccountRequest("John Smith", "12345", 70, "5551234567"),
+            new AccountRequest("John Smith", "60601-1234", 40, "5551234567"),
+            new AccountRequest("John Smith", "94102", 40, "5551234567"),
+            new AccountRequest("John Smith", "12345", 40, "7777777777"),
+            new AccountRequest("Fake Applicant", "12345", 40, "5551234567"),
+            new AccountRequest("12 34", "12345", 40, "5551234567"),
+            new AccountRequest("John Smith", "12345", 22, "5551234567"),
+            new AccountRequest("John Smith", "12345", 40, "5551234567")
+        };
+        // Large enough to be split across the fork/join pool
+        int size = 40_000;
+        RequestColumns columns = new RequestColumns(16);
+        for (int i = 0; i < size; i++) {
+            columns.add(samples[i % samples.length]);
+        }
+        byte[] decisions = new byte[size];
+        byte[] outcomes = new byte[size];
+
+        CompiledRuleSet rules = goRulesService.evaluateBatch(columns, decisions, outcomes);
+
+        long hits = 0;
+        for (int i = 0; i < rules.size(); i++) {
+            hits += rules.getHits(i);
+        }
+        assertEquals(size, hits);
+        for (int i = 0; i < size; i++) {
+            int expected = rules.evaluateIndex(samples[i % samples.length]);
+            assertEquals(expected, outcomes[i]);
+            assertEquals(rules.getResponse(expected).getDecision().ordinal(), decisions[i]);
+        }
+        assertEquals("young-adult", rules.getRuleId(outcomes[7]));
+
+        // A rule set decides the same way on the calling thread
+        byte[] sequential = new byte[size];
+        rules.evaluateBatch(columns, null, sequential);
+        assertArrayEquals(outcomes, sequential);
+        goRulesService.shutdown();
+
+        columns.clear();
+        columns.add(30, "12345", "5551234567", "John Smith");
+        rules.evaluateBatch(columns, decisions, outcomes);
+        assertEquals(GoRulesService.DecisionResult.AUTO_APPROVE.ordinal(), decisions[0]);
+        assertThrows(IllegalArgumentException.class, () -> rules.evaluateBatch(columns, decisions, new byte[0]));
+    }
+
+    @Test
+    void testGoRulesServiceReloadsDecisionTable(@TempDir Path tempDir) throws IOException {
+        Path table = tempDir.resolve("account-decision.json");
+        byte[] original;
+        try (var in = getClass().getResourceAsStream("/rules/account-decision.json")) {
+            original = in.readAllBytes();
+        }
+        Files.write(table, original);
+        
+        GoRulesService goRulesService = new GoRulesService(table.toUri().toString());
+        AccountRequest youngAdult = new AccountRequest("John Smith", "12345", 22, "5551234567");
+        assertEquals(GoRulesService.DecisionResult.MANUAL_REVIEW,
+                     goRulesService.evaluateAccountRequest(youngAdult).getDecision());
+        String originalVersion = goRulesService.getRuleSet().getVersion();
+        
+        String relaxed = new String(original, StandardCharsets.UTF_8).replace("[18..25]", "[18..20]")
+                                                                     .replace("(25..65)", "(20..65)");
+        Files.writeString(table, relaxed);
+        goRulesService.reload();
+        
+        assertNotEquals(originalVersion, goRulesService.getRuleSet().getVersion());
+        assertEquals(GoRulesService.DecisionResult.AUTO_APPROVE,
+                     goRulesService.evaluateAccountRequest(youngAdult).getDecision());
+        
+        // A broken table is rejected and the previous rule set stays active
+        Files.writeString(table, "{ \"nodes\": [] }");
+        assertThrows(IllegalArgumentException.class, goRulesService::reload);
+        assertEquals(GoRulesService.DecisionResult.AUTO_APPROVE,
+                     goRulesService.evaluateAccountRequest(youngAdult).getDecision());
+
+        // The watcher tries a broken table once, and again only once the file changes
+        Files.setLastModifiedTime(table, FileTime.fromMillis(System.currentTimeMillis() - 60_000));
+        ReflectionTestUtils.invokeMethod(goRulesService, "reloadIfModified");
+        assertEquals(Files.getLastModifiedTime(table).toMillis(), (long) ReflectionTestUtils.getField(goRulesService, "lastModified"));
+        Files.write(table, original);
+        Files.setLastModifiedTime(table, FileTime.fromMillis(System.currentTimeMillis()));
+        ReflectionTestUtils.invokeMethod(goRulesService, "reloadIfModified");
+        assertEquals(originalVersion, goRulesService.getRuleSet().getVersion());
+    }
+
+    @Test
+    void testProcessExecutorRejectsWhenSaturated() throws InterruptedException {
+        AccountProcessExecutor executor = new AccountProcessExecutor();
+        ReflectionTestUtils.setField(executor, "poolSize", 1);
+        ReflectionTestUtils.setField(executor, "queueCapacity", 1);
+        executor.start();
+        AccountProcessExecutor.Slot reserved;
+        try {
+            CountDownLatch running = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            executor.reserve().execute(() -> {
+                running.countDown();
+                awaitQuietly(release);
+            });
+            assertTrue(running.await(5, TimeUnit.SECONDS));
+            
+            AccountProcessExecutor.Slot queued = executor.reserve();
+            ProcessRejectedException rejected = assertThrows(ProcessRejectedException.class, executor::reserve);
+            assertEquals(1, rejected.getRetryAfterSeconds());
+            
+            AccountProcessExecutor.Stats stats = executor.getStats();
+            assertEquals(1, stats.getActiveCount());
+            assertEquals(1, stats.getQueueDepth());
+            assertEquals(1, stats.getRejectedCount());
+            
+            // Releasing an unused reservation frees its capacity again
+            queued.release();
+            executor.reserve().release();
+            release.countDown();
+        } finally {
+            reserved = executor.reserve();
+            executor.shutdown();
+        }
+        assertEquals(1, executor.getStats().getCompletedCount());
+        assertThrows(ProcessRejectedException.class, executor::reserve);
+
+        // A slot reserved before the shutdown still runs its task, on the caller's thread
+        long rejectedCount = executor.getStats().getRejectedCount();
+        Thread[] ranOn = new Thread[1];
+        reserved.execute(() -> ranOn[0] = Thread.currentThread());
+        assertEquals(Thread.currentThread(), ranOn[0]);
+        assertEquals(2, executor.getStats().getCompletedCount());
+        assertEquals(rejectedCount, executor.getStats().getRejectedCount());
+    }
+
+    @Test
+    void testProcessExecutorVirtualThreadMode() throws InterruptedException {
+        AccountProcessExecutor executor = new AccountProcessExecutor();
+        ReflectionTestUtils.setField(executor, "mode", AccountProcessExecutor.Mode.VIRTUAL);
+        ReflectionTestUtils.setField(executor, "poolSize", 2);
+        executor.start();
+        
+        CountDownLatch done = new CountDownLatch(20);
+        for (int i = 0; i < 20; i++) {
+            executor.reserve().execute(() -> {
+                assertTrue(Thread.currentThread().isVirtual());
+                done.countDown();
+            });
+        }
+        executor.reserve().execute(() -> {
+            throw new IllegalStateException("process failure");
+        });
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        executor.shutdown();
+        
+        assertEquals(20, executor.getStats().getCompletedCount());
+        assertEquals(1, executor.getStats().getFailedCount());
+    }
+
+    @Test
+    void testProcessEngineRunsAccountCreationProcess() throws IOException {
+        ProcessDefinition definition;
+        try (var in = getClass().getResourceAsStream("/bpmn/account-creation-process.bpmn")) {
+            definition = BpmnParser.parse(in);
+        }
+        List<String> visited = new ArrayList<>();
+        ProcessEngine engine = new ProcessEngine(definition, name -> execution -> {
+            visited.add(name);
+            if (name.equals("applyRulesDelegate")) {
+                execution.setVariable("decision", execution.getVariable("rulesSay"));
+            }
+        });
+        
+        ProcessExecution approved = engine.start(Map.of("rulesSay", GoRulesService.DecisionResult.AUTO_APPROVE));
+        assertEquals(ProcessExecution.State.COMPLETED, approved.getState());
+        assertEquals(List.of("validateRequestDelegate", "applyRulesDelegate", "autoApproveDelegate",
+                             "sendNotificationDelegate"), visited);
+        
+        visited.clear();
+        ProcessExecution waiting = engine.start(Map.of("rulesSay", GoRulesService.DecisionResult.MANUAL_REVIEW));
+        assertEquals(ProcessExecution.State.WAITING, waiting.getState());
+        assertEquals("manual-review", waiting.getCurrentNodeId());
+        assertEquals(List.of("validateRequestDelegate", "applyRulesDelegate", "setManualReviewDelegate"), visited);
+        
+        visited.clear();
+        ProcessExecution resumed = engine.resume("manual-review", Map.of("manualDecision", "REJECT"));
+        assertEquals(ProcessExecution.State.COMPLETED, resumed.getState());
+        assertEquals(List.of("manualRejectDelegate", "sendNotificationDelegate"), visited);
+        assertThrows(IllegalArgumentException.class, () -> engine.resume("apply-rules", Map.of()));
+        
+        ProcessEngine.NodeStats gateway = engine.getNodeStats().get(definition.indexOf("Gateway_Decision"));
+        assertEquals(2, gateway.getCount());
+        assertEquals(0, gateway.getFailedCount());
+        
+        // Every service task needs a handler, and unsupported elements fail at parse time
+        assertThrows(IllegalArgumentException.class, () -> new ProcessEngine(definition, name -> null));
+        String parallel = "<definitions xmlns=\"http://www.omg.org/spec/BPMN/20100524/MODEL\"><process id=\"p\">"
+            + "<startEvent id=\"s\"/><parallelGateway id=\"g\"/></process></definitions>";
+        assertThrows(IllegalArgumentException.class,
+            () -> BpmnParser.parse(new ByteArrayInputStream(parallel.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Test
+    void testStartupArtifactsServeCompiledRulesAndProcessOnlyForTheirSources(@TempDir Path tempDir) throws IOException {
+        byte[] table = new ClassPathResource("rules/account-decision.json").getContentAsByteArray();
+        byte[] process = new ClassPathResource("bpmn/account-creation-process.bpmn").getContentAsByteArray();
+        Path file = tempDir.resolve("startup/artifacts.bin");
+        StartupArtifacts.write(table, process, file);
+
+        Blocklists blocklists = new Blocklists();
+        StartupArtifacts artifacts = new StartupArtifacts(file.toUri().toString(), blocklists);
+        CompiledRuleSet precompiled = artifacts.findRuleSet(table).orElseThrow();
+        CompiledRuleSet compiled = new GoRulesService().getRuleSet();
+        assertEquals(compiled.getVersion(), precompiled.getVersion());
+        for (String[] request : new String[][] {{"Jane Doe", "12345", "30", "5551234567"}, {"Jane Doe", "90210", "30", "5551234567"},
+                                                {"Test User", "12345", "22", "1234567890"}, {"John Smith", "94102", "70", "5551234567"}}) {
+            AccountRequest account = new AccountRequest(request[0], request[1], Integer.parseInt(request[2]), request[3]);
+            assertEquals(compiled.evaluateIndex(account), precompiled.evaluateIndex(account));
+        }
+        precompiled.evaluate(new AccountRequest("Jane Doe", "12345", 30, "5551234567"));
+        assertEquals(1, precompiled.getHits(precompiled.evaluateIndex(new AccountRequest("Jane Doe", "12345", 30, "5551234567"))));
+        assertEquals("account-creation-process", artifacts.findProcess(process).orElseThrow().getId());
+        assertTrue(artifacts.getLoadMillis() > 0);
+
+        // Blocklist cells of the precompiled rules resolve to the reading node's lists
+        Path phones = tempDir.resolve("phones.txt");
+        Files.write(phones, List.of("5551234567"));
+        blocklists.install(Blocklists.Kind.PHONES, Blocklists.read(Blocklists.Kind.PHONES, phones));
+        assertEquals("blocklisted-phone", precompiled.evaluate(new AccountRequest("Jane Doe", "12345", 30, "5551234567")).getRuleId());
+
+        // A table or process edited after the artifact was built is compiled from source
+        byte[] edited = new String(table, StandardCharsets.UTF_8).replace("90210", "90211").getBytes(StandardCharsets.UTF_8);
+        assertTrue(artifacts.findRuleSet(edited).isEmpty());
+        assertTrue(artifacts.findProcess(Arrays.copyOf(process, process.length + 1)).isEmpty());
+        assertTrue(new StartupArtifacts(tempDir.resolve("missing.bin").toUri().toString(), blocklists).findRuleSet(table).isEmpty());
+        assertFalse(new StartupArtifacts("", blocklists).isEnabled());
+    }
+
+    @Test
+    void testTokenBucketTableLimitsEachClientAndEvictsOnlyIdleBuckets() {
+        // 10 per second: a token every 100 ms, bursts of up to 3
+        TokenBucketTable table = new TokenBucketTable(10, 3, 1000, 2);
+        long now = 1_000_000_000L;
+        assertEquals(2, table.tryAcquire("a", now));
+        assertEquals(1, table.tryAcquire("a", now));
+        assertEquals(0, table.tryAcquire("a", now));
+        long rejected = table.tryAcquire("a", now);
+        assertEquals(-100_000_000L, rejected);
+        assertEquals(300_000_000L, table.nanosUntilFull(rejected));
+        assertEquals(2, table.tryAcquire("b", now));
+        assertEquals(0, table.tryAcquire("a", now + 100_000_000L));
+        assertTrue(table.tryAcquire("a", now + 150_000_000L) < 0);
+
+        // A third client finds the table full and shares the overflow bucket
+        assertEquals(2, table.tryAcquire("c", now));
+        assertEquals(1, table.tryAcquire("d", now));
+        assertEquals(2, table.getOverflowCount());
+        assertEquals(2, table.size());
+
+        // "b" has been full for a second by then, "a" only for 700 ms
+        assertEquals(1, table.evictIdle(now + 1_100_000_000L));
+        assertEquals(1, table.size());
+        assertEquals(2, table.tryAcquire("c", now + 1_100_000_000L));
+        assertEquals(2, table.size());
+    }
+
+    @Test
+    void testBlocklistsMatchNormalizedValuesFromTextAndMappedFiles(@TempDir Path tempDir) throws IOException {
+        Path phones = tempDir.resolve("phones.txt");
+        Files.write(phones, List.of("# fraud ring", "555-000-1111", "", "(555) 000 2222", "0550001111"));
+        Path zips = tempDir.resolve("zips.txt");
+        Files.write(zips, List.of("60601", "94100..94102", "12345-0100..12345-0199", "12345-0150..12345-0300"));
+        Path names = tempDir.resolve("names.txt");
+        Files.write(names, List.of("  John   Fraudster "));
+
+        Blocklist phoneList = Blocklists.read(Blocklists.Kind.PHONES, phones);
+        assertEquals(3, phoneList.size());
+        assertTrue(phoneList.contains("5550001111"));
+        assertTrue(phoneList.contains("5550002222"));
+        assertTrue(phoneList.contains("0550001111"));
+        assertFalse(phoneList.contains("550001111"));
+        assertFalse(phoneList.contains("5550003333"));
+
+        Blocklist zipList = Blocklists.read(Blocklists.Kind.ZIP_CODES, zips);
+        assertEquals(5, zipList.size());
+        assertTrue(zipList.contains("60601"));
+        assertTrue(zipList.contains("60601-9999"));
+        assertTrue(zipList.contains("94101"));
+        assertFalse(zipList.contains("94103"));
+        assertTrue(zipList.contains("12345-0100"));
+        assertTrue(zipList.contains("12345-0300"));
+        assertFalse(zipList.contains("12345-0301"));
+        assertFalse(zipList.contains("12345"));
+        assertFalse(zipList.contains("not a zip"));
+
+        Blocklist nameList = Blocklists.read(Blocklists.Kind.NAMES, names);
+        assertTrue(nameList.contains("john fraudster"));
+        assertTrue(nameList.contains("JOHN FRAUDSTER  "));
+        assertFalse(nameList.contains("John Fraudsters"));
+
+        // A converted key file is mapped, not read into the heap
+        Path keyFile = tempDir.resolve("phones.bin");
+        Blocklists.main(new String[] {"phones", phones.toString(), keyFile.toString()});
+        Blocklist mapped = Blocklists.read(Blocklists.Kind.PHONES, keyFile);
+        assertTrue(mapped.isMapped());
+        assertEquals(3, mapped.size());
+        assertTrue(mapped.contains("555 000 2222"));
+        assertFalse(mapped.contains("5550003333"));
+
+        Files.write(zips, List.of("60601", "1234"));
+        assertThrows(IllegalArgumentException.class, () -> Blocklists.read(Blocklists.Kind.ZIP_CODES, zips));
+        assertEquals(0, Blocklists.read(Blocklists.Kind.NAMES, tempDir.resolve("missing.txt")).size());
+    }
+
+    @Test
+    void testDecisionTableSeesReloadedBlocklists(@TempDir Path tempDir) throws IOException {
+        Path phones = tempDir.resolve("phones.txt");
+        Files.write(phones, List.of("5550001111"));
+        Blocklists blocklists = new Blocklists();
+        CompiledRuleSet rules = new GoRulesService(GoRulesService.DEFAULT_DECISION_TABLE, blocklists).getRuleSet();
+        CompiledRuleSet unrelated = new GoRulesService().getRuleSet();
+        AccountRequest request = new AccountRequest("Jane Doe", "12345", 30, "5550001111");
+        assertEquals(GoRulesService.DecisionResult.AUTO_APPROVE, rules.evaluate(request).getDecision());
+
+        blocklists.install(Blocklists.Kind.PHONES, Blocklists.read(Blocklists.Kind.PHONES, phones));
+        GoRulesService.DecisionResponse response = rules.evaluate(request);
+        assertEquals(GoRulesService.DecisionResult.AUTO_REJECT, response.getDecision());
+        assertEquals("blocklisted-phone", response.getRuleId());
+        // Rules compiled against other blocklists do not see the list
+        assertEquals(GoRulesService.DecisionResult.AUTO_APPROVE, unrelated.evaluate(request).getDecision());
+
+        blocklists.install(Blocklists.Kind.PHONES, Blocklists.empty(Blocklists.Kind.PHONES));
+        assertEquals(GoRulesService.DecisionResult.AUTO_APPROVE, rules.evaluate(request).getDecision());
+    }
+
+    @Test
+    void testDecisionRollupsCompactIntoCoarserBucketsAndSurviveRestart(@TempDir Path tempDir) throws IOException {
+        long hour = DecisionRollups.Resolution.HOUR.getMillis();
+        long day = DecisionRollups.Resolution.DAY.getMillis();
+        long midnight = 19_675L * day;
+        Set<DecisionRollups.Dimension> byReasonAndStatus =
+            EnumSet.of(DecisionRollups.Dimension.REASON, DecisionRollups.Dimension.STATUS);
+        DecisionRollups rollups = new DecisionRollups(2 * hour, 48 * hour, 30 * day, 64);
+        for (int i = 0; i < 3; i++) {
+            rollups.record("Standard approval criteria met", "60601", 30, AccountStatus.AUTO_APPROVED, midnight + 10_000);
+        }
+        rollups.record("Age below minimum requirement", "94105-1234", 17, AccountStatus.AUTO_REJECTED, midnight + 70_000);
+        rollups.record(null, null, null, AccountStatus.MANUAL_REVIEW, midnight + 70_000);
+
+        DecisionRollups.Result result = rollups.query(midnight, midnight + hour, null, byReasonAndStatus, Map.of());
+        assertEquals(5, result.getTotal());
+        assertEquals(3, result.getRows().size());
+        assertEquals("Standard approval criteria met", result.getRows().get(0).getReason());
+        assertEquals(AccountStatus.AUTO_APPROVED, result.getRows().get(0).getStatus());
+        assertEquals(3, result.getRows().get(0).getCount());
+        assertNull(result.getRows().get(0).getZip3());
+
+        List<DecisionRollups.Row> perMinute = rollups.query(
+            midnight, midnight + hour, DecisionRollups.Resolution.MINUTE, Set.of(), Map.of()).getRows();
+        assertEquals(List.of(3L, 2L), perMinute.stream().map(DecisionRollups.Row::getCount).toList());
+        assertTrue(perMinute.get(0).getStart().isBefore(perMinute.get(1).getStart()));
+        assertEquals(3, rollups.query(midnight, midnight + hour, null, Set.of(),
+                                      Map.of(DecisionRollups.Dimension.ZIP3, "606")).getTotal());
+        assertEquals(1, rollups.query(midnight, midnight + hour, null, Set.of(),
+                                      Map.of(DecisionRollups.Dimension.AGE_BAND, "<18")).getTotal());
+        assertEquals(1, rollups.query(midnight, midnight + hour, null, Set.of(),
+                                      Map.of(DecisionRollups.Dimension.ZIP3, "unknown")).getTotal());
+        assertEquals(0, rollups.query(midnight, midnight + hour, null, Set.of(),
+                                      Map.of(DecisionRollups.Dimension.REASON, "Never given")).getTotal());
+        assertThrows(IllegalArgumentException.class, () -> rollups.query(
+            midnight, midnight + hour, null, Set.of(), Map.of(DecisionRollups.Dimension.STATUS, "APPROVED")));
+
+        // Minutes past their retention are folded into their hour
+        rollups.compact(midnight + 3 * hour);
+        assertEquals(0, rollups.getLiveMinuteCount());
+        assertEquals(0, rollups.getBucketCount(DecisionRollups.Resolution.MINUTE));
+        assertEquals(1, rollups.getBucketCount(DecisionRollups.Resolution.HOUR));
+        assertEquals(5, rollups.query(midnight, midnight + hour, null, Set.of(), Map.of()).getTotal());
+        rollups.record("Premium zip code area", "94102", 70, AccountStatus.AUTO_APPROVED, midnight + 3 * hour);
+
+        // A restarted node reads the file into a dictionary that numbers reasons differently
+        Path file = tempDir.resolve("rollups.bin");
+        rollups.write(file);
+        DecisionRollups restarted = new DecisionRollups(2 * hour, 48 * hour, 30 * day, 64);
+        restarted.record("Premium zip code area", "94102", 70, AccountStatus.AUTO_APPROVED, midnight + 3 * hour);
+        restarted.read(file);
+        DecisionRollups.Result all = restarted.query(midnight, midnight + day, null, byReasonAndStatus, Map.of());
+        assertEquals(7, all.getTotal());
+        assertEquals(2, restarted.query(midnight, midnight + day, null, Set.of(),
+                                        Map.of(DecisionRollups.Dimension.REASON, "Premium zip code area")).getTotal());
+        assertEquals(3, restarted.query(midnight, midnight + day, null, Set.of(),
+                                        Map.of(DecisionRollups.Dimension.REASON, "Standard approval criteria met"))
+            .getTotal());
+        assertEquals(1, restarted.query(midnight, midnight + day, null, Set.of(DecisionRollups.Dimension.AGE_BAND),
+                                        Map.of(DecisionRollups.Dimension.REASON, "other")).getTotal());
+
+        // Hours become days, and days past their retention are dropped
+        restarted.compact(midnight + 3 * day);
+        assertEquals(0, restarted.getBucketCount(DecisionRollups.Resolution.HOUR));
+        assertEquals(1, restarted.getBucketCount(DecisionRollups.Resolution.DAY));
+        assertEquals(7, restarted.query(midnight, midnight + day, DecisionRollups.Resolution.HOUR, Set.of(), Map.of())
+            .getTotal());
+        restarted.compact(midnight + 40 * day);
+        assertEquals(0, restarted.getBucketCount(DecisionRollups.Resolution.DAY));
+
+        // A minute with more distinct keys than the capacity counts the excess as dropped
+        DecisionRollups small = new DecisionRollups(hour, hour, day, 16);
+        for (int zip3 = 100; zip3 < 130; zip3++) {
+            small.record("Standard approval criteria met", zip3 + "01", 30, AccountStatus.AUTO_APPROVED, midnight);
+        }
+        assertEquals(30, small.getRecordedCount());
+        assertEquals(6, small.getDroppedCount());
+        assertEquals(24, small.query(midnight, midnight + hour, null, Set.of(), Map.of()).getTotal());
+
+        Files.write(file, new byte[] {1, 2, 3, 4});
+        assertThrows(IOException.class, () -> small.read(file));
+    }
+
+    @Test
+    void testLatencyHistogramQuantilesStayWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 1000; micros++) {
+            histogram.record(micros * 1000);
+        }
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+        
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(1002, snapshot.getCount());
+        assertEquals(LatencyHistogram.MAX_TRACKABLE_NANOS, snapshot.getMaxNanos());
+        assertEquals(0, snapshot.valueAtQuantile(0));
+        assertEquals(500_000, snapshot.valueAtQuantile(0.5), 500_000 * 0.04);
+        assertEquals(990_000, snapshot.valueAtQuantile(0.99), 990_000 * 0.04);
+        assertTrue(snapshot.valueAtQuantile(0.99) >= 989_000);
+        assertEquals(0, new LatencyHistogram().snapshot().valueAtQuantile(0.99));
+        
+        String scrape = new PrometheusTextWriter()
+            .family("test_seconds", "summary", "Test latency.")
+            .summary("test_seconds", snapshot, "node", "say \"hi\"")
+            .toString();
+        assertTrue(scrape.contains("# TYPE test_seconds summary\n"));
+        assertTrue(scrape.contains("test_seconds{node=\"say \\\"hi\\\"\",quantile=\"0.99\"} 9.9"));
+        assertTrue(scrape.contains("test_seconds_count{node=\"say \\\"hi\\\"\"} 1002\n"));
+    }
+
+    @Test
+    void testNotificationDispatcherCoalescesPerRequestAndRetries() throws InterruptedException {
+        List<Notification> delivered = new CopyOnWriteArrayList<>();
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(1);
+        NotificationSink flaky = new NotificationSink() {
+            @Override
+            public String getName() {
+                return "flaky";
+            }
+            
+            @Override
+            public int getConcurrency() {
+                return 1;
+            }
+            
+            @Override
+            public void send(List<Notification> batch) throws IOException {
+                if (calls.incrementAndGet() == 1) {
+                    throw new IOException("gateway unavailable");
+                }
+                delivered.addAll(batch);
+                done.countDown();
+            }
+        };
+        NotificationDispatcher dispatcher = new NotificationDispatcher();
+        ReflectionTestUtils.setField(dispatcher, "sinks", List.of(flaky));
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 10);
+        // Long enough that the batch is still open while the later status of request 1 arrives
+        ReflectionTestUtils.setField(dispatcher, "lingerMs", 500L);
+        ReflectionTestUtils.setField(dispatcher, "backoffInitialMs", 1L);
+        dispatcher.start();
+        try {
+            assertTrue(dispatcher.submit(notification(1L, AccountStatus.MANUAL_REVIEW)));
+            assertTrue(dispatcher.submit(notification(2L, AccountStatus.AUTO_APPROVED)));
+            assertTrue(dispatcher.submit(notification(1L, AccountStatus.MANUALLY_APPROVED)));
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+        } finally {
+            dispatcher.shutdown();
+        }
+        
+        assertEquals(2, delivered.size());
+        assertEquals(AccountStatus.MANUALLY_APPROVED, delivered.get(0).getStatus());
+        assertEquals(AccountStatus.AUTO_APPROVED, delivered.get(1).getStatus());
+        NotificationDispatcher.Stats stats = dispatcher.getStats();
+        assertEquals(3, stats.getSubmittedCount());
+        assertEquals(1, stats.getCoalescedCount());
+        NotificationDispatcher.SinkStats sink = stats.getSinks().get(0);
+        assertEquals(2, sink.getSentCount());
+        assertEquals(1, sink.getRetriedCount());
+        assertEquals(0, sink.getFailedCount());
+        assertFalse(dispatcher.submit(notification(3L, AccountStatus.AUTO_REJECTED)));
+    }
+
+    @Test
+    void testNotificationDispatcherDropsWhenFullWithoutLosingLaterNotifications() throws InterruptedException {
+        List<Notification> delivered = new CopyOnWriteArrayList<>();
+        CountDownLatch release = new CountDownLatch(1);
+        NotificationSink slow = new NotificationSink() {
+            @Override
+            public String getName() {
+                return "slow";
+            }
+
+            @Override
+            public int getConcurrency() {
+                return 1;
+            }
+
+            @Override
+            public void send(List<Notification> batch) throws IOException {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                delivered.addAll(batch);
+            }
+        };
+        NotificationDispatcher dispatcher = new NotificationDispatcher();
+        ReflectionTestUtils.setField(dispatcher, "sinks", List.of(slow));
+        ReflectionTestUtils.setField(dispatcher, "queueCapacity", 1);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 1);
+        ReflectionTestUtils.setField(dispatcher, "lingerMs", 0L);
+        dispatcher.start();
+        try {
+            // 1 blocks the sink, 2 blocks the dispatcher handing it over, 3 fills the queue
+            assertTrue(dispatcher.submit(notification(1L, AccountStatus.AUTO_APPROVED)));
+            awaitCondition(() -> dispatcher.getStats().getQueued() == 0);
+            assertTrue(dispatcher.submit(notification(2L, AccountStatus.AUTO_APPROVED)));
+            awaitCondition(() -> dispatcher.getStats().getQueued() == 0);
+            assertTrue(dispatcher.submit(notification(3L, AccountStatus.AUTO_APPROVED)));
+            assertFalse(dispatcher.submit(notification(4L, AccountStatus.AUTO_APPROVED)));
+            // A dropped notification leaves nothing pending, so it is not mistaken for a queued one
+            assertFalse(dispatcher.submit(notification(4L, AccountStatus.AUTO_REJECTED)));
+            assertTrue(dispatcher.submit(notification(3L, AccountStatus.AUTO_REJECTED)));
+            release.countDown();
+            awaitCondition(() -> delivered.size() == 3);
+            assertTrue(dispatcher.submit(notification(4L, AccountStatus.MANUAL_REVIEW)));
+            awaitCondition(() -> delivered.size() == 4);
+        } finally {
+            release.countDown();
+            dispatcher.shutdown();
+        }
+        assertEquals(AccountStatus.AUTO_REJECTED, delivered.get(2).getStatus());
+        assertEquals(AccountStatus.MANUAL_REVIEW, delivered.get(3).getStatus());
+        assertEquals(2, dispatcher.getStats().getDroppedCount());
+        assertEquals(1, dispatcher.getStats().getCoalescedCount());
+    }
+
+    @Test
+    void testSmtpNotificationSinkSendsBatchOverOneConnection() throws Exception {
+        List<String> received = new CopyOnWriteArrayList<>();
+        try (ServerSocket server = new ServerSocket(0)) {
+            Thread stub = new Thread(() -> serveSmtp(server, received));
+            stub.start();
+            
+            SmtpNotificationSink sink = new SmtpNotificationSink("localhost", server.getLocalPort(), "accounts@bank.test", "sms.test");
+            sink.send(List.of(notification(1L, AccountStatus.AUTO_APPROVED), notification(2L, AccountStatus.AUTO_REJECTED)));
+            stub.join(5000);
+        }
+        
+        assertEquals(List.of("RCPT TO:<5551234567@sms.test>", "RCPT TO:<5551234567@sms.test>"),
+                     received.stream().filter(line -> line.startsWith("RCPT")).toList());
+        assertEquals(2, received.stream().filter(line -> line.equals("Subject: Account application AUTO_APPROVED")
+                                                        || line.equals("Subject: Account application AUTO_REJECTED")).count());
+        assertEquals("QUIT", received.get(received.size() - 1));
+    }
+
+    @Test
+    void testFileSpoolNotificationSinkAppendsNdjson(@TempDir Path tempDir) throws IOException {
+        FileSpoolNotificationSink sink = new FileSpoolNotificationSink(
+            tempDir, new ObjectMapper().findAndRegisterModules());
+        sink.send(List.of(notification(1L, AccountStatus.AUTO_APPROVED)));
+        sink.send(List.of(notification(2L, AccountStatus.MANUAL_REVIEW), notification(3L, AccountStatus.AUTO_REJECTED)));
+        
+        try (var files = Files.list(tempDir)) {
+            Path spool = files.findFirst().orElseThrow();
+            List<String> lines = Files.readAllLines(spool);
+            assertEquals(3, lines.size());
+            assertTrue(lines.get(1).contains("\"requestId\":2"));
+            assertTrue(lines.get(1).contains("\"status\":\"MANUAL_REVIEW\""));
+        }
+    }
+
+    @Test
+    void testDecisionJournalRotatesSegmentsAndStopsAtTornRecord(@TempDir Path tempDir) throws IOException {
+        GoRulesService goRulesService = new GoRulesService();
+        goRulesService.init();
+        DecisionJournal journal = new DecisionJournal(tempDir, 512, 1);
+        journal.start();
+        for (long id = 1; id <= 20; id++) {
+            AccountRequest request = new AccountRequest("John Smith", "12345", 30, "5551234567");
+            request.setId(id);
+            GoRulesService.DecisionResponse decision = goRulesService.evaluateAccountRequest(request);
+            journal.recordDecision(request, goRulesService.getRuleSet().getVersion(), decision);
+            request.setStatus(AccountStatus.AUTO_APPROVED);
+            journal.recordTransition(request, AccountStatus.PENDING);
+        }
+        assertTrue(journal.getStats().getRotationCount() > 0);
+        journal.close();
+
+        JournalReader reader = new JournalReader(tempDir);
+        List<JournalRecord> records = new ArrayList<>();
+        reader.forEach(records::add);
+        assertEquals(40, records.size());
+        assertEquals(0, reader.getTornSegmentCount());
+        JournalRecord first = records.get(0);
+        assertEquals(JournalRecord.Type.DECISION, first.getType());
+        assertEquals(1L, first.getRequestId());
+        assertEquals(GoRulesService.DecisionResult.AUTO_APPROVE, first.getDecision());
+        assertNotNull(first.getRuleId());
+        assertEquals("12345", first.getZipCode());
+        assertEquals(30, first.getAge());
+        assertEquals(AccountStatus.AUTO_APPROVED, records.get(39).getStatus());
+
+        // A crash in the middle of the next run's first record leaves a checksum mismatch
+        DecisionJournal next = new DecisionJournal(tempDir, 512, 1);
+        next.start();
+        AccountRequest request = new AccountRequest("Jane Doe", "12345", 30, "5551234567");
+        request.setId(21L);
+        next.recordTransition(request, null);
+        next.close();
+        List<Path> segments = JournalReader.listSegments(tempDir);
+        try (FileChannel channel = FileChannel.open(segments.get(segments.size() - 1), StandardOpenOption.READ,
+                                                    StandardOpenOption.WRITE)) {
+            // Invert the byte rather than overwrite it: it is part of the timestamp and may already be any value
+            ByteBuffer torn = ByteBuffer.allocate(1);
+            channel.read(torn, 30);
+            torn.put(0, (byte) ~torn.get(0));
+            channel.write(torn.rewind(), 30);
+        }
+
+        JournalReader afterCrash = new JournalReader(tempDir);
+        Map<Long, AccountStatus> statuses = JournalReplay.rebuildStatus(afterCrash);
+        assertEquals(40, afterCrash.getRecordCount());
+        assertEquals(1, afterCrash.getTornSegmentCount());
+        assertEquals(20, statuses.size());
+        assertEquals(AccountStatus.AUTO_APPROVED, statuses.get(7L));
+        assertFalse(statuses.containsKey(21L));
+    }
+
+    @Test
+    void testInMemoryAccountStoreIndexesRollsBackAndRecovers(@TempDir Path tempDir) throws IOException {
+        InMemoryAccountRequestRepository store = new InMemoryAccountRequestRepository(tempDir.resolve("store"), 1, 0);
+        store.start();
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 12, 0);
+        List<AccountRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            AccountRequest request = new AccountRequest("John Smith", "12345", 20 + i, "5551234567");
+            request.setCreatedAt(createdAt.plusSeconds(i));
+            request.setProcessInstanceId("process-" + i);
+            requests.add(request);
+        }
+        store.saveAll(requests);
+        assertEquals(1L, requests.get(0).getId());
+        assertEquals(0L, requests.get(9).getVersion());
+        assertEquals(10, store.count());
+
+        AccountRequest review = store.findById(requests.get(3).getId()).orElseThrow();
+        review.setStatus(AccountStatus.MANUAL_REVIEW);
+        store.save(review);
+        assertEquals(1L, review.getVersion());
+        AccountRequest stale = requests.get(3);
+        stale.setStatus(AccountStatus.AUTO_REJECTED);
+        assertThrows(OptimisticLockingFailureException.class, () -> store.save(stale));
+        AccountRequest duplicate = new AccountRequest("Jane Doe", "12345", 30, "5551234567");
+        duplicate.setProcessInstanceId("process-1");
+        assertThrows(DataIntegrityViolationException.class, () -> store.save(duplicate));
+
+        assertEquals(List.of(review.getId()),
+                     store.findByStatus(AccountStatus.MANUAL_REVIEW).stream().map(AccountRequest::getId).toList());
+        assertEquals(requests.get(5).getId(), store.findByProcessInstanceId("process-5").orElseThrow().getId());
+        assertEquals(List.of(5L, 6L, 7L),
+                     store.findResponsesAfter(createdAt.plusSeconds(3), 4L, PageRequest.of(0, 3)).stream()
+                         .map(AccountResponseDto::getId).toList());
+        assertEquals(List.of(5L, 6L),
+                     store.findResponsesByStatusAfter(AccountStatus.PENDING, createdAt.plusSeconds(2), 3L,
+                                                      PageRequest.of(0, 2)).stream()
+                         .map(AccountResponseDto::getId).toList());
+        Map<Object, Object> counts = new HashMap<>();
+        store.countByStatus().forEach(row -> counts.put(row[0], row[1]));
+        assertEquals(Map.of(AccountStatus.PENDING, 9L, AccountStatus.MANUAL_REVIEW, 1L), counts);
+        assertEquals(Set.of(1L, review.getId()),
+                     store.findResponsesByIds(List.of(1L, review.getId(), 999L)).stream()
+                         .map(AccountResponseDto::getId).collect(Collectors.toSet()));
+
+        LocalDateTime now = LocalDateTime.now();
+        assertEquals(1, store.claimReviews(List.of(review.getId()), "carol", "token-1", now.plusMinutes(5), now));
+        assertEquals(0, store.claimReviews(List.of(review.getId()), "dave", "token-2", now.plusMinutes(5), now));
+        assertEquals(List.of(review.getId()), store.findLeasedReviews(List.of(review.getId()), "token-1").stream()
+                         .map(AccountRequest::getId).toList());
+        assertTrue(store.findLeasedReviews(List.of(review.getId()), "token-2").isEmpty());
+        assertTrue(store.findClaimableReviewIds(now, PageRequest.of(0, 10)).isEmpty());
+
+        store.snapshot();
+        AccountRequest late = new AccountRequest("Jane Doe", "54321", 40, "5559876543");
+        late.setIdempotencyKey("key-1");
+        store.save(late);
+
+        // A rolled back transaction leaves no trace, in memory or in the log
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            AccountRequest doomed = new AccountRequest("Jane Roe", "12345", 30, "5551234567");
+            doomed.setProcessInstanceId("process-doomed");
+            store.save(doomed);
+            AccountRequest decided = store.findById(1L).orElseThrow();
+            decided.setStatus(AccountStatus.AUTO_APPROVED);
+            store.save(decided);
+            assertEquals(12, store.count());
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(11, store.count());
+        assertTrue(store.findByProcessInstanceId("process-doomed").isEmpty());
+        assertEquals(AccountStatus.PENDING, store.findById(1L).orElseThrow().getStatus());
+        store.flush();
+
+        // Recovering a copy of the directory is recovering after a crash: snapshot plus log
+        Path copy = Files.createDirectories(tempDir.resolve("copy"));
+        try (var files = Files.list(tempDir.resolve("store"))) {
+            for (Path file : files.toList()) {
+                Files.copy(file, copy.resolve(file.getFileName()));
+            }
+        }
+        store.close();
+        InMemoryAccountRequestRepository recovered = new InMemoryAccountRequestRepository(copy, 1, 0);
+        recovered.start();
+        assertEquals(11, recovered.count());
+        AccountRequest claimed = recovered.findById(review.getId()).orElseThrow();
+        assertEquals(AccountStatus.MANUAL_REVIEW, claimed.getStatus());
+        assertEquals("carol", claimed.getReviewer());
+        assertEquals("token-1", claimed.getReviewLeaseToken());
+        assertEquals(2L, claimed.getVersion());
+        assertEquals(late.getId(), recovered.findByIdempotencyKey("key-1").orElseThrow().getId());
+        assertEquals(AccountStatus.PENDING, recovered.findById(1L).orElseThrow().getStatus());
+        assertTrue(recovered.findByProcessInstanceId("process-doomed").isEmpty());
+        AccountRequest next = new AccountRequest("Jane Doe", "54321", 40, "5559876543");
+        recovered.save(next);
+        assertTrue(next.getId() > late.getId());
+        recovered.close();
+    }
+
+    @Test
+    void testAccountArchiveRotatesSegmentsAndFindsRequestsAfterRestart(@TempDir Path tempDir) throws IOException {
+        AccountArchive archive = new AccountArchive(tempDir, 256, "store-a");
+        archive.start();
+        assertTrue(archive.find(1).isEmpty());
+        assertFalse(Files.exists(tempDir.resolve("archive.idx")));
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 1, 2, 3, 4, 5, 6000);
+        for (long batch = 0; batch < 5; batch++) {
+            List<AccountResponseDto> requests = new ArrayList<>();
+            for (long id = batch * 10 + 1; id <= batch * 10 + 10; id++) {
+                requests.add(new AccountResponseDto(id, "John Smith " + id, "12345", id % 2 == 0 ? null : 30,
+                                                    "5551234567", AccountStatus.AUTO_APPROVED, null,
+                                                    updatedAt.minusDays(1), updatedAt, null));
+            }
+            archive.append(requests);
+        }
+        assertTrue(archive.getStats().getCompressionRatio() > 1);
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertTrue(files.filter(file -> file.toString().endsWith(".seg")).count() > 1);
+        }
+        assertEquals(50, archive.getStatusCounts()[AccountStatus.AUTO_APPROVED.ordinal()]);
+        archive.close();
+
+        // A crash while writing the next index frame leaves a torn tail, which is cut off
+        try (FileChannel channel = FileChannel.open(tempDir.resolve("archive.idx"), StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[] {0, 0, 1, 0, 7}));
+        }
+        AccountArchive reopened = new AccountArchive(tempDir, 256, "store-a");
+        reopened.start();
+        assertEquals(50, reopened.getStats().getRequestCount());
+        assertEquals(5, reopened.getStats().getBlockCount());
+        AccountResponseDto found = reopened.find(37).orElseThrow();
+        assertEquals("John Smith 37", found.getName());
+        assertEquals(30, found.getAge());
+        assertNull(found.getRejectionReason());
+        assertEquals(updatedAt, found.getUpdatedAt());
+        assertNull(reopened.find(38).orElseThrow().getAge());
+        assertTrue(reopened.find(51).isEmpty());
+
+        // Re-archiving a request replaces its entry and status count
+        reopened.append(List.of(new AccountResponseDto(37L, "John Smith 37", "12345", 30, "5551234567",
+                                                       AccountStatus.MANUALLY_REJECTED, "process-37",
+                                                       updatedAt, updatedAt, "Rejected by reviewer")));
+        assertEquals(AccountStatus.MANUALLY_REJECTED, reopened.find(37).orElseThrow().getStatus());
+        assertEquals(49, reopened.getStatusCounts()[AccountStatus.AUTO_APPROVED.ordinal()]);
+        assertEquals(1, reopened.getStatusCounts()[AccountStatus.MANUALLY_REJECTED.ordinal()]);
+
+        // Reading every block yields each request once, in its latest version
+        List<AccountResponseDto> scanned = new ArrayList<>();
+        for (int block = 0; block < reopened.getBlockCount(); block++) {
+            scanned.addAll(reopened.readBlock(block));
+        }
+        assertEquals(50, scanned.size());
+        assertEquals(50, scanned.stream().map(AccountResponseDto::getId).distinct().count());
+        assertEquals(AccountStatus.MANUALLY_REJECTED,
+                     scanned.stream().filter(request -> request.getId() == 37).findFirst().orElseThrow().getStatus());
+        reopened.close();
+
+        // Next to a recreated store, whose ids start over, the old archive is set aside unread
+        AccountArchive recreated = new AccountArchive(tempDir, 256, "store-b");
+        recreated.start();
+        assertEquals(0, recreated.getStats().getRequestCount());
+        assertTrue(recreated.find(37).isEmpty());
+        assertFalse(Files.exists(tempDir.resolve("archive.idx")));
+        try (Stream<Path> files = Files.list(tempDir)) {
+            Path stale = files.filter(Files::isDirectory).findFirst().orElseThrow();
+            assertTrue(Files.exists(stale.resolve("archive.idx")));
+        }
+        recreated.append(List.of(new AccountResponseDto(37L, "Jane Doe", "54321", 40, "5559876543",
+                                                        AccountStatus.AUTO_APPROVED, null, updatedAt, updatedAt, null)));
+        assertEquals("Jane Doe", recreated.find(37).orElseThrow().getName());
+        recreated.close();
+    }
+
+    private static Notification notification(Long requestId, AccountStatus status) {
+        return new Notification(requestId, "John Smith", "5551234567", status, "Status " + status, LocalDateTime.now());
+    }
+
+    /**
+     * Minimal SMTP server for one connection: accepts every command and records the lines it receives.
+     */
+    private static void serveSmtp(ServerSocket server, List<String> received) {
+        try (Socket socket = server.accept();
+             var in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             var out = new PrintWriter(socket.getOutputStream(), true)) {
+            out.print("220 stub ready\r\n");
+            out.flush();
+            boolean data = false;
+            String line;
+            while ((line = in.readLine()) != null) {
+                received.add(line);
+                if (data) {
+                    if (line.equals(".")) {
+                        data = false;
+                        out.print("250 queued\r\n");
+                        out.flush();
+                    }
+                    continue;
+                }
+                if (line.startsWith("EHLO")) {
+                    out.print("250-stub\r\n250 OK\r\n");
+                } else if (line.equals("DATA")) {
+                    data = true;
+                    out.print("354 go ahead\r\n");
+                } else if (line.equals("QUIT")) {
+                    out.print("221 bye\r\n");
+                    out.flush();
+                    return;
+                } else {
+                    out.print("250 OK\r\n");
+                }
+                out.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Condition not met within 10 seconds");
+            Thread.sleep(20);
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,105 @@
+package com.example.accountcreation;
+
+import com.example.accountcreation.model.AccountRequest;
+import com.example.accountcreation.model.AccountStatus;
+import com.example.accountcreation.repository.AccountRequestRepository;
+import com.example.accountcreation.repository.memory.InMemoryAccountRequestRepository;
+import com.example.accountcreation.service.AccountStatusCounters;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:memory-store-tests",
+    "accounts.process.queue.poll-interval-ms=50",
+    "accounts.store.directory=target/account-store-tests/${random.uuid}",
+    "accounts.journal.directory=target/journal-memory-store-tests/${random.uuid}",
+    "accounts.archive.directory=target/archive-memory-store-tests/${random.uuid}",
+    "accounts.analytics.directory=target/analytics-memory-store-tests/${random.uuid}"
+})
+@ActiveProfiles("memory-store")
+@AutoConfigureMockMvc
+class InMemoryAccountStoreIntegrationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AccountRequestRepository accountRequestRepository;
+
+    @Autowired
+    private AccountStatusCounters statusCounters;
+
+    @Test
+    void testRequestsAreDecidedAndReviewedInTheMemoryStore() throws Exception {
+        assertInstanceOf(InMemoryAccountRequestRepository.class, accountRequestRepository);
+
+        long approved = create("{\"name\":\"Jane Doe\",\"zipCode\":\"55555\",\"age\":40,\"phoneNumber\":\"5551234567\"}");
+        long review = create("{\"name\":\"John Smith\",\"zipCode\":\"55555\",\"age\":20,\"phoneNumber\":\"5551234567\"}");
+        awaitCondition(() -> statusOf(approved) == AccountStatus.AUTO_APPROVED && statusOf(review) == AccountStatus.MANUAL_REVIEW);
+
+        mockMvc.perform(get("/api/accounts/" + approved))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.status").value("AUTO_APPROVED"));
+        mockMvc.perform(get("/api/accounts/status/MANUAL_REVIEW"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].id").value(review));
+
+        mockMvc.perform(post("/api/accounts/pending-reviews/claim")
+                .param("reviewer", "carol").param("limit", "10"))
+            .andExpect(status().isOk());
+        mockMvc.perform(post("/api/accounts/pending-reviews/decisions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"reviewer\":\"carol\",\"decisions\":[{\"id\":" + review + ",\"decision\":\"APPROVE\"}]}"))
+            .andExpect(status().isOk());
+
+        AccountRequest decided = accountRequestRepository.findById(review).orElseThrow();
+        assertEquals(AccountStatus.MANUALLY_APPROVED, decided.getStatus());
+        assertEquals("carol", decided.getReviewer());
+        assertTrue(accountRequestRepository.findByStatus(AccountStatus.MANUAL_REVIEW).isEmpty());
+        assertEquals(2, statusCounters.getStats().getTotal());
+
+        mockMvc.perform(get("/api/ops/account-store"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.requestCount").value(2));
+    }
+
+    private long create(String body) throws Exception {
+        String created = mockMvc.perform(post("/api/accounts")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        JsonNode response = objectMapper.readTree(created);
+        return response.get("id").asLong();
+    }
+
+    private AccountStatus statusOf(long id) {
+        return accountRequestRepository.findById(id).orElseThrow().getStatus();
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Condition not met within 10 seconds");
+            Thread.sleep(20);
+        }
+    }
+}
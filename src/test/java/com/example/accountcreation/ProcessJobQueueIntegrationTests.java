@@ -0,0 +1,224 @@
+package com.example.accountcreation;
+
+import com.example.accountcreation.bpmn.ProcessEngine;
+import com.example.accountcreation.dto.AccountRequestDto;
+import com.example.accountcreation.dto.AccountResponseDto;
+import com.example.accountcreation.dto.AccountStatsDto;
+import com.example.accountcreation.dto.ManualDecisionDto;
+import com.example.accountcreation.model.AccountRequest;
+import com.example.accountcreation.model.AccountStatus;
+import com.example.accountcreation.model.ProcessJob;
+import com.example.accountcreation.model.ProcessJobStatus;
+import com.example.accountcreation.notification.FileSpoolNotificationSink;
+import com.example.accountcreation.repository.AccountRequestRepository;
+import com.example.accountcreation.repository.ProcessJobRepository;
+import com.example.accountcreation.service.AccountStatusCounters;
+import com.example.accountcreation.service.ProcessJobQueue;
+import com.example.accountcreation.service.ProcessJobWorker;
+import com.example.accountcreation.service.SimplifiedAccountCreationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:process-queue-tests",
+    "accounts.process.queue.poll-interval-ms=50",
+    "accounts.process.queue.max-attempts=2",
+    "accounts.process.queue.backoff-initial-ms=10",
+    "accounts.journal.directory=target/journal-process-queue-tests/${random.uuid}",
+    "accounts.archive.directory=target/archive-process-queue-tests/${random.uuid}",
+    "accounts.analytics.directory=target/analytics-process-queue-tests/${random.uuid}",
+    "accounts.notifications.sinks.spool.enabled=true",
+    "accounts.notifications.sinks.spool.directory=target/notification-spool-process-queue-tests/${random.uuid}"
+})
+class ProcessJobQueueIntegrationTests {
+
+    @Autowired
+    private SimplifiedAccountCreationService accountCreationService;
+
+    @Autowired
+    private AccountRequestRepository accountRequestRepository;
+
+    @Autowired
+    private ProcessJobRepository processJobRepository;
+
+    @Autowired
+    private ProcessJobQueue processJobQueue;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private AccountStatusCounters statusCounters;
+
+    @Autowired
+    private ProcessEngine processEngine;
+
+    @Autowired
+    private ProcessJobWorker processJobWorker;
+
+    @Autowired
+    private FileSpoolNotificationSink spoolSink;
+
+    @Test
+    void testCreatedRequestIsDecidedThroughTheQueue() throws InterruptedException {
+        statusCounters.reconcile();
+        AccountStatsDto before = statusCounters.getStats();
+        AccountResponseDto created = accountCreationService.createAccountRequest(
+            new AccountRequestDto("John Smith", "12345", 30, "5551234567"));
+        assertEquals(AccountStatus.PENDING, created.getStatus());
+        assertNotNull(created.getProcessInstanceId());
+
+        awaitCondition(() -> accountRequestRepository.findById(created.getId()).orElseThrow().getStatus()
+            == AccountStatus.AUTO_APPROVED);
+        awaitCondition(() -> processJobRepository.count() == 0);
+        assertEquals(created.getProcessInstanceId(),
+            accountRequestRepository.findById(created.getId()).orElseThrow().getProcessInstanceId());
+
+        AccountStatsDto after = statusCounters.getStats();
+        assertEquals(before.getCounts().get(AccountStatus.PENDING), after.getCounts().get(AccountStatus.PENDING));
+        assertEquals(before.getCounts().get(AccountStatus.AUTO_APPROVED) + 1, after.getCounts().get(AccountStatus.AUTO_APPROVED));
+    }
+
+    @Test
+    void testFailingJobIsRetriedThenDeadLettered() throws InterruptedException {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> processJobQueue.enqueue(-1L));
+
+        awaitCondition(() -> !processJobRepository.findByStatus(ProcessJobStatus.DEAD).isEmpty());
+        List<ProcessJob> dead = processJobRepository.findByStatus(ProcessJobStatus.DEAD);
+        assertEquals(1, dead.size());
+        assertEquals(2, dead.get(0).getAttempts());
+        assertNull(dead.get(0).getLeaseOwner());
+        assertTrue(dead.get(0).getLastError().contains("Account request not found: -1"));
+
+        processJobRepository.deleteAll(dead);
+    }
+
+    @Test
+    void testExpiredLeaseOfDeadNodeIsReclaimed() throws InterruptedException {
+        AccountRequest request = accountRequestRepository.save(
+            new AccountRequest("Jane Doe", "90210", 30, "5551234567"));
+        ProcessJob orphan = new ProcessJob(request.getId());
+        orphan.setStatus(ProcessJobStatus.LEASED);
+        orphan.setAttempts(1);
+        orphan.setLeaseOwner("dead-node");
+        orphan.setLeaseToken("dead-token");
+        orphan.setLeaseExpiresAt(LocalDateTime.now().minusSeconds(1));
+        processJobRepository.save(orphan);
+
+        awaitCondition(() -> accountRequestRepository.findById(request.getId()).orElseThrow().getStatus()
+            == AccountStatus.AUTO_REJECTED);
+        awaitCondition(() -> !processJobRepository.existsById(orphan.getId()));
+    }
+
+    @Test
+    void testJobWhoseLeaseKeepsExpiringIsDeadLettered() {
+        // Claims are made here, and each lease left to expire, as if every worker crashed mid-job
+        processJobWorker.shutdown();
+        AccountRequest request = accountRequestRepository.save(
+            new AccountRequest("Jane Doe", "12345", 30, "5551234567"));
+        ProcessJob job = new TransactionTemplate(transactionManager)
+            .execute(status -> processJobQueue.enqueue(request.getId()));
+        try {
+            for (int attempt = 1; attempt <= 2; attempt++) {
+                List<ProcessJob> claimed = processJobQueue.claim(10);
+                assertEquals(List.of(job.getId()), claimed.stream().map(ProcessJob::getId).toList());
+                assertEquals(attempt, claimed.get(0).getAttempts());
+                ProcessJob leased = processJobRepository.findById(job.getId()).orElseThrow();
+                leased.setLeaseExpiresAt(LocalDateTime.now().minusSeconds(1));
+                processJobRepository.save(leased);
+            }
+
+            assertTrue(processJobQueue.claim(10).isEmpty());
+            ProcessJob dead = processJobRepository.findById(job.getId()).orElseThrow();
+            assertEquals(ProcessJobStatus.DEAD, dead.getStatus());
+            assertEquals(2, dead.getAttempts());
+            assertNull(dead.getLeaseToken());
+            assertTrue(dead.getLastError().startsWith("Lease expired"));
+            assertEquals(AccountStatus.PENDING, accountRequestRepository.findById(request.getId()).orElseThrow().getStatus());
+        } finally {
+            processJobRepository.deleteById(job.getId());
+            processJobWorker.start();
+        }
+    }
+
+    @Test
+    void testRedeliveredJobOfDecidedRequestStillNotifies() throws InterruptedException {
+        // As if the previous run saved the decision and then died before notifying
+        AccountRequest request = new AccountRequest("Jane Doe", "12345", 30, "5551234567");
+        request.setStatus(AccountStatus.AUTO_APPROVED);
+        AccountRequest decided = accountRequestRepository.save(request);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> processJobQueue.enqueue(decided.getId()));
+
+        awaitCondition(() -> spooled(decided.getId(), AccountStatus.AUTO_APPROVED));
+        awaitCondition(() -> processJobRepository.count() == 0);
+        assertEquals(AccountStatus.AUTO_APPROVED,
+            accountRequestRepository.findById(decided.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void testManualReviewWaitsForReviewerDecision() throws InterruptedException {
+        AccountResponseDto created = accountCreationService.createAccountRequest(
+            new AccountRequestDto("John Smith", "12345", 22, "5551234567"));
+        awaitCondition(() -> accountRequestRepository.findById(created.getId()).orElseThrow().getStatus()
+            == AccountStatus.MANUAL_REVIEW);
+        // The applicant is told about the review while the process waits for the reviewer
+        awaitCondition(() -> spooled(created.getId(), AccountStatus.MANUAL_REVIEW));
+        long rejectionsBefore = nodeCount("manual-reject");
+
+        AccountResponseDto decided = accountCreationService.completeManualReview(
+            created.getId(), ManualDecisionDto.Decision.REJECT, "Documents missing");
+        assertEquals(AccountStatus.MANUALLY_REJECTED, decided.getStatus());
+        assertEquals("Documents missing", decided.getRejectionReason());
+        assertEquals(AccountStatus.MANUALLY_REJECTED,
+            accountRequestRepository.findById(created.getId()).orElseThrow().getStatus());
+        assertEquals(rejectionsBefore + 1, nodeCount("manual-reject"));
+
+        assertThrows(IllegalArgumentException.class,
+            () -> accountCreationService.completeManualReview(created.getId(), ManualDecisionDto.Decision.APPROVE, null));
+    }
+
+    private boolean spooled(Long requestId, AccountStatus status) {
+        Path directory = (Path) ReflectionTestUtils.getField(spoolSink, "spoolDirectory");
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                for (String line : Files.readAllLines(file)) {
+                    if (line.contains("\"requestId\":" + requestId + ",")
+                            && line.contains("\"status\":\"" + status + "\"")) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private long nodeCount(String nodeId) {
+        return processEngine.getNodeStats().stream()
+            .filter(stats -> stats.getId().equals(nodeId))
+            .findFirst().orElseThrow().getCount();
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Condition not met within 10 seconds");
+            Thread.sleep(20);
+        }
+    }
+}